@@ -0,0 +1,170 @@
+package org.netbeans.gradle.benchmarks;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.GradleTaskID;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.java.JavaCompatibilityModel;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceGroupName;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.java.JavaTestModel;
+import org.netbeans.gradle.model.java.JavaTestTask;
+import org.netbeans.gradle.model.java.SourceIncludePatterns;
+import org.netbeans.gradle.project.java.model.NbCodeCoverage;
+import org.netbeans.gradle.project.java.model.NbJarOutput;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.netbeans.gradle.project.java.model.NbListedDir;
+import org.netbeans.gradle.project.model.NbGenericModelInfo;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.model.NbGradleMultiProjectDef;
+import org.netbeans.gradle.project.script.CommonScripts;
+import org.netbeans.gradle.project.script.DefaultScriptFileProvider;
+
+/**
+ * Creates synthetic (but realistically shaped) models for the benchmarks.
+ * None of the files referenced by the created models need to exist.
+ */
+public final class BenchmarkFixtures {
+    private static final String[] SOURCE_SET_NAMES = {"main", "test", "integTest"};
+    private static final String[] TASK_VERBS = {"compile", "process", "run", "test", "check", "publish", "generate"};
+    private static final String[] TASK_OBJECTS = {"Java", "TestJava", "Resources", "IntegTest", "Docs", "MavenJava", "SourcesJar"};
+
+    public static File getBuildRoot() {
+        return new File(System.getProperty("java.io.tmpdir"), "nb-gradle-benchmark-build");
+    }
+
+    public static File getProjectDir(int projectIndex) {
+        return new File(new File(getBuildRoot(), "subprojects"), "project" + projectIndex);
+    }
+
+    public static File getGradleCacheDir() {
+        return new File(new File(getBuildRoot(), "gradle-home"), "caches");
+    }
+
+    /**
+     * Returns the jar files used as external dependencies. The projects
+     * share most of their dependencies as in real multi-project builds.
+     */
+    public static List<File> getExternalJars(int jarCount) {
+        List<File> result = new ArrayList<>(jarCount);
+        File cacheDir = getGradleCacheDir();
+        for (int i = 0; i < jarCount; i++) {
+            File artifactDir = new File(new File(cacheDir, "org.example.group" + (i % 37)), "artifact" + i);
+            result.add(new File(artifactDir, "artifact" + i + "-1." + (i % 10) + ".jar"));
+        }
+        return result;
+    }
+
+    private static JavaSourceSet createSourceSet(
+            File projectDir,
+            String name,
+            Collection<File> classpath) {
+
+        File buildDir = new File(projectDir, "build");
+        File classesDir = new File(new File(buildDir, "classes"), name);
+        File resourcesDir = new File(new File(buildDir, "resources"), name);
+
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(name, new JavaOutputDirs(
+                Collections.singleton(classesDir),
+                resourcesDir,
+                Collections.<File>emptyList()));
+
+        File srcDir = new File(projectDir, "src");
+        File nameDir = new File(srcDir, name);
+
+        SourceIncludePatterns patterns = SourceIncludePatterns.create(
+                Arrays.asList("**/*.bak", "**/generated/**"),
+                Collections.<String>emptySet());
+
+        result.addSourceGroup(new JavaSourceGroup(
+                JavaSourceGroupName.JAVA,
+                Collections.singleton(new File(nameDir, "java")),
+                patterns));
+        result.addSourceGroup(new JavaSourceGroup(
+                JavaSourceGroupName.RESOURCES,
+                Collections.singleton(new File(nameDir, "resources"))));
+
+        result.setClasspaths(new JavaClassPaths(classpath));
+        return result.create();
+    }
+
+    public static NbJavaModule createJavaModule(int projectIndex, int dependencyCount) {
+        File projectDir = getProjectDir(projectIndex);
+        String projectName = "project" + projectIndex;
+
+        GenericProjectProperties properties = new GenericProjectProperties(
+                projectName,
+                ":subprojects:" + projectName,
+                projectDir,
+                new File(projectDir, CommonScripts.BUILD_BASE_NAME + CommonScripts.DEFAULT_SCRIPT_EXTENSION));
+
+        List<File> externalJars = getExternalJars(dependencyCount);
+
+        List<JavaSourceSet> sources = new ArrayList<>(SOURCE_SET_NAMES.length);
+        List<NbJarOutput> jarOutputs = new ArrayList<>(SOURCE_SET_NAMES.length);
+        Set<File> classpath = new LinkedHashSet<>();
+        for (String sourceSetName: SOURCE_SET_NAMES) {
+            classpath.addAll(externalJars.subList(0, Math.min(externalJars.size(), classpath.size() + dependencyCount / 2)));
+
+            JavaSourceSet sourceSet = createSourceSet(projectDir, sourceSetName, classpath);
+            sources.add(sourceSet);
+
+            File jar = new File(new File(new File(projectDir, "build"), "libs"), projectName + "-" + sourceSetName + ".jar");
+            jarOutputs.add(new NbJarOutput(sourceSetName + "Jar", jar, sourceSet.getOutputDirs().getClassesDirs()));
+        }
+
+        return new NbJavaModule(
+                properties,
+                new JavaCompatibilityModel("1.7", "1.7"),
+                sources,
+                Collections.<NbListedDir>emptyList(),
+                jarOutputs,
+                new JavaTestModel(Collections.<JavaTestTask>emptyList()),
+                NbCodeCoverage.NO_CODE_COVERAGE);
+    }
+
+    public static NbGradleModel createGradleModel(int projectIndex, String extensionName, Object extensionModel) {
+        Path projectDir = getProjectDir(projectIndex).toPath();
+        NbGradleMultiProjectDef projectDef = NbGradleMultiProjectDef.createEmpty(
+                projectDir,
+                new DefaultScriptFileProvider());
+
+        NbGradleModel.Builder result = new NbGradleModel.Builder(new NbGenericModelInfo(projectDef, null));
+        if (extensionName != null) {
+            result.setModelForExtension(extensionName, extensionModel);
+        }
+        return result.create();
+    }
+
+    /**
+     * Returns the tasks of a multi-project build having the given number of
+     * projects, as seen from the root project.
+     */
+    public static List<GradleTaskID> createTaskIDs(int projectCount) {
+        List<GradleTaskID> result = new ArrayList<>(projectCount * TASK_VERBS.length * TASK_OBJECTS.length);
+        for (int projectIndex = 0; projectIndex < projectCount; projectIndex++) {
+            String projectPath = ":subprojects:project" + projectIndex;
+            for (String verb: TASK_VERBS) {
+                for (String object: TASK_OBJECTS) {
+                    String name = verb + object + (projectIndex % 7 == 0 ? "_" + projectIndex : "");
+                    result.add(new GradleTaskID(name, projectPath + ":" + name));
+                }
+            }
+        }
+        return result;
+    }
+
+    private BenchmarkFixtures() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,73 @@
+package org.netbeans.gradle.project.api.config;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures building a config tree of the size of a large profile
+ * (many built-in tasks with their arguments and JVM arguments).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfigTreeBenchmark {
+    @Param({"20", "200"})
+    public int taskCount;
+
+    private ConfigTree tree;
+    private ConfigPath[] lookupPaths;
+
+    @Setup
+    public void setup() {
+        tree = buildTree();
+
+        lookupPaths = new ConfigPath[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            lookupPaths[i] = ConfigPath.fromKeys("built-in-tasks", "task" + i, "arguments");
+        }
+    }
+
+    private ConfigTree buildTree() {
+        ConfigTree.Builder builder = new ConfigTree.Builder();
+        builder.getDeepChildBuilder("source-encoding").setValue("UTF-8");
+        builder.getDeepChildBuilder("target-platform-name").setValue("j2se");
+        builder.getDeepChildBuilder("target-platform").setValue("1.8");
+
+        ConfigTree.Builder tasksBuilder = builder.getChildBuilder("built-in-tasks");
+        for (int i = 0; i < taskCount; i++) {
+            ConfigTree.Builder taskBuilder = tasksBuilder.getChildBuilder("task" + i);
+            taskBuilder.getChildBuilder("display-name").setValue("Task " + i);
+            taskBuilder.getChildBuilder("non-blocking").setValue("yes");
+
+            ConfigTree.Builder argsBuilder = taskBuilder.getChildBuilder("arguments");
+            for (int argIndex = 0; argIndex < 5; argIndex++) {
+                argsBuilder.addChildBuilder("arg").setValue("-Pprop" + argIndex + "=value" + i);
+            }
+
+            ConfigTree.Builder jvmArgsBuilder = taskBuilder.getChildBuilder("jvm-args");
+            jvmArgsBuilder.addChildBuilder("arg").setValue("-Xmx1g");
+        }
+        return builder.create();
+    }
+
+    @Benchmark
+    public ConfigTree createTree() {
+        return buildTree();
+    }
+
+    @Benchmark
+    public int lookupDeepChildren() {
+        int result = 0;
+        for (ConfigPath path: lookupPaths) {
+            result += tree.getDeepChildTree(path).getChildTrees().size();
+        }
+        return result;
+    }
+}
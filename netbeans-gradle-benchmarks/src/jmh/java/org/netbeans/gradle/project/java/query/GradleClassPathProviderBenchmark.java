@@ -0,0 +1,57 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.benchmarks.BenchmarkFixtures;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the model lookup done by {@code GradleClassPathProvider.findClassPath}
+ * for each file: Finding the source set owning the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GradleClassPathProviderBenchmark {
+    @Param({"50", "500"})
+    public int dependencyCount;
+
+    private NbJavaModule module;
+    private List<File> queriedFiles;
+
+    @Setup
+    public void setup() {
+        module = BenchmarkFixtures.createJavaModule(0, dependencyCount);
+
+        queriedFiles = new ArrayList<>();
+        for (JavaSourceSet sourceSet: module.getSources()) {
+            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
+                for (File root: sourceGroup.getSourceRoots()) {
+                    queriedFiles.add(new File(root, "org/example/MyClass.java"));
+                }
+            }
+        }
+        // Files not owned by any source set are the worst case.
+        queriedFiles.add(new File(BenchmarkFixtures.getProjectDir(0), "notes/readme.txt"));
+    }
+
+    @Benchmark
+    public void findAssociatedSourceSet(Blackhole blackhole) {
+        for (File file: queriedFiles) {
+            blackhole.consume(GradleClassPathProvider.findAssociatedSourceSet(module, file));
+        }
+    }
+}
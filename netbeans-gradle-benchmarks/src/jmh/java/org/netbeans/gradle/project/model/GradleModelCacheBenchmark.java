@@ -0,0 +1,60 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.benchmarks.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the contention on {@code GradleModelCache} when projects are
+ * being looked up while models of other projects are being introduced.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GradleModelCacheBenchmark {
+    @Param({"500"})
+    public int projectCount;
+
+    private GradleModelCache cache;
+    private NbGradleModel[] models;
+    private File[] projectDirs;
+
+    @Setup
+    public void setup() {
+        cache = new GradleModelCache(projectCount);
+        models = new NbGradleModel[projectCount];
+        projectDirs = new File[projectCount];
+        for (int i = 0; i < projectCount; i++) {
+            models[i] = BenchmarkFixtures.createGradleModel(i, null, null);
+            projectDirs[i] = models[i].getProjectDir();
+            cache.replaceEntry(models[i]);
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public NbGradleModel lookup() {
+        int index = ThreadLocalRandom.current().nextInt(projectCount);
+        return cache.tryGet(projectDirs[index], null);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public NbGradleModel update() {
+        int index = ThreadLocalRandom.current().nextInt(projectCount);
+        return cache.updateEntry(models[index]);
+    }
+}
@@ -0,0 +1,87 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.benchmarks.BenchmarkFixtures;
+import org.netbeans.gradle.model.util.SerializationCache;
+import org.netbeans.gradle.model.util.SerializationUtils;
+import org.netbeans.gradle.model.util.SharedTypesSerializationCache;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures writing and reading the persistent model cache entries of a
+ * multi-project build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializationBenchmark {
+    private static final String EXTENSION_NAME = "org.netbeans.gradle.project.java.JavaExtension";
+
+    @Param({"300"})
+    public int projectCount;
+
+    @Param({"100"})
+    public int dependencyCount;
+
+    private List<NbGradleModel> models;
+    private List<byte[]> serializedModels;
+
+    @Setup
+    public void setup() {
+        models = new ArrayList<>(projectCount);
+        serializedModels = new ArrayList<>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            NbJavaModule module = BenchmarkFixtures.createJavaModule(i, dependencyCount);
+            NbGradleModel model = BenchmarkFixtures.createGradleModel(i, EXTENSION_NAME, module);
+            models.add(model);
+            serializedModels.add(SerializationUtils.serializeObject(SerializedNbGradleModels.createSerialized(model)));
+        }
+    }
+
+    @Benchmark
+    public void serializeModels(Blackhole blackhole) {
+        for (NbGradleModel model: models) {
+            blackhole.consume(SerializationUtils.serializeObject(SerializedNbGradleModels.createSerialized(model)));
+        }
+    }
+
+    private void deserializeModels(SerializationCache cache, Blackhole blackhole) throws Exception {
+        for (byte[] serializedModel: serializedModels) {
+            SerializedNbGradleModels deserialized
+                    = (SerializedNbGradleModels)SerializationUtils.deserializeObject(serializedModel, cache);
+            blackhole.consume(deserialized);
+        }
+    }
+
+    @Benchmark
+    public void deserializeModelsWithoutCache(Blackhole blackhole) throws Exception {
+        deserializeModels(SerializationCache.NO_CACHE, blackhole);
+    }
+
+    @Benchmark
+    public void deserializeModelsWithInterning(Blackhole blackhole) throws Exception {
+        deserializeModels(ModelInterner.getDefault().getSerializationCache(), blackhole);
+    }
+
+    @Benchmark
+    public void roundTripExtensionModels(Blackhole blackhole) throws Exception {
+        SerializationCache cache = new SharedTypesSerializationCache(File.class, String.class);
+        for (NbGradleModel model: models) {
+            Object extensionModel = model.getModelOfExtension(EXTENSION_NAME);
+            byte[] serialized = SerializationUtils.serializeObject(extensionModel);
+            blackhole.consume(SerializationUtils.deserializeObject(serialized, cache));
+        }
+    }
+}
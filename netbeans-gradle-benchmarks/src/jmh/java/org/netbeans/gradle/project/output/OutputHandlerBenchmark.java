@@ -0,0 +1,109 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.project.api.task.TaskOutputProcessor;
+import org.openide.windows.InputOutput;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the line throughput of the task output processing chain
+ * (the same chain as configured for the standard error in {@code AsyncGradleTask}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OutputHandlerBenchmark {
+    private static final int LINE_COUNT = 1000;
+
+    private char[] output;
+    private Writer writer;
+
+    @Setup
+    public void setup() {
+        StringBuilder outputBuilder = new StringBuilder(LINE_COUNT * 80);
+        for (int i = 0; i < LINE_COUNT; i++) {
+            switch (i % 10) {
+                case 0:
+                    outputBuilder.append("/home/user/project/src/main/java/org/example/Class")
+                            .append(i)
+                            .append(".java:12: error: cannot find symbol");
+                    break;
+                case 1:
+                    outputBuilder.append("\tat org.example.Class").append(i).append(".method(Class.java:42)");
+                    break;
+                case 2:
+                    outputBuilder.append("See the report at: http://localhost/reports/").append(i).append("/index.html");
+                    break;
+                default:
+                    outputBuilder.append(":subprojects:project").append(i).append(":compileJava UP-TO-DATE");
+                    break;
+            }
+            outputBuilder.append('\n');
+        }
+        output = outputBuilder.toString().toCharArray();
+
+        TaskOutputProcessor visitor = new TaskOutputProcessor() {
+            @Override
+            public void processLine(String line) {
+            }
+        };
+
+        SmartOutputHandler handler = new SmartOutputHandler(
+                InputOutput.NULL,
+                new NullOutputWriter(),
+                Collections.singletonList(visitor),
+                Arrays.<SmartOutputHandler.Consumer>asList(
+                        new BuildErrorConsumer(),
+                        new OutputLinkPrinter(
+                                new OutputUrlConsumer(),
+                                new FileLineConsumer(),
+                                new RegexpFileLineConsumer())));
+        writer = new LineOutputWriter(handler);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINE_COUNT)
+    public void writeLines() throws IOException {
+        writer.write(output, 0, output.length);
+    }
+
+    private static final class NullOutputWriter extends OutputWriter {
+        public NullOutputWriter() {
+            super(new Writer() {
+                @Override
+                public void write(char[] cbuf, int off, int len) {
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        }
+
+        @Override
+        public void println(String s, OutputListener l) throws IOException {
+            println(s);
+        }
+
+        @Override
+        public void reset() throws IOException {
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.netbeans.gradle.project.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.benchmarks.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExcludeIncludeBenchmark {
+    @Param({"0", "2", "8"})
+    public int patternCount;
+
+    private Path rootPath;
+    private List<Path> files;
+    private Collection<String> excludePatterns;
+    private Collection<String> includePatterns;
+
+    @Setup
+    public void setup() {
+        rootPath = BenchmarkFixtures.getProjectDir(0).toPath().resolve("src/main/java");
+
+        files = new ArrayList<>();
+        for (int packageIndex = 0; packageIndex < 50; packageIndex++) {
+            Path packageDir = rootPath.resolve("org/example/pckg" + packageIndex);
+            for (int fileIndex = 0; fileIndex < 20; fileIndex++) {
+                files.add(packageDir.resolve("Class" + fileIndex + (fileIndex % 5 == 0 ? ".bak" : ".java")));
+            }
+        }
+
+        List<String> patterns = new ArrayList<>(Arrays.asList(
+                "**/*.bak", "**/generated/**", "org/example/pckg1?/**", "**/Class3.java",
+                "**/internal/**", "**/*Test*.java", "org/*/pckg4/*.java", "**/package-info.java"));
+        excludePatterns = patterns.subList(0, patternCount);
+        includePatterns = patternCount > 0
+                ? Collections.singleton("**/*.java")
+                : Collections.<String>emptySet();
+    }
+
+    @Benchmark
+    public void includeFile(Blackhole blackhole) {
+        for (Path file: files) {
+            blackhole.consume(ExcludeInclude.includeFile(file, rootPath, excludePatterns, includePatterns));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.netbeans.gradle.project.view;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.netbeans.gradle.benchmarks.BenchmarkFixtures;
+import org.netbeans.gradle.model.GradleTaskID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GradleTaskTreeBenchmark {
+    @Param({"10", "300"})
+    public int projectCount;
+
+    private List<GradleTaskID> tasks;
+
+    @Setup
+    public void setup() {
+        tasks = BenchmarkFixtures.createTaskIDs(projectCount);
+    }
+
+    @Benchmark
+    public List<GradleTaskTree> createTaskTree() {
+        return GradleTaskTree.createTaskTree(tasks);
+    }
+}
@@ -1,9 +1,14 @@
 package org.netbeans.gradle.model;
 
+import java.io.File;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.netbeans.gradle.model.internal.CustomSerializedMap;
 import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.model.util.TransferableExceptionWrapper;
 
 final class ActionFetchedModels implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -11,17 +16,42 @@ final class ActionFetchedModels implements Serializable {
     private final CustomSerializedMap buildModels;
     private final ActionFetchedProjectModels defaultProjectModels;
     private final Collection<ActionFetchedProjectModels> otherProjectModels;
+    private final Collection<ActionFetchedModels> includedBuildModels;
+    private final Map<File, Throwable> includedBuildIssues;
 
     public ActionFetchedModels(
             CustomSerializedMap buildModels,
             ActionFetchedProjectModels defaultProjectModels,
             Collection<ActionFetchedProjectModels> otherProjectModels) {
+        this(buildModels,
+                defaultProjectModels,
+                otherProjectModels,
+                Collections.<ActionFetchedModels>emptyList(),
+                Collections.<File, Throwable>emptyMap());
+    }
+
+    public ActionFetchedModels(
+            CustomSerializedMap buildModels,
+            ActionFetchedProjectModels defaultProjectModels,
+            Collection<ActionFetchedProjectModels> otherProjectModels,
+            Collection<ActionFetchedModels> includedBuildModels,
+            Map<File, Throwable> includedBuildIssues) {
         if (buildModels == null) throw new NullPointerException("buildModels");
         if (defaultProjectModels == null) throw new NullPointerException("defaultProjectModels");
 
         this.buildModels = buildModels;
         this.defaultProjectModels = defaultProjectModels;
         this.otherProjectModels = CollectionUtils.copyNullSafeList(otherProjectModels);
+        this.includedBuildModels = CollectionUtils.copyNullSafeList(includedBuildModels);
+        this.includedBuildIssues = wrapIssues(includedBuildIssues);
+    }
+
+    private static Map<File, Throwable> wrapIssues(Map<File, Throwable> issues) {
+        Map<File, Throwable> result = new LinkedHashMap<File, Throwable>();
+        for (Map.Entry<File, Throwable> entry: issues.entrySet()) {
+            result.put(entry.getKey(), TransferableExceptionWrapper.wrap(entry.getValue()));
+        }
+        return result;
     }
 
     public CustomSerializedMap getBuildModels() {
@@ -35,4 +65,12 @@ final class ActionFetchedModels implements Serializable {
     public Collection<ActionFetchedProjectModels> getOtherProjectModels() {
         return otherProjectModels;
     }
+
+    public Collection<ActionFetchedModels> getIncludedBuildModels() {
+        return includedBuildModels;
+    }
+
+    public Map<File, Throwable> getIncludedBuildIssues() {
+        return includedBuildIssues;
+    }
 }
@@ -12,19 +12,23 @@ final class ActionFetchedProjectModels implements Serializable {
     private final GradleMultiProjectDef projectDef;
     private final CustomSerializedMap projectInfoResults;
     private final Map<Class<?>, Object> toolingModels;
+    private final ProjectFetchStatistics statistics;
     private final Throwable issue;
 
     public ActionFetchedProjectModels(
             GradleMultiProjectDef projectDef,
             CustomSerializedMap projectInfoResults,
             Map<Class<?>, Object> toolingModels,
+            ProjectFetchStatistics statistics,
             Throwable issue) {
         if (projectDef == null) throw new NullPointerException("projectDef");
         if (projectInfoResults == null) throw new NullPointerException("projectInfoResults");
+        if (statistics == null) throw new NullPointerException("statistics");
 
         this.projectDef = projectDef;
         this.projectInfoResults = projectInfoResults;
         this.toolingModels = CollectionUtils.copyNullSafeHashMap(toolingModels);
+        this.statistics = statistics;
         this.issue = TransferableExceptionWrapper.wrap(issue);
     }
 
@@ -43,4 +47,8 @@ final class ActionFetchedProjectModels implements Serializable {
     public Map<Class<?>, Object> getToolingModels() {
         return toolingModels;
     }
+
+    public ProjectFetchStatistics getStatistics() {
+        return statistics;
+    }
 }
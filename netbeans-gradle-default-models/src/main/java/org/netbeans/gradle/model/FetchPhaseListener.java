@@ -0,0 +1,25 @@
+package org.netbeans.gradle.model;
+
+/**
+ * Defines a listener to be notified after a phase of fetching models from
+ * the Gradle daemon completes.
+ */
+public interface FetchPhaseListener {
+    public static final String PHASE_PREPARE_INIT_SCRIPT = "prepare-init-script";
+    public static final String PHASE_BUILD_ACTION = "build-action";
+    public static final String PHASE_DESERIALIZE_RESULTS = "deserialize-results";
+
+    /**
+     * Called after a phase of fetching the models completes (regardless if
+     * it completed successfully or not).
+     *
+     * @param phaseName the name of the completed phase. This argument cannot
+     *   be {@code null}.
+     * @param startTimeNanos the value of {@code System.nanoTime()} when
+     *   the phase started
+     * @param durationNanos the time the phase took in nanoseconds
+     * @param byteCount the number of bytes processed by the phase or -1 if
+     *   it is not known
+     */
+    public void onPhaseCompleted(String phaseName, long startTimeNanos, long durationNanos, long byteCount);
+}
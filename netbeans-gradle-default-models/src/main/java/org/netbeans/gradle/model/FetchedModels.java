@@ -1,5 +1,6 @@
 package org.netbeans.gradle.model;
 
+import java.io.File;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -14,19 +15,37 @@ public final class FetchedModels implements Serializable {
     private final FetchedBuildModels buildModels;
     private final FetchedProjectModels defaultProjectModels;
     private final Collection<FetchedProjectModels> otherProjectModels;
+    private final Collection<FetchedModels> includedBuildModels;
+    private final Map<File, Throwable> includedBuildIssues;
 
     public FetchedModels(
             FetchedBuildModels buildModels,
             FetchedProjectModels defaultProjectModels,
             Collection<FetchedProjectModels> otherProjectModels) {
+        this(buildModels,
+                defaultProjectModels,
+                otherProjectModels,
+                Collections.<FetchedModels>emptyList(),
+                Collections.<File, Throwable>emptyMap());
+    }
+
+    public FetchedModels(
+            FetchedBuildModels buildModels,
+            FetchedProjectModels defaultProjectModels,
+            Collection<FetchedProjectModels> otherProjectModels,
+            Collection<FetchedModels> includedBuildModels,
+            Map<File, Throwable> includedBuildIssues) {
         if (buildModels == null) throw new NullPointerException("buildModels");
         if (defaultProjectModels == null) throw new NullPointerException("defaultProjectModels");
 
         this.buildModels = buildModels;
         this.defaultProjectModels = defaultProjectModels;
         this.otherProjectModels = Collections.unmodifiableList(new ArrayList<FetchedProjectModels>(otherProjectModels));
+        this.includedBuildModels = Collections.unmodifiableList(new ArrayList<FetchedModels>(includedBuildModels));
+        this.includedBuildIssues = CollectionUtils.copyNullSafeHashMap(includedBuildIssues);
 
         CollectionUtils.checkNoNullElements(this.otherProjectModels, "otherProjectModels");
+        CollectionUtils.checkNoNullElements(this.includedBuildModels, "includedBuildModels");
     }
 
     public FetchedBuildModels getBuildModels() {
@@ -44,4 +63,34 @@ public final class FetchedModels implements Serializable {
     public Collection<FetchedProjectModels> getOtherProjectModels() {
         return otherProjectModels;
     }
+
+    /**
+     * Returns the models of the builds included by this build (in a composite
+     * build). The default project of an included build is its root project.
+     * <P>
+     * The models of included builds are only fetched if requested from
+     * {@link GenericModelFetcher}.
+     *
+     * @return the models of the builds included by this build. This method
+     *   never returns {@code null}.
+     */
+    public Collection<FetchedModels> getIncludedBuildModels() {
+        return includedBuildModels != null
+                ? includedBuildModels
+                : Collections.<FetchedModels>emptyList();
+    }
+
+    /**
+     * Returns the errors preventing the models of requested included builds
+     * to be fetched, keyed by the root project directory of the included
+     * build.
+     *
+     * @return the errors preventing the models of requested included builds
+     *   to be fetched. This method never returns {@code null}.
+     */
+    public Map<File, Throwable> getIncludedBuildIssues() {
+        return includedBuildIssues != null
+                ? includedBuildIssues
+                : Collections.<File, Throwable>emptyMap();
+    }
 }
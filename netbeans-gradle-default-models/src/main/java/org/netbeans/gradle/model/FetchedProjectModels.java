@@ -12,6 +12,7 @@ public final class FetchedProjectModels implements Serializable {
     private final GradleMultiProjectDef projectDef;
     private final Map<Object, List<BuilderResult>> projectInfoResults;
     private final Map<Class<?>, Object> toolingModels;
+    private final ProjectFetchStatistics statistics;
     private final Throwable issue;
 
     public FetchedProjectModels(
@@ -19,13 +20,24 @@ public final class FetchedProjectModels implements Serializable {
             Map<Object, List<?>> projectInfoResults,
             Map<Class<?>, Object> toolingModels,
             Throwable issue) {
+        this(projectDef, projectInfoResults, toolingModels, ProjectFetchStatistics.EMPTY, issue);
+    }
+
+    public FetchedProjectModels(
+            GradleMultiProjectDef projectDef,
+            Map<Object, List<?>> projectInfoResults,
+            Map<Class<?>, Object> toolingModels,
+            ProjectFetchStatistics statistics,
+            Throwable issue) {
         if (projectDef == null) throw new NullPointerException("projectDef");
+        if (statistics == null) throw new NullPointerException("statistics");
 
         this.projectDef = projectDef;
         this.projectInfoResults = CollectionUtils.copyNullSafeMultiHashMapReified(
                 BuilderResult.class, projectInfoResults);
 
         this.toolingModels = CollectionUtils.copyNullSafeHashMap(toolingModels);
+        this.statistics = statistics;
         this.issue = TransferableExceptionWrapper.wrap(issue);
     }
 
@@ -44,4 +56,8 @@ public final class FetchedProjectModels implements Serializable {
     public Map<Class<?>, Object> getToolingModels() {
         return toolingModels;
     }
+
+    public ProjectFetchStatistics getStatistics() {
+        return statistics;
+    }
 }
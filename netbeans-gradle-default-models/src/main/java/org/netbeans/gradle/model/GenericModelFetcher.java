@@ -12,6 +12,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -21,6 +23,7 @@ import org.gradle.tooling.BuildActionExecuter;
 import org.gradle.tooling.BuildController;
 import org.gradle.tooling.ProjectConnection;
 import org.gradle.tooling.model.DomainObjectSet;
+import org.gradle.tooling.model.UnsupportedMethodException;
 import org.gradle.tooling.model.gradle.BasicGradleProject;
 import org.gradle.tooling.model.gradle.GradleBuild;
 import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
@@ -59,16 +62,83 @@ public final class GenericModelFetcher {
     // TODO: These classes must be key based as well.
     private final Set<Class<?>> modelClasses;
 
+    private final Set<File> includedBuildRoots;
+    private final SerializationCache resultSerializationCache;
+
     public GenericModelFetcher(
             Map<Object, List<GradleBuildInfoQuery<?>>> buildInfoRequests,
             Map<Object, List<GradleProjectInfoQuery2<?>>> projectInfoRequests,
             Collection<Class<?>> modelClasses) {
+        this(buildInfoRequests, projectInfoRequests, modelClasses, Collections.<File>emptySet());
+    }
+
+    /**
+     * Creates a new fetcher which might also fetch the project models of some
+     * of the builds included by the fetched build.
+     * <P>
+     * The build info builders are only applied to the build of the project
+     * directory, but the project info builders and tooling models are
+     * requested for the projects of the requested included builds as well.
+     * Included builds whose models could not be fetched are omitted from the
+     * fetched models, and their errors are reported by
+     * {@link FetchedModels#getIncludedBuildIssues()}. Fetching included builds
+     * requires Gradle 3.3 or later, with older versions of Gradle no included
+     * builds are reported.
+     *
+     * @param buildInfoRequests the build info builders keyed by arbitrary
+     *   objects. This argument cannot be {@code null}.
+     * @param projectInfoRequests the project info builders keyed by arbitrary
+     *   objects. This argument cannot be {@code null}.
+     * @param modelClasses the tooling models to be fetched for each project.
+     *   This argument cannot be {@code null}.
+     * @param includedBuildRoots the root project directories of the included
+     *   builds whose models are to be fetched as well. Included builds not
+     *   specified here are not evaluated. This argument cannot be
+     *   {@code null} but can be empty.
+     */
+    public GenericModelFetcher(
+            Map<Object, List<GradleBuildInfoQuery<?>>> buildInfoRequests,
+            Map<Object, List<GradleProjectInfoQuery2<?>>> projectInfoRequests,
+            Collection<Class<?>> modelClasses,
+            Collection<File> includedBuildRoots) {
+        this(buildInfoRequests, projectInfoRequests, modelClasses, includedBuildRoots, SerializationCaches.getDefault());
+    }
+
+    /**
+     * Creates a new fetcher which deserializes the results of the info
+     * builders using the given {@code SerializationCache}. This allows the
+     * caller to share the value objects of the results (e.g., with the
+     * results of previous loads) without walking the results again.
+     *
+     * @param buildInfoRequests the build info builders keyed by arbitrary
+     *   objects. This argument cannot be {@code null}.
+     * @param projectInfoRequests the project info builders keyed by arbitrary
+     *   objects. This argument cannot be {@code null}.
+     * @param modelClasses the tooling models to be fetched for each project.
+     *   This argument cannot be {@code null}.
+     * @param includedBuildRoots the root project directories of the included
+     *   builds whose models are to be fetched as well. This argument cannot
+     *   be {@code null} but can be empty.
+     * @param resultSerializationCache the {@code SerializationCache} used to
+     *   deserialize the results of the info builders. This argument cannot be
+     *   {@code null}.
+     */
+    public GenericModelFetcher(
+            Map<Object, List<GradleBuildInfoQuery<?>>> buildInfoRequests,
+            Map<Object, List<GradleProjectInfoQuery2<?>>> projectInfoRequests,
+            Collection<Class<?>> modelClasses,
+            Collection<File> includedBuildRoots,
+            SerializationCache resultSerializationCache) {
+        if (resultSerializationCache == null) throw new NullPointerException("resultSerializationCache");
 
         this.buildInfoBuilders = GradleInfoQueryMap.fromBuildInfos(buildInfoRequests);
         this.projectInfoBuilders = GradleInfoQueryMap.fromProjectInfos(projectInfoRequests);
         this.modelClasses = Collections.unmodifiableSet(new HashSet<Class<?>>(modelClasses));
+        this.includedBuildRoots = Collections.unmodifiableSet(new HashSet<File>(includedBuildRoots));
+        this.resultSerializationCache = resultSerializationCache;
 
         CollectionUtils.checkNoNullElements(this.modelClasses, "modelClasses");
+        CollectionUtils.checkNoNullElements(this.includedBuildRoots, "includedBuildRoots");
     }
 
     public static void setDefaultPrefixes() {
@@ -98,10 +168,16 @@ public final class GenericModelFetcher {
         Map<Class<?>, Object> toolingModels = actionModels.getToolingModels();
         Map<Object, List<?>> projectInfoResults = projectInfoBuilders.deserializeResults(
                 actionModels.getProjectInfoResults(),
+                resultSerializationCache,
                 GradleInfoQueryMap.builderIssueTransformer());
         Throwable issue = actionModels.getIssue();
 
-        return new FetchedProjectModels(projectDef, projectInfoResults, toolingModels, issue);
+        return new FetchedProjectModels(
+                projectDef,
+                projectInfoResults,
+                toolingModels,
+                actionModels.getStatistics(),
+                issue);
     }
 
     private Collection<FetchedProjectModels> transformActionModels(Collection<ActionFetchedProjectModels> actionModels) {
@@ -119,18 +195,41 @@ public final class GenericModelFetcher {
 
         Map<Object, List<?>> buildModels = buildInfoBuilders.deserializeResults(
                 actionModels.getBuildModels(),
+                resultSerializationCache,
                 GradleInfoQueryMap.builderIssueTransformer());
         FetchedProjectModels defaultProjectModels
                 = transformActionModels(actionModels.getDefaultProjectModels());
         Collection<FetchedProjectModels> otherProjectModels
                 = transformActionModels(actionModels.getOtherProjectModels());
 
-        return new FetchedModels(new FetchedBuildModels(buildModels), defaultProjectModels, otherProjectModels);
+        Collection<ActionFetchedModels> includedActionModels = actionModels.getIncludedBuildModels();
+        List<FetchedModels> includedBuildModels = new ArrayList<FetchedModels>(includedActionModels.size());
+        for (ActionFetchedModels includedModels: includedActionModels) {
+            includedBuildModels.add(transformActionModels(includedModels));
+        }
+
+        return new FetchedModels(
+                new FetchedBuildModels(buildModels),
+                defaultProjectModels,
+                otherProjectModels,
+                includedBuildModels,
+                actionModels.getIncludedBuildIssues());
     }
 
     public FetchedModelsOrError getModels(ProjectConnection connection, OperationInitializer init) throws IOException {
+        return getModels(connection, init, NoOpFetchPhaseListener.INSTANCE);
+    }
+
+    public FetchedModelsOrError getModels(
+            ProjectConnection connection,
+            OperationInitializer init,
+            FetchPhaseListener phaseListener) throws IOException {
+        if (phaseListener == null) throw new NullPointerException("phaseListener");
+
+        long prepareStartTime = System.nanoTime();
+
         BuildActionExecuter<ActionFetchedModelsOrError> executer = connection.action(
-                new ModelFetcherBuildAction(buildInfoBuilders, modelClasses));
+                new ModelFetcherBuildAction(buildInfoBuilders, modelClasses, includedBuildRoots));
 
         BuildOperationArgs buildOPArgs = new BuildOperationArgs();
         init.initOperation(buildOPArgs);
@@ -165,7 +264,27 @@ public final class GenericModelFetcher {
 
                 executer.withArguments(executerArgs);
 
-                return transformActionModels(executer.run());
+                long prepareByteCount = modelInputFile.getFile().length() + initScriptRef.getFile().length();
+                long runStartTime = System.nanoTime();
+                phaseListener.onPhaseCompleted(FetchPhaseListener.PHASE_PREPARE_INIT_SCRIPT,
+                        prepareStartTime, runStartTime - prepareStartTime, prepareByteCount);
+
+                ActionFetchedModelsOrError actionModels;
+                try {
+                    actionModels = executer.run();
+                } finally {
+                    long runEndTime = System.nanoTime();
+                    phaseListener.onPhaseCompleted(FetchPhaseListener.PHASE_BUILD_ACTION,
+                            runStartTime, runEndTime - runStartTime, -1);
+                }
+
+                long transformStartTime = System.nanoTime();
+                try {
+                    return transformActionModels(actionModels);
+                } finally {
+                    phaseListener.onPhaseCompleted(FetchPhaseListener.PHASE_DESERIALIZE_RESULTS,
+                            transformStartTime, System.nanoTime() - transformStartTime, -1);
+                }
             } finally {
                 initScriptRef.close();
             }
@@ -264,10 +383,11 @@ public final class GenericModelFetcher {
         };
     }
 
-    private static ModelQueryOutput getModelOutput(SerializationCache cache, ModelGetter getter) {
-        byte[] serializedResult = getModel(getter, ModelQueryOutputRef.class)
-                .getSerializedModelQueryOutput();
+    private static byte[] getSerializedModelOutput(ModelGetter getter) {
+        return getModel(getter, ModelQueryOutputRef.class).getSerializedModelQueryOutput();
+    }
 
+    private static ModelQueryOutput deserializeModelOutput(SerializationCache cache, byte[] serializedResult) {
         try {
             return (ModelQueryOutput)SerializationUtils.deserializeObject(serializedResult, cache);
         } catch (ClassNotFoundException ex) {
@@ -281,12 +401,15 @@ public final class GenericModelFetcher {
         // key -> list of BuildInfoBuilder
         private final CustomSerializedMap.Deserializer serializedBuildInfoRequests;
         private final Set<Class<?>> modelClasses;
+        private final Set<File> includedBuildRoots;
 
         public ModelFetcherBuildAction(
                 GradleInfoQueryMap buildInfoRequests,
-                Set<Class<?>> modelClasses) {
+                Set<Class<?>> modelClasses,
+                Set<File> includedBuildRoots) {
             this.serializedBuildInfoRequests = buildInfoRequests.getSerializableBuilderMap();
             this.modelClasses = modelClasses;
+            this.includedBuildRoots = includedBuildRoots;
         }
 
         private CustomSerializedMap getBuildInfoResults(BuildController controller) {
@@ -327,13 +450,49 @@ public final class GenericModelFetcher {
         }
 
         public ActionFetchedModels executeUnsafe(EvaluatedBuild evaluatedBuild, BuildController controller) {
-            AllProjectInfoBuilder builder = new AllProjectInfoBuilder(modelClasses, evaluatedBuild);
+            AllProjectInfoBuilder builder = new AllProjectInfoBuilder(
+                    modelClasses,
+                    evaluatedBuild,
+                    defaultModelGetter(controller));
 
             Map<String, ActionFetchedProjectModels> fetchedModels = builder.buildProjectModels(controller);
             ActionFetchedProjectModels defaultModels = fetchedModels.remove(builder.getDefaultProjectPath());
 
             CustomSerializedMap buildModels = getBuildInfoResults(controller);
-            return new ActionFetchedModels(buildModels, defaultModels, fetchedModels.values());
+
+            List<ActionFetchedModels> includedBuildModels = new ArrayList<ActionFetchedModels>();
+            Map<File, Throwable> includedBuildIssues = new LinkedHashMap<File, Throwable>();
+            if (!includedBuildRoots.isEmpty()) {
+                fetchIncludedBuildModels(controller, evaluatedBuild.buildModel, includedBuildModels, includedBuildIssues);
+            }
+
+            return new ActionFetchedModels(
+                    buildModels,
+                    defaultModels,
+                    fetchedModels.values(),
+                    includedBuildModels,
+                    includedBuildIssues);
+        }
+
+        private void fetchIncludedBuildModels(
+                final BuildController controller,
+                GradleBuild mainBuild,
+                List<ActionFetchedModels> result,
+                Map<File, Throwable> issues) {
+
+            result.addAll(fetchIncludedBuilds(mainBuild, includedBuildRoots, new IncludedBuildFetcher<ActionFetchedModels>() {
+                public ActionFetchedModels fetch(GradleBuild includedBuild) {
+                    EvaluatedBuild evaluatedBuild = new EvaluatedBuild(controller, includedBuild);
+                    AllProjectInfoBuilder builder = new AllProjectInfoBuilder(
+                            modelClasses,
+                            evaluatedBuild,
+                            projectModelGetter(controller, includedBuild.getRootProject()));
+
+                    Map<String, ActionFetchedProjectModels> fetchedModels = builder.buildProjectModels(controller);
+                    ActionFetchedProjectModels defaultModels = fetchedModels.remove(builder.getDefaultProjectPath());
+                    return new ActionFetchedModels(CustomSerializedMap.EMPTY, defaultModels, fetchedModels.values());
+                }
+            }, issues));
         }
 
         public ActionFetchedModelsOrError execute(final BuildController controller) {
@@ -359,14 +518,82 @@ public final class GenericModelFetcher {
         }
     }
 
+    interface IncludedBuildFetcher<R> {
+        public R fetch(GradleBuild includedBuild) throws Exception;
+    }
+
+    /**
+     * Fetches the models of the requested builds included (directly or
+     * indirectly) by the given build. Every included build is visited at most
+     * once, and only the requested ones are passed to the fetcher, because
+     * listing the included builds of a build does not evaluate it.
+     * <P>
+     * Failures of the fetcher are stored in {@code issues} (keyed by the root
+     * directory of the included build) instead of being rethrown, because the
+     * included build can still be loaded separately.
+     */
+    static <R> List<R> fetchIncludedBuilds(
+            GradleBuild mainBuild,
+            Set<File> requestedRoots,
+            IncludedBuildFetcher<? extends R> fetcher,
+            Map<File, Throwable> issues) {
+
+        List<R> result = new ArrayList<R>();
+
+        Set<File> visitedRoots = new HashSet<File>();
+        visitedRoots.add(mainBuild.getRootProject().getProjectDirectory());
+
+        LinkedList<GradleBuild> toVisit = new LinkedList<GradleBuild>(getIncludedBuilds(mainBuild));
+        while (!toVisit.isEmpty()) {
+            GradleBuild includedBuild = toVisit.removeFirst();
+            File includedRootDir = includedBuild.getRootProject().getProjectDirectory();
+            if (!visitedRoots.add(includedRootDir)) {
+                continue;
+            }
+
+            toVisit.addAll(getIncludedBuilds(includedBuild));
+
+            if (!requestedRoots.contains(includedRootDir)) {
+                continue;
+            }
+
+            try {
+                result.add(fetcher.fetch(includedBuild));
+            } catch (Throwable ex) {
+                issues.put(includedRootDir, ex);
+            }
+        }
+        return result;
+    }
+
+    private static Collection<? extends GradleBuild> getIncludedBuilds(GradleBuild build) {
+        try {
+            return build.getIncludedBuilds();
+        } catch (UnsupportedMethodException ex) {
+            // Composite builds are not supported prior Gradle 3.3.
+            return Collections.emptyList();
+        }
+    }
+
+    private enum NoOpFetchPhaseListener implements FetchPhaseListener {
+        INSTANCE;
+
+        public void onPhaseCompleted(String phaseName, long startTimeNanos, long durationNanos, long byteCount) {
+        }
+    }
+
     private static final class EvaluatedBuild {
         public final BuildController controller;
         public final GradleBuild buildModel;
         public final Collection<? extends BasicGradleProject> allProjects;
 
         public EvaluatedBuild(BuildController controller) {
+            this(controller, controller.getBuildModel());
+        }
+
+        public EvaluatedBuild(BuildController controller, GradleBuild buildModel) {
             this.controller = controller;
-            this.buildModel = controller.getBuildModel();
+            this.buildModel = buildModel;
             this.allProjects = buildModel.getProjects();
         }
     }
@@ -375,19 +602,24 @@ public final class GenericModelFetcher {
         private final Set<Class<?>> modelClasses;
         private final Map<String, BasicGradleProject> basicInfos;
         private final Map<String, ModelQueryOutput> customInfos;
+        private final Map<String, Integer> customInfoSizes;
         private final BasicGradleProject basicRootProject;
         private final String defaultProjectPath;
 
         private final SerializationCache serializationCache;
 
-        public AllProjectInfoBuilder(Set<Class<?>> modelClasses, EvaluatedBuild evaluatedBuild) {
+        public AllProjectInfoBuilder(
+                Set<Class<?>> modelClasses,
+                EvaluatedBuild evaluatedBuild,
+                ModelGetter defaultModelGetter) {
             int projectCount = evaluatedBuild.allProjects.size();
             this.modelClasses = modelClasses;
             this.basicInfos = CollectionUtils.newHashMap(projectCount);
             this.customInfos = CollectionUtils.newHashMap(projectCount);
+            this.customInfoSizes = CollectionUtils.newHashMap(projectCount);
             this.basicRootProject = evaluatedBuild.buildModel.getRootProject();
             this.serializationCache = SerializationCaches.getDefault();
-            this.defaultProjectPath = addCustomInfo(defaultModelGetter(evaluatedBuild.controller));
+            this.defaultProjectPath = addCustomInfo(defaultModelGetter);
 
             // TODO: If lazy project evaluation is available, review this
             //   not to force evaluation of unnecessary projects.
@@ -399,10 +631,12 @@ public final class GenericModelFetcher {
         private String addCustomInfo(ModelGetter modelGetter) {
             assert serializationCache != null : "serializationCache is null in addCustomInfo";
 
-            ModelQueryOutput customInfo = getModelOutput(serializationCache, modelGetter);
+            byte[] serializedCustomInfo = getSerializedModelOutput(modelGetter);
+            ModelQueryOutput customInfo = deserializeModelOutput(serializationCache, serializedCustomInfo);
             String projectPath = customInfo.getBasicInfo().getProjectFullName();
 
             customInfos.put(projectPath, customInfo);
+            customInfoSizes.put(projectPath, serializedCustomInfo.length);
             return projectPath;
         }
 
@@ -485,10 +719,16 @@ public final class GenericModelFetcher {
                 }
             }
 
+            Integer serializedSize = customInfoSizes.get(projectPath);
+            ProjectFetchStatistics statistics = new ProjectFetchStatistics(
+                    modelOutput.getBuilderTimesNanos(),
+                    serializedSize != null ? serializedSize : -1);
+
             return new ActionFetchedProjectModels(
                     new GradleMultiProjectDef(rootTree, projectTree),
                     modelOutput.getProjectInfoResults(),
                     toolingModels,
+                    statistics,
                     modelOutput.getIssue());
         }
 
@@ -121,8 +121,16 @@ final class GradleInfoQueryMap {
     public Map<Object, List<?>> deserializeResults(
             CustomSerializedMap map,
             IssueTransformer issueTransformer) {
+        return deserializeResults(map, serializationCache, issueTransformer);
+    }
+
+    public Map<Object, List<?>> deserializeResults(
+            CustomSerializedMap map,
+            SerializationCache serializationCache,
+            IssueTransformer issueTransformer) {
 
         if (map == null) throw new NullPointerException("map");
+        if (serializationCache == null) throw new NullPointerException("serializationCache");
         if (issueTransformer == null) throw new NullPointerException("issueTransformer");
 
         Map<Object, List<Object>> result = CollectionUtils.newHashMap(map.size());
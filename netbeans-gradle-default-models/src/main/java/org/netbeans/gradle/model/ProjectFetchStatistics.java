@@ -0,0 +1,56 @@
+package org.netbeans.gradle.model;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import org.netbeans.gradle.model.util.CollectionUtils;
+
+/**
+ * Defines the timing information collected while the models of a single
+ * project were built within the Gradle daemon.
+ */
+public final class ProjectFetchStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final ProjectFetchStatistics EMPTY
+            = new ProjectFetchStatistics(Collections.<String, Long>emptyMap(), 0);
+
+    private final Map<String, Long> builderTimesNanos;
+    private final long serializedSize;
+
+    public ProjectFetchStatistics(Map<String, Long> builderTimesNanos, long serializedSize) {
+        this.builderTimesNanos = CollectionUtils.copyNullSafeHashMap(builderTimesNanos);
+        this.serializedSize = serializedSize;
+    }
+
+    /**
+     * Returns the time spent in the project info builders. The keys of the
+     * returned map are in the form "key/builder name", where "key" is the key
+     * the builder was requested with.
+     *
+     * @return the time spent in the project info builders in nanoseconds.
+     *   This method never returns {@code null}.
+     */
+    public Map<String, Long> getBuilderTimesNanos() {
+        return builderTimesNanos;
+    }
+
+    public long getTotalBuilderTimeNanos() {
+        long result = 0;
+        for (Long time: builderTimesNanos.values()) {
+            result += time;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of bytes the results of the project info builders
+     * were serialized to when sent from the Gradle daemon.
+     *
+     * @return the number of bytes the results of the project info builders
+     *   were serialized to
+     */
+    public long getSerializedSize() {
+        return serializedSize;
+    }
+}
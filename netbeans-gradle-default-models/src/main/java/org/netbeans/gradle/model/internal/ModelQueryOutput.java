@@ -3,6 +3,8 @@ package org.netbeans.gradle.model.internal;
 import java.io.File;
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.ProjectId;
 import org.netbeans.gradle.model.util.CollectionUtils;
@@ -17,15 +19,28 @@ public final class ModelQueryOutput implements Serializable {
     private final CustomSerializedMap projectInfoResults;
     private final Throwable issue;
 
+    // "key/builder name" -> time spent in the builder in nanoseconds
+    private final Map<String, Long> builderTimesNanos;
+
     public ModelQueryOutput(
             BasicInfo basicInfo,
             CustomSerializedMap projectInfoResults,
             Throwable issue) {
+        this(basicInfo, projectInfoResults, Collections.<String, Long>emptyMap(), issue);
+    }
+
+    public ModelQueryOutput(
+            BasicInfo basicInfo,
+            CustomSerializedMap projectInfoResults,
+            Map<String, Long> builderTimesNanos,
+            Throwable issue) {
         if (basicInfo == null) throw new NullPointerException("basicInfo");
         if (projectInfoResults == null) throw new NullPointerException("projectInfoResults");
+        if (builderTimesNanos == null) throw new NullPointerException("builderTimesNanos");
 
         this.basicInfo = basicInfo;
         this.projectInfoResults = projectInfoResults;
+        this.builderTimesNanos = CollectionUtils.copyNullSafeHashMap(builderTimesNanos);
         this.issue = TransferableExceptionWrapper.wrap(issue);
     }
 
@@ -41,6 +56,10 @@ public final class ModelQueryOutput implements Serializable {
         return projectInfoResults;
     }
 
+    public Map<String, Long> getBuilderTimesNanos() {
+        return builderTimesNanos;
+    }
+
     public static final class BasicInfo implements Serializable {
         private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,181 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.netbeans.gradle.model.util.CollectionUtils;
+
+/**
+ * Defines an immutable, ordered set of files stored in a single array. This
+ * set requires a lot less memory than a {@code LinkedHashSet}, which matters
+ * because class paths of hundreds of projects might be kept in memory. Since
+ * the files of the models are interned across projects (when loaded by the
+ * IDE), the memory retained by the class paths of many projects mostly grows
+ * with the number of unique files, not with the number of projects.
+ * <P>
+ * Small sets are searched linearly, larger sets build a hash index on the
+ * first lookup. The index stores 16 bit positions with a load factor of at
+ * most 0.75, so it needs less than 6 bytes per file and only exists for the
+ * sets which are actually searched.
+ */
+final class CompactFileSet extends AbstractSet<File> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_LINEAR_SEARCH_SIZE = 32;
+    // The index stores (index + 1) of the files in a char.
+    private static final int MAX_INDEXED_SIZE = Character.MAX_VALUE - 1;
+    private static final File[] NO_FILES = new File[0];
+
+    public static final CompactFileSet EMPTY = new CompactFileSet(NO_FILES);
+
+    private final File[] files;
+    // Contains the (index + 1) of the files at the position determined by
+    // their hash codes, zero means an empty slot. Created lazily.
+    private transient volatile char[] hashIndex;
+
+    private CompactFileSet(File[] files) {
+        this.files = files;
+        this.hashIndex = null;
+    }
+
+    /**
+     * Creates a set containing the given files in the order they were
+     * specified, omitting the duplicates.
+     *
+     * @param files the files of the new set. This argument cannot be
+     *   {@code null} and cannot contain {@code null} elements.
+     * @param argName the name of the argument to be reported in the
+     *   exception if {@code files} contains {@code null} elements.
+     * @return the set containing the given files. This method never returns
+     *   {@code null}.
+     */
+    public static CompactFileSet create(Collection<? extends File> files, String argName) {
+        if (files.isEmpty()) {
+            return EMPTY;
+        }
+
+        Set<File> uniqueFiles = new LinkedHashSet<File>(files);
+        CollectionUtils.checkNoNullElements(uniqueFiles, argName);
+        return new CompactFileSet(uniqueFiles.toArray(NO_FILES));
+    }
+
+    private Object readResolve() {
+        return files.length == 0 ? EMPTY : this;
+    }
+
+    @Override
+    public int size() {
+        return files.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return files.length == 0;
+    }
+
+    @Override
+    public boolean contains(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+
+        if (files.length <= MAX_LINEAR_SEARCH_SIZE || files.length > MAX_INDEXED_SIZE) {
+            for (File file: files) {
+                if (file.equals(obj)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        char[] currentIndex = getHashIndex();
+        int mask = currentIndex.length - 1;
+        int pos = spreadHash(obj.hashCode()) & mask;
+        while (true) {
+            int fileIndex = currentIndex[pos];
+            if (fileIndex == 0) {
+                return false;
+            }
+            if (files[fileIndex - 1].equals(obj)) {
+                return true;
+            }
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    private char[] getHashIndex() {
+        char[] result = hashIndex;
+        if (result == null) {
+            // Concurrent calls might build the index multiple times but that
+            // is harmless because the index is always the same.
+            result = createHashIndex(files);
+            hashIndex = result;
+        }
+        return result;
+    }
+
+    private static char[] createHashIndex(File[] files) {
+        // Keep the load factor below 0.75, so that probing stays short.
+        int capacity = Integer.highestOneBit(files.length + files.length / 3) * 2;
+        int mask = capacity - 1;
+
+        char[] result = new char[capacity];
+        for (int i = 0; i < files.length; i++) {
+            int pos = spreadHash(files[i].hashCode()) & mask;
+            while (result[pos] != 0) {
+                pos = (pos + 1) & mask;
+            }
+            result[pos] = (char)(i + 1);
+        }
+        return result;
+    }
+
+    private static int spreadHash(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public Iterator<File> iterator() {
+        return new FileIterator(files);
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[files.length];
+        System.arraycopy(files, 0, result, 0, files.length);
+        return result;
+    }
+
+    private static final class FileIterator implements Iterator<File> {
+        private final File[] files;
+        private int nextIndex;
+
+        public FileIterator(File[] files) {
+            this.files = files;
+            this.nextIndex = 0;
+        }
+
+        public boolean hasNext() {
+            return nextIndex < files.length;
+        }
+
+        public File next() {
+            if (nextIndex >= files.length) {
+                throw new NoSuchElementException();
+            }
+
+            File result = files[nextIndex];
+            nextIndex++;
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("Class paths are immutable.");
+        }
+    }
+}
@@ -3,10 +3,8 @@ package org.netbeans.gradle.model.java;
 import java.io.File;
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.Set;
-import org.netbeans.gradle.model.util.CollectionUtils;
 
 /**
  * Defines the class paths for a source set of a Gradle project. That is, the
@@ -14,7 +12,9 @@ import org.netbeans.gradle.model.util.CollectionUtils;
  * at runtime.
  * <P>
  * Instances of this class are immutable and therefore are safe to be shared
- * across multiple threads.
+ * across multiple threads. The class paths are stored in compact arrays
+ * instead of hash based sets, since the class paths of every source set of
+ * every loaded project are kept in memory.
  * <P>
  * The serialized format of this class is not subject to any kind of backward
  * or forward compatibility.
@@ -28,8 +28,8 @@ public final class JavaClassPaths implements Serializable {
      */
     public static final JavaClassPaths EMPTY = new JavaClassPaths();
 
-    private final Set<File> compileClasspaths;
-    private final Set<File> runtimeClasspaths;
+    private final CompactFileSet compileClasspaths;
+    private final CompactFileSet runtimeClasspaths;
 
     /**
      * Creates a new {@code JavaClassPaths} with the given properties.
@@ -51,13 +51,10 @@ public final class JavaClassPaths implements Serializable {
         if (compileClasspaths == null) throw new NullPointerException("compileClasspaths");
         if (runtimeClasspaths == null) throw new NullPointerException("runtimeClasspaths");
 
-        this.compileClasspaths = Collections.unmodifiableSet(new LinkedHashSet<File>(compileClasspaths));
+        this.compileClasspaths = CompactFileSet.create(compileClasspaths, "compileClasspaths");
         this.runtimeClasspaths = compileClasspaths != runtimeClasspaths
-                ? Collections.unmodifiableSet(new LinkedHashSet<File>(runtimeClasspaths))
+                ? CompactFileSet.create(runtimeClasspaths, "runtimeClasspaths")
                 : this.compileClasspaths;
-
-        CollectionUtils.checkNoNullElements(this.compileClasspaths, "compileClasspaths");
-        CollectionUtils.checkNoNullElements(this.runtimeClasspaths, "runtimeClasspaths");
     }
 
     /**
@@ -74,15 +71,13 @@ public final class JavaClassPaths implements Serializable {
     public JavaClassPaths(Collection<? extends File> classpaths) {
         if (classpaths == null) throw new NullPointerException("classpaths");
 
-        this.compileClasspaths = Collections.unmodifiableSet(new LinkedHashSet<File>(classpaths));
+        this.compileClasspaths = CompactFileSet.create(classpaths, "compileClasspaths");
         this.runtimeClasspaths = compileClasspaths;
-
-        CollectionUtils.checkNoNullElements(this.compileClasspaths, "compileClasspaths");
     }
 
     private JavaClassPaths() {
-        this.compileClasspaths = Collections.emptySet();
-        this.runtimeClasspaths = Collections.emptySet();
+        this.compileClasspaths = CompactFileSet.EMPTY;
+        this.runtimeClasspaths = CompactFileSet.EMPTY;
     }
 
     /**
@@ -110,4 +105,51 @@ public final class JavaClassPaths implements Serializable {
     public Set<File> getRuntimeClasspaths() {
         return runtimeClasspaths;
     }
+
+    private static boolean equalsWithOrder(Set<File> set1, Set<File> set2) {
+        if (set1 == set2) {
+            return true;
+        }
+        if (set1.size() != set2.size()) {
+            return false;
+        }
+
+        Iterator<File> itr1 = set1.iterator();
+        Iterator<File> itr2 = set2.iterator();
+        while (itr1.hasNext()) {
+            if (!itr1.next().equals(itr2.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 53 * hash + compileClasspaths.hashCode();
+        hash = 53 * hash + runtimeClasspaths.hashCode();
+        return hash;
+    }
+
+    /**
+     * Checks if the given object is a {@code JavaClassPaths} defining the
+     * same class paths in the same order as this {@code JavaClassPaths}.
+     *
+     * @param obj the object to be compared against this {@code JavaClassPaths}.
+     *   This argument can be {@code null}, in which case the return value is
+     *   {@code false}.
+     * @return {@code true} if the given object defines the same class paths,
+     *   {@code false} otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+
+        final JavaClassPaths other = (JavaClassPaths)obj;
+        return equalsWithOrder(this.compileClasspaths, other.compileClasspaths)
+                && equalsWithOrder(this.runtimeClasspaths, other.runtimeClasspaths);
+    }
 }
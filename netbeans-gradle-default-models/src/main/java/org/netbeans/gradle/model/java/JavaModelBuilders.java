@@ -28,6 +28,11 @@ public class JavaModelBuilders {
     public static final ProjectInfoBuilder2<GroovyBaseModel> GROOVY_BASE_BUILDER
             = ModelBuilders.wrapEnumBuilder(GroovyBaseModel.class, "GroovyBaseModelBuilder");
 
+    public static ProjectInfoBuilder2<SourceArtifactsModel> sourceArtifactsBuilder(SourceArtifactsRequest request) {
+        if (request == null) throw new NullPointerException("request");
+        return ModelBuilders.wrapWithConstructor(SourceArtifactsModel.class, "SourceArtifactsModelBuilder", request);
+    }
+
     private JavaModelBuilders() {
         throw new AssertionError();
     }
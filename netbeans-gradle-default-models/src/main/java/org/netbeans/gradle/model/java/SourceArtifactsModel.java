@@ -0,0 +1,33 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contains the sources and javadoc artifacts resolved for the components
+ * of a {@link SourceArtifactsRequest}. The maps are keyed by the coordinates
+ * of the components ({@code group:name:version}). Components whose artifacts
+ * could not be resolved are not contained in the maps.
+ */
+public final class SourceArtifactsModel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Map<String, File> sources;
+    private final Map<String, File> javadocs;
+
+    public SourceArtifactsModel(Map<String, File> sources, Map<String, File> javadocs) {
+        this.sources = Collections.unmodifiableMap(new HashMap<String, File>(sources));
+        this.javadocs = Collections.unmodifiableMap(new HashMap<String, File>(javadocs));
+    }
+
+    public Map<String, File> getSources() {
+        return sources;
+    }
+
+    public Map<String, File> getJavadocs() {
+        return javadocs;
+    }
+}
@@ -0,0 +1,71 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.netbeans.gradle.model.util.CollectionUtils;
+
+/**
+ * Defines the module components whose sources and / or javadoc artifacts are
+ * to be resolved by {@link JavaModelBuilders#sourceArtifactsBuilder(SourceArtifactsRequest)}.
+ * <P>
+ * Components are identified by their coordinates in the
+ * {@code group:name:version} format.
+ * <P>
+ * The artifacts of all the components are resolved by a single query, so that
+ * Gradle can download them in parallel. After the query, the builder prints a
+ * line starting with {@link #RESOLVED_COMPONENT_PREFIX} followed by the
+ * coordinates of each resolved component to the standard output, so that the
+ * progress can be reported.
+ */
+public final class SourceArtifactsRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String RESOLVED_COMPONENT_PREFIX = "[nb-gradle] Resolved artifacts of ";
+
+    private final File projectDir;
+    private final List<String> components;
+    private final boolean sources;
+    private final boolean javadoc;
+
+    public SourceArtifactsRequest(
+            File projectDir,
+            Collection<String> components,
+            boolean sources,
+            boolean javadoc) {
+        if (projectDir == null) throw new NullPointerException("projectDir");
+        CollectionUtils.checkNoNullElements(components, "components");
+
+        this.projectDir = projectDir;
+        this.components = Collections.unmodifiableList(new ArrayList<String>(components));
+        this.sources = sources;
+        this.javadoc = javadoc;
+    }
+
+    /**
+     * Returns the directory of the project in whose context the artifacts are
+     * resolved. The repositories of this project are used to find the
+     * artifacts.
+     *
+     * @return the directory of the project in whose context the artifacts are
+     *   resolved. This method never returns {@code null}.
+     */
+    public File getProjectDir() {
+        return projectDir;
+    }
+
+    public List<String> getComponents() {
+        return components;
+    }
+
+    public boolean isSources() {
+        return sources;
+    }
+
+    public boolean isJavadoc() {
+        return javadoc;
+    }
+}
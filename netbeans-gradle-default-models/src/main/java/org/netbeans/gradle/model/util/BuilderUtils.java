@@ -79,6 +79,14 @@ public final class BuilderUtils {
         }
     }
 
+    public static String getSafeNameOfBuilder(ProjectInfoBuilder2<?> builder) {
+        try {
+            return getNameOfBuilderUnsafe(builder);
+        } catch (Throwable ex) {
+            return builder != null ? builder.getClass().getName() : "null";
+        }
+    }
+
     public static BuilderIssue createIssue(
             ProjectInfoBuilder2<?> builder,
             Throwable issue) {
@@ -1,26 +1,63 @@
 package org.netbeans.gradle.model.util;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
 
+/**
+ * Defines a {@code SerializationCache} replacing instances of the given types
+ * with a previously seen equivalent instance (based on {@code equals}).
+ * <P>
+ * The cached instances are only weakly referenced, so the cache shrinks as
+ * the shared instances become unreachable.
+ */
 public final class SharedTypesSerializationCache implements SerializationCache {
     private final Class<?>[] shareableTypes;
-    private final ConcurrentMap<Object, Object> cache;
+    private final Map<Object, WeakReference<Object>> cache;
 
     public SharedTypesSerializationCache(Class<?>... shareableTypes) {
-        this.shareableTypes = shareableTypes;
-        this.cache = new ConcurrentHashMap<Object, Object>(256);
+        this.shareableTypes = shareableTypes.clone();
+        this.cache = new WeakHashMap<Object, WeakReference<Object>>(256);
 
         for (Class<?> type: this.shareableTypes) {
             if (type == null) throw new NullPointerException("Shareable types must be non-null");
         }
     }
 
+    /**
+     * Returns the number of currently cached instances. Note that this number
+     * might decrease any time because the cached instances are weakly
+     * referenced.
+     *
+     * @return the number of currently cached instances
+     */
+    int getCachedCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private Object getShared(Object src) {
+        synchronized (cache) {
+            WeakReference<Object> prevRef = cache.get(src);
+            Object prevValue = prevRef != null ? prevRef.get() : null;
+            if (prevValue != null) {
+                return prevValue;
+            }
+
+            cache.put(src, new WeakReference<Object>(src));
+            return src;
+        }
+    }
+
     public Object getCached(Object src) {
+        if (src == null) {
+            return null;
+        }
+
         for (Class<?> type: shareableTypes) {
             if (type.isInstance(src)) {
-                Object prevValue = cache.putIfAbsent(src, src);
-                return prevValue != null ? prevValue : src;
+                return getShared(src);
             }
         }
         return src;
@@ -5,6 +5,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.gradle.api.Project;
@@ -37,7 +38,18 @@ public final class DynamicModelLoader implements ToolingModelBuilder {
         return modelName.equals(ModelQueryOutputRef.class.getName());
     }
 
-    private CustomSerializedMap fetchProjectInfos(Project project) {
+    private static void addBuilderTime(
+            Object key,
+            ProjectInfoBuilder2<?> builder,
+            long timeNanos,
+            Map<String, Long> builderTimes) {
+
+        String timeKey = key + "/" + BuilderUtils.getSafeNameOfBuilder(builder);
+        Long prevTime = builderTimes.get(timeKey);
+        builderTimes.put(timeKey, prevTime != null ? prevTime + timeNanos : timeNanos);
+    }
+
+    private CustomSerializedMap fetchProjectInfos(Project project, Map<String, Long> builderTimes) {
         SerializationCache serializationCache = SerializationCaches.getDefault();
         Map<Object, List<?>> projectInfoRequests = input.getProjectInfoRequests(serializationCache, classLoader);
         int requestCount = projectInfoRequests.size();
@@ -50,12 +62,14 @@ public final class DynamicModelLoader implements ToolingModelBuilder {
                 Throwable issue = null;
                 ProjectInfoBuilder2<?> builder = null;
 
+                long startTime = System.nanoTime();
                 try {
                     builder = (ProjectInfoBuilder2<?>)projectInfoBuilder;
                     info = builder.getProjectInfo(project);
                 } catch (Throwable ex) {
                     issue = ex;
                 }
+                addBuilderTime(key, builder, System.nanoTime() - startTime, builderTimes);
 
                 if (info != null || issue != null) {
                     BuilderResult builderResult = new BuilderResult(
@@ -127,15 +141,17 @@ public final class DynamicModelLoader implements ToolingModelBuilder {
 
         BasicInfoWithError basicInfo = getBasicInfo(project);
 
+        Map<String, Long> builderTimes = new LinkedHashMap<String, Long>();
+
         ModelQueryOutput output;
         try {
-            CustomSerializedMap projectInfos = fetchProjectInfos(project);
-            output = new ModelQueryOutput(basicInfo.info, projectInfos, basicInfo.error);
+            CustomSerializedMap projectInfos = fetchProjectInfos(project, builderTimes);
+            output = new ModelQueryOutput(basicInfo.info, projectInfos, builderTimes, basicInfo.error);
         } catch (Throwable ex) {
             if (basicInfo.error != null) {
                 Exceptions.tryAddSuppressedException(ex, basicInfo.error);
             }
-            output = new ModelQueryOutput(basicInfo.info, CustomSerializedMap.EMPTY, ex);
+            output = new ModelQueryOutput(basicInfo.info, CustomSerializedMap.EMPTY, builderTimes, ex);
         }
 
         return new DefaultModelQueryOutputRef(output);
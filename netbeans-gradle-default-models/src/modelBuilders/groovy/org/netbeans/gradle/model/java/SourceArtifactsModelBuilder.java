@@ -0,0 +1,44 @@
+package org.netbeans.gradle.model.java;
+
+import org.gradle.api.Project;
+import org.netbeans.gradle.model.api.ProjectInfoBuilder2;
+import org.netbeans.gradle.model.util.BuilderUtils;
+import org.netbeans.gradle.model.util.GradleVersionUtils;
+
+public final class SourceArtifactsModelBuilder
+implements
+        ProjectInfoBuilder2<SourceArtifactsModel> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SourceArtifactsRequest request;
+
+    public SourceArtifactsModelBuilder(SourceArtifactsRequest request) {
+        if (request == null) throw new NullPointerException("request");
+        this.request = request;
+    }
+
+    public SourceArtifactsModel getProjectInfo(Object project) {
+        return getProjectInfo((Project)project);
+    }
+
+    private SourceArtifactsModel getProjectInfo(Project project) {
+        // The builder is called for every project of the build but we only
+        // need to resolve the artifacts once.
+        if (!request.getProjectDir().equals(project.getProjectDir())) {
+            return null;
+        }
+
+        // Artifact resolution queries are only available since Gradle 2.0
+        if (!GradleVersionUtils.GRADLE_2_OR_BETTER) {
+            return null;
+        }
+
+        return SourceArtifactsUtils.resolveArtifacts(project, request);
+    }
+
+    /** {@inheritDoc } */
+    public String getName() {
+        return BuilderUtils.getNameForGenericBuilder(this, request.getComponents().size() + " components");
+    }
+}
@@ -0,0 +1,91 @@
+package org.netbeans.gradle.model.java
+
+import org.gradle.api.Project
+import org.gradle.api.artifacts.Dependency
+
+class SourceArtifactsUtils {
+    private static final String JVM_LIBRARY_TYPE = 'org.gradle.jvm.JvmLibrary'
+    private static final String SOURCES_ARTIFACT_TYPE = 'org.gradle.language.base.artifact.SourcesArtifact'
+    private static final String JAVADOC_ARTIFACT_TYPE = 'org.gradle.language.java.artifact.JavadocArtifact'
+
+    static SourceArtifactsModel resolveArtifacts(Project project, SourceArtifactsRequest request) {
+        Map<String, File> sources = new HashMap<String, File>()
+        Map<String, File> javadocs = new HashMap<String, File>()
+
+        def componentIds = resolveComponentIds(project, request.components)
+        if (componentIds.isEmpty()) {
+            return new SourceArtifactsModel(sources, javadocs)
+        }
+
+        Class<?> sourcesType = loadGradleType(SOURCES_ARTIFACT_TYPE)
+        Class<?> javadocType = loadGradleType(JAVADOC_ARTIFACT_TYPE)
+
+        List<Class<?>> artifactTypes = new ArrayList<Class<?>>()
+        if (request.sources) {
+            artifactTypes.add(sourcesType)
+        }
+        if (request.javadoc) {
+            artifactTypes.add(javadocType)
+        }
+
+        Class<?> libraryType = loadGradleType(JVM_LIBRARY_TYPE)
+        Class[] artifactTypesArray = artifactTypes as Class[]
+
+        // All the components are resolved by a single query, so that Gradle
+        // can download the artifacts in parallel.
+        def result = project.dependencies.createArtifactResolutionQuery()
+            .forComponents(componentIds)
+            .withArtifacts(libraryType, artifactTypesArray)
+            .execute()
+
+        for (component in result.resolvedComponents) {
+            def componentId = component.id
+            String coordinates = "${componentId.group}:${componentId.module}:${componentId.version}"
+
+            if (request.sources) {
+                addResolvedFile(coordinates, component.getArtifacts(sourcesType), sources)
+            }
+            if (request.javadoc) {
+                addResolvedFile(coordinates, component.getArtifacts(javadocType), javadocs)
+            }
+
+            project.logger.lifecycle(SourceArtifactsRequest.RESOLVED_COMPONENT_PREFIX + coordinates)
+        }
+
+        return new SourceArtifactsModel(sources, javadocs)
+    }
+
+    private static List<?> resolveComponentIds(Project project, List<String> components) {
+        // Resolving the binaries through a detached configuration is the
+        // simplest public way to get the component identifiers. The binaries
+        // are already in the cache, so this is cheap.
+        List<Dependency> dependencies = new ArrayList<Dependency>(components.size())
+        for (String component: components) {
+            dependencies.add(project.dependencies.create(component))
+        }
+
+        def configuration = project.configurations.detachedConfiguration(dependencies as Dependency[])
+        configuration.transitive = false
+
+        def resolutionResult = configuration.incoming.resolutionResult
+        def root = resolutionResult.root
+        return resolutionResult.allComponents.findAll { it != root }.collect { it.id }
+    }
+
+    private static void addResolvedFile(String coordinates, def artifacts, Map<String, File> result) {
+        for (artifact in artifacts) {
+            if (artifact.hasProperty('file')) {
+                result.put(coordinates, artifact.file)
+                return
+            }
+        }
+    }
+
+    private static Class<?> loadGradleType(String typeName) {
+        return Class.forName(typeName, false, Project.class.classLoader)
+    }
+
+    private SourceArtifactsUtils() {
+        throw new AssertionError()
+    }
+}
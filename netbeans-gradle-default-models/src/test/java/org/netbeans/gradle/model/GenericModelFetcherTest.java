@@ -0,0 +1,133 @@
+package org.netbeans.gradle.model;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gradle.tooling.model.UnsupportedMethodException;
+import org.gradle.tooling.model.gradle.BasicGradleProject;
+import org.gradle.tooling.model.gradle.GradleBuild;
+import org.gradle.tooling.model.internal.ImmutableDomainObjectSet;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GenericModelFetcherTest {
+    private static File rootDir(String name) {
+        return new File("included-builds-test", name);
+    }
+
+    private static GradleBuild build(String name, GradleBuild... includedBuilds) {
+        BasicGradleProject rootProject = mock(BasicGradleProject.class);
+        when(rootProject.getProjectDirectory()).thenReturn(rootDir(name));
+
+        GradleBuild build = mock(GradleBuild.class);
+        doReturn(rootProject).when(build).getRootProject();
+        setIncludedBuilds(build, includedBuilds);
+        return build;
+    }
+
+    private static void setIncludedBuilds(GradleBuild build, GradleBuild... includedBuilds) {
+        doReturn(new ImmutableDomainObjectSet<GradleBuild>(Arrays.asList(includedBuilds)))
+                .when(build)
+                .getIncludedBuilds();
+    }
+
+    private static Set<File> roots(String... names) {
+        Set<File> result = new HashSet<File>();
+        for (String name: names) {
+            result.add(rootDir(name));
+        }
+        return result;
+    }
+
+    private static final class RootNameFetcher implements GenericModelFetcher.IncludedBuildFetcher<String> {
+        public String fetch(GradleBuild includedBuild) {
+            return includedBuild.getRootProject().getProjectDirectory().getName();
+        }
+    }
+
+    @Test
+    public void testOnlyRequestedBuildsAreFetched() {
+        GradleBuild nested = build("nested");
+        GradleBuild unrequested = build("unrequested", nested);
+        GradleBuild requested = build("requested");
+        GradleBuild main = build("main", unrequested, requested);
+
+        Map<File, Throwable> issues = new LinkedHashMap<File, Throwable>();
+        List<String> fetched = GenericModelFetcher.fetchIncludedBuilds(
+                main,
+                roots("requested", "nested"),
+                new RootNameFetcher(),
+                issues);
+
+        assertEquals(Arrays.asList("requested", "nested"), fetched);
+        assertTrue(issues.isEmpty());
+    }
+
+    @Test
+    public void testBuildsAreFetchedOnlyOnce() {
+        GradleBuild shared = build("shared");
+        GradleBuild lib1 = build("lib1", shared);
+        GradleBuild lib2 = build("lib2", shared);
+        GradleBuild main = build("main", lib1, lib2);
+        // Included builds might include the main build again.
+        setIncludedBuilds(shared, main);
+
+        Map<File, Throwable> issues = new LinkedHashMap<File, Throwable>();
+        List<String> fetched = GenericModelFetcher.fetchIncludedBuilds(
+                main,
+                roots("main", "lib1", "lib2", "shared"),
+                new RootNameFetcher(),
+                issues);
+
+        assertEquals(Arrays.asList("lib1", "lib2", "shared"), fetched);
+    }
+
+    @Test
+    public void testFailureIsReportedAsIssue() {
+        GradleBuild failing = build("failing");
+        GradleBuild working = build("working");
+        GradleBuild main = build("main", failing, working);
+
+        final RuntimeException failure = new RuntimeException("Test failure");
+        Map<File, Throwable> issues = new LinkedHashMap<File, Throwable>();
+        List<String> fetched = GenericModelFetcher.fetchIncludedBuilds(
+                main,
+                roots("failing", "working"),
+                new GenericModelFetcher.IncludedBuildFetcher<String>() {
+                    public String fetch(GradleBuild includedBuild) {
+                        String name = includedBuild.getRootProject().getProjectDirectory().getName();
+                        if ("failing".equals(name)) {
+                            throw failure;
+                        }
+                        return name;
+                    }
+                },
+                issues);
+
+        assertEquals(Collections.singletonList("working"), fetched);
+        assertEquals(Collections.singletonMap(rootDir("failing"), failure), issues);
+    }
+
+    @Test
+    public void testCompositeBuildsNotSupported() {
+        GradleBuild main = build("main");
+        doThrow(new UnsupportedMethodException("Test")).when(main).getIncludedBuilds();
+
+        Map<File, Throwable> issues = new LinkedHashMap<File, Throwable>();
+        List<String> fetched = GenericModelFetcher.fetchIncludedBuilds(
+                main,
+                roots("main"),
+                new RootNameFetcher(),
+                issues);
+
+        assertTrue(fetched.isEmpty());
+        assertTrue(issues.isEmpty());
+    }
+}
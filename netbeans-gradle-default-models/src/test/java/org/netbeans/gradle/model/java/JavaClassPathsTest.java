@@ -0,0 +1,113 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.netbeans.gradle.model.util.SerializationUtils;
+import org.netbeans.gradle.model.util.SharedTypesSerializationCache;
+
+import static org.junit.Assert.*;
+
+public class JavaClassPathsTest {
+    private static List<File> files(String prefix, int count) {
+        List<File> result = new ArrayList<File>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new File(prefix + i + ".jar"));
+        }
+        return result;
+    }
+
+    @Test
+    public void testKeepsOrderAndRemovesDuplicates() {
+        File file1 = new File("lib1.jar");
+        File file2 = new File("lib2.jar");
+        File file3 = new File("lib3.jar");
+
+        JavaClassPaths classPaths = new JavaClassPaths(Arrays.asList(file3, file1, file3, file2, file1));
+        assertEquals(Arrays.asList(file3, file1, file2), new ArrayList<File>(classPaths.getCompileClasspaths()));
+        assertSame(classPaths.getCompileClasspaths(), classPaths.getRuntimeClasspaths());
+    }
+
+    @Test
+    public void testContainsForSmallAndLargeClassPaths() {
+        for (int count: new int[]{0, 1, 8, 9, 32, 33, 47, 48, 1000}) {
+            List<File> compile = files("compile", count);
+            JavaClassPaths classPaths = new JavaClassPaths(compile, files("runtime", count));
+
+            Set<File> compileClasspaths = classPaths.getCompileClasspaths();
+            assertEquals(count, compileClasspaths.size());
+            assertEquals(new HashSet<File>(compile), compileClasspaths);
+
+            for (File file: compile) {
+                assertTrue(compileClasspaths.contains(new File(file.getPath())));
+                assertFalse(classPaths.getRuntimeClasspaths().contains(file));
+            }
+            assertFalse(compileClasspaths.contains(new File("missing.jar")));
+            assertFalse(compileClasspaths.contains(null));
+            assertFalse(compileClasspaths.contains("compile0.jar"));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        new JavaClassPaths(files("lib", 3)).getCompileClasspaths().add(new File("other.jar"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullElement() {
+        new JavaClassPaths(Arrays.asList(new File("lib.jar"), null));
+    }
+
+    @Test
+    public void testEquals() {
+        JavaClassPaths classPaths1 = new JavaClassPaths(files("compile", 20), files("runtime", 20));
+        JavaClassPaths classPaths2 = new JavaClassPaths(files("compile", 20), files("runtime", 20));
+
+        List<File> reversed = files("compile", 20);
+        Collections.reverse(reversed);
+        JavaClassPaths classPaths3 = new JavaClassPaths(reversed, files("runtime", 20));
+
+        assertEquals(classPaths1, classPaths2);
+        assertEquals(classPaths1.hashCode(), classPaths2.hashCode());
+        assertFalse(classPaths1.equals(classPaths3));
+    }
+
+    @Test
+    public void testSerializationSharesFiles() throws Exception {
+        JavaClassPaths classPaths1 = new JavaClassPaths(files("lib", 20), files("lib", 30));
+        JavaClassPaths classPaths2 = new JavaClassPaths(files("lib", 10));
+
+        byte[] serialized = SerializationUtils.serializeObject(new Object[]{classPaths1, classPaths2});
+        Object[] deserialized = (Object[])SerializationUtils.deserializeObject(
+                serialized,
+                new SharedTypesSerializationCache(File.class));
+
+        JavaClassPaths deserialized1 = (JavaClassPaths)deserialized[0];
+        JavaClassPaths deserialized2 = (JavaClassPaths)deserialized[1];
+
+        assertEquals(classPaths1, deserialized1);
+        assertEquals(classPaths2, deserialized2);
+        assertTrue(deserialized1.getRuntimeClasspaths().contains(new File("lib25.jar")));
+        assertSame(
+                deserialized1.getCompileClasspaths().iterator().next(),
+                deserialized2.getCompileClasspaths().iterator().next());
+    }
+
+    @Test
+    public void testEmptyIsShared() throws Exception {
+        JavaClassPaths classPaths = new JavaClassPaths(Collections.<File>emptyList());
+        assertEquals(JavaClassPaths.EMPTY, classPaths);
+
+        byte[] serialized = SerializationUtils.serializeObject(JavaClassPaths.EMPTY);
+        JavaClassPaths deserialized = (JavaClassPaths)SerializationUtils.deserializeObject(
+                serialized,
+                new SharedTypesSerializationCache(File.class));
+        assertTrue(deserialized.getCompileClasspaths().isEmpty());
+        assertTrue(deserialized.getRuntimeClasspaths().isEmpty());
+    }
+}
@@ -48,6 +48,26 @@ public class SharedTypesSerializationCacheTest {
         assertSame(newObj, secondGetValue);
     }
 
+    @Test
+    public void testGetNull() {
+        SerializationCache cache = new SharedTypesSerializationCache(TestType.class);
+        assertNull(cache.getCached(null));
+    }
+
+    @Test
+    public void testCachedCount() {
+        SharedTypesSerializationCache cache = new SharedTypesSerializationCache(TestType.class);
+        TestType obj1 = new TestType("TEST1");
+        TestType obj2 = new TestType("TEST2");
+
+        cache.getCached(obj1);
+        cache.getCached(new TestType("TEST1"));
+        cache.getCached(obj2);
+        cache.getCached(new Object());
+
+        assertEquals(2, cache.getCachedCount());
+    }
+
     private static final class TestType implements Serializable {
         private static final long serialVersionUID = 1L;
 
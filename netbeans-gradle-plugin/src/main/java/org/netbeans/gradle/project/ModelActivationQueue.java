@@ -0,0 +1,152 @@
+package org.netbeans.gradle.project;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationSource;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.UpdateTaskExecutor;
+import org.jtrim.concurrent.WaitableSignal;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Activates the models submitted to it in the background. Only the most
+ * recently submitted model is activated: Queued activations of outdated models
+ * are skipped and the activation in progress is canceled when a newer model is
+ * submitted.
+ * <P>
+ * The activations are executed by the given {@code UpdateTaskExecutor}, so
+ * they do not overlap if the executor does not run its tasks concurrently.
+ *
+ * @param <M> the type of the activated models
+ */
+final class ModelActivationQueue<M> {
+    public interface Activator<M> {
+        public void activate(CancellationToken cancelToken, M model);
+    }
+
+    private final UpdateTaskExecutor executor;
+    private final Activator<? super M> activator;
+
+    private final Lock mainLock;
+    // Guarded by mainLock
+    private CancellationSource currentCancel;
+    // Guarded by mainLock
+    private WaitableSignal currentDoneSignal;
+
+    public ModelActivationQueue(UpdateTaskExecutor executor, Activator<? super M> activator) {
+        ExceptionHelper.checkNotNullArgument(executor, "executor");
+        ExceptionHelper.checkNotNullArgument(activator, "activator");
+
+        this.executor = executor;
+        this.activator = activator;
+        this.mainLock = new ReentrantLock();
+        this.currentCancel = Cancellation.createCancellationSource();
+        this.currentDoneSignal = new WaitableSignal();
+        this.currentDoneSignal.signal();
+    }
+
+    /**
+     * Submits a model to be activated and cancels the activation of the
+     * previously submitted model. This method does not wait for the
+     * activation.
+     *
+     * @param model the model to be activated. This argument can be
+     *   {@code null} if the activator accepts {@code null} models.
+     */
+    public void submit(final M model) {
+        final CancellationSource cancel = Cancellation.createCancellationSource();
+        final WaitableSignal doneSignal = new WaitableSignal();
+
+        CancellationSource prevCancel;
+        WaitableSignal prevDoneSignal;
+
+        mainLock.lock();
+        try {
+            prevCancel = currentCancel;
+            prevDoneSignal = currentDoneSignal;
+
+            currentCancel = cancel;
+            currentDoneSignal = doneSignal;
+        } finally {
+            mainLock.unlock();
+        }
+
+        prevCancel.getController().cancel();
+        // The previous activation might not even run, so its waiters are
+        // released to wait for the new activation instead.
+        prevDoneSignal.signal();
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    CancellationToken cancelToken = cancel.getToken();
+                    if (!cancelToken.isCanceled()) {
+                        activator.activate(cancelToken, model);
+                    }
+                } finally {
+                    doneSignal.signal();
+                }
+            }
+        });
+    }
+
+    private WaitableSignal getCurrentDoneSignal() {
+        mainLock.lock();
+        try {
+            return currentDoneSignal;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the activation of the most recently submitted model
+     * completes.
+     *
+     * @param cancelToken the cancellation token which may signal that the
+     *   caller no longer wants to wait. This argument cannot be {@code null}.
+     * @param timeout the maximum time to wait in the given time unit
+     * @param unit the time unit of the {@code timeout} argument. This
+     *   argument cannot be {@code null}.
+     * @return {@code true} if the activation of the latest model has
+     *   completed, {@code false} if the timeout elapsed
+     */
+    public boolean tryWaitForActivation(CancellationToken cancelToken, long timeout, TimeUnit unit) {
+        long timeoutNanos = unit.toNanos(timeout);
+        long startTime = System.nanoTime();
+
+        while (true) {
+            WaitableSignal doneSignal = getCurrentDoneSignal();
+
+            long remainingNanos = Math.max(0, timeoutNanos - (System.nanoTime() - startTime));
+            if (!doneSignal.tryWaitSignal(cancelToken, remainingNanos, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+
+            if (doneSignal == getCurrentDoneSignal()) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Waits until the activation of the most recently submitted model
+     * completes.
+     *
+     * @param cancelToken the cancellation token which may signal that the
+     *   caller no longer wants to wait. This argument cannot be {@code null}.
+     */
+    public void waitForActivation(CancellationToken cancelToken) {
+        while (true) {
+            WaitableSignal doneSignal = getCurrentDoneSignal();
+            doneSignal.waitSignal(cancelToken);
+
+            if (doneSignal == getCurrentDoneSignal()) {
+                return;
+            }
+        }
+    }
+}
@@ -4,6 +4,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import org.netbeans.gradle.project.model.GradleConnectionPool;
+import org.netbeans.gradle.project.model.GradleDaemonWarmer;
+import org.netbeans.gradle.project.output.TaskLogStore;
 
 public final class NbGradleModuleInstall extends Yenta {
     private static final long serialVersionUID = 1L;
@@ -18,4 +21,17 @@ public final class NbGradleModuleInstall extends Yenta {
         return FRIENDS;
     }
 
+    @Override
+    public void restored() {
+        super.restored();
+        GradleDaemonWarmer.getDefault().scheduleWarmup();
+    }
+
+    @Override
+    public void close() {
+        GradleDaemonWarmer.getDefault().cancelWarmup();
+        GradleConnectionPool.getDefault().close();
+        TaskLogStore.closeRetainedLogs();
+        super.close();
+    }
 }
@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
+import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.CancellationToken;
 import org.jtrim.property.PropertySource;
 import org.netbeans.api.project.Project;
@@ -143,14 +144,25 @@ public final class NbGradleProject implements Project {
 
     public void waitForLoadedProject(CancellationToken cancelToken) {
         getModelUpdater().waitForLoadedProject(cancelToken);
+        getModelManager().waitForActivation(cancelToken);
     }
 
     public boolean tryWaitForLoadedProject(long timeout, TimeUnit unit) {
-        return getModelUpdater().tryWaitForLoadedProject(timeout, unit);
+        return tryWaitForLoadedProject(Cancellation.UNCANCELABLE_TOKEN, timeout, unit);
     }
 
     public boolean tryWaitForLoadedProject(CancellationToken cancelToken, long timeout, TimeUnit unit) {
-        return getModelUpdater().tryWaitForLoadedProject(cancelToken, timeout, unit);
+        long startTime = System.nanoTime();
+        long timeoutNanos = unit.toNanos(timeout);
+
+        if (!getModelUpdater().tryWaitForLoadedProject(cancelToken, timeout, unit)) {
+            return false;
+        }
+
+        // The extensions are activated in the background after the model is
+        // set, and callers expect the extensions of a loaded project to be active.
+        long remainingNanos = Math.max(0, timeoutNanos - (System.nanoTime() - startTime));
+        return getModelManager().tryWaitForActivation(cancelToken, remainingNanos, TimeUnit.NANOSECONDS);
     }
 
     public NbGradleProjectExtensions getExtensions() {
@@ -213,6 +225,10 @@ public final class NbGradleProject implements Project {
         return name;
     }
 
+    public ProjectVisibilityTracker getVisibilityTracker() {
+        return getServiceObjects().visibilityTracker;
+    }
+
     public ProjectDisplayInfo getDisplayInfo() {
         return getServiceObjects().projectDisplayInfo;
     }
@@ -301,6 +317,7 @@ public final class NbGradleProject implements Project {
         public final BuiltInGradleCommandQuery mergedCommandQuery;
         public final SettingsFileManager settingsFileManager;
         public final ScriptFileProvider scriptFileProvider;
+        public final ProjectVisibilityTracker visibilityTracker;
 
         public final Lookup services;
         public final NbGradleProjectLookups projectLookups;
@@ -316,6 +333,8 @@ public final class NbGradleProject implements Project {
             ContextActionProvider provider = new ProjectContextActionProvider(project);
             serviceObjects.add(provider);
 
+            this.visibilityTracker = new ProjectVisibilityTracker();
+
             this.scriptFileProvider = add(NbGradleProjectFactory.DEFAULT_SCRIPT_FILE_PROVIDER, serviceObjects);
             Path predictedSettingsDir = getSettingsDir(project.getProjectDirectoryAsPath(), this.scriptFileProvider);
             this.configProvider = add(
@@ -459,6 +459,26 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.ConfirmStopTask", taskName);
     }
 
+    public static String getSearchTaskLogCaption() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.SearchTaskLogCaption");
+    }
+
+    public static String getSearchTaskLogDescription() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.SearchTaskLogDescription");
+    }
+
+    public static String getSearchTaskLogPrompt() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.SearchTaskLogPrompt");
+    }
+
+    public static String getSearchTaskLogResultTitle(String text, int matchCount) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.SearchTaskLogResultTitle", text, matchCount);
+    }
+
+    public static String getOutputTruncatedMessage(String logDir) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.OutputTruncatedMessage", logDir);
+    }
+
     public static String getReRunDiffName() {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.ReRunDiffName");
     }
@@ -661,6 +681,14 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.Invalid");
     }
 
+    public static String getJsonFileFilterDescription() {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.JsonFileFilterDescription");
+    }
+
+    public static String getExportModelLoadTimelineFailure(String errorMessage) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.ExportModelLoadTimelineFailure", errorMessage);
+    }
+
     private NbStrings() {
         throw new AssertionError();
     }
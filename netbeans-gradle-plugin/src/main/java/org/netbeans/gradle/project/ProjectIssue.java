@@ -5,6 +5,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.util.LazyValue;
+import org.netbeans.gradle.project.util.NbSupplier;
 
 public final class ProjectIssue {
     private final List<Entry> entries;
@@ -22,20 +24,48 @@ public final class ProjectIssue {
     public static final class Entry {
         private final Kind kind;
         private final String summary;
-        private final String details;
+        private final NbSupplier<String> detailsProvider;
 
         public Entry(Kind kind, String summary) {
             this(kind, summary, summary);
         }
 
         public Entry(Kind kind, String summary, String details) {
+            this(kind, summary, constDetails(details));
+        }
+
+        /**
+         * Creates an entry whose details are only created when they are first
+         * requested. This is useful if the details are expensive to format
+         * (e.g., they contain stack traces) but rarely viewed.
+         *
+         * @param kind the kind of the issue. This argument cannot be
+         *   {@code null}.
+         * @param summary the short description of the issue. This argument
+         *   cannot be {@code null}.
+         * @param detailsProvider the provider of the detailed description of
+         *   the issue. This provider is called at most once and must not
+         *   return {@code null}. This argument cannot be {@code null}.
+         */
+        public Entry(Kind kind, String summary, NbSupplier<String> detailsProvider) {
             ExceptionHelper.checkNotNullArgument(kind, "kind");
             ExceptionHelper.checkNotNullArgument(summary, "summary");
-            ExceptionHelper.checkNotNullArgument(details, "details");
+            ExceptionHelper.checkNotNullArgument(detailsProvider, "detailsProvider");
 
             this.kind = kind;
             this.summary = summary;
-            this.details = details;
+            this.detailsProvider = new LazyValue<>(detailsProvider);
+        }
+
+        private static NbSupplier<String> constDetails(final String details) {
+            ExceptionHelper.checkNotNullArgument(details, "details");
+
+            return new NbSupplier<String>() {
+                @Override
+                public String get() {
+                    return details;
+                }
+            };
         }
 
         public Kind getKind() {
@@ -47,7 +77,7 @@ public final class ProjectIssue {
         }
 
         public String getDetails() {
-            return details;
+            return detailsProvider.get();
         }
     }
 
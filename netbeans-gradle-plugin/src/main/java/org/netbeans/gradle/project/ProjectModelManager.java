@@ -4,10 +4,14 @@ package org.netbeans.gradle.project;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.SwingUtilities;
+import org.jtrim.cancel.CancellationToken;
 import org.jtrim.concurrent.UpdateTaskExecutor;
 import org.jtrim.property.PropertySource;
 import org.jtrim.swing.concurrent.SwingUpdateTaskExecutor;
@@ -15,6 +19,7 @@ import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.project.event.ChangeListenerManager;
 import org.netbeans.gradle.project.event.GenericChangeListenerManager;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.model.ModelLoadTimeline;
 import org.netbeans.gradle.project.model.ModelRefreshListener;
 import org.netbeans.gradle.project.model.ModelRetrievedListener;
 import org.netbeans.gradle.project.model.NbGradleModel;
@@ -24,6 +29,7 @@ import org.netbeans.gradle.project.query.GradleCacheBinaryForSourceQuery;
 import org.netbeans.gradle.project.query.GradleCacheByBinaryLookup;
 import org.netbeans.gradle.project.util.LazyValue;
 import org.netbeans.gradle.project.util.NbSupplier;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
 
 final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel> {
     private static final Logger LOGGER = Logger.getLogger(ProjectModelManager.class.getName());
@@ -36,6 +42,11 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
     private final UpdateTaskExecutor modelUpdater;
     private final Runnable modelUpdateDispatcher;
 
+    // Setting the current model and submitting its activation must be atomic,
+    // otherwise an outdated model might be activated last.
+    private final Lock modelSetLock;
+    private final ModelActivationQueue<NbGradleModel> activationQueue;
+
     public ProjectModelManager(final NbGradleProject project, final NbGradleModel initialModel) {
         ExceptionHelper.checkNotNullArgument(project, "project");
         ExceptionHelper.checkNotNullArgument(initialModel, "initialModel");
@@ -45,6 +56,17 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
         this.currentModelRef = new AtomicReference<>(initialModel);
         this.currentModel = NbProperties.atomicValueView(currentModelRef, modelChangeListeners);
         this.modelUpdater = new SwingUpdateTaskExecutor(true);
+        this.modelSetLock = new ReentrantLock();
+        // The activations of a project are executed in order, so they do not
+        // overlap. Activations of different projects may run concurrently.
+        this.activationQueue = new ModelActivationQueue<>(
+                NbTaskExecutors.newDefaultUpdateExecutor(),
+                new ModelActivationQueue.Activator<NbGradleModel>() {
+                    @Override
+                    public void activate(CancellationToken cancelToken, NbGradleModel model) {
+                        updateExtensionActivation(cancelToken, model);
+                    }
+                });
         this.modelUpdateDispatcher = new Runnable() {
             @Override
             public void run() {
@@ -80,9 +102,12 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
         modelUpdater.execute(modelUpdateDispatcher);
     }
 
-    private boolean safelyLoadExtensions(NbGradleExtensionRef extension, Object model) {
+    private boolean safelyLoadExtensions(
+            CancellationToken cancelToken,
+            NbGradleExtensionRef extension,
+            Object model) {
         try {
-            return extension.setModelForExtension(model);
+            return extension.setModelForExtension(cancelToken, model);
         } catch (Throwable ex) {
             LOGGER.log(Level.SEVERE, "Extension has thrown an unexpected exception: " + extension.getName(), ex);
             return false;
@@ -93,26 +118,35 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
         return project.getExtensions().getExtensionRefs();
     }
 
-    private boolean notifyEmptyModelChange() {
-        boolean changedAny = false;
-        for (NbGradleExtensionRef extensionRef: getExtensionRefs()) {
-            boolean changed = safelyLoadExtensions(extensionRef, null);
-            changedAny = changedAny || changed;
-        }
-        fireModelChangeEvent();
-        return changedAny;
-    }
-
-    private boolean notifyModelChange(NbGradleModel model) {
+    private ActivationResult notifyModelChange(
+            CancellationToken cancelToken,
+            NbGradleModel model,
+            ModelLoadTimeline.LoadTrace trace) {
         // TODO: Consider conflicts
         //   GradleProjectExtensionDef.getSuppressedExtensions()
         boolean changedAny = false;
         for (NbGradleExtensionRef extensionRef: getExtensionRefs()) {
-            boolean changed = safelyLoadExtensions(extensionRef, model.getModelOfExtension(extensionRef));
+            if (cancelToken.isCanceled()) {
+                // A newer model is waiting to be activated which will update
+                // every extension anyway.
+                return new ActivationResult(changedAny, true);
+            }
+
+            Object extensionModel = model != null ? model.getModelOfExtension(extensionRef) : null;
+
+            ModelLoadTimeline.SpanTimer activateTimer = trace.startSpan(
+                    ModelLoadTimeline.PHASE_ACTIVATE_EXTENSION,
+                    trace.getProjectDir(),
+                    extensionRef.getName());
+            // Extensions supporting it also stop their own activation when
+            // a newer model arrives.
+            boolean changed = safelyLoadExtensions(cancelToken, extensionRef, extensionModel);
+            activateTimer.end();
+
             changedAny = changedAny || changed;
         }
         fireModelChangeEvent();
-        return changedAny;
+        return new ActivationResult(changedAny, cancelToken.isCanceled());
     }
 
     private void startRefresh(Collection<ModelRefreshListener> listeners) {
@@ -135,19 +169,19 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
         }
     }
 
-    private void updateExtensionActivation(NbGradleModel model) {
+    private void updateExtensionActivation(CancellationToken cancelToken, NbGradleModel model) {
+        ModelLoadTimeline.LoadTrace trace = ModelLoadTimeline.getDefault()
+                .newLoadTrace(project.getProjectDirectoryAsFile());
+        ModelLoadTimeline.SpanTimer activationTimer = trace.startSpan(ModelLoadTimeline.PHASE_ACTIVATE_EXTENSIONS);
+
         Collection<ModelRefreshListener> refreshListeners = new ArrayList<>(project.getLookup().lookupAll(ModelRefreshListener.class));
-        boolean extensionsChanged = false;
+        ActivationResult result = null;
         startRefresh(refreshListeners);
         try {
-            if (model == null) {
-                extensionsChanged = notifyEmptyModelChange();
-            }
-            else {
-                extensionsChanged = notifyModelChange(model);
-            }
+            result = notifyModelChange(cancelToken, model, trace);
         } finally {
-            endRefresh(refreshListeners, extensionsChanged);
+            endRefresh(refreshListeners, result != null && result.extensionsChanged);
+            activationTimer.endWithDetail(result != null && result.canceled ? "canceled" : null);
         }
     }
 
@@ -159,12 +193,37 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
         updateModel(model, null);
     }
 
+    /**
+     * Waits until the extensions are activated with the current model.
+     */
+    public boolean tryWaitForActivation(CancellationToken cancelToken, long timeout, TimeUnit unit) {
+        return activationQueue.tryWaitForActivation(cancelToken, timeout, unit);
+    }
+
+    /**
+     * Waits until the extensions are activated with the current model.
+     */
+    public void waitForActivation(CancellationToken cancelToken) {
+        activationQueue.waitForActivation(cancelToken);
+    }
+
+    /**
+     * Sets the current model of the project and starts activating the
+     * extensions with it in the background. The activation of the previous
+     * model is abandoned, if it is still in progress.
+     */
     @Override
     public void updateModel(NbGradleModel model, Throwable error) {
-        boolean hasChanged = false;
         if (model != null) {
-            NbGradleModel prevModel = currentModelRef.getAndSet(model);
-            hasChanged = prevModel != model;
+            modelSetLock.lock();
+            try {
+                NbGradleModel prevModel = currentModelRef.getAndSet(model);
+                if (prevModel != model) {
+                    activationQueue.submit(model);
+                }
+            } finally {
+                modelSetLock.unlock();
+            }
         }
         if (error != null) {
             ProjectIssue.Entry entry = new ProjectIssue.Entry(ProjectIssue.Kind.ERROR, NbStrings.getErrorLoadingProject(error));
@@ -175,9 +234,15 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
         else {
             getLoadErrorRef().setInfo(null);
         }
-        if (hasChanged) {
-            updateExtensionActivation(model);
-        }
     }
 
+    private static final class ActivationResult {
+        public final boolean extensionsChanged;
+        public final boolean canceled;
+
+        public ActivationResult(boolean extensionsChanged, boolean canceled) {
+            this.extensionsChanged = extensionsChanged;
+            this.canceled = canceled;
+        }
+    }
 }
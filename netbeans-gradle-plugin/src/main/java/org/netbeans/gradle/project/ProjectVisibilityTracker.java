@@ -0,0 +1,183 @@
+package org.netbeans.gradle.project;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.TaskExecutors;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.property.MutableProperty;
+import org.jtrim.property.PropertyFactory;
+import org.jtrim.property.PropertySource;
+import org.jtrim.swing.concurrent.SwingTaskExecutor;
+import org.netbeans.api.project.FileOwnerQuery;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
+import org.openide.filesystems.FileObject;
+import org.openide.loaders.DataObject;
+import org.openide.windows.TopComponent;
+
+/**
+ * Tracks if a project is currently of interest to the user. That is, if it has
+ * a file opened in an editor or its node is expanded in the project view.
+ * Such projects are loaded before other projects.
+ */
+public final class ProjectVisibilityTracker {
+    private static final TaskExecutor EDITOR_SCAN_EXECUTOR
+            = TaskExecutors.inOrderSimpleExecutor(NbTaskExecutors.DEFAULT_EXECUTOR);
+    private static final AtomicBoolean EDITOR_LISTENER_REGISTERED = new AtomicBoolean(false);
+    // Guarded by itself
+    private static final Set<NbGradleProject> PROJECTS_WITH_EDITORS
+            = Collections.newSetFromMap(new WeakHashMap<NbGradleProject, Boolean>());
+
+    private final AtomicInteger expandedNodeCount;
+    private volatile boolean hasOpenedEditors;
+    private final MutableProperty<Boolean> visible;
+
+    public ProjectVisibilityTracker() {
+        this.expandedNodeCount = new AtomicInteger(0);
+        this.hasOpenedEditors = false;
+        this.visible = PropertyFactory.memPropertyConcurrent(false, SwingTaskExecutor.getStrictExecutor(false));
+
+        registerEditorListenerIfNeeded();
+    }
+
+    /**
+     * Returns the property which is {@code true} if the project is currently
+     * of interest to the user.
+     *
+     * @return the property which is {@code true} if the project is currently
+     *   of interest to the user. This method never returns {@code null}.
+     */
+    public PropertySource<Boolean> visible() {
+        return PropertyFactory.protectedView(visible);
+    }
+
+    /**
+     * Marks that a node of the project has been expanded. The returned
+     * reference must be unregistered when the node is collapsed.
+     *
+     * @return the reference to unregister when the node is collapsed. This
+     *   method never returns {@code null}.
+     */
+    public ListenerRef nodeExpanded() {
+        expandedNodeCount.incrementAndGet();
+        updateVisible();
+
+        return new ListenerRef() {
+            private final AtomicBoolean registered = new AtomicBoolean(true);
+
+            @Override
+            public boolean isRegistered() {
+                return registered.get();
+            }
+
+            @Override
+            public void unregister() {
+                if (registered.getAndSet(false)) {
+                    expandedNodeCount.decrementAndGet();
+                    updateVisible();
+                }
+            }
+        };
+    }
+
+    private void setHasOpenedEditors(boolean hasOpenedEditors) {
+        this.hasOpenedEditors = hasOpenedEditors;
+        updateVisible();
+    }
+
+    private void updateVisible() {
+        visible.setValue(hasOpenedEditors || expandedNodeCount.get() > 0);
+    }
+
+    private static void registerEditorListenerIfNeeded() {
+        if (!EDITOR_LISTENER_REGISTERED.compareAndSet(false, true)) {
+            return;
+        }
+
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                TopComponent.getRegistry().addPropertyChangeListener(new PropertyChangeListener() {
+                    @Override
+                    public void propertyChange(PropertyChangeEvent evt) {
+                        String property = evt.getPropertyName();
+                        if (TopComponent.Registry.PROP_TC_OPENED.equals(property)
+                                || TopComponent.Registry.PROP_TC_CLOSED.equals(property)) {
+                            scanEditorsLater();
+                        }
+                    }
+                });
+                scanEditorsLater();
+            }
+        });
+    }
+
+    private static void scanEditorsLater() {
+        assert SwingUtilities.isEventDispatchThread();
+
+        final List<FileObject> openedFiles = getOpenedFiles();
+        EDITOR_SCAN_EXECUTOR.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+                updateProjectsWithEditors(findOwnerProjects(openedFiles));
+            }
+        }, null);
+    }
+
+    private static List<FileObject> getOpenedFiles() {
+        Set<TopComponent> openedComponents = TopComponent.getRegistry().getOpened();
+        List<FileObject> result = new ArrayList<>(openedComponents.size());
+        for (TopComponent component: openedComponents) {
+            DataObject dataObj = component.getLookup().lookup(DataObject.class);
+            if (dataObj != null) {
+                result.add(dataObj.getPrimaryFile());
+            }
+        }
+        return result;
+    }
+
+    private static Set<NbGradleProject> findOwnerProjects(List<FileObject> files) {
+        Set<NbGradleProject> result = new HashSet<>();
+        for (FileObject file: files) {
+            Project owner = FileOwnerQuery.getOwner(file);
+            NbGradleProject gradleProject = owner != null
+                    ? NbGradleProjectFactory.tryGetGradleProject(owner)
+                    : null;
+            if (gradleProject != null) {
+                result.add(gradleProject);
+            }
+        }
+        return result;
+    }
+
+    private static void updateProjectsWithEditors(Set<NbGradleProject> newProjects) {
+        synchronized (PROJECTS_WITH_EDITORS) {
+            for (NbGradleProject project: PROJECTS_WITH_EDITORS) {
+                if (!newProjects.contains(project)) {
+                    project.getVisibilityTracker().setHasOpenedEditors(false);
+                }
+            }
+            for (NbGradleProject project: newProjects) {
+                if (!PROJECTS_WITH_EDITORS.contains(project)) {
+                    project.getVisibilityTracker().setHasOpenedEditors(true);
+                }
+            }
+
+            PROJECTS_WITH_EDITORS.clear();
+            PROJECTS_WITH_EDITORS.addAll(newProjects);
+        }
+    }
+}
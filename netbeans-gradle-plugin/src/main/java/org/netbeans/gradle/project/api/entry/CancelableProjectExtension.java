@@ -0,0 +1,39 @@
+package org.netbeans.gradle.project.api.entry;
+
+import javax.annotation.Nonnull;
+import org.jtrim.cancel.CancellationToken;
+
+/**
+ * Defines an extension whose activation may be abandoned when a newer model of
+ * the project arrives. If a {@link GradleProjectExtension2} also implements
+ * this interface, the Gradle plugin calls the
+ * {@link #activateExtension(CancellationToken, Object) activateExtension}
+ * method of this interface instead of
+ * {@link GradleProjectExtension2#activateExtension(Object)}.
+ * <P>
+ * Instances of this interface must be safe to be called by multiple threads
+ * concurrently but they are not required to be
+ * <I>synchronization transparent</I> unless otherwise noted.
+ *
+ * @param <ModelType> the type of the parsed model storing the information
+ *   retrieved from the evaluated build script of the Gradle project
+ *
+ * @see GradleProjectExtension2
+ */
+public interface CancelableProjectExtension<ModelType> {
+    /**
+     * Activates the extension with the given model, the same way as
+     * {@link GradleProjectExtension2#activateExtension(Object)}.
+     * <P>
+     * The activation may return early without completing the activation if
+     * the given cancellation token is signaled. The cancellation token is only
+     * signaled if a newer model is available, in which case the extension is
+     * going to be activated (or deactivated) again after this method returns.
+     *
+     * @param cancelToken the cancellation token signaling that the given model
+     *   is outdated. This argument cannot be {@code null}.
+     * @param parsedModel the model of the project. This argument cannot be
+     *   {@code null}.
+     */
+    public void activateExtension(@Nonnull CancellationToken cancelToken, @Nonnull ModelType parsedModel);
+}
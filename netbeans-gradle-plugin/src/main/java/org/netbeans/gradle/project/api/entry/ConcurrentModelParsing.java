@@ -0,0 +1,20 @@
+package org.netbeans.gradle.project.api.entry;
+
+/**
+ * Declares that the {@link GradleProjectExtensionDef#parseModel(ModelLoadResult) parseModel}
+ * method of an extension may be called concurrently for multiple projects of
+ * the same build. An extension declares this by adding {@link #INSTANCE} to the
+ * lookup returned by {@link GradleProjectExtensionDef#getLookup()}.
+ * <P>
+ * Extensions not declaring this property are parsing the models of the
+ * projects one after another, on a single thread.
+ */
+public final class ConcurrentModelParsing {
+    /**
+     * The instance to be added to the lookup of the extension.
+     */
+    public static final ConcurrentModelParsing INSTANCE = new ConcurrentModelParsing();
+
+    private ConcurrentModelParsing() {
+    }
+}
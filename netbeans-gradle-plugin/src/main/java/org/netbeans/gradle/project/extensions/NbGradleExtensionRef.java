@@ -4,7 +4,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
 import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.api.entry.CancelableProjectExtension;
+import org.netbeans.gradle.project.api.entry.ConcurrentModelParsing;
 import org.netbeans.gradle.project.api.entry.GradleProjectExtension2;
 import org.netbeans.gradle.project.api.entry.GradleProjectExtensionDef;
 import org.netbeans.gradle.project.api.entry.ModelLoadResult;
@@ -84,6 +88,19 @@ public final class NbGradleExtensionRef {
         return displayName;
     }
 
+    /**
+     * Returns {@code true} if the extension declared that its models can be
+     * parsed concurrently for multiple projects.
+     *
+     * @return {@code true} if the extension declared that its models can be
+     *   parsed concurrently, {@code false} otherwise
+     *
+     * @see ConcurrentModelParsing
+     */
+    public boolean isConcurrentParsingAllowed() {
+        return getExtensionDef().getLookup().lookup(ConcurrentModelParsing.class) != null;
+    }
+
     public String getName() {
         return name;
     }
@@ -139,6 +156,10 @@ public final class NbGradleExtensionRef {
     }
 
     public boolean setModelForExtension(Object model) {
+        return setModelForExtension(Cancellation.UNCANCELABLE_TOKEN, model);
+    }
+
+    public boolean setModelForExtension(CancellationToken cancelToken, Object model) {
         boolean active = model != null;
         boolean prevActive = lastActive.getAndSet(active);
 
@@ -154,7 +175,7 @@ public final class NbGradleExtensionRef {
                     extension.getPermanentProjectLookup(),
                     extension.getProjectLookup());
 
-            defWithExtension.activate(model);
+            defWithExtension.activate(cancelToken, model);
         }
         else {
             projectLookup.replaceLookups(extension.getPermanentProjectLookup());
@@ -187,10 +208,20 @@ public final class NbGradleExtensionRef {
             }
         }
 
-        public void activate(Object model) {
+        public void activate(CancellationToken cancelToken, Object model) {
+            ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
             ExceptionHelper.checkNotNullArgument(model, "model");
 
-            extension.activateExtension(modelType.cast(model));
+            ModelType typedModel = modelType.cast(model);
+            if (extension instanceof CancelableProjectExtension) {
+                @SuppressWarnings("unchecked")
+                CancelableProjectExtension<ModelType> cancelableExtension
+                        = (CancelableProjectExtension<ModelType>)extension;
+                cancelableExtension.activateExtension(cancelToken, typedModel);
+            }
+            else {
+                extension.activateExtension(typedModel);
+            }
         }
 
         public void deactivate() {
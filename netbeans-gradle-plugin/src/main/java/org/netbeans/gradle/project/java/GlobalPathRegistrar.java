@@ -0,0 +1,317 @@
+package org.netbeans.gradle.project.java;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.java.classpath.GlobalPathRegistry;
+import org.netbeans.gradle.project.util.NbSupplier;
+
+/**
+ * Collects the class path registrations and unregistrations of the projects
+ * and applies them to the {@link GlobalPathRegistry} together. Every call
+ * of the registry notifies its listeners (most importantly the indexer), so
+ * when many projects are opened at once, it is better to register their
+ * class paths in a few bulk updates.
+ * <P>
+ * Requests are applied after no new request has arrived for a short while,
+ * but no later than ten times this delay after the first pending request.
+ */
+final class GlobalPathRegistrar {
+    private static final Logger LOGGER = Logger.getLogger(GlobalPathRegistrar.class.getName());
+
+    public static final String DELAY_PROPERTY = "org.netbeans.gradle.classPathRegistrationDelayMs";
+    private static final long DEFAULT_DELAY_MS = 200;
+    private static final int MAX_DELAY_FACTOR = 10;
+
+    private static final GlobalPathRegistrar DEFAULT = new GlobalPathRegistrar(getConfiguredDelayMs());
+
+    private final long delayNanos;
+    private final PathRegistry registry;
+    private final ScheduledExecutorService timer;
+    private final NbSupplier<Long> nanoTimeProvider;
+
+    private final Lock mainLock;
+    // The class paths per class path type. Guarded by mainLock
+    private final Map<String, List<ClassPath>> pendingRegistrations;
+    // The class paths per class path type. Guarded by mainLock
+    private final Map<String, List<ClassPath>> pendingUnregistrations;
+    // Guarded by mainLock
+    private long firstRequestTime;
+    // Guarded by mainLock
+    private long lastRequestTime;
+    // Guarded by mainLock
+    private boolean flushScheduled;
+
+    public GlobalPathRegistrar(long delayMs) {
+        this(delayMs, new DefaultPathRegistry(), createTimer(), new NbSupplier<Long>() {
+            @Override
+            public Long get() {
+                return System.nanoTime();
+            }
+        });
+    }
+
+    GlobalPathRegistrar(
+            long delayMs,
+            PathRegistry registry,
+            ScheduledExecutorService timer,
+            NbSupplier<Long> nanoTimeProvider) {
+        ExceptionHelper.checkArgumentInRange(delayMs, 0, Long.MAX_VALUE, "delayMs");
+        ExceptionHelper.checkNotNullArgument(registry, "registry");
+        ExceptionHelper.checkNotNullArgument(timer, "timer");
+        ExceptionHelper.checkNotNullArgument(nanoTimeProvider, "nanoTimeProvider");
+
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMs);
+        this.registry = registry;
+        this.timer = timer;
+        this.nanoTimeProvider = nanoTimeProvider;
+        this.mainLock = new ReentrantLock();
+        this.pendingRegistrations = new HashMap<>();
+        this.pendingUnregistrations = new HashMap<>();
+        this.firstRequestTime = 0;
+        this.lastRequestTime = 0;
+        this.flushScheduled = false;
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        return Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread result = new Thread(task, "Global-Path-Registrar");
+                result.setDaemon(true);
+                return result;
+            }
+        });
+    }
+
+    public static GlobalPathRegistrar getDefault() {
+        return DEFAULT;
+    }
+
+    private static long getConfiguredDelayMs() {
+        String delayStr = System.getProperty(DELAY_PROPERTY);
+        if (delayStr == null) {
+            return DEFAULT_DELAY_MS;
+        }
+
+        try {
+            return Math.max(0, Long.parseLong(delayStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid class path registration delay: {0}", delayStr);
+            return DEFAULT_DELAY_MS;
+        }
+    }
+
+    /**
+     * Requests the given class path to be registered in the global path
+     * registry.
+     *
+     * @param type the type of the class path (e.g.: {@link ClassPath#SOURCE}).
+     *   This argument cannot be {@code null}.
+     * @param classPath the class path to be registered. This argument cannot
+     *   be {@code null}.
+     */
+    public void register(String type, ClassPath classPath) {
+        ExceptionHelper.checkNotNullArgument(type, "type");
+        ExceptionHelper.checkNotNullArgument(classPath, "classPath");
+
+        addRequest(type, classPath, pendingRegistrations, pendingUnregistrations);
+    }
+
+    /**
+     * Requests the given class path to be unregistered from the global path
+     * registry. The class path must have been passed to the
+     * {@link #register(String, ClassPath) register} method before.
+     *
+     * @param type the type of the class path (e.g.: {@link ClassPath#SOURCE}).
+     *   This argument cannot be {@code null}.
+     * @param classPath the class path to be unregistered. This argument
+     *   cannot be {@code null}.
+     */
+    public void unregister(String type, ClassPath classPath) {
+        ExceptionHelper.checkNotNullArgument(type, "type");
+        ExceptionHelper.checkNotNullArgument(classPath, "classPath");
+
+        addRequest(type, classPath, pendingUnregistrations, pendingRegistrations);
+    }
+
+    private void addRequest(
+            String type,
+            ClassPath classPath,
+            Map<String, List<ClassPath>> requests,
+            Map<String, List<ClassPath>> oppositeRequests) {
+
+        long requestTime = nanoTimeProvider.get();
+
+        boolean scheduleFlush;
+        mainLock.lock();
+        try {
+            // A registration and an unregistration of the same class path
+            // cancel each other, so the registry never has to see them.
+            if (!removeIdentical(oppositeRequests, type, classPath)) {
+                List<ClassPath> classPaths = requests.get(type);
+                if (classPaths == null) {
+                    classPaths = new ArrayList<>();
+                    requests.put(type, classPaths);
+                }
+                classPaths.add(classPath);
+            }
+
+            if (!flushScheduled) {
+                firstRequestTime = requestTime;
+            }
+            lastRequestTime = requestTime;
+
+            scheduleFlush = !flushScheduled;
+            flushScheduled = true;
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (scheduleFlush) {
+            scheduleFlush(delayNanos);
+        }
+    }
+
+    private static boolean removeIdentical(
+            Map<String, List<ClassPath>> requests,
+            String type,
+            ClassPath classPath) {
+        List<ClassPath> classPaths = requests.get(type);
+        if (classPaths == null) {
+            return false;
+        }
+
+        for (int i = classPaths.size() - 1; i >= 0; i--) {
+            if (classPaths.get(i) == classPath) {
+                classPaths.remove(i);
+                if (classPaths.isEmpty()) {
+                    requests.remove(type);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scheduleFlush(long delayNanos) {
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.SEVERE, "Unexpected failure while registering class paths.", ex);
+                }
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void flush() {
+        long now = nanoTimeProvider.get();
+
+        Map<String, List<ClassPath>> registrations;
+        Map<String, List<ClassPath>> unregistrations;
+
+        mainLock.lock();
+        try {
+            long remainingDelay = Math.min(
+                    lastRequestTime + delayNanos - now,
+                    firstRequestTime + MAX_DELAY_FACTOR * delayNanos - now);
+            if (remainingDelay > 0) {
+                // More requests have arrived since this flush was scheduled,
+                // so wait a little more for the rest of them.
+                scheduleFlush(remainingDelay);
+                return;
+            }
+
+            flushScheduled = false;
+
+            registrations = new HashMap<>(pendingRegistrations);
+            unregistrations = new HashMap<>(pendingUnregistrations);
+            pendingRegistrations.clear();
+            pendingUnregistrations.clear();
+        } finally {
+            mainLock.unlock();
+        }
+
+        // Register first, so that roots shared by a closed and an opened
+        // project are not removed from the registry temporarily.
+        for (Map.Entry<String, List<ClassPath>> entry: registrations.entrySet()) {
+            List<ClassPath> classPaths = entry.getValue();
+            LOGGER.log(Level.FINE, "Registering {0} class paths of type {1}",
+                    new Object[]{classPaths.size(), entry.getKey()});
+            registry.register(entry.getKey(), classPaths.toArray(new ClassPath[classPaths.size()]));
+        }
+
+        for (Map.Entry<String, List<ClassPath>> entry: unregistrations.entrySet()) {
+            List<ClassPath> classPaths = entry.getValue();
+            LOGGER.log(Level.FINE, "Unregistering {0} class paths of type {1}",
+                    new Object[]{classPaths.size(), entry.getKey()});
+            try {
+                registry.unregister(entry.getKey(), classPaths.toArray(new ClassPath[classPaths.size()]));
+            } catch (IllegalArgumentException ex) {
+                // The batch is rejected if any of the class paths is not
+                // registered, so the others must be unregistered separately.
+                LOGGER.log(Level.FINE, "Failed to unregister class paths of type " + entry.getKey()
+                        + " at once, unregistering them one by one.", ex);
+                unregisterOneByOne(entry.getKey(), classPaths);
+            }
+        }
+    }
+
+    private void unregisterOneByOne(String type, List<ClassPath> classPaths) {
+        // The failed batch might have already unregistered some of them.
+        Set<ClassPath> registeredPaths = registry.getPaths(type);
+        for (ClassPath classPath: classPaths) {
+            if (!registeredPaths.contains(classPath)) {
+                continue;
+            }
+
+            try {
+                registry.unregister(type, new ClassPath[]{classPath});
+            } catch (IllegalArgumentException ex) {
+                LOGGER.log(Level.WARNING, "Failed to unregister class path of type " + type + ": " + classPath, ex);
+            }
+        }
+    }
+
+    /**
+     * The registry where the class paths are eventually registered. This is
+     * {@link GlobalPathRegistry} except in tests.
+     */
+    interface PathRegistry {
+        public void register(String type, ClassPath[] classPaths);
+        public void unregister(String type, ClassPath[] classPaths);
+        public Set<ClassPath> getPaths(String type);
+    }
+
+    private static final class DefaultPathRegistry implements PathRegistry {
+        @Override
+        public void register(String type, ClassPath[] classPaths) {
+            GlobalPathRegistry.getDefault().register(type, classPaths);
+        }
+
+        @Override
+        public void unregister(String type, ClassPath[] classPaths) {
+            GlobalPathRegistry.getDefault().unregister(type, classPaths);
+        }
+
+        @Override
+        public Set<ClassPath> getPaths(String type) {
+            return GlobalPathRegistry.getDefault().getPaths(type);
+        }
+    }
+}
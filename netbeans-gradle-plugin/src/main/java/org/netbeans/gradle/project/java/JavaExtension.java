@@ -4,8 +4,6 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.IOException;
-import java.net.URI;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -13,6 +11,8 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
 import org.jtrim.event.ListenerRef;
 import org.jtrim.property.MutableProperty;
 import org.jtrim.property.PropertyFactory;
@@ -23,7 +23,6 @@ import org.jtrim.property.swing.SwingPropertySource;
 import org.jtrim.swing.concurrent.SwingTaskExecutor;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.java.classpath.ClassPath;
-import org.netbeans.api.java.classpath.GlobalPathRegistry;
 import org.netbeans.api.project.FileOwnerQuery;
 import org.netbeans.api.project.Project;
 import org.netbeans.gradle.model.java.JavaOutputDirs;
@@ -35,6 +34,7 @@ import org.netbeans.gradle.project.ProjectIssue;
 import org.netbeans.gradle.project.ProjectIssueManager;
 import org.netbeans.gradle.project.ProjectIssueRef;
 import org.netbeans.gradle.project.api.config.ProjectSettingsProvider;
+import org.netbeans.gradle.project.api.entry.CancelableProjectExtension;
 import org.netbeans.gradle.project.api.entry.GradleProjectExtension2;
 import org.netbeans.gradle.project.coverage.GradleCoverageProvider;
 import org.netbeans.gradle.project.event.ChangeListenerManager;
@@ -60,6 +60,8 @@ import org.netbeans.gradle.project.java.query.J2SEPlatformFromScriptQueryImpl;
 import org.netbeans.gradle.project.java.query.JavaInitScriptQuery;
 import org.netbeans.gradle.project.java.tasks.GradleJavaBuiltInCommands;
 import org.netbeans.gradle.project.java.tasks.JavaGradleTaskVariableQuery;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.model.NbGradleProjectTree;
 import org.netbeans.gradle.project.model.issue.DependencyResolutionIssue;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssueReporter;
 import org.netbeans.gradle.project.properties.NbProperties;
@@ -67,16 +69,20 @@ import org.netbeans.gradle.project.script.ScriptFileProvider;
 import org.netbeans.gradle.project.util.CloseableAction;
 import org.netbeans.gradle.project.util.CloseableActionContainer;
 import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.gradle.project.util.NbSupplier;
 import org.netbeans.spi.project.support.LookupProviderSupport;
 import org.netbeans.spi.project.ui.ProjectOpenedHook;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
 import org.openide.util.Lookup;
-import org.openide.util.Utilities;
 import org.openide.util.lookup.Lookups;
 import org.openide.util.lookup.ProxyLookup;
 
-public final class JavaExtension implements GradleProjectExtension2<NbJavaModel> {
+public final class JavaExtension
+implements
+        GradleProjectExtension2<NbJavaModel>,
+        CancelableProjectExtension<NbJavaModel> {
+
     private static final Logger LOGGER = Logger.getLogger(JavaExtension.class.getName());
 
     private final Project project;
@@ -88,6 +94,7 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
     private final AtomicReference<JavaSourceDirHandler> sourceDirsHandlerRef;
     private final ProjectIssueRef dependencyResolutionFailureRef;
     private final JavaProjectDependencies projectDependencies;
+    private final JavaOwnedDirs ownedDirs;
 
     private final AtomicReference<Lookup> projectLookupRef;
     private final AtomicReference<Lookup> permanentLookupRef;
@@ -115,6 +122,7 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
 
         this.cpProvider = new GradleClassPathProvider(this);
         this.projectDependencies = new JavaProjectDependencies(this);
+        this.ownedDirs = new JavaOwnedDirs(project, projectDirectoryAsFile);
         this.projectLookupRef = new AtomicReference<>(null);
         this.permanentLookupRef = new AtomicReference<>(null);
         this.extensionLookupRef = new AtomicReference<>(null);
@@ -211,23 +219,15 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
     }
 
     public boolean isOwnerProject(File file) {
-        FileObject fileObj;
-
-        File currentFile = file;
-        fileObj = FileUtil.toFileObject(currentFile);
-        while (fileObj == null) {
-            currentFile = currentFile.getParentFile();
-            if (currentFile == null) {
-                return false;
-            }
-
-            fileObj = FileUtil.toFileObject(currentFile);
-        }
-
-        return isOwnerProject(fileObj);
+        return ownedDirs.isOwned(file);
     }
 
     public boolean isOwnerProject(FileObject file) {
+        File fileAsFile = FileUtil.toFile(file);
+        if (fileAsFile != null) {
+            return isOwnerProject(fileAsFile);
+        }
+
         Project owner = FileOwnerQuery.getOwner(file);
         if (owner == null) {
             return false;
@@ -351,8 +351,11 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
         return lookup;
     }
 
-    private void fireModelChange() {
+    private void fireModelChange(CancellationToken cancelToken) {
         for (JavaModelChangeListener listener: getCombinedLookup().lookupAll(JavaModelChangeListener.class)) {
+            if (cancelToken.isCanceled()) {
+                return;
+            }
             listener.onModelChange();
         }
         projectDependencies.updateDependencies();
@@ -384,11 +387,18 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
 
         if (!issues.isEmpty()) {
             List<ProjectIssue.Entry> entries = new ArrayList<>(issues.size());
-            for (DependencyResolutionIssue issue: issues) {
+            for (final DependencyResolutionIssue issue: issues) {
+                // The exception chains are only walked if the user actually
+                // looks at the details of the problem.
                 entries.add(new ProjectIssue.Entry(
                         ProjectIssue.Kind.ERROR,
                         issue.getMessage(),
-                        getIssueDescription(issue)));
+                        new NbSupplier<String>() {
+                            @Override
+                            public String get() {
+                                return getIssueDescription(issue);
+                            }
+                        }));
             }
 
             dependencyResolutionFailureRef.setInfo(new ProjectIssue(entries));
@@ -444,54 +454,71 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
         return result;
     }
 
-    private void markOwnerIfNecessary(Path projectDir, File dir) {
-        if (!dir.toPath().startsWith(projectDir)) {
-            URI dirUri = Utilities.toURI(dir);
-            FileOwnerQuery.markExternalOwner(dirUri, project, FileOwnerQuery.EXTERNAL_ALGORITHM_TRANSIENT);
-        }
-    }
+    private void markOwnedDirs(NbJavaModule mainModule) {
+        List<File> dirs = new ArrayList<>();
+        for (JavaSourceSet sourceSet: mainModule.getSources()) {
+            JavaOutputDirs outputDirs = sourceSet.getOutputDirs();
+            dirs.addAll(outputDirs.getClassesDirs());
+            dirs.add(outputDirs.getResourcesDir());
+            dirs.addAll(outputDirs.getOtherDirs());
 
-    private void markOwnerIfNecessary(Path projectDir, Collection<? extends File> dirs) {
-        for (File dir: dirs) {
-            markOwnerIfNecessary(projectDir, dir);
+            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
+                dirs.addAll(sourceGroup.getSourceRoots());
+            }
         }
-    }
 
-    private void markOwnedOutputDirs(Path projectDir, JavaSourceSet sourceSet) {
-        JavaOutputDirs outputDirs = sourceSet.getOutputDirs();
-        markOwnerIfNecessary(projectDir, outputDirs.getClassesDirs());
-        markOwnerIfNecessary(projectDir, outputDirs.getResourcesDir());
-        markOwnerIfNecessary(projectDir, outputDirs.getOtherDirs());
+        ownedDirs.updateOwnedDirs(dirs, getBuildProjectDirs());
     }
 
-    private void markOwnedDirs(NbJavaModule mainModule) {
-        Path projectDir = getProjectDirectoryAsFile().toPath();
-        for (JavaSourceSet sourceSet: mainModule.getSources()) {
-            markOwnedOutputDirs(projectDir, sourceSet);
+    private Collection<File> getBuildProjectDirs() {
+        NbGradleModel gradleModel = NbGradleProjectFactory.getGradleProject(project).currentModel().getValue();
 
-            for (JavaSourceGroup sourceGroup: sourceSet.getSourceGroups()) {
-                markOwnerIfNecessary(projectDir, sourceGroup.getSourceRoots());
-            }
+        List<File> result = new ArrayList<>();
+        addProjectDirs(gradleModel.getProjectDef().getRootProject(), result);
+        return result;
+    }
+
+    private static void addProjectDirs(NbGradleProjectTree projectTree, List<File> result) {
+        result.add(projectTree.getProjectDir());
+        for (NbGradleProjectTree child: projectTree.getChildren()) {
+            addProjectDirs(child, result);
         }
     }
 
     @Override
     public void activateExtension(NbJavaModel parsedModel) {
+        activateExtension(Cancellation.UNCANCELABLE_TOKEN, parsedModel);
+    }
+
+    @Override
+    public void activateExtension(CancellationToken cancelToken, NbJavaModel parsedModel) {
+        ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
         ExceptionHelper.checkNotNullArgument(parsedModel, "parsedModel");
 
         currentModel.setValue(parsedModel);
         hasEverBeenLoaded = true;
 
+        // When canceled, the activation of the newer model does the rest of
+        // the work anyway.
+        if (cancelToken.isCanceled()) {
+            return;
+        }
+
         NbJavaModule mainModule = parsedModel.getMainModule();
 
         checkDependencyResolveProblems(mainModule);
-        markOwnedDirs(mainModule);
+        if (cancelToken.isCanceled()) {
+            return;
+        }
 
-        fireModelChange();
+        markOwnedDirs(mainModule);
+        fireModelChange(cancelToken);
     }
 
     @Override
     public void deactivateExtension() {
+        projectDependencies.releaseDependencies();
+        ownedDirs.close();
     }
 
     private static PropertySource<CloseableAction> classPathProviderProperty(
@@ -550,9 +577,11 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
     // OpenHook is important for debugging because the debugger relies on the
     // globally registered source class paths for source stepping.
     private static class OpenHook extends ProjectOpenedHook {
+        private final JavaExtension javaExt;
         private final CloseableActionContainer closeableActions;
 
         public OpenHook(JavaExtension javaExt) {
+            this.javaExt = javaExt;
             this.closeableActions = new CloseableActionContainer();
 
             closeableActions.defineAction(classPathProviderProperty(javaExt,
@@ -565,11 +594,17 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
         @Override
         protected void projectOpened() {
             closeableActions.open();
+            if (javaExt.hasEverBeenLoaded()) {
+                javaExt.markOwnedDirs(javaExt.getCurrentModel().getMainModule());
+                javaExt.projectDependencies.updateDependencies();
+            }
         }
 
         @Override
         protected void projectClosed() {
             closeableActions.close();
+            javaExt.projectDependencies.releaseDependencies();
+            javaExt.ownedDirs.close();
         }
     }
 
@@ -584,18 +619,18 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
 
         @Override
         public Ref open() {
-            final GlobalPathRegistry registry = GlobalPathRegistry.getDefault();
-            final ClassPath[] paths = new ClassPath[]{javaExt.cpProvider.getClassPaths(type)};
+            final GlobalPathRegistrar registrar = GlobalPathRegistrar.getDefault();
+            final ClassPath path = javaExt.cpProvider.getClassPaths(type);
 
             LOGGER.log(Level.FINE,
                     "Registering ClassPath ({0}) for project: {1}",
                     new Object[]{type, javaExt.getProjectDirectoryAsFile()});
-            registry.register(type, paths);
+            registrar.register(type, path);
 
             return new Ref() {
                 @Override
                 public void close() {
-                    registry.unregister(type, paths);
+                    registrar.unregister(type, path);
                     LOGGER.log(Level.FINE,
                             "Unregistered ClassPath ({0}) for project: {1}",
                             new Object[]{type, javaExt.getProjectDirectoryAsFile()});
@@ -11,6 +11,7 @@ import org.netbeans.api.project.Project;
 import org.netbeans.gradle.model.java.JavaModelBuilders;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.NbGradleProjectFactory;
+import org.netbeans.gradle.project.api.entry.ConcurrentModelParsing;
 import org.netbeans.gradle.project.api.entry.GradleProjectExtension2;
 import org.netbeans.gradle.project.api.entry.GradleProjectExtensionDef;
 import org.netbeans.gradle.project.api.entry.ModelLoadResult;
@@ -38,7 +39,7 @@ public final class JavaExtensionDef implements GradleProjectExtensionDef<NbJavaM
     private final Lookup lookup;
 
     public JavaExtensionDef() {
-        this.lookup = Lookups.fixed(new Query1(), new Query2());
+        this.lookup = Lookups.fixed(new Query1(), new Query2(), ConcurrentModelParsing.INSTANCE);
     }
 
     @Override
@@ -0,0 +1,259 @@
+package org.netbeans.gradle.project.java;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.project.FileOwnerQuery;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.util.PathTrie;
+import org.openide.util.Utilities;
+
+/**
+ * Maintains the directories owned by a project outside its project directory
+ * (e.g.: build output or generated sources) and answers which project owns a
+ * particular file, querying the {@code FileOwnerQuery} only when necessary.
+ * <P>
+ * The ownership of all the projects is stored in a single index, so the index
+ * knows about nested project directories as well. Only the directories
+ * changed since the previous update are (un)registered as external roots of
+ * the project. The global index only knows about Java projects, so the
+ * directories of the other Gradle projects nested within the project directory
+ * are recorded as well (they might not be Java projects), and files within
+ * them are not owned by this project.
+ * <P>
+ * The directories are removed from the index by the {@link #close() close}
+ * method, and are registered again by the next update.
+ * <P>
+ * The methods of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+public final class JavaOwnedDirs {
+    private static final ReentrantLock INDEX_LOCK = new ReentrantLock();
+    // Guarded by INDEX_LOCK
+    private static final PathTrie<IndexEntry> OWNER_INDEX = new PathTrie<>();
+
+    private final Project project;
+    private final Path projectDir;
+    // The project is not referenced from the index to avoid leaking it.
+    private final IndexEntry projectDirEntry;
+    private final IndexEntry externalDirEntry;
+
+    private final Lock updateLock;
+    // Guarded by updateLock
+    private Set<Path> externalDirs;
+    // Guarded by updateLock
+    private boolean registered;
+    // Guarded by updateLock
+    private Set<Path> nestedProjectDirs;
+    // Replaced on update but never modified after it was set.
+    private volatile PathTrie<Boolean> nestedProjectDirIndex;
+
+    public JavaOwnedDirs(Project project, File projectDir) {
+        ExceptionHelper.checkNotNullArgument(project, "project");
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+
+        this.project = project;
+        this.projectDir = normalize(projectDir.toPath());
+
+        Object ownerToken = new Object();
+        this.projectDirEntry = new IndexEntry(ownerToken, true);
+        this.externalDirEntry = new IndexEntry(ownerToken, false);
+
+        this.updateLock = new ReentrantLock();
+        this.externalDirs = Collections.emptySet();
+        this.registered = true;
+        this.nestedProjectDirs = Collections.emptySet();
+        this.nestedProjectDirIndex = new PathTrie<>();
+
+        INDEX_LOCK.lock();
+        try {
+            OWNER_INDEX.put(this.projectDir, projectDirEntry);
+        } finally {
+            INDEX_LOCK.unlock();
+        }
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Sets the directories owned by the project. Directories within the
+     * project directory are ignored because they are owned by the project
+     * anyway.
+     *
+     * @param dirs the directories owned by the project. This argument cannot
+     *   be {@code null}.
+     * @param buildProjectDirs the project directories of the Gradle projects
+     *   of the build. Only the directories nested within the directory of this
+     *   project are used, they are not owned by this project. This argument
+     *   cannot be {@code null}.
+     */
+    public void updateOwnedDirs(Collection<? extends File> dirs, Collection<? extends File> buildProjectDirs) {
+        ExceptionHelper.checkNotNullElements(dirs, "dirs");
+        ExceptionHelper.checkNotNullElements(buildProjectDirs, "buildProjectDirs");
+
+        Set<Path> newExternalDirs = new HashSet<>();
+        for (File dir: dirs) {
+            Path normDir = normalize(dir.toPath());
+            if (!normDir.startsWith(projectDir)) {
+                newExternalDirs.add(normDir);
+            }
+        }
+
+        Set<Path> newNestedProjectDirs = new HashSet<>();
+        for (File dir: buildProjectDirs) {
+            Path normDir = normalize(dir.toPath());
+            if (normDir.startsWith(projectDir) && !normDir.equals(projectDir)) {
+                newNestedProjectDirs.add(normDir);
+            }
+        }
+
+        updateLock.lock();
+        try {
+            if (!nestedProjectDirs.equals(newNestedProjectDirs)) {
+                PathTrie<Boolean> newIndex = new PathTrie<>();
+                for (Path dir: newNestedProjectDirs) {
+                    newIndex.put(dir, Boolean.TRUE);
+                }
+
+                nestedProjectDirs = newNestedProjectDirs;
+                nestedProjectDirIndex = newIndex;
+            }
+
+            Set<Path> removedDirs = new HashSet<>(externalDirs);
+            removedDirs.removeAll(newExternalDirs);
+
+            Set<Path> addedDirs = new HashSet<>(newExternalDirs);
+            addedDirs.removeAll(externalDirs);
+
+            if (registered && removedDirs.isEmpty() && addedDirs.isEmpty()) {
+                return;
+            }
+
+            for (Path dir: removedDirs) {
+                markExternalOwner(dir, null);
+            }
+            for (Path dir: addedDirs) {
+                markExternalOwner(dir, project);
+            }
+
+            updateIndex(removedDirs, addedDirs, true);
+            externalDirs = newExternalDirs;
+            registered = true;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the directories of the project from the index and unregisters
+     * its external roots. The next {@link #updateOwnedDirs(Collection) update}
+     * registers the directories again.
+     */
+    public void close() {
+        updateLock.lock();
+        try {
+            if (!registered) {
+                return;
+            }
+
+            for (Path dir: externalDirs) {
+                markExternalOwner(dir, null);
+            }
+
+            updateIndex(externalDirs, Collections.<Path>emptySet(), false);
+            externalDirs = Collections.emptySet();
+            registered = false;
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private static void markExternalOwner(Path dir, Project owner) {
+        URI dirUri = Utilities.toURI(dir.toFile());
+        FileOwnerQuery.markExternalOwner(dirUri, owner, FileOwnerQuery.EXTERNAL_ALGORITHM_TRANSIENT);
+    }
+
+    private void updateIndex(Set<Path> removedDirs, Set<Path> addedDirs, boolean keepProjectDir) {
+        INDEX_LOCK.lock();
+        try {
+            for (Path dir: removedDirs) {
+                removeOwnEntry(dir);
+            }
+            for (Path dir: addedDirs) {
+                OWNER_INDEX.put(dir, externalDirEntry);
+            }
+
+            if (keepProjectDir) {
+                OWNER_INDEX.put(projectDir, projectDirEntry);
+            }
+            else {
+                removeOwnEntry(projectDir);
+            }
+        } finally {
+            INDEX_LOCK.unlock();
+        }
+    }
+
+    private void removeOwnEntry(Path dir) {
+        assert INDEX_LOCK.isHeldByCurrentThread();
+
+        // Another project might have registered the same directory since.
+        IndexEntry entry = OWNER_INDEX.get(dir);
+        if (entry != null && entry.ownerToken == projectDirEntry.ownerToken) {
+            OWNER_INDEX.remove(dir);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given file is owned by the project of this
+     * {@code JavaOwnedDirs}. That is, if the closest ancestor of the file
+     * registered in the index is an external directory of this project, or it
+     * is the project directory and the file is not within a nested Gradle
+     * project.
+     *
+     * @param file the file to be checked. This argument cannot be
+     *   {@code null}. The file does not need to exist.
+     * @return {@code true} if the given file is owned by the project of this
+     *   {@code JavaOwnedDirs}, {@code false} otherwise
+     */
+    public boolean isOwned(File file) {
+        ExceptionHelper.checkNotNullArgument(file, "file");
+
+        Path normFile = normalize(file.toPath());
+        IndexEntry entry;
+        INDEX_LOCK.lock();
+        try {
+            entry = OWNER_INDEX.findLongestPrefixValue(normFile);
+        } finally {
+            INDEX_LOCK.unlock();
+        }
+
+        if (entry == null || entry.ownerToken != projectDirEntry.ownerToken) {
+            return false;
+        }
+        if (!entry.projectDir) {
+            return true;
+        }
+
+        return nestedProjectDirIndex.findLongestPrefixValue(normFile) == null;
+    }
+
+    private static final class IndexEntry {
+        public final Object ownerToken;
+        public final boolean projectDir;
+
+        public IndexEntry(Object ownerToken, boolean projectDir) {
+            this.ownerToken = ownerToken;
+            this.projectDir = projectDir;
+        }
+    }
+}
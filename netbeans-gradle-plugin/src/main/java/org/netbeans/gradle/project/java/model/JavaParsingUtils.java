@@ -29,11 +29,14 @@ import org.netbeans.gradle.project.NbGradleProjectFactory;
 import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.api.entry.ModelLoadResult;
 import org.netbeans.gradle.project.api.modelquery.GradleTarget;
+import org.netbeans.gradle.project.model.ModelInterner;
+import org.netbeans.gradle.project.model.ModelParsingPool;
 import org.netbeans.gradle.project.model.NbGenericModelInfo;
 import org.netbeans.gradle.project.others.OtherPlugins;
 import org.netbeans.gradle.project.properties.standard.SourceLevelProperty;
 import org.netbeans.gradle.project.script.ScriptFileProvider;
 import org.netbeans.gradle.project.util.GradleVersions;
+import org.netbeans.gradle.project.util.NbFunction;
 import org.netbeans.gradle.project.util.NbFileUtils;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
@@ -160,7 +163,7 @@ public final class JavaParsingUtils {
         runtime.removeAll(sourceSet.getOutputDirs().getClassesDirs());
         runtime.remove(sourceSet.getOutputDirs().getResourcesDir());
 
-        JavaClassPaths classPaths = new JavaClassPaths(compile, runtime);
+        JavaClassPaths classPaths = ModelInterner.getDefault().intern(new JavaClassPaths(compile, runtime));
 
         JavaSourceSet.Builder result = new JavaSourceSet.Builder(sourceSet.getName(), sourceSet.getOutputDirs());
         result.setClasspaths(classPaths);
@@ -203,57 +206,75 @@ public final class JavaParsingUtils {
         return listedDirs;
     }
 
-    public static Collection<NbJavaModule> parseModules(ModelLoadResult retrievedModels) {
-        Map<File, Set<File>> jarsToBuildDirs = getJarsToBuildDirs(retrievedModels);
+    public static Collection<NbJavaModule> parseModules(final ModelLoadResult retrievedModels) {
+        final Map<File, Set<File>> jarsToBuildDirs = getJarsToBuildDirs(retrievedModels);
 
         Map<File, Lookup> allProjects = retrievedModels.getEvaluatedProjectsModel();
 
-        List<NbJavaModule> result = new ArrayList<>(allProjects.size());
-        for (Lookup projectInfo: allProjects.values()) {
-            JavaCompatibilityModel versions = projectInfo.lookup(JavaCompatibilityModel.class);
-            JavaSourcesModel sourcesModel = projectInfo.lookup(JavaSourcesModel.class);
-            if (versions == null || sourcesModel == null) {
-                continue;
+        // The projects are independent of each other, so they can be parsed in parallel.
+        List<NbJavaModule> parsedModules = ModelParsingPool.mapInOrder(
+                new ArrayList<>(allProjects.values()),
+                new NbFunction<Lookup, NbJavaModule>() {
+            @Override
+            public NbJavaModule apply(Lookup projectInfo) {
+                return tryParseModule(retrievedModels, projectInfo, jarsToBuildDirs);
             }
+        });
 
-            if (sourcesModel.getSourceSets().isEmpty()) {
-                LOGGER.log(Level.INFO,
-                        "Disabling the Java extension because there are no sources: {0}",
-                        retrievedModels.getMainProjectDir());
-                continue;
+        List<NbJavaModule> result = new ArrayList<>(parsedModules.size());
+        for (NbJavaModule module: parsedModules) {
+            if (module != null) {
+                result.add(module);
             }
+        }
+        return result;
+    }
 
-            GenericProjectProperties properties = projectInfo.lookup(GenericProjectProperties.class);
-            if (properties == null) {
-                LOGGER.log(Level.WARNING,
-                        "Missing GenericProjectProperties for project {0}",
-                        retrievedModels.getMainProjectDir());
-                continue;
-            }
+    private static NbJavaModule tryParseModule(
+            ModelLoadResult retrievedModels,
+            Lookup projectInfo,
+            Map<File, Set<File>> jarsToBuildDirs) {
 
-            Collection<JavaSourceSet> sourceSets = adjustedSources(sourcesModel, jarsToBuildDirs);
-            List<NbListedDir> listedDirs = getListedDirs(retrievedModels, projectInfo);
+        JavaCompatibilityModel versions = projectInfo.lookup(JavaCompatibilityModel.class);
+        JavaSourcesModel sourcesModel = projectInfo.lookup(JavaSourcesModel.class);
+        if (versions == null || sourcesModel == null) {
+            return null;
+        }
 
-            JavaTestModel testModel = projectInfo.lookup(JavaTestModel.class);
-            if (testModel == null) {
-                LOGGER.log(Level.WARNING,
-                        "Missing JavaTestModel for project {0}",
-                        retrievedModels.getMainProjectDir());
-                testModel = JavaTestModel.getDefaulTestModel(retrievedModels.getMainProjectDir());
-            }
+        if (sourcesModel.getSourceSets().isEmpty()) {
+            LOGGER.log(Level.INFO,
+                    "Disabling the Java extension because there are no sources: {0}",
+                    retrievedModels.getMainProjectDir());
+            return null;
+        }
 
-            NbJavaModule module = new NbJavaModule(
-                    properties,
-                    versions,
-                    sourceSets,
-                    listedDirs,
-                    getJarOutputs(projectInfo, jarsToBuildDirs),
-                    testModel,
-                    getCodeCoverage(projectInfo));
-            result.add(module);
+        GenericProjectProperties properties = projectInfo.lookup(GenericProjectProperties.class);
+        if (properties == null) {
+            LOGGER.log(Level.WARNING,
+                    "Missing GenericProjectProperties for project {0}",
+                    retrievedModels.getMainProjectDir());
+            return null;
         }
 
-        return result;
+        Collection<JavaSourceSet> sourceSets = adjustedSources(sourcesModel, jarsToBuildDirs);
+        List<NbListedDir> listedDirs = getListedDirs(retrievedModels, projectInfo);
+
+        JavaTestModel testModel = projectInfo.lookup(JavaTestModel.class);
+        if (testModel == null) {
+            LOGGER.log(Level.WARNING,
+                    "Missing JavaTestModel for project {0}",
+                    retrievedModels.getMainProjectDir());
+            testModel = JavaTestModel.getDefaulTestModel(retrievedModels.getMainProjectDir());
+        }
+
+        return new NbJavaModule(
+                properties,
+                versions,
+                sourceSets,
+                listedDirs,
+                getJarOutputs(projectInfo, jarsToBuildDirs),
+                testModel,
+                getCodeCoverage(projectInfo));
     }
 
     private static List<NbJarOutput> getJarOutputs(Lookup projectInfo, Map<File, Set<File>> jarsToBuildDirs) {
@@ -1,26 +1,25 @@
 package org.netbeans.gradle.project.java.model;
 
-import com.google.common.base.Function;
-import com.google.common.base.Predicate;
-import com.google.common.collect.Maps;
 import java.io.File;
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
 import org.jtrim.concurrent.GenericUpdateTaskExecutor;
 import org.jtrim.concurrent.TaskExecutor;
 import org.jtrim.concurrent.TaskExecutors;
 import org.jtrim.concurrent.UpdateTaskExecutor;
 import org.jtrim.event.ListenerRef;
-import org.jtrim.event.ListenerRegistries;
 import org.jtrim.property.MutableProperty;
 import org.jtrim.property.PropertyFactory;
 import org.jtrim.property.PropertySource;
-import org.jtrim.property.ValueConverter;
 import org.jtrim.swing.concurrent.SwingTaskExecutor;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.project.FileOwnerQuery;
@@ -30,81 +29,74 @@ import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.project.java.JavaExtension;
 import org.netbeans.gradle.project.properties.NbProperties;
 import org.netbeans.gradle.project.util.NbConsumer;
-import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.gradle.project.util.NbSupplier;
 import org.netbeans.gradle.project.util.NbTaskExecutors;
 import org.openide.util.Utilities;
 
+/**
+ * Translates the class path entries of a Java project to the Java projects
+ * producing them. The translated dependencies are kept in a materialized map
+ * which is rebuilt only when the model of this project changes. When the model
+ * of a project we depend on changes, only the entries of that project are
+ * resolved again and the listeners are only notified if the resolved entries
+ * have actually changed.
+ */
 public final class JavaProjectDependencies {
-    private static final PropertySource<Map<File, JavaProjectDependencyDef>> NO_DEPENDENCIES
-            = PropertyFactory.constSource(Collections.<File, JavaProjectDependencyDef>emptyMap());
+    private static final CandidateFactory DEFAULT_CANDIDATE_FACTORY = new DefaultCandidateFactory();
 
-    private final JavaExtension javaExt;
+    private final NbSupplier<? extends NbJavaModule> mainModuleProvider;
+    private final CandidateFactory candidateFactory;
+    private final TaskExecutor dependencyExecutor;
     private final UpdateTaskExecutor updateExecutor;
 
-    private final MutableProperty<TranslatedDependencies> translatedDependencies;
-    private final PropertySource<Map<File, JavaProjectDependencyDef>> translatedJavaDependenciesMap;
-    private final PropertySource<Map<File, JavaProjectDependencyDef>> filteredTranslatedJavaDependenciesMap;
+    private volatile TranslatedDependencies translatedDependencies;
+    private final MutableProperty<Map<File, JavaProjectDependencyDef>> resolvedDependencies;
+    private final PropertySource<Map<File, JavaProjectDependencyDef>> resolvedDependenciesView;
+
+    // The dependencies whose resolved value might have changed since the last
+    // update.
+    private final Set<File> dirtyDependencies;
+
+    // The following fields are only accessed by the update executor.
+    private final Map<File, CandidateListenerRef> candidateListenerRefs;
 
     public JavaProjectDependencies(JavaExtension javaExt) {
         this(javaExt, NbTaskExecutors.DEFAULT_EXECUTOR);
     }
 
     public JavaProjectDependencies(JavaExtension javaExt, TaskExecutor executor) {
-        ExceptionHelper.checkNotNullArgument(javaExt, "javaExt");
-        this.javaExt = javaExt;
-        this.updateExecutor = new GenericUpdateTaskExecutor(TaskExecutors.inOrderSimpleExecutor(executor));
-        this.translatedDependencies = PropertyFactory
-                .memPropertyConcurrent(null, true, SwingTaskExecutor.getStrictExecutor(true));
-        this.translatedJavaDependenciesMap = NbProperties.propertyOfProperty(translatedDependencies, new NbFunction<TranslatedDependencies, PropertySource<Map<File, JavaProjectDependencyDef>>>() {
-            @Override
-            public PropertySource<Map<File, JavaProjectDependencyDef>> apply(TranslatedDependencies src) {
-                return src != null
-                        ? new ProjectDepedencyDefProperty(src.translatedDependencies)
-                        : NO_DEPENDENCIES;
-            }
-        });
-        this.filteredTranslatedJavaDependenciesMap = PropertyFactory.convert(translatedJavaDependenciesMap, new ValueConverter<Map<File, JavaProjectDependencyDef>, Map<File, JavaProjectDependencyDef>>() {
-            @Override
-            public Map<File, JavaProjectDependencyDef> convert(Map<File, JavaProjectDependencyDef> input) {
-                return Maps.filterValues(input, new Predicate<JavaProjectDependencyDef>() {
-                    @Override
-                    public boolean apply(JavaProjectDependencyDef input) {
-                        return input != null;
-                    }
-                });
-            }
-        });
+        this(mainModuleProvider(javaExt), DEFAULT_CANDIDATE_FACTORY, executor);
     }
 
-    private static final class ProjectDepedencyDefProperty
-    implements
-            PropertySource<Map<File, JavaProjectDependencyDef>> {
-        private final Map<File, ProjectDependencyCandidate> src;
+    JavaProjectDependencies(
+            NbSupplier<? extends NbJavaModule> mainModuleProvider,
+            CandidateFactory candidateFactory,
+            TaskExecutor executor) {
+        ExceptionHelper.checkNotNullArgument(mainModuleProvider, "mainModuleProvider");
+        ExceptionHelper.checkNotNullArgument(candidateFactory, "candidateFactory");
 
-        public ProjectDepedencyDefProperty(Map<File, ProjectDependencyCandidate> src) {
-            this.src = src != null
-                    ? src
-                    : Collections.<File, ProjectDependencyCandidate>emptyMap();
-        }
+        this.mainModuleProvider = mainModuleProvider;
+        this.candidateFactory = candidateFactory;
+        this.dependencyExecutor = TaskExecutors.inOrderSimpleExecutor(executor);
+        this.updateExecutor = new GenericUpdateTaskExecutor(dependencyExecutor);
+        this.translatedDependencies = null;
+        this.resolvedDependencies = PropertyFactory.memPropertyConcurrent(
+                Collections.<File, JavaProjectDependencyDef>emptyMap(),
+                SwingTaskExecutor.getStrictExecutor(true));
+        this.resolvedDependenciesView = PropertyFactory.protectedView(resolvedDependencies);
+        this.dirtyDependencies = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+        this.candidateListenerRefs = new HashMap<>();
+    }
 
-        @Override
-        public Map<File, JavaProjectDependencyDef> getValue() {
-            return Maps.transformValues(src, new Function<ProjectDependencyCandidate, JavaProjectDependencyDef>() {
-                @Override
-                public JavaProjectDependencyDef apply(ProjectDependencyCandidate input) {
-                    return input.projectDependency().getValue();
-                }
-            });
-        }
+    private static NbSupplier<NbJavaModule> mainModuleProvider(final JavaExtension javaExt) {
+        ExceptionHelper.checkNotNullArgument(javaExt, "javaExt");
 
-        @Override
-        public ListenerRef addChangeListener(Runnable listener) {
-            List<ListenerRef> result = new ArrayList<>(src.size());
-            for (ProjectDependencyCandidate candidate: src.values()) {
-                candidate.projectDependency().addChangeListener(listener);
+        return new NbSupplier<NbJavaModule>() {
+            @Override
+            public NbJavaModule get() {
+                return javaExt.getCurrentModel().getMainModule();
             }
-            return ListenerRegistries.combineListenerRefs(result);
-        }
+        };
     }
 
     public void updateDependencies() {
@@ -116,16 +108,42 @@ public final class JavaProjectDependencies {
         });
     }
 
+    /**
+     * Stops listening for the changes of the projects this project depends on.
+     * The dependencies are translated again (and listened to) on the next
+     * {@link #updateDependencies() updateDependencies} call.
+     */
+    public void releaseDependencies() {
+        // Not submitted to the update executor because that might discard
+        // this task in favor of an update.
+        dependencyExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+                releaseDependenciesNow();
+            }
+        }, null);
+    }
+
+    /**
+     * Returns the class path entries of this project produced by other Java
+     * projects mapped to the projects producing them. The value of the
+     * returned property is an immutable snapshot and changes only when an
+     * entry is added, removed or resolved to a different project or source
+     * sets.
+     *
+     * @return the class path entries of this project produced by other Java
+     *   projects. This method never returns {@code null}.
+     */
     public PropertySource<Map<File, JavaProjectDependencyDef>> translatedDependencies() {
-        return filteredTranslatedJavaDependenciesMap;
+        return resolvedDependenciesView;
     }
 
     public JavaProjectDependencyDef tryGetDependency(File output) {
-        return translatedJavaDependenciesMap.getValue().get(output);
+        return resolvedDependencies.getValue().get(output);
     }
 
     public void forAllCandidates(NbConsumer<? super ProjectDependencyCandidate> task) {
-        TranslatedDependencies value = translatedDependencies.getValue();
+        TranslatedDependencies value = translatedDependencies;
         if (value != null) {
             for (ProjectDependencyCandidate candidate: value.translatedDependencies.values()) {
                 task.accept(candidate);
@@ -136,17 +154,174 @@ public final class JavaProjectDependencies {
     private void updateDependenciesNow() {
         // This method is never called concurrently due to the update executor.
 
-        NbJavaModule currentModule = javaExt.getCurrentModel().getMainModule();
+        NbJavaModule currentModule = mainModuleProvider.get();
 
-        TranslatedDependencies currentTranslatedDependencies = translatedDependencies.getValue();
-        if (currentTranslatedDependencies != null && currentTranslatedDependencies.source == currentModule) {
+        TranslatedDependencies prevTranslatedDependencies = translatedDependencies;
+        if (prevTranslatedDependencies != null && prevTranslatedDependencies.source == currentModule) {
+            updateDirtyDependencies(prevTranslatedDependencies);
             return;
         }
 
-        this.translatedDependencies.setValue(new TranslatedDependencies(currentModule, translateDependencies(currentModule)));
+        Map<File, ProjectDependencyCandidate> prevCandidates = prevTranslatedDependencies != null
+                ? prevTranslatedDependencies.translatedDependencies
+                : Collections.<File, ProjectDependencyCandidate>emptyMap();
+
+        TranslatedDependencies newTranslatedDependencies
+                = new TranslatedDependencies(currentModule, translateDependencies(currentModule, prevCandidates));
+        translatedDependencies = newTranslatedDependencies;
+
+        updateCandidateListeners(newTranslatedDependencies.translatedDependencies);
+
+        // Everything is resolved again below, so the pending changes need not
+        // be processed separately.
+        dirtyDependencies.clear();
+
+        Map<File, JavaProjectDependencyDef> prevResolved = resolvedDependencies.getValue();
+        Map<File, JavaProjectDependencyDef> newResolved = new HashMap<>();
+        for (ProjectDependencyCandidate candidate: newTranslatedDependencies.translatedDependencies.values()) {
+            File dependency = candidate.getDependency();
+            JavaProjectDependencyDef resolved = resolveDependency(candidate, prevResolved.get(dependency));
+            if (resolved != null) {
+                newResolved.put(dependency, resolved);
+            }
+        }
+
+        if (!isSameResolvedDependencies(prevResolved, newResolved)) {
+            resolvedDependencies.setValue(Collections.unmodifiableMap(newResolved));
+        }
+    }
+
+    private void releaseDependenciesNow() {
+        translatedDependencies = null;
+        updateCandidateListeners(Collections.<File, ProjectDependencyCandidate>emptyMap());
+        dirtyDependencies.clear();
     }
 
-    private static Map<File, ProjectDependencyCandidate> translateDependencies(NbJavaModule module) {
+    private void updateDirtyDependencies(TranslatedDependencies currentTranslatedDependencies) {
+        if (dirtyDependencies.isEmpty()) {
+            return;
+        }
+
+        Map<File, JavaProjectDependencyDef> prevResolved = resolvedDependencies.getValue();
+        Map<File, JavaProjectDependencyDef> newResolved = null;
+
+        Iterator<File> dirtyItr = dirtyDependencies.iterator();
+        while (dirtyItr.hasNext()) {
+            File dependency = dirtyItr.next();
+            dirtyItr.remove();
+
+            ProjectDependencyCandidate candidate = currentTranslatedDependencies.translatedDependencies.get(dependency);
+            JavaProjectDependencyDef prevDef = prevResolved.get(dependency);
+            JavaProjectDependencyDef newDef = candidate != null
+                    ? resolveDependency(candidate, prevDef)
+                    : null;
+
+            if (newDef != prevDef) {
+                if (newResolved == null) {
+                    newResolved = new HashMap<>(prevResolved);
+                }
+                if (newDef != null) {
+                    newResolved.put(dependency, newDef);
+                }
+                else {
+                    newResolved.remove(dependency);
+                }
+            }
+        }
+
+        if (newResolved != null) {
+            resolvedDependencies.setValue(Collections.unmodifiableMap(newResolved));
+        }
+    }
+
+    private void updateCandidateListeners(Map<File, ProjectDependencyCandidate> candidates) {
+        Iterator<CandidateListenerRef> refItr = candidateListenerRefs.values().iterator();
+        while (refItr.hasNext()) {
+            CandidateListenerRef listenerRef = refItr.next();
+            if (candidates.get(listenerRef.candidate.getDependency()) != listenerRef.candidate) {
+                listenerRef.listenerRef.unregister();
+                refItr.remove();
+            }
+        }
+
+        for (ProjectDependencyCandidate candidate: candidates.values()) {
+            final File dependency = candidate.getDependency();
+            if (candidateListenerRefs.containsKey(dependency)) {
+                continue;
+            }
+
+            // The listener is only referenced weakly by the other project, so
+            // it does not keep this project in memory: The listener is
+            // retained by candidateListenerRefs.
+            PropertySource<?> projectDependency = NbProperties.weakListenerProperty(candidate.projectDependency());
+            ListenerRef listenerRef = projectDependency.addChangeListener(new Runnable() {
+                @Override
+                public void run() {
+                    dirtyDependencies.add(dependency);
+                    updateDependencies();
+                }
+            });
+            candidateListenerRefs.put(dependency, new CandidateListenerRef(candidate, listenerRef));
+        }
+    }
+
+    /**
+     * Returns the current value of the given candidate or {@code prevDef} if
+     * the current value refers to the same project and source sets as
+     * {@code prevDef}. Returning the previous instance allows the callers to
+     * detect changes by simple reference comparison.
+     */
+    private static JavaProjectDependencyDef resolveDependency(
+            ProjectDependencyCandidate candidate,
+            JavaProjectDependencyDef prevDef) {
+        JavaProjectDependencyDef newDef = candidate.projectDependency().getValue();
+        if (newDef == null || prevDef == null) {
+            return newDef;
+        }
+
+        return isSameDependency(prevDef, newDef) ? prevDef : newDef;
+    }
+
+    private static boolean isSameDependency(JavaProjectDependencyDef def1, JavaProjectDependencyDef def2) {
+        if (def1.getJavaExt() != def2.getJavaExt()) {
+            return false;
+        }
+
+        // JavaSourceSet does not define equals, so source sets of different
+        // models are always considered different, which is what we need
+        // because their properties might have changed.
+        List<JavaSourceSet> sourceSets1 = def1.getSourceSets();
+        List<JavaSourceSet> sourceSets2 = def2.getSourceSets();
+        int count = sourceSets1.size();
+        if (count != sourceSets2.size()) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (sourceSets1.get(i) != sourceSets2.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSameResolvedDependencies(
+            Map<File, JavaProjectDependencyDef> map1,
+            Map<File, JavaProjectDependencyDef> map2) {
+        if (map1.size() != map2.size()) {
+            return false;
+        }
+
+        for (Map.Entry<File, JavaProjectDependencyDef> entry: map1.entrySet()) {
+            if (entry.getValue() != map2.get(entry.getKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<File, ProjectDependencyCandidate> translateDependencies(
+            NbJavaModule module,
+            Map<File, ProjectDependencyCandidate> prevCandidates) {
         Map<File, ProjectDependencyCandidate> result = new HashMap<>();
 
         for (JavaSourceSet sourceSet: module.getSources()) {
@@ -154,12 +329,12 @@ public final class JavaProjectDependencies {
 
             Set<File> compileClasspaths = classpaths.getCompileClasspaths();
             for (File dependency: compileClasspaths) {
-                tryTranslateDependency(dependency, result);
+                tryTranslateDependency(dependency, prevCandidates, result);
             }
 
             for (File dependency: classpaths.getRuntimeClasspaths()) {
                 if (!compileClasspaths.contains(dependency)) {
-                    tryTranslateDependency(dependency, result);
+                    tryTranslateDependency(dependency, prevCandidates, result);
                 }
             }
         }
@@ -167,21 +342,57 @@ public final class JavaProjectDependencies {
         return Collections.unmodifiableMap(result);
     }
 
-    private static void tryTranslateDependency(File dependency, Map<File, ProjectDependencyCandidate> result) {
-        ProjectDependencyCandidate translated = tryTranslateDependency(dependency);
+    private void tryTranslateDependency(
+            File dependency,
+            Map<File, ProjectDependencyCandidate> prevCandidates,
+            Map<File, ProjectDependencyCandidate> result) {
+        if (result.containsKey(dependency)) {
+            return;
+        }
+
+        ProjectDependencyCandidate translated = tryTranslateDependency(dependency, prevCandidates.get(dependency));
         if (translated != null) {
             result.put(dependency, translated);
         }
     }
 
-    private static ProjectDependencyCandidate tryTranslateDependency(File dependency) {
-        URI dependencyUri = Utilities.toURI(dependency);
-        Project owner = FileOwnerQuery.getOwner(dependencyUri);
+    private ProjectDependencyCandidate tryTranslateDependency(
+            File dependency,
+            ProjectDependencyCandidate prevCandidate) {
+        Project owner = candidateFactory.tryGetOwner(dependency);
         if (owner == null) {
             return null;
         }
 
-        return new ProjectDependencyCandidate(owner, dependency);
+        // Reusing the previous candidate keeps its listeners and avoids
+        // building its property chain again.
+        if (prevCandidate != null && prevCandidate.getProject().equals(owner)) {
+            return prevCandidate;
+        }
+
+        return candidateFactory.createCandidate(owner, dependency);
+    }
+
+    /**
+     * Finds the projects producing the class path entries. This is
+     * {@link FileOwnerQuery} except in tests.
+     */
+    interface CandidateFactory {
+        public Project tryGetOwner(File dependency);
+        public ProjectDependencyCandidate createCandidate(Project owner, File dependency);
+    }
+
+    private static final class DefaultCandidateFactory implements CandidateFactory {
+        @Override
+        public Project tryGetOwner(File dependency) {
+            URI dependencyUri = Utilities.toURI(dependency);
+            return FileOwnerQuery.getOwner(dependencyUri);
+        }
+
+        @Override
+        public ProjectDependencyCandidate createCandidate(Project owner, File dependency) {
+            return new ProjectDependencyCandidate(owner, dependency);
+        }
     }
 
     private static final class TranslatedDependencies {
@@ -195,4 +406,14 @@ public final class JavaProjectDependencies {
             this.translatedDependencies = translatedDependencies;
         }
     }
+
+    private static final class CandidateListenerRef {
+        public final ProjectDependencyCandidate candidate;
+        public final ListenerRef listenerRef;
+
+        public CandidateListenerRef(ProjectDependencyCandidate candidate, ListenerRef listenerRef) {
+            this.candidate = candidate;
+            this.listenerRef = listenerRef;
+        }
+    }
 }
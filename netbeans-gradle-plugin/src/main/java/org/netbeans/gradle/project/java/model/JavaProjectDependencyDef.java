@@ -12,8 +12,20 @@ public final class JavaProjectDependencyDef {
     private final List<JavaSourceSet> sourceSets;
 
     public JavaProjectDependencyDef(JavaExtension javaExt, List<JavaSourceSet> sourceSets) {
+        this(sourceSets, javaExt);
         ExceptionHelper.checkNotNullArgument(javaExt, "javaExt");
+    }
+
+    /**
+     * Creates a definition not bound to any {@code JavaExtension}. This is
+     * only used by tests because {@code JavaExtension} cannot be created
+     * without a loaded project.
+     */
+    JavaProjectDependencyDef(List<JavaSourceSet> sourceSets) {
+        this(sourceSets, null);
+    }
 
+    private JavaProjectDependencyDef(List<JavaSourceSet> sourceSets, JavaExtension javaExt) {
         this.javaExt = javaExt;
         this.sourceSets = CollectionsEx.readOnlyCopy(sourceSets);
 
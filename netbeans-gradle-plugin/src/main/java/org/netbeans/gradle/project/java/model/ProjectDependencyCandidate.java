@@ -22,12 +22,20 @@ public final class ProjectDependencyCandidate {
     private final PropertySource<JavaProjectDependencyDef> projectDependency;
 
     public ProjectDependencyCandidate(Project project, File dependency) {
+        this(project, dependency, javaModelOfProject(dependency, JavaExtension.extensionOfProject(project)));
+    }
+
+    ProjectDependencyCandidate(
+            Project project,
+            File dependency,
+            PropertySource<JavaProjectDependencyDef> projectDependency) {
         ExceptionHelper.checkNotNullArgument(project, "project");
         ExceptionHelper.checkNotNullArgument(dependency, "dependency");
+        ExceptionHelper.checkNotNullArgument(projectDependency, "projectDependency");
 
         this.project = project;
         this.dependency = dependency;
-        this.projectDependency = javaModelOfProject(dependency, JavaExtension.extensionOfProject(project));
+        this.projectDependency = projectDependency;
     }
 
     private static PropertySource<JavaProjectDependencyDef> javaModelOfProject(
@@ -6,12 +6,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.gradle.tooling.model.DomainObjectSet;
@@ -40,13 +46,30 @@ import org.netbeans.gradle.project.java.model.NbJarOutput;
 import org.netbeans.gradle.project.java.model.NbJavaModel;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
 import org.netbeans.gradle.project.java.model.NbListedDir;
+import org.netbeans.gradle.project.model.ModelInterner;
+import org.netbeans.gradle.project.model.ModelParsingPool;
 import org.netbeans.gradle.project.model.NbGenericModelInfo;
 import org.netbeans.gradle.project.properties.standard.SourceLevelProperty;
 import org.netbeans.gradle.project.script.ScriptFileProvider;
+import org.netbeans.gradle.project.util.NbFunction;
 
 public final class IdeaJavaModelUtils {
     private static final Logger LOGGER = Logger.getLogger(IdeaJavaModelUtils.class.getName());
 
+    private static final int SHARED_DEPENDENCIES_MAX_ROOT_COUNT = 8;
+
+    private static final Lock SHARED_DEPENDENCIES_LOCK = new ReentrantLock();
+    // Guarded by SHARED_DEPENDENCIES_LOCK
+    private static final Map<File, SharedDependencies> SHARED_DEPENDENCIES
+            = new LinkedHashMap<File, SharedDependencies>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, SharedDependencies> eldest) {
+            return size() > SHARED_DEPENDENCIES_MAX_ROOT_COUNT;
+        }
+    };
+
     private static File getDefaultBuildDir(File projectDir) {
         return new File(projectDir, "build");
     }
@@ -67,13 +90,7 @@ public final class IdeaJavaModelUtils {
     }
 
     public static IdeaModule tryFindMainModule(File projectDir, IdeaProject ideaModel) {
-        for (IdeaModule module: ideaModel.getModules()) {
-            File moduleDir = tryGetModuleDir(module);
-            if (moduleDir != null && moduleDir.equals(projectDir)) {
-                return module;
-            }
-        }
-        return null;
+        return new IdeaModuleIndex(ideaModel).tryGetModuleByDir(projectDir);
     }
 
     private static NbJavaModel createUnreliableModel(GradleTarget evaluationEnvironment, NbJavaModule mainModule) {
@@ -120,7 +137,7 @@ public final class IdeaJavaModelUtils {
     private static List<JavaSourceSet> parseSourceSets(
             IdeaModule module,
             File projectDir,
-            Map<String, IdeaDependencyBuilder> cache) {
+            ConcurrentMap<String, IdeaDependencyBuilder> cache) {
 
         ProjectClassPaths classPaths = fetchAllDependencies(module, cache);
         File buildOutputDir = getDefaultBuildDir(projectDir);
@@ -169,34 +186,54 @@ public final class IdeaJavaModelUtils {
         return result;
     }
 
-    private static ProjectClassPaths fetchAllDependencies(
+    static ProjectClassPaths fetchAllDependencies(
             IdeaModule module,
-            Map<String, IdeaDependencyBuilder> cache) {
+            ConcurrentMap<String, IdeaDependencyBuilder> cache) {
 
         IdeaDependencyBuilder result = new IdeaDependencyBuilder();
         fetchAllDependencies(module, result, Collections.<String>emptySet(), cache);
 
-        JavaClassPaths mainClassPath = new JavaClassPaths(result.mainCompile, result.mainRuntime);
-        JavaClassPaths testClassPath = new JavaClassPaths(result.testCompile, result.testRuntime);
+        JavaClassPaths mainClassPath = internClassPaths(result.mainCompile, result.mainRuntime);
+        JavaClassPaths testClassPath = internClassPaths(result.testCompile, result.testRuntime);
         return new ProjectClassPaths(mainClassPath, testClassPath);
     }
 
-    private static void fetchAllDependencies(
+    private static JavaClassPaths internClassPaths(Collection<File> compile, Collection<File> runtime) {
+        // The files of the IdeaProject are not deserialized through the
+        // interner, so we have to share them with the other models here.
+        ModelInterner interner = ModelInterner.getDefault();
+        return interner.intern(new JavaClassPaths(interner.internAll(compile), interner.internAll(runtime)));
+    }
+
+    /**
+     * Collects the dependencies of the given module into {@code result}.
+     * <P>
+     * The dependencies of a module in a dependency cycle depend on where the
+     * cycle was cut (i.e., on {@code projectsToSkip}), and the modules are
+     * parsed concurrently in no particular order. So such results are not
+     * added to the cache, otherwise the dependencies of the modules of a
+     * cycle could differ between reloads.
+     *
+     * @return {@code true} if the result does not depend on
+     *   {@code projectsToSkip}, {@code false} if a dependency cycle was cut
+     *   while collecting the dependencies
+     */
+    private static boolean fetchAllDependencies(
             IdeaModule module,
             IdeaDependencyBuilder result,
             Set<String> projectsToSkip,
-            Map<String, IdeaDependencyBuilder> cache) {
+            ConcurrentMap<String, IdeaDependencyBuilder> cache) {
 
         String uniqueProjectName = module.getGradleProject().getPath();
 
         if (projectsToSkip.contains(uniqueProjectName)) {
-            return;
+            return false;
         }
 
         IdeaDependencyBuilder parsed = cache.get(uniqueProjectName);
         if (parsed != null) {
             result.setFrom(parsed);
-            return;
+            return true;
         }
 
         File defaultMainBuildDir = getDefaultMainClasses(module);
@@ -204,6 +241,7 @@ public final class IdeaJavaModelUtils {
             result.addTestCompile(defaultMainBuildDir);
         }
 
+        boolean cycleFree = true;
         Set<String> nextProjectsToSkip = null;
 
         for (IdeaDependency dependency: module.getDependencies()) {
@@ -219,7 +257,9 @@ public final class IdeaJavaModelUtils {
                 IdeaModule moduleDep = ((IdeaModuleDependency)dependency).getDependencyModule();
 
                 IdeaDependencyBuilder subDependencies = new IdeaDependencyBuilder();
-                fetchAllDependencies(moduleDep, subDependencies, nextProjectsToSkip, cache);
+                if (!fetchAllDependencies(moduleDep, subDependencies, nextProjectsToSkip, cache)) {
+                    cycleFree = false;
+                }
 
                 File mainBuildDir = getDefaultMainClasses(moduleDep);
                 if (mainBuildDir != null) {
@@ -236,7 +276,109 @@ public final class IdeaJavaModelUtils {
             }
         }
 
-        cache.put(uniqueProjectName, result);
+        if (cycleFree) {
+            // Builders are never modified after they were added to the cache, so
+            // they can be shared by the threads parsing the modules concurrently.
+            cache.putIfAbsent(uniqueProjectName, result);
+        }
+        return cycleFree;
+    }
+
+    private static List<String> getDependencySignature(IdeaModule module) {
+        DomainObjectSet<? extends IdeaDependency> dependencies = module.getDependencies();
+
+        List<String> result = new ArrayList<>(dependencies.size() + 1);
+        result.add(String.valueOf(tryGetModuleDir(module)));
+
+        for (IdeaDependency dependency: dependencies) {
+            String scope = dependency.getScope().getScope();
+            if (dependency instanceof IdeaModuleDependency) {
+                IdeaModule moduleDep = ((IdeaModuleDependency)dependency).getDependencyModule();
+                result.add(scope + "|M|" + moduleDep.getGradleProject().getPath());
+            }
+            else if (dependency instanceof ExternalDependency) {
+                result.add(scope + "|F|" + ((ExternalDependency)dependency).getFile());
+            }
+            else {
+                result.add(scope + "|?");
+            }
+        }
+        return result;
+    }
+
+    static Map<String, List<String>> getDependencySignatures(List<IdeaModule> modules) {
+        Map<String, List<String>> result = CollectionUtils.newHashMap(modules.size());
+        for (IdeaModule module: modules) {
+            result.put(module.getGradleProject().getPath(), getDependencySignature(module));
+        }
+        return result;
+    }
+
+    private static File getRootDir(IdeaModuleIndex moduleIndex, File projectDir) {
+        IdeaModule rootModule = moduleIndex.tryGetModule(":");
+        File rootDir = rootModule != null ? tryGetModuleDir(rootModule) : null;
+        return rootDir != null ? rootDir : projectDir;
+    }
+
+    /**
+     * Returns the dependencies parsed by a previous reload of the same root
+     * project which are still valid. A cached dependency is only valid if
+     * neither the dependencies of the module nor the dependencies of the
+     * modules it depends on (directly or indirectly) have changed.
+     */
+    static ConcurrentMap<String, IdeaDependencyBuilder> getSharedDependencies(
+            File rootDir,
+            IdeaModuleIndex moduleIndex,
+            Map<String, List<String>> signatures) {
+
+        ConcurrentMap<String, IdeaDependencyBuilder> result = new ConcurrentHashMap<>(2 * signatures.size());
+
+        SharedDependencies prevDependencies;
+        SHARED_DEPENDENCIES_LOCK.lock();
+        try {
+            prevDependencies = SHARED_DEPENDENCIES.get(rootDir);
+        } finally {
+            SHARED_DEPENDENCIES_LOCK.unlock();
+        }
+
+        if (prevDependencies == null) {
+            return result;
+        }
+
+        List<String> changedProjects = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry: signatures.entrySet()) {
+            List<String> prevSignature = prevDependencies.signatures.get(entry.getKey());
+            if (!entry.getValue().equals(prevSignature)) {
+                changedProjects.add(entry.getKey());
+            }
+        }
+
+        Collection<String> invalidProjects = moduleIndex.getTransitiveDependents(changedProjects);
+        for (Map.Entry<String, IdeaDependencyBuilder> entry: prevDependencies.builders.entrySet()) {
+            String projectPath = entry.getKey();
+            if (signatures.containsKey(projectPath) && !invalidProjects.contains(projectPath)) {
+                result.put(projectPath, entry.getValue());
+            }
+        }
+
+        LOGGER.log(Level.FINE, "Reusing the dependencies of {0} out of {1} modules of {2}",
+                new Object[]{result.size(), signatures.size(), rootDir});
+        return result;
+    }
+
+    static void storeSharedDependencies(
+            File rootDir,
+            Map<String, List<String>> signatures,
+            Map<String, IdeaDependencyBuilder> builders) {
+
+        SharedDependencies dependencies = new SharedDependencies(signatures, new HashMap<>(builders));
+
+        SHARED_DEPENDENCIES_LOCK.lock();
+        try {
+            SHARED_DEPENDENCIES.put(rootDir, dependencies);
+        } finally {
+            SHARED_DEPENDENCIES_LOCK.unlock();
+        }
     }
 
     private static NbListedDir findWebAppDir(Collection<JavaSourceSet> sources) {
@@ -269,7 +411,7 @@ public final class IdeaJavaModelUtils {
 
     private static NbJavaModule tryParseModule(
             IdeaModule module,
-            Map<String, IdeaDependencyBuilder> cache,
+            ConcurrentMap<String, IdeaDependencyBuilder> cache,
             ScriptFileProvider scriptProvider) {
         String uniqueName = module.getGradleProject().getPath();
 
@@ -317,20 +459,33 @@ public final class IdeaJavaModelUtils {
             GradleTarget evaluationEnvironment,
             File projectDir,
             IdeaProject ideaModel,
-            ScriptFileProvider scriptProvider) throws IOException {
-        IdeaModule mainModule = tryFindMainModule(projectDir, ideaModel);
+            final ScriptFileProvider scriptProvider) throws IOException {
+        IdeaModuleIndex moduleIndex = new IdeaModuleIndex(ideaModel);
+
+        IdeaModule mainModule = moduleIndex.tryGetModuleByDir(projectDir);
         if (mainModule == null) {
             throw new IOException("Unable to find the main project in the model.");
         }
 
-        DomainObjectSet<? extends IdeaModule> modules = ideaModel.getModules();
+        List<IdeaModule> modules = moduleIndex.getModules();
         int modulesCount = modules.size();
 
-        Map<String, IdeaDependencyBuilder> cache = CollectionUtils.newHashMap(modulesCount);
+        File rootDir = getRootDir(moduleIndex, projectDir);
+        Map<String, List<String>> signatures = getDependencySignatures(modules);
+        final ConcurrentMap<String, IdeaDependencyBuilder> cache
+                = getSharedDependencies(rootDir, moduleIndex, signatures);
+
+        List<NbJavaModule> parsedModuleList = ModelParsingPool.mapInOrder(modules, new NbFunction<IdeaModule, NbJavaModule>() {
+            @Override
+            public NbJavaModule apply(IdeaModule module) {
+                return tryParseModule(module, cache, scriptProvider);
+            }
+        });
+
+        storeSharedDependencies(rootDir, signatures, cache);
 
         Map<File, NbJavaModule> parsedModules = CollectionUtils.newHashMap(modulesCount);
-        for (IdeaModule module: modules) {
-            NbJavaModule parsedModule = tryParseModule(module, cache, scriptProvider);
+        for (NbJavaModule parsedModule: parsedModuleList) {
             if (parsedModule != null) {
                 parsedModules.put(parsedModule.getModuleDir(), parsedModule);
             }
@@ -355,7 +510,7 @@ public final class IdeaJavaModelUtils {
         return result;
     }
 
-    private static class ProjectClassPaths {
+    static final class ProjectClassPaths {
         public final JavaClassPaths main;
         public final JavaClassPaths test;
 
@@ -368,7 +523,19 @@ public final class IdeaJavaModelUtils {
         }
     }
 
-    private static class IdeaDependencyBuilder {
+    private static final class SharedDependencies {
+        public final Map<String, List<String>> signatures;
+        public final Map<String, IdeaDependencyBuilder> builders;
+
+        public SharedDependencies(
+                Map<String, List<String>> signatures,
+                Map<String, IdeaDependencyBuilder> builders) {
+            this.signatures = signatures;
+            this.builders = builders;
+        }
+    }
+
+    static final class IdeaDependencyBuilder {
         private Set<File> mainCompile;
         private Set<File> mainRuntime;
         private Set<File> testCompile;
@@ -0,0 +1,151 @@
+package org.netbeans.gradle.project.java.model.idea;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gradle.tooling.model.DomainObjectSet;
+import org.gradle.tooling.model.GradleProject;
+import org.gradle.tooling.model.idea.IdeaDependency;
+import org.gradle.tooling.model.idea.IdeaModule;
+import org.gradle.tooling.model.idea.IdeaModuleDependency;
+import org.gradle.tooling.model.idea.IdeaProject;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.util.CollectionUtils;
+
+/**
+ * Defines the lookup tables of the modules of an {@link IdeaProject}. The
+ * tables are built once, so looking up the children or the dependents of a
+ * module does not require iterating over every module of the project.
+ * <P>
+ * Instances of this class are immutable after construction and are safe to be
+ * used by multiple threads concurrently.
+ */
+public final class IdeaModuleIndex {
+    private final List<IdeaModule> modules;
+    private final Map<String, IdeaModule> modulesByPath;
+    private final Map<File, IdeaModule> modulesByDir;
+    private final Map<String, List<IdeaModule>> childrenByPath;
+    private final Map<String, List<String>> dependentsByPath;
+
+    public IdeaModuleIndex(IdeaProject ideaProject) {
+        ExceptionHelper.checkNotNullArgument(ideaProject, "ideaProject");
+
+        DomainObjectSet<? extends IdeaModule> allModules = ideaProject.getModules();
+        int moduleCount = allModules.size();
+
+        this.modules = Collections.unmodifiableList(new ArrayList<>(allModules));
+        this.modulesByPath = CollectionUtils.newHashMap(moduleCount);
+        this.modulesByDir = CollectionUtils.newHashMap(moduleCount);
+        this.childrenByPath = CollectionUtils.newHashMap(moduleCount);
+        this.dependentsByPath = CollectionUtils.newHashMap(moduleCount);
+
+        for (IdeaModule module: modules) {
+            GradleProject gradleProject = module.getGradleProject();
+            String path = gradleProject.getPath();
+
+            modulesByPath.put(path, module);
+
+            File moduleDir = IdeaJavaModelUtils.tryGetModuleDir(module);
+            if (moduleDir != null && !modulesByDir.containsKey(moduleDir)) {
+                modulesByDir.put(moduleDir, module);
+            }
+
+            GradleProject parent = gradleProject.getParent();
+            if (parent != null) {
+                addToList(childrenByPath, parent.getPath(), module);
+            }
+
+            for (IdeaDependency dependency: module.getDependencies()) {
+                if (dependency instanceof IdeaModuleDependency) {
+                    IdeaModule moduleDep = ((IdeaModuleDependency)dependency).getDependencyModule();
+                    addToList(dependentsByPath, moduleDep.getGradleProject().getPath(), path);
+                }
+            }
+        }
+    }
+
+    private static <K, V> void addToList(Map<K, List<V>> map, K key, V value) {
+        List<V> list = map.get(key);
+        if (list == null) {
+            list = new ArrayList<>();
+            map.put(key, list);
+        }
+        list.add(value);
+    }
+
+    /**
+     * Returns all the modules of the project in the order the project lists
+     * them.
+     *
+     * @return all the modules of the project. This method never returns
+     *   {@code null}.
+     */
+    public List<IdeaModule> getModules() {
+        return modules;
+    }
+
+    public IdeaModule tryGetModule(String projectPath) {
+        return modulesByPath.get(projectPath);
+    }
+
+    public IdeaModule tryGetModuleByDir(File moduleDir) {
+        return modulesByDir.get(moduleDir);
+    }
+
+    /**
+     * Returns the modules whose Gradle project is a direct child of the
+     * Gradle project of the given module.
+     *
+     * @param module the parent module. This argument cannot be {@code null}.
+     * @return the child modules in the order the project lists them. This
+     *   method never returns {@code null}.
+     */
+    public List<IdeaModule> getChildModules(IdeaModule module) {
+        List<IdeaModule> result = childrenByPath.get(module.getGradleProject().getPath());
+        return result != null
+                ? Collections.unmodifiableList(result)
+                : Collections.<IdeaModule>emptyList();
+    }
+
+    /**
+     * Returns the paths of the Gradle projects directly depending on the
+     * Gradle project with the given path.
+     *
+     * @param projectPath the path of the Gradle project whose dependents are
+     *   to be returned. This argument cannot be {@code null}.
+     * @return the paths of the direct dependents. This method never returns
+     *   {@code null}.
+     */
+    public Collection<String> getDependents(String projectPath) {
+        List<String> result = dependentsByPath.get(projectPath);
+        return result != null
+                ? Collections.unmodifiableList(result)
+                : Collections.<String>emptyList();
+    }
+
+    /**
+     * Returns the paths of every Gradle project depending directly or
+     * indirectly on any of the given projects, including the given projects.
+     *
+     * @param projectPaths the paths of the Gradle projects whose dependents
+     *   are to be returned. This argument cannot be {@code null}.
+     * @return the paths of the given projects and their dependents. This
+     *   method never returns {@code null}.
+     */
+    public Collection<String> getTransitiveDependents(Collection<String> projectPaths) {
+        Set<String> visited = new HashSet<>();
+        List<String> toVisit = new ArrayList<>(projectPaths);
+        while (!toVisit.isEmpty()) {
+            String path = toVisit.remove(toVisit.size() - 1);
+            if (visited.add(path)) {
+                toVisit.addAll(getDependents(path));
+            }
+        }
+        return visited;
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -20,6 +21,7 @@ import java.util.logging.Logger;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.property.PropertySource;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.project.Project;
 import org.netbeans.gradle.model.java.JavaClassPaths;
@@ -32,7 +34,6 @@ import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.api.nodes.SingleNodeFactory;
 import org.netbeans.gradle.project.api.task.CommandCompleteListener;
 import org.netbeans.gradle.project.java.JavaExtension;
-import org.netbeans.gradle.project.java.model.JavaProjectDependencies;
 import org.netbeans.gradle.project.java.model.JavaProjectDependencyDef;
 import org.netbeans.gradle.project.java.model.NbJavaModel;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
@@ -95,7 +96,7 @@ public final class JavaDependenciesNode extends AbstractNode {
     public Action[] getActions(boolean context) {
         NbGradleProject project = NbGradleProjectFactory.getGradleProject(javaExt.getProject());
         return new Action[]{
-            new DownloadSourcesAction(project)
+            new DownloadSourcesAction(project, javaExt)
         };
     }
 
@@ -105,6 +106,7 @@ public final class JavaDependenciesNode extends AbstractNode {
 
         private final JavaExtension javaExt;
         private final AtomicReference<NbJavaModule> lastModule;
+        private final AtomicReference<Map<String, DependencyGroupNodeFactory>> lastGroups;
         private final ListenerRegistrations listenerRefs;
 
         public DependenciesChildFactory(JavaExtension javaExt) {
@@ -112,6 +114,7 @@ public final class JavaDependenciesNode extends AbstractNode {
 
             this.javaExt = javaExt;
             this.lastModule = new AtomicReference<>(null);
+            this.lastGroups = new AtomicReference<>(Collections.<String, DependencyGroupNodeFactory>emptyMap());
             this.listenerRefs = new ListenerRegistrations();
         }
 
@@ -172,11 +175,8 @@ public final class JavaDependenciesNode extends AbstractNode {
 
         @Override
         protected void addNotify() {
-            // FIXME: We have to refresh this node in case a project dependency might appear.
-            //   That is, every time a project of JavaProjectDependencyDef gets its model refreshed.
-            //   However, we have to be careful not to refresh needlessly as it would be very annoying to the user.
-            //   One way to do this is to calculate all the nodes in the background and then check if it is the
-            //   same as the one currently being displayed.
+            // The groups only depend on the model of this project. The project
+            // dependencies are followed by the children of the groups.
             lastModule.set(javaExt.getCurrentModel().getMainModule());
             listenerRefs.add(javaExt.addModelChangeListener(new Runnable() {
                 @Override
@@ -193,47 +193,26 @@ public final class JavaDependenciesNode extends AbstractNode {
 
         private void addDependencyGroup(
                 String groupName,
-                Collection<? extends SingleNodeFactory> dependencies,
+                Set<File> dependencies,
+                Map<String, DependencyGroupNodeFactory> prevGroups,
+                Map<String, DependencyGroupNodeFactory> newGroups,
                 List<SingleNodeFactory> toPopulate) {
 
             if (dependencies.isEmpty()) {
                 return;
             }
 
-            toPopulate.add(new DependencyGroupNodeFactory(groupName, dependencies));
-        }
-
-        private List<SingleNodeFactory> filesToNodes(Collection<File> files) {
-            List<SingleNodeFactory> result = new ArrayList<>(files.size());
-
-            Map<FileObject, List<JavaProjectDependencyDef>> allProjectDependencies = new HashMap<>();
-
-            JavaProjectDependencies projectDependencies = javaExt.getProjectDependencies();
-
-            for (File file: files) {
-                JavaProjectDependencyDef projectDep = projectDependencies.tryGetDependency(file);
-                if (projectDep == null) {
-                    result.add(new FileDependency(file));
-                }
-                else {
-                    FileObject projectDir = projectDep.getProject().getProjectDirectory();
-                    List<JavaProjectDependencyDef> dependencySourceSets = allProjectDependencies.get(projectDir);
-                    if (dependencySourceSets == null) {
-                        dependencySourceSets = new ArrayList<>();
-                        allProjectDependencies.put(projectDir, dependencySourceSets);
-                    }
-                    dependencySourceSets.add(projectDep);
-                }
-            }
-
-            for (List<JavaProjectDependencyDef> dependencySourceSets: allProjectDependencies.values()) {
-                boolean showSourceSetName = dependencySourceSets.size() > 1;
-                for (JavaProjectDependencyDef projectDependency: dependencySourceSets) {
-                    result.add(new ProjectDependencyFactory(projectDependency, showSourceSetName));
-                }
+            // Reusing the previous key keeps the node (and its already
+            // created children) of groups not affected by the model change.
+            // The children still refresh themselves when the project
+            // dependencies of the group are translated differently.
+            DependencyGroupNodeFactory group = prevGroups.get(groupName);
+            if (group == null || !group.hasFiles(dependencies)) {
+                group = new DependencyGroupNodeFactory(javaExt, groupName, dependencies);
             }
 
-            return result;
+            newGroups.put(groupName, group);
+            toPopulate.add(group);
         }
 
         private static String listToString(Collection<?> list) {
@@ -284,63 +263,13 @@ public final class JavaDependenciesNode extends AbstractNode {
             }
         }
 
-        private static int compareProjectDependencyNodes(ProjectDependencyFactory node1, ProjectDependencyFactory node2) {
-            NbJavaModule module1 = node1.projectDep.getJavaModule();
-            NbJavaModule module2 = node2.projectDep.getJavaModule();
-
-            if (module1 == module2) {
-                return 0;
-            }
-            return StringUtils.STR_CMP.compare(module1.getShortName(), module2.getShortName());
-        }
-
-        private static int compareFileDependencyNodes(FileDependency node1, FileDependency node2) {
-            String name1 = node1.file.getName();
-            String name2 = node2.file.getName();
-
-            return StringUtils.STR_CMP.compare(name1, name2);
-        }
-
-        private static int compareDependencyNodes(SingleNodeFactory node1, SingleNodeFactory node2) {
-            if (node1 instanceof ProjectDependencyFactory) {
-                if (node2 instanceof ProjectDependencyFactory) {
-                    return compareProjectDependencyNodes(
-                            (ProjectDependencyFactory)node1,
-                            (ProjectDependencyFactory)node2);
-                }
-                else {
-                    return -1;
-                }
-            }
-            else if (node2 instanceof ProjectDependencyFactory) {
-                return 1;
-            }
-            else if (node1 instanceof FileDependency && node2 instanceof FileDependency) {
-                return compareFileDependencyNodes((FileDependency)node1, (FileDependency)node2);
-            }
-            else {
-                return 0;
-            }
-        }
-
-        private static List<SingleNodeFactory> sortDependencyNodes(List<SingleNodeFactory> nodes) {
-            SingleNodeFactory[] nodesArray = nodes.toArray(new SingleNodeFactory[nodes.size()]);
-
-            Arrays.sort(nodesArray, new Comparator<SingleNodeFactory>() {
-                @Override
-                public int compare(SingleNodeFactory o1, SingleNodeFactory o2) {
-                    return compareDependencyNodes(o1, o2);
-                }
-            });
-
-            return Arrays.asList(nodesArray);
-        }
-
         private void addSourceSetDependencyNodes(
                 NbJavaModel currentModel,
                 String nodeGroupName,
                 Collection<String> sourceSetDependencies,
                 Set<File> classpaths, // IN/OUT
+                Map<String, DependencyGroupNodeFactory> prevGroups,
+                Map<String, DependencyGroupNodeFactory> newGroups,
                 List<SingleNodeFactory> toPopulate) {
 
             NbJavaModule mainModule = currentModel.getMainModule();
@@ -357,10 +286,7 @@ public final class JavaDependenciesNode extends AbstractNode {
                 }
             }
 
-            List<SingleNodeFactory> dependencyNodes = filesToNodes(classpaths);
-            dependencyNodes = sortDependencyNodes(dependencyNodes);
-
-            addDependencyGroup(nodeGroupName, dependencyNodes, toPopulate);
+            addDependencyGroup(nodeGroupName, classpaths, prevGroups, newGroups, toPopulate);
         }
 
         private static <T> Set<T> splitSets(Set<T> set1, Set<T> set2) {
@@ -429,6 +355,9 @@ public final class JavaDependenciesNode extends AbstractNode {
 
             Map<String, Set<String>> dependencyGraph = sourceSetDependencyGraph(mainModule);
 
+            Map<String, DependencyGroupNodeFactory> prevGroups = lastGroups.get();
+            Map<String, DependencyGroupNodeFactory> newGroups = new HashMap<>();
+
             for (JavaSourceSet sourceSet: mainModule.getSources()) {
                 JavaClassPaths classpaths = sourceSet.getClasspaths();
 
@@ -446,6 +375,8 @@ public final class JavaDependenciesNode extends AbstractNode {
                         getNameForDependencyGroup(DependencyType.COMPILE, sourceSet, dependencyGraph),
                         sourceDependencies,
                         compileClassPaths,
+                        prevGroups,
+                        newGroups,
                         toPopulate);
 
                 addSourceSetDependencyNodes(
@@ -453,6 +384,8 @@ public final class JavaDependenciesNode extends AbstractNode {
                         getNameForDependencyGroup(DependencyType.PROVIDED, sourceSet, dependencyGraph),
                         sourceDependencies,
                         providedClassPaths,
+                        prevGroups,
+                        newGroups,
                         toPopulate);
 
                 addSourceSetDependencyNodes(
@@ -460,9 +393,13 @@ public final class JavaDependenciesNode extends AbstractNode {
                         getNameForDependencyGroup(DependencyType.RUNTIME, sourceSet, dependencyGraph),
                         sourceDependencies,
                         runtimeClassPaths,
+                        prevGroups,
+                        newGroups,
                         toPopulate);
             }
 
+            lastGroups.set(newGroups);
+
             LOGGER.fine("Dependencies for the Gradle project were found.");
         }
 
@@ -483,17 +420,31 @@ public final class JavaDependenciesNode extends AbstractNode {
     }
 
     private static class DependencyGroupNodeFactory implements SingleNodeFactory {
+        private final JavaExtension javaExt;
         private final String groupName;
-        private final List<SingleNodeFactory> dependencies;
+        private final Set<File> files;
+        private final int hash;
 
-        public DependencyGroupNodeFactory(String groupName, Collection<? extends SingleNodeFactory> dependencies) {
-            this.dependencies = new ArrayList<>(dependencies);
+        public DependencyGroupNodeFactory(JavaExtension javaExt, String groupName, Set<File> files) {
+            this.javaExt = javaExt;
             this.groupName = groupName;
+            this.files = Collections.unmodifiableSet(new HashSet<>(files));
+
+            int newHash = 7;
+            newHash = 83 * newHash + Objects.hashCode(this.groupName);
+            newHash = 83 * newHash + this.files.hashCode();
+            this.hash = newHash;
+        }
+
+        public boolean hasFiles(Set<File> otherFiles) {
+            return files.equals(otherFiles);
         }
 
         @Override
         public Node createNode() {
-            AbstractNode result = new AbstractNode(Children.create(new DependencyGroupChildFactory(dependencies), true)) {
+            // The dependency nodes are only created when the group is expanded.
+            DependencyGroupChildFactory childFactory = new DependencyGroupChildFactory(javaExt, files);
+            AbstractNode result = new AbstractNode(Children.create(childFactory, true)) {
                 @Override
                 public Image getIcon(int type) {
                     return NbIcons.getLibrariesIcon();
@@ -516,32 +467,162 @@ public final class JavaDependenciesNode extends AbstractNode {
 
         @Override
         public int hashCode() {
-            int hash = 7;
-            hash = 83 * hash + Objects.hashCode(this.groupName);
-            hash = 83 * hash + Objects.hashCode(this.dependencies);
             return hash;
         }
 
         @Override
         public boolean equals(Object obj) {
+            if (obj == this) return true;
             if (obj == null) return false;
             if (getClass() != obj.getClass()) return false;
 
             final DependencyGroupNodeFactory other = (DependencyGroupNodeFactory)obj;
-            return Objects.equals(this.groupName, other.groupName)
-                    && Objects.equals(this.dependencies, other.dependencies);
+            return this.hash == other.hash
+                    && Objects.equals(this.groupName, other.groupName)
+                    && Objects.equals(this.files, other.files);
+        }
+    }
+
+    /**
+     * Returns the entries of the given map whose key is in the given set.
+     */
+    static <V> Map<File, V> selectDependencies(Set<File> files, Map<File, ? extends V> allDependencies) {
+        Map<File, V> result = new HashMap<>();
+        for (Map.Entry<File, ? extends V> entry: allDependencies.entrySet()) {
+            if (files.contains(entry.getKey())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
         }
+        return result;
     }
 
-    private static class DependencyGroupChildFactory extends ChildFactory<SingleNodeFactory> {
-        private final List<SingleNodeFactory> dependencies;
+    private static class DependencyGroupChildFactory
+    extends
+            ChildFactory.Detachable<SingleNodeFactory> {
 
-        public DependencyGroupChildFactory(Collection<? extends SingleNodeFactory> dependencies) {
-            this.dependencies = new ArrayList<>(dependencies);
+        private final JavaExtension javaExt;
+        private final Set<File> files;
+        private final AtomicReference<Map<File, JavaProjectDependencyDef>> lastProjectDependencies;
+        private final ListenerRegistrations listenerRefs;
+
+        public DependencyGroupChildFactory(JavaExtension javaExt, Set<File> files) {
+            this.javaExt = javaExt;
+            this.files = files;
+            this.lastProjectDependencies = new AtomicReference<>(null);
+            this.listenerRefs = new ListenerRegistrations();
+        }
+
+        private Map<File, JavaProjectDependencyDef> getProjectDependencies() {
+            Map<File, JavaProjectDependencyDef> allDependencies
+                    = javaExt.getProjectDependencies().translatedDependencies().getValue();
+            return selectDependencies(files, allDependencies);
+        }
+
+        private void projectDependenciesChanged() {
+            Map<File, JavaProjectDependencyDef> prevDependencies = lastProjectDependencies.get();
+            if (prevDependencies == null) {
+                // The children were not created yet.
+                return;
+            }
+
+            if (!prevDependencies.equals(getProjectDependencies())) {
+                refresh(false);
+            }
+        }
+
+        @Override
+        protected void addNotify() {
+            // The project dependencies might be translated later than the
+            // model is loaded (or change when other projects are loaded),
+            // so the children must follow them.
+            PropertySource<Map<File, JavaProjectDependencyDef>> translatedDependencies
+                    = javaExt.getProjectDependencies().translatedDependencies();
+            listenerRefs.add(translatedDependencies.addChangeListener(new Runnable() {
+                @Override
+                public void run() {
+                    projectDependenciesChanged();
+                }
+            }));
+        }
+
+        @Override
+        protected void removeNotify() {
+            listenerRefs.unregisterAll();
+        }
+
+        private List<SingleNodeFactory> filesToNodes(List<File> sortedFiles) {
+            List<SingleNodeFactory> fileNodes = new ArrayList<>(sortedFiles.size());
+
+            Map<FileObject, List<JavaProjectDependencyDef>> allProjectDependencies = new HashMap<>();
+
+            Map<File, JavaProjectDependencyDef> projectDependencies = getProjectDependencies();
+            lastProjectDependencies.set(projectDependencies);
+
+            for (File file: sortedFiles) {
+                JavaProjectDependencyDef projectDep = projectDependencies.get(file);
+                if (projectDep == null) {
+                    fileNodes.add(new FileDependency(file));
+                }
+                else {
+                    FileObject projectDir = projectDep.getProject().getProjectDirectory();
+                    List<JavaProjectDependencyDef> dependencySourceSets = allProjectDependencies.get(projectDir);
+                    if (dependencySourceSets == null) {
+                        dependencySourceSets = new ArrayList<>();
+                        allProjectDependencies.put(projectDir, dependencySourceSets);
+                    }
+                    dependencySourceSets.add(projectDep);
+                }
+            }
+
+            List<ProjectDependencyFactory> projectNodes = new ArrayList<>();
+            for (List<JavaProjectDependencyDef> dependencySourceSets: allProjectDependencies.values()) {
+                boolean showSourceSetName = dependencySourceSets.size() > 1;
+                for (JavaProjectDependencyDef projectDependency: dependencySourceSets) {
+                    projectNodes.add(new ProjectDependencyFactory(projectDependency, showSourceSetName));
+                }
+            }
+
+            // Project dependencies are displayed before the files, and the files
+            // are already in order.
+            Collections.sort(projectNodes, new Comparator<ProjectDependencyFactory>() {
+                @Override
+                public int compare(ProjectDependencyFactory o1, ProjectDependencyFactory o2) {
+                    return compareProjectDependencyNodes(o1, o2);
+                }
+            });
+
+            List<SingleNodeFactory> result = new ArrayList<>(projectNodes.size() + fileNodes.size());
+            result.addAll(projectNodes);
+            result.addAll(fileNodes);
+            return result;
+        }
+
+        private static int compareProjectDependencyNodes(ProjectDependencyFactory node1, ProjectDependencyFactory node2) {
+            NbJavaModule module1 = node1.projectDep.getJavaModule();
+            NbJavaModule module2 = node2.projectDep.getJavaModule();
+
+            if (module1 == module2) {
+                return 0;
+            }
+            return StringUtils.STR_CMP.compare(module1.getShortName(), module2.getShortName());
+        }
+
+        private static List<File> sortFiles(Collection<File> files) {
+            File[] filesArray = files.toArray(new File[files.size()]);
+
+            Arrays.sort(filesArray, new Comparator<File>() {
+                @Override
+                public int compare(File o1, File o2) {
+                    int result = StringUtils.STR_CMP.compare(o1.getName(), o2.getName());
+                    return result != 0 ? result : o1.compareTo(o2);
+                }
+            });
+
+            return Arrays.asList(filesArray);
         }
 
         protected void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
-            toPopulate.addAll(dependencies);
+            toPopulate.addAll(filesToNodes(sortFiles(files)));
         }
 
         @Override
@@ -709,15 +790,26 @@ public final class JavaDependenciesNode extends AbstractNode {
     @SuppressWarnings("serial")
     private static final class DownloadSourcesAction extends AbstractAction {
         private final NbGradleProject project;
+        private final JavaExtension javaExt;
 
-        public DownloadSourcesAction(NbGradleProject project) {
+        public DownloadSourcesAction(NbGradleProject project, JavaExtension javaExt) {
             super(NbStrings.getDownloadSources());
             this.project = project;
+            this.javaExt = javaExt;
+        }
+
+        private Set<File> getAllBinaries() {
+            Set<File> result = new LinkedHashSet<>();
+            for (JavaSourceSet sourceSet: javaExt.getCurrentModel().getMainModule().getSources()) {
+                result.addAll(sourceSet.getClasspaths().getCompileClasspaths());
+                result.addAll(sourceSet.getClasspaths().getRuntimeClasspaths());
+            }
+            return result;
         }
 
         @Override
         public void actionPerformed(ActionEvent e) {
-            DaemonTaskDef taskDef = DownloadSourcesTask.createTaskDef(project);
+            DaemonTaskDef taskDef = DownloadSourcesTask.createTaskDef(project, getAllBinaries());
             GradleDaemonManager.submitGradleTask(SOURCES_DOWNLOADER, taskDef, new CommandCompleteListener() {
                 @Override
                 public void onComplete(Throwable error) {
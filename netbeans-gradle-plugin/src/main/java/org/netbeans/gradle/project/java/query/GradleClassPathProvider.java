@@ -244,11 +244,11 @@ implements
         changes.removePropertyChangeListener(listener);
     }
 
-    private boolean isInOneOf(File file, Collection<File> roots) {
+    private static boolean isInOneOf(File file, Collection<File> roots) {
         return isInOneOf(file, roots, null);
     }
 
-    private boolean isInOneOf(File file, Collection<File> roots, ExcludeIncludeRules excludeRules) {
+    private static boolean isInOneOf(File file, Collection<File> roots, ExcludeIncludeRules excludeRules) {
         for (File root: roots) {
             if (NbFileUtils.isParentOrSame(root, file)) {
                 if (excludeRules == null) {
@@ -260,13 +260,17 @@ implements
         return false;
     }
 
-    private JavaSourceSet findAssociatedSourceSet(NbJavaModel projectModel, FileObject fileObj) {
+    private static JavaSourceSet findAssociatedSourceSet(NbJavaModel projectModel, FileObject fileObj) {
         File file = FileUtil.toFile(fileObj);
         if (file == null) {
             return null;
         }
 
-        for (JavaSourceSet sourceSet: projectModel.getMainModule().getSources()) {
+        return findAssociatedSourceSet(projectModel.getMainModule(), file);
+    }
+
+    static JavaSourceSet findAssociatedSourceSet(NbJavaModule module, File file) {
+        for (JavaSourceSet sourceSet: module.getSources()) {
             if (isInOneOf(file, sourceSet.getClasspaths().getCompileClasspaths())) {
                 return sourceSet;
             }
@@ -4,6 +4,7 @@ import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -51,6 +52,7 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
     private final ChangeSupport changeSupport;
 
     private volatile Map<String, SourceGroup[]> currentGroups;
+    private final AtomicReference<SourceGroup> genericGroupRef;
 
     private final AtomicBoolean hasScanned;
     private final UpdateTaskExecutor scanSourcesExecutor;
@@ -61,6 +63,7 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
         this.javaExt = javaExt;
         this.changeSupport = new ChangeSupport(this);
         this.currentGroups = Collections.emptyMap();
+        this.genericGroupRef = new AtomicReference<>(null);
         this.hasScanned = new AtomicBoolean(false);
         this.scanSourcesExecutor = NbTaskExecutors.newDefaultUpdateExecutor();
 
@@ -190,7 +193,13 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
         scanSourcesExecutor.execute(new Runnable() {
             @Override
             public void run() {
-                Map<String, SourceGroup[]> groups = findSourceGroups(javaExt);
+                Map<String, SourceGroup[]> prevGroups = currentGroups;
+                Map<String, SourceGroup[]> groups = reuseUnchangedGroups(prevGroups, findSourceGroups(javaExt));
+
+                if (isSameGroups(prevGroups, groups)) {
+                    LOGGER.log(Level.FINE, "Location of the sources of {0} did not change.", javaExt.getName());
+                    return;
+                }
 
                 currentGroups = groups;
                 LOGGER.log(Level.FINE, "Location of the sources of {0} has been updated.", javaExt.getName());
@@ -205,10 +214,65 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
         });
     }
 
+    /**
+     * Replaces the newly found source groups with the previous instances where
+     * they are equivalent. NetBeans identifies source roots by the identity of
+     * their {@code SourceGroup}, so keeping them avoids needlessly rescanning
+     * roots which did not change.
+     */
+    static Map<String, SourceGroup[]> reuseUnchangedGroups(
+            Map<String, SourceGroup[]> prevGroups,
+            Map<String, SourceGroup[]> newGroups) {
+
+        Map<FileObject, GradleSourceGroup> prevByRoot = new HashMap<>();
+        for (SourceGroup[] groups: prevGroups.values()) {
+            for (SourceGroup group: groups) {
+                if (group instanceof GradleSourceGroup) {
+                    prevByRoot.put(group.getRootFolder(), (GradleSourceGroup)group);
+                }
+            }
+        }
+
+        Map<String, SourceGroup[]> result = CollectionUtils.newHashMap(newGroups.size());
+        for (Map.Entry<String, SourceGroup[]> entry: newGroups.entrySet()) {
+            SourceGroup[] groups = entry.getValue().clone();
+            for (int i = 0; i < groups.length; i++) {
+                SourceGroup group = groups[i];
+                GradleSourceGroup prevGroup = prevByRoot.get(group.getRootFolder());
+                if (prevGroup != null && group instanceof GradleSourceGroup
+                        && prevGroup.isEquivalent((GradleSourceGroup)group)) {
+                    groups[i] = prevGroup;
+                }
+            }
+            result.put(entry.getKey(), groups);
+        }
+        return result;
+    }
+
+    static boolean isSameGroups(Map<String, SourceGroup[]> groups1, Map<String, SourceGroup[]> groups2) {
+        if (groups1.size() != groups2.size()) {
+            return false;
+        }
+
+        for (Map.Entry<String, SourceGroup[]> entry: groups1.entrySet()) {
+            SourceGroup[] otherGroups = groups2.get(entry.getKey());
+            if (otherGroups == null || !Arrays.equals(entry.getValue(), otherGroups)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private SourceGroup[] getGenericGroup() {
-        return new SourceGroup[]{
-            new GradleSourceGroup(javaExt.getProjectDirectory())
-        };
+        FileObject projectDir = javaExt.getProjectDirectory();
+
+        SourceGroup result = genericGroupRef.get();
+        if (result == null || !projectDir.equals(result.getRootFolder())) {
+            result = new GradleSourceGroup(projectDir);
+            genericGroupRef.set(result);
+        }
+
+        return new SourceGroup[]{result};
     }
 
     @Override
@@ -267,7 +331,7 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
         }
     }
 
-    private static class GradleSourceGroup implements SourceGroup {
+    static class GradleSourceGroup implements SourceGroup {
         private final ExcludeIncludeRules includeRules;
         private final FileObject location;
         private final PropertyChangeSupport changes;
@@ -302,6 +366,12 @@ public final class GradleProjectSources implements Sources, JavaModelChangeListe
             return result;
         }
 
+        public boolean isEquivalent(GradleSourceGroup other) {
+            return location.equals(other.location)
+                    && Objects.equals(displayName, other.displayName)
+                    && Objects.equals(includeRules, other.includeRules);
+        }
+
         @Override
         public FileObject getRootFolder() {
             return location;
@@ -53,6 +53,9 @@ public final class ProjectClassPathResourceBuilder {
     private Map<String, Set<File>> openedProjectsOutput;
 
     private final UrlFactory urlForArchiveFactory;
+    // The same class path entries are usually converted for every source set
+    // and then again for the project wide class paths.
+    private final Map<File, PathResourceImplementation> pathResourceCache;
 
     public ProjectClassPathResourceBuilder(
             NbJavaModel projectModel,
@@ -69,6 +72,7 @@ public final class ProjectClassPathResourceBuilder {
         this.missing = null;
         this.openedProjectsOutput = null;
         this.urlForArchiveFactory = UrlFactory.getDefaultArchiveOrDirFactory();
+        this.pathResourceCache = new HashMap<>();
     }
 
     public void build() {
@@ -359,10 +363,28 @@ public final class ProjectClassPathResourceBuilder {
         return ExcludeAwarePathResource.tryCreate(file, includeRules, urlForArchiveFactory);
     }
 
-    private static List<PathResourceImplementation> getPathResources(
+    private List<PathResourceImplementation> getPathResources(
             Collection<File> files,
             Set<File> invalid) {
-        return getPathResources(files, invalid, ExcludeIncludeRules.ALLOW_ALL);
+
+        List<PathResourceImplementation> result = new ArrayList<>(files.size());
+        for (File file: asSet(files)) {
+            PathResourceImplementation pathResource = pathResourceCache.get(file);
+            if (pathResource == null && !pathResourceCache.containsKey(file)) {
+                pathResource = toPathResource(file, urlForArchiveFactory);
+                pathResourceCache.put(file, pathResource);
+            }
+
+            // Ignore invalid classpath entries
+            if (pathResource != null) {
+                result.add(pathResource);
+            }
+            else {
+                invalid.add(file);
+                LOGGER.log(Level.WARNING, "Class path entry is invalid: {0}", file);
+            }
+        }
+        return result;
     }
 
     private static <T> Set<T> asSet(Collection<T> input) {
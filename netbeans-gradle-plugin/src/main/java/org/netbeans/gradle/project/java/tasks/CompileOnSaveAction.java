@@ -1,19 +1,17 @@
 package org.netbeans.gradle.project.java.tasks;
 
+import java.nio.file.Path;
 import javax.swing.text.Document;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.editor.mimelookup.MimeRegistration;
-import org.netbeans.api.java.project.JavaProjectConstants;
 import org.netbeans.api.project.FileOwnerQuery;
 import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbGradleProjectFactory;
-import org.netbeans.gradle.project.api.task.GradleActionProviderContext;
 import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.modules.parsing.api.Source;
 import org.netbeans.spi.editor.document.OnSaveTask;
-import org.netbeans.spi.project.ActionProvider;
 import org.openide.filesystems.FileObject;
-import org.openide.util.lookup.Lookups;
 
 public final class CompileOnSaveAction implements OnSaveTask {
     private final FileObject srcFile;
@@ -31,24 +29,13 @@ public final class CompileOnSaveAction implements OnSaveTask {
         }
 
         Project project = FileOwnerQuery.getOwner(srcFile);
-        if (!isGradleProject(project)) {
+        NbGradleProject gradleProject = NbGradleProjectFactory.tryGetGradleProject(project);
+        if (gradleProject == null) {
             return;
         }
 
-        ActionProvider actionProvider
-                = project.getLookup().lookup(ActionProvider.class);
-        if (actionProvider == null) {
-            return;
-        }
-        actionProvider.invokeAction(
-                JavaProjectConstants.COMMAND_DEBUG_FIX,
-                Lookups.fixed(srcFile,
-                        GradleActionProviderContext.DONT_SAVE_FILES,
-                        GradleActionProviderContext.DONT_FOCUS_ON_OUTPUT));
-    }
-
-    private static boolean isGradleProject(Project project) {
-        return NbGradleProjectFactory.tryGetGradleProject(project) != null;
+        Path rootDir = gradleProject.currentModel().getValue().getSettingsDir();
+        CompileOnSaveScheduler.getDefault().fileSaved(rootDir, project, srcFile);
     }
 
     @Override
@@ -0,0 +1,345 @@
+package org.netbeans.gradle.project.java.tasks;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.java.project.JavaProjectConstants;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.api.task.CommandCompleteListener;
+import org.netbeans.gradle.project.api.task.GradleActionProviderContext;
+import org.netbeans.gradle.project.tasks.CommandCancelListener;
+import org.netbeans.spi.project.ActionProvider;
+import org.openide.filesystems.FileObject;
+import org.openide.util.Lookup;
+import org.openide.util.lookup.Lookups;
+
+/**
+ * Coordinates the compilations triggered by saving files. Saves are collected
+ * until no more files are saved for a short while, then every affected project
+ * is compiled once with all of its saved files. The compilations of projects
+ * belonging to the same root build are executed one after another (so they do
+ * not compete for the same daemon), and the saves arriving meanwhile are
+ * merged into the next compilation of their project.
+ * <P>
+ * Note that the compilations of different projects are not merged into a
+ * single build, because each of them applies the changed classes of its own
+ * project to the debugged application.
+ */
+final class CompileOnSaveScheduler {
+    private static final Logger LOGGER = Logger.getLogger(CompileOnSaveScheduler.class.getName());
+
+    public static final String DELAY_PROPERTY = "org.netbeans.gradle.compileOnSaveDelayMs";
+    private static final long DEFAULT_DELAY_MS = 300;
+
+    // Every path of starting a compilation notifies us when it is done, so
+    // this is only a safety net if a listener is somehow lost.
+    private static final long DEFAULT_ABANDONED_RUN_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final CompileOnSaveScheduler DEFAULT = new CompileOnSaveScheduler(getConfiguredDelayMs());
+
+    private final long delayNanos;
+    private final long abandonedRunTimeoutNanos;
+    private final ScheduledExecutorService timer;
+
+    private final Lock mainLock;
+    // Guarded by mainLock
+    private final Map<Path, RootState> roots;
+
+    public CompileOnSaveScheduler(long delayMs) {
+        this(delayMs, DEFAULT_ABANDONED_RUN_TIMEOUT_MS);
+    }
+
+    CompileOnSaveScheduler(long delayMs, long abandonedRunTimeoutMs) {
+        ExceptionHelper.checkArgumentInRange(delayMs, 0, Long.MAX_VALUE, "delayMs");
+        ExceptionHelper.checkArgumentInRange(abandonedRunTimeoutMs, 0, Long.MAX_VALUE, "abandonedRunTimeoutMs");
+
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMs);
+        this.abandonedRunTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(abandonedRunTimeoutMs);
+        this.timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread result = new Thread(task, "Compile-On-Save-Scheduler");
+                result.setDaemon(true);
+                return result;
+            }
+        });
+        this.mainLock = new ReentrantLock();
+        this.roots = new HashMap<>();
+    }
+
+    public static CompileOnSaveScheduler getDefault() {
+        return DEFAULT;
+    }
+
+    private static long getConfiguredDelayMs() {
+        String delayStr = System.getProperty(DELAY_PROPERTY);
+        if (delayStr == null) {
+            return DEFAULT_DELAY_MS;
+        }
+
+        try {
+            return Math.max(0, Long.parseLong(delayStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid compile on save delay: {0}", delayStr);
+            return DEFAULT_DELAY_MS;
+        }
+    }
+
+    /**
+     * Schedules the compilation of the given project because the given file
+     * was saved.
+     *
+     * @param rootDir the root directory of the build the project belongs to.
+     *   This argument cannot be {@code null}.
+     * @param project the project owning the saved file. This argument cannot
+     *   be {@code null}.
+     * @param savedFile the saved file. This argument cannot be {@code null}.
+     */
+    public void fileSaved(Path rootDir, Project project, FileObject savedFile) {
+        ExceptionHelper.checkNotNullArgument(rootDir, "rootDir");
+        ExceptionHelper.checkNotNullArgument(project, "project");
+        ExceptionHelper.checkNotNullArgument(savedFile, "savedFile");
+
+        long saveTime = System.nanoTime();
+
+        mainLock.lock();
+        try {
+            RootState state = roots.get(rootDir);
+            if (state == null) {
+                state = new RootState();
+                roots.put(rootDir, state);
+            }
+
+            state.addSave(project, savedFile, saveTime);
+            if (state.scheduledFlush == null) {
+                state.scheduledFlush = scheduleFlush(rootDir, delayNanos);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private ScheduledFuture<?> scheduleFlush(final Path rootDir, long delayNanos) {
+        // Note that flushing more times than necessary is harmless, so it does
+        // not matter if a flush is started after its future was replaced.
+        return timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush(rootDir);
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.SEVERE, "Unexpected failure while compiling saved files.", ex);
+                }
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void flush(Path rootDir) {
+        long now = System.nanoTime();
+
+        PendingCompile compile;
+        mainLock.lock();
+        try {
+            RootState state = roots.get(rootDir);
+            if (state == null) {
+                return;
+            }
+
+            state.scheduledFlush = null;
+
+            long remainingDelay = state.lastSaveTime + delayNanos - now;
+            if (remainingDelay > 0) {
+                // Files were saved since this flush was scheduled, so wait
+                // until the saves settle down.
+                state.scheduledFlush = scheduleFlush(rootDir, remainingDelay);
+                return;
+            }
+
+            if (state.currentRun != null) {
+                long remainingRunTime = state.runStartTime + abandonedRunTimeoutNanos - now;
+                if (remainingRunTime > 0) {
+                    // The next compilation is started when the current one
+                    // completes or is canceled but do not wait forever if we
+                    // are never notified.
+                    state.scheduledFlush = scheduleFlush(rootDir, remainingRunTime);
+                    return;
+                }
+
+                LOGGER.log(Level.WARNING, "Compiling the saved files of {0} did not report completion.",
+                        state.currentRun.project.getProjectDirectory());
+            }
+
+            compile = state.pollPending();
+            if (compile == null) {
+                state.currentRun = null;
+                roots.remove(rootDir);
+                return;
+            }
+            state.currentRun = compile;
+            state.runStartTime = now;
+        } finally {
+            mainLock.unlock();
+        }
+
+        startCompile(rootDir, compile);
+    }
+
+    private static boolean supportsAction(ActionProvider actionProvider, String command) {
+        String[] actions = actionProvider.getSupportedActions();
+        return actions != null && Arrays.asList(actions).contains(command);
+    }
+
+    private static ActionProvider tryGetActionProvider(Project project, String command, Lookup context) {
+        for (ActionProvider actionProvider: project.getLookup().lookupAll(ActionProvider.class)) {
+            if (supportsAction(actionProvider, command)) {
+                return actionProvider.isActionEnabled(command, context) ? actionProvider : null;
+            }
+        }
+        return null;
+    }
+
+    private void startCompile(Path rootDir, PendingCompile compile) {
+        String command = JavaProjectConstants.COMMAND_DEBUG_FIX;
+
+        CompileCompleteListener completeListener = new CompileCompleteListener(rootDir, compile);
+
+        List<Object> context = new ArrayList<>(compile.files.size() + 3);
+        context.addAll(compile.files);
+        context.add(GradleActionProviderContext.DONT_SAVE_FILES);
+        context.add(GradleActionProviderContext.DONT_FOCUS_ON_OUTPUT);
+        context.add(completeListener);
+        Lookup actionContext = Lookups.fixed(context.toArray());
+
+        try {
+            ActionProvider actionProvider = tryGetActionProvider(compile.project, command, actionContext);
+            if (actionProvider == null) {
+                // The listener would never be notified.
+                LOGGER.log(Level.FINE, "Cannot compile the saved files of {0}.",
+                        compile.project.getProjectDirectory());
+                compileCompleted(rootDir, compile);
+                return;
+            }
+
+            actionProvider.invokeAction(command, actionContext);
+        } catch (RuntimeException | Error ex) {
+            compileCompleted(rootDir, compile);
+            throw ex;
+        }
+    }
+
+    private void compileCompleted(Path rootDir, PendingCompile compile) {
+        mainLock.lock();
+        try {
+            RootState state = roots.get(rootDir);
+            if (state == null || state.currentRun != compile) {
+                // The run was abandoned or this is a repeated notification.
+                return;
+            }
+
+            state.currentRun = null;
+            state.runStartTime = 0;
+
+            // The scheduled flush might wait for the abandoned run timeout,
+            // so replace it to start the next compilation immediately.
+            if (state.scheduledFlush != null) {
+                state.scheduledFlush.cancel(false);
+            }
+            state.scheduledFlush = scheduleFlush(rootDir, 0);
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private final class CompileCompleteListener implements CommandCompleteListener, CommandCancelListener {
+        private final Path rootDir;
+        private final PendingCompile compile;
+
+        public CompileCompleteListener(Path rootDir, PendingCompile compile) {
+            this.rootDir = rootDir;
+            this.compile = compile;
+        }
+
+        @Override
+        public void onComplete(Throwable error) {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - compile.firstSaveTime);
+            LOGGER.log(Level.FINE, "Compiled {0} saved files of {1} in {2} ms after the first save.",
+                    new Object[]{compile.files.size(), compile.project.getProjectDirectory(), latencyMs});
+
+            compileCompleted(rootDir, compile);
+        }
+
+        @Override
+        public void onCancel() {
+            LOGGER.log(Level.FINE, "Compiling the saved files of {0} was canceled.",
+                    compile.project.getProjectDirectory());
+
+            compileCompleted(rootDir, compile);
+        }
+    }
+
+    private static final class RootState {
+        public final Map<Project, PendingCompile> pending;
+        public long lastSaveTime;
+        public ScheduledFuture<?> scheduledFlush;
+        public PendingCompile currentRun;
+        public long runStartTime;
+
+        public RootState() {
+            this.pending = new LinkedHashMap<>();
+            this.lastSaveTime = 0;
+            this.scheduledFlush = null;
+            this.currentRun = null;
+            this.runStartTime = 0;
+        }
+
+        public void addSave(Project project, FileObject savedFile, long saveTime) {
+            PendingCompile compile = pending.get(project);
+            if (compile == null) {
+                compile = new PendingCompile(project, saveTime);
+                pending.put(project, compile);
+            }
+            compile.files.add(savedFile);
+            lastSaveTime = saveTime;
+        }
+
+        public PendingCompile pollPending() {
+            Iterator<PendingCompile> itr = pending.values().iterator();
+            if (!itr.hasNext()) {
+                return null;
+            }
+
+            PendingCompile result = itr.next();
+            itr.remove();
+            return result;
+        }
+    }
+
+    private static final class PendingCompile {
+        public final Project project;
+        public final long firstSaveTime;
+        public final Set<FileObject> files;
+
+        public PendingCompile(Project project, long firstSaveTime) {
+            this.project = project;
+            this.firstSaveTime = firstSaveTime;
+            this.files = new LinkedHashSet<>();
+        }
+    }
+}
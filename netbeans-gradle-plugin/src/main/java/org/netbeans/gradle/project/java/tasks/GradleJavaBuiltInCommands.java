@@ -1,5 +1,6 @@
 package org.netbeans.gradle.project.java.tasks;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -18,6 +19,7 @@ import org.jtrim.collections.CollectionsEx;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.java.project.JavaProjectConstants;
 import org.netbeans.api.project.Project;
+import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.model.java.JavaTestTask;
 import org.netbeans.gradle.model.util.Exceptions;
 import org.netbeans.gradle.project.NbStrings;
@@ -46,6 +48,7 @@ import org.netbeans.gradle.project.java.test.TestTaskName;
 import org.netbeans.gradle.project.java.test.TestXmlDisplayer;
 import org.netbeans.gradle.project.output.DebugTextListener;
 import org.netbeans.gradle.project.tasks.AttacherListener;
+import org.netbeans.gradle.project.tasks.ClassOutputSnapshot;
 import org.netbeans.gradle.project.tasks.DebugUtils;
 import org.netbeans.gradle.project.tasks.vars.StandardTaskVariable;
 import org.netbeans.gradle.project.util.GradleVersions;
@@ -623,24 +626,45 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
         };
     }
 
-    private static ContextAwareCommandFinalizer applyClassesFinalizer(final Project project, final String className) {
+    private static ContextAwareCommandFinalizer applyClassesFinalizer(
+            final Project project,
+            final String className,
+            final ClassOutputSnapshot snapshot,
+            final Collection<File> outputDirs) {
         return new ContextAwareCommandFinalizer() {
             @Override
             public void finalizeSuccessfulCommand(OutputWriter output, OutputWriter errOutput) {
-                DebugUtils.applyChanges(project, output, className);
+                if (snapshot != null) {
+                    DebugUtils.applyChanges(project, output, snapshot, outputDirs);
+                }
+                else {
+                    DebugUtils.applyChanges(project, output, className);
+                }
             }
         };
     }
 
+    private static Collection<File> getClassOutputDirs(JavaExtension javaExt) {
+        List<File> result = new ArrayList<>();
+        for (JavaSourceSet sourceSet: javaExt.getCurrentModel().getMainModule().getSources()) {
+            result.addAll(sourceSet.getOutputDirs().getClassesDirs());
+        }
+        return result;
+    }
+
     private static CustomCommandAdjuster applyClassesActions() {
         return new CustomCommandAdjuster() {
             @Override
-            public void adjust(JavaExtension javaExt, CustomCommandActions.Builder customActions) {
+            public void adjust(final JavaExtension javaExt, CustomCommandActions.Builder customActions) {
                 customActions.setContextAwareAction(new ContextAwareCommandAction() {
                     @Override
                     public ContextAwareCommandFinalizer startCommand(Project project, Lookup commandContext) {
                         String className = DebugUtils.getActiveClassName(project, commandContext);
-                        return applyClassesFinalizer(project, className);
+                        // The snapshot is compared with the class files after
+                        // the compilation to reload every changed class.
+                        Collection<File> outputDirs = getClassOutputDirs(javaExt);
+                        ClassOutputSnapshot snapshot = DebugUtils.trySnapshotClassOutputs(outputDirs);
+                        return applyClassesFinalizer(project, className, snapshot, outputDirs);
                     }
                 });
             }
@@ -0,0 +1,47 @@
+package org.netbeans.gradle.project.keys;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.model.ModelLoadTimeline;
+import org.netbeans.gradle.project.util.StringUtils;
+import org.netbeans.gradle.project.view.GlobalErrorReporter;
+import org.openide.awt.ActionID;
+import org.openide.awt.ActionReference;
+import org.openide.awt.ActionRegistration;
+import org.openide.filesystems.FileChooserBuilder;
+
+@ActionRegistration(displayName = "#CTL_ExportModelLoadTimelineAction", lazy = true)
+@ActionID(category = "Tools", id = "org.netbeans.gradle.project.keys.ExportModelLoadTimelineAction")
+@ActionReference(path = "Menu/Tools", position = 1950)
+public final class ExportModelLoadTimelineAction implements ActionListener {
+    private static final Logger LOGGER = Logger.getLogger(ExportModelLoadTimelineAction.class.getName());
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        FileChooserBuilder dlgChooser = new FileChooserBuilder(ExportModelLoadTimelineAction.class);
+        dlgChooser.setFileFilter(new FileNameExtensionFilter(NbStrings.getJsonFileFilterDescription(), "json"));
+
+        File file = dlgChooser.showSaveDialog();
+        if (file == null || file.isDirectory()) {
+            return;
+        }
+
+        if (!file.getName().contains(".")) {
+            file = new File(file.getPath() + ".json");
+        }
+
+        String timeline = ModelLoadTimeline.getDefault().toJson();
+        try {
+            StringUtils.writeStringToFile(timeline, StringUtils.UTF8, file.toPath());
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to export the model load timeline to " + file, ex);
+            GlobalErrorReporter.showIssue(NbStrings.getExportModelLoadTimelineFailure(ex.getMessage()));
+        }
+    }
+}
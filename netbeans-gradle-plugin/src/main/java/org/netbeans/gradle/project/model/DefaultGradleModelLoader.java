@@ -26,6 +26,7 @@ import org.gradle.util.GradleVersion;
 import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.CancellationToken;
 import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
 import org.jtrim.concurrent.MonitorableTaskExecutorService;
 import org.jtrim.concurrent.TaskExecutor;
 import org.jtrim.concurrent.Tasks;
@@ -55,6 +56,7 @@ import org.netbeans.gradle.project.tasks.GradleArguments;
 import org.netbeans.gradle.project.tasks.GradleDaemonFailures;
 import org.netbeans.gradle.project.tasks.GradleDaemonManager;
 import org.netbeans.gradle.project.tasks.GradleTasks;
+import org.netbeans.gradle.project.tasks.PriorityAwareExecutor;
 import org.netbeans.gradle.project.util.GradleVersions;
 import org.netbeans.gradle.project.util.NbFunction;
 import org.netbeans.gradle.project.util.NbSupplier;
@@ -64,8 +66,10 @@ import org.netbeans.gradle.project.view.GlobalErrorReporter;
 public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel> {
     private static final Logger LOGGER = Logger.getLogger(DefaultGradleModelLoader.class.getName());
 
-    private static final TaskExecutor DEFAULT_PROJECT_LOADER
-            = NbTaskExecutors.newExecutor("Gradle-Project-Loader", 1);
+    // Projects the user is currently interested in (e.g., has an editor opened)
+    // are loaded before other projects.
+    private static final PriorityAwareExecutor DEFAULT_PROJECT_LOADER
+            = new PriorityAwareExecutor(NbTaskExecutors.newExecutor("Gradle-Project-Loader", 1));
 
     private static final MonitorableTaskExecutorService DEFAULT_MODEL_LOAD_NOTIFIER
             = NbTaskExecutors.newExecutor("Gradle-Project-Load-Notifier", 1);
@@ -465,11 +469,27 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
         return modelToSave;
     }
 
+    private boolean tryIntroduceIncludedBuildModel(NbGradleModel model) {
+        // Models of included builds were loaded in the context of the
+        // including build, so they must never override models loaded for the
+        // root of the included build.
+        if (!getCache().tryAddEntry(model)) {
+            return false;
+        }
+
+        NbGradleProject ownerProject = loadedProjectManager.tryGetLoadedProject(model.getProjectDir());
+        if (ownerProject != null && !ownerProject.wasModelEverSet()) {
+            ownerProject.tryReplaceModel(model);
+        }
+        return true;
+    }
+
     private void introduceProjects(
             List<NbGradleModel> otherModels,
+            List<NbGradleModel> includedBuildModels,
             NbGradleModel mainModel) {
 
-        int numberOfModels = otherModels.size() + 1;
+        int numberOfModels = otherModels.size() + includedBuildModels.size() + 1;
         // Required one more than actually needed to create room for a buildSrc project.
         cacheSizeIncreaser.requiresCacheSize(getCache(), numberOfModels + 1);
 
@@ -477,6 +497,11 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
         for (NbGradleModel model: otherModels) {
             toSave.add(introduceLoadedModel(model, false));
         }
+        for (NbGradleModel model: includedBuildModels) {
+            if (tryIntroduceIncludedBuildModel(model)) {
+                toSave.add(model);
+            }
+        }
         toSave.add(introduceLoadedModel(mainModel, true));
         saveToPersistentCache(toSave);
     }
@@ -535,41 +560,76 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                 "Loading Gradle project from directory: {0}, settings.gradle: {1}",
                 new Object[]{projectDir, projectLoadKey.settingsGradleDef});
 
-        GradleConnector gradleConnector = createGradleConnector(cancelToken, project);
-        gradleConnector.forProjectDirectory(projectDir);
-        ProjectConnection projectConnection = null;
+        ModelLoadTimeline.LoadTrace loadTrace = ModelLoadTimeline.getDefault().newLoadTrace(projectDir);
+        ModelLoadTimeline.SpanTimer connectTimer = loadTrace.startSpan(ModelLoadTimeline.PHASE_CONNECT);
+
+        GradleConnectorRef gradleConnectorRef = createGradleConnectorRef(cancelToken, project);
+        GradleConnectionPool.PooledConnection pooledConnection = null;
 
         NbModelLoader.Result loadedModels;
         try {
-            projectConnection = gradleConnector.connect();
+            pooledConnection = GradleConnectionPool.getDefault().connect(gradleConnectorRef, projectDir);
+            ProjectConnection projectConnection = pooledConnection.getConnection();
 
             DefaultModelBuilderSetup setup = modelBuilderSetup(projectLoadKey, progress);
 
             ModelBuilder<BuildEnvironment> modelBuilder = projectConnection.model(BuildEnvironment.class);
             setupLongRunningOP(setup, modelBuilder);
 
-            BuildEnvironment env = modelBuilder.get();
+            // Nothing is done until the first operation, so the connect
+            // phase only ends after the build environment was fetched.
+            BuildEnvironment env;
+            try {
+                env = modelBuilder.get();
+            } finally {
+                connectTimer.end();
+            }
             reportKnownIssues(env);
 
+            GradleDaemonWarmer.getDefault().recordUsage(
+                    projectLoadKey.getAppliedRootProjectDir().toFile(),
+                    gradleConnectorRef,
+                    setup);
+
             GradleTarget gradleTarget = new GradleTarget(
                     setup.getJDKVersion(),
                     GradleVersion.version(env.getGradle().getGradleVersion()));
-            NbModelLoader modelLoader = chooseModel(projectLoadKey.settingsGradleDef, gradleTarget, cachedEntry, setup);
+            NbModelLoader modelLoader = chooseModel(projectLoadKey.settingsGradleDef, gradleTarget, cachedEntry, setup, loadTrace);
 
-            loadedModels = modelLoader.loadModels(project, projectConnection, progress);
+            ModelLoadTimeline.SpanTimer loadTimer = loadTrace.startSpan(ModelLoadTimeline.PHASE_LOAD_MODELS);
+            try {
+                loadedModels = modelLoader.loadModels(project, projectConnection, progress);
+            } finally {
+                loadTimer.end();
+            }
         } finally {
-            if (projectConnection != null) {
-                projectConnection.close();
+            connectTimer.end();
+            if (pooledConnection != null) {
+                pooledConnection.close();
             }
         }
 
-        ModelLoadIssueReporter.reportAllIssues(loadedModels.getIssues());
+        NbGradleModel mainModel = loadedModels.getMainModel();
+        List<NbGradleModel> otherModels = loadedModels.getOtherModels();
+        List<NbGradleModel> includedBuildModels = loadedModels.getIncludedBuildModels();
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            ModelInterner interner = ModelInterner.getDefault();
+            LOGGER.log(Level.FINE,
+                    "Model value objects shared across projects: {0}, estimated memory saved: {1} KB",
+                    new Object[]{interner.getInternedObjectCount(), interner.getEstimatedBytesSaved() / 1024});
+        }
 
         NbGradleModel result = cachedEntry != null
-                ? cachedEntry.updateEntry(loadedModels.getMainModel())
-                : loadedModels.getMainModel();
+                ? cachedEntry.updateEntry(mainModel)
+                : mainModel;
 
-        introduceProjects(loadedModels.getOtherModels(), result);
+        ModelLoadTimeline.SpanTimer introduceTimer = loadTrace.startSpan(ModelLoadTimeline.PHASE_INTRODUCE_MODELS);
+        try {
+            introduceProjects(otherModels, includedBuildModels, result);
+        } finally {
+            introduceTimer.end();
+        }
 
         return result;
     }
@@ -592,13 +652,14 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
             SettingsGradleDef settingsGradleDef,
             GradleTarget gradleTarget,
             NbGradleModel cachedModel,
-            OperationInitializer setup) {
+            OperationInitializer setup,
+            ModelLoadTimeline.LoadTrace loadTrace) {
 
         GradleVersion version = gradleTarget.getGradleVersion();
 
         ModelLoadingStrategy modelLoadingStrategy = CommonGlobalSettings.getDefault().modelLoadingStrategy().getActiveValue();
         NbModelLoader result = modelLoadingStrategy.canUse18Api(version)
-                ? new NbGradle18ModelLoader(settingsGradleDef, setup, gradleTarget)
+                ? new NbGradle18ModelLoader(settingsGradleDef, setup, gradleTarget, loadTrace)
                 : new NbCompatibleModelLoader(settingsGradleDef, cachedModel, setup, gradleTarget);
 
         LOGGER.log(Level.INFO, "Using model loader: {0}", result.getClass().getSimpleName());
@@ -660,7 +721,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
             ExceptionHelper.checkNotNullArgument(project, "project");
 
             this.project = project;
-            this.projectLoader = DEFAULT_PROJECT_LOADER;
+            this.projectLoader = visibilityAwareProjectLoader(project);
             this.modelLoadNotifier = DEFAULT_MODEL_LOAD_NOTIFIER;
             this.loadedProjectManager = LoadedProjectManager.getDefault();
             this.persistentCache = new MultiFileModelCache<>(defaultModelPersister(project), new NbFunction<NbGradleModel, PersistentModelKey>() {
@@ -687,6 +748,18 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
             };
         }
 
+        private static TaskExecutor visibilityAwareProjectLoader(final NbGradleProject project) {
+            return new TaskExecutor() {
+                @Override
+                public void execute(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
+                    // The services of the project are not yet available when the builder is created,
+                    // so we have to retrieve the visibility property lazily.
+                    PropertySource<Boolean> visible = project.getVisibilityTracker().visible();
+                    DEFAULT_PROJECT_LOADER.getExecutor(visible).execute(cancelToken, task, cleanupTask);
+                }
+            };
+        }
+
         private static PersistentModelStore<NbGradleModel> defaultModelPersister(NbGradleProject project) {
             return DEFAULT_LAZY_MODEL_STORE_FACTORY.createStore(DEFAULT_MODEL_STORE_FACTORY.createModelStore(project));
         }
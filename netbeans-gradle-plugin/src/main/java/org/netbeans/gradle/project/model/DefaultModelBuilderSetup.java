@@ -44,6 +44,14 @@ public final class DefaultModelBuilderSetup implements OperationInitializer {
         return jdkPlatform;
     }
 
+    public File getJdkHome() {
+        return jdkHome;
+    }
+
+    public List<String> getJvmArgs() {
+        return Collections.unmodifiableList(jvmArgs);
+    }
+
     public SpecificationVersion getJDKVersion() {
         Specification spec = jdkPlatform.getSpecification();
         if (spec == null) {
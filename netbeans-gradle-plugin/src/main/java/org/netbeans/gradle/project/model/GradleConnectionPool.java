@@ -0,0 +1,445 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.event.ListenerRegistries;
+import org.jtrim.event.UnregisteredListenerRef;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
+
+/**
+ * Keeps {@code ProjectConnection} instances open for a while after they were
+ * released, so that subsequent operations on the same project with the same
+ * settings do not need to connect again.
+ * <P>
+ * Connections are shared by reference counting: A connection is only closed
+ * after all of its users have released it and it was not used for
+ * {@value #IDLE_TIMEOUT_PROPERTY} milliseconds (two minutes by default).
+ * Idle connections are also closed when the global Gradle settings affecting
+ * the connections change. The pool must be {@link #close() closed} when it is
+ * no longer needed, to stop the thread closing the idle connections.
+ * <P>
+ * This class is safe to be used by multiple threads concurrently.
+ */
+public final class GradleConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(GradleConnectionPool.class.getName());
+
+    public static final String IDLE_TIMEOUT_PROPERTY = "org.netbeans.gradle.connectionPoolIdleTimeoutMs";
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+
+    private final long idleTimeoutNanos;
+
+    private final Lock mainLock;
+    // Guarded by mainLock
+    private final Map<Object, Entry> entries;
+    // Guarded by mainLock
+    private ScheduledExecutorService evictor;
+    // Guarded by mainLock
+    private ListenerRef settingsListenerRef;
+    // Guarded by mainLock
+    private boolean closed;
+
+    private final AtomicLong acquireCount;
+    private final AtomicLong reuseCount;
+    private final AtomicLong connectCount;
+    private final AtomicLong totalConnectNanos;
+
+    public GradleConnectionPool(long idleTimeout, TimeUnit timeUnit) {
+        ExceptionHelper.checkArgumentInRange(idleTimeout, 0, Long.MAX_VALUE, "idleTimeout");
+        ExceptionHelper.checkNotNullArgument(timeUnit, "timeUnit");
+
+        this.idleTimeoutNanos = timeUnit.toNanos(idleTimeout);
+        this.mainLock = new ReentrantLock();
+        this.entries = new HashMap<>();
+        this.evictor = null;
+        this.settingsListenerRef = UnregisteredListenerRef.INSTANCE;
+        this.closed = false;
+        this.acquireCount = new AtomicLong(0);
+        this.reuseCount = new AtomicLong(0);
+        this.connectCount = new AtomicLong(0);
+        this.totalConnectNanos = new AtomicLong(0);
+    }
+
+    public static GradleConnectionPool getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    private static GradleConnectionPool createDefault() {
+        final GradleConnectionPool result
+                = new GradleConnectionPool(getConfiguredIdleTimeoutMs(), TimeUnit.MILLISECONDS);
+
+        Runnable evictTask = new Runnable() {
+            @Override
+            public void run() {
+                result.closeIdleConnections();
+            }
+        };
+
+        CommonGlobalSettings settings = CommonGlobalSettings.getDefault();
+        result.settingsListenerRef = ListenerRegistries.combineListenerRefs(
+                settings.gradleUserHomeDir().getActiveSource().addChangeListener(evictTask),
+                settings.gradleDaemonTimeoutSec().getActiveSource().addChangeListener(evictTask),
+                settings.gradleLocation().getActiveSource().addChangeListener(evictTask));
+
+        return result;
+    }
+
+    private static long getConfiguredIdleTimeoutMs() {
+        String timeoutStr = System.getProperty(IDLE_TIMEOUT_PROPERTY);
+        if (timeoutStr == null) {
+            return DEFAULT_IDLE_TIMEOUT_MS;
+        }
+
+        try {
+            return Math.max(0, Long.parseLong(timeoutStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid connection pool idle timeout: {0}", timeoutStr);
+            return DEFAULT_IDLE_TIMEOUT_MS;
+        }
+    }
+
+    /**
+     * Returns a connection to the given project directory using the settings
+     * of the given connector. The returned connection must be closed after it
+     * is no longer needed, but the underlying {@code ProjectConnection} must
+     * not be closed directly.
+     * <P>
+     * Note that this method sets the project directory of the connector.
+     *
+     * @param connectorRef the connector to connect with if there is no
+     *   reusable connection. This argument cannot be {@code null}.
+     * @param projectDir the project directory to connect to. This argument
+     *   cannot be {@code null}.
+     * @return the connection to the given project directory. This method
+     *   never returns {@code null}.
+     */
+    public PooledConnection connect(final GradleConnectorRef connectorRef, final File projectDir) {
+        ExceptionHelper.checkNotNullArgument(connectorRef, "connectorRef");
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+
+        Object key = Arrays.asList(projectDir, connectorRef.getSettingsKey());
+        return connect(key, new ConnectionFactory() {
+            @Override
+            public ProjectConnection connect() {
+                GradleConnector connector = connectorRef.getGradleConnector();
+                connector.forProjectDirectory(projectDir);
+                return connector.connect();
+            }
+        });
+    }
+
+    PooledConnection connect(Object key, ConnectionFactory connectionFactory) {
+        acquireCount.incrementAndGet();
+
+        Entry entry;
+        mainLock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(key);
+                entries.put(key, entry);
+            }
+            entry.refCount++;
+        } finally {
+            mainLock.unlock();
+        }
+
+        ProjectConnection connection;
+        try {
+            connection = entry.getConnection(connectionFactory);
+        } catch (Throwable ex) {
+            mainLock.lock();
+            try {
+                entry.refCount--;
+                if (entry.refCount == 0 && entries.get(key) == entry) {
+                    entries.remove(key);
+                }
+            } finally {
+                mainLock.unlock();
+            }
+            throw ex;
+        }
+
+        return new PooledConnection(entry, connection);
+    }
+
+    private void release(Entry entry) {
+        boolean poolClosed;
+        mainLock.lock();
+        try {
+            entry.refCount--;
+            entry.lastReleaseTime = System.nanoTime();
+            poolClosed = closed;
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (idleTimeoutNanos == 0 || poolClosed) {
+            closeIdleConnections();
+        }
+        else {
+            startEvictorIfNeeded();
+        }
+    }
+
+    /**
+     * Closes all the connections not currently in use, regardless how long
+     * they were idle.
+     */
+    public void closeIdleConnections() {
+        closeIdleConnections(-1);
+    }
+
+    private void closeExpiredConnections() {
+        closeIdleConnections(idleTimeoutNanos);
+    }
+
+    private void closeIdleConnections(long minIdleNanos) {
+        List<Entry> toClose = new ArrayList<>();
+
+        long now = System.nanoTime();
+        mainLock.lock();
+        try {
+            Iterator<Entry> entryItr = entries.values().iterator();
+            while (entryItr.hasNext()) {
+                Entry entry = entryItr.next();
+                if (entry.refCount == 0 && now - entry.lastReleaseTime > minIdleNanos) {
+                    entryItr.remove();
+                    toClose.add(entry);
+                }
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        for (Entry entry: toClose) {
+            entry.close();
+        }
+    }
+
+    /**
+     * Closes all the idle connections and stops the thread closing the idle
+     * connections. Connections currently in use are closed when they are
+     * released. This method is expected to be called when the module is
+     * uninstalled.
+     */
+    public void close() {
+        ScheduledExecutorService currentEvictor;
+        ListenerRef currentSettingsListenerRef;
+        mainLock.lock();
+        try {
+            closed = true;
+            currentEvictor = evictor;
+            evictor = null;
+            currentSettingsListenerRef = settingsListenerRef;
+            settingsListenerRef = UnregisteredListenerRef.INSTANCE;
+        } finally {
+            mainLock.unlock();
+        }
+
+        currentSettingsListenerRef.unregister();
+        if (currentEvictor != null) {
+            currentEvictor.shutdownNow();
+        }
+        closeIdleConnections();
+    }
+
+    private void startEvictorIfNeeded() {
+        ScheduledExecutorService newEvictor;
+        mainLock.lock();
+        try {
+            if (closed || evictor != null) {
+                return;
+            }
+
+            newEvictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable task) {
+                    Thread result = new Thread(task, "Gradle-Connection-Pool-Evictor");
+                    result.setDaemon(true);
+                    return result;
+                }
+            });
+            evictor = newEvictor;
+        } finally {
+            mainLock.unlock();
+        }
+
+        long periodNanos = Math.max(idleTimeoutNanos / 2, TimeUnit.SECONDS.toNanos(1));
+        newEvictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    closeExpiredConnections();
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.SEVERE, "Unexpected failure while closing idle connections.", ex);
+                }
+            }
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int getOpenConnectionCount() {
+        mainLock.lock();
+        try {
+            return entries.size();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public long getAcquireCount() {
+        return acquireCount.get();
+    }
+
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+    public long getConnectCount() {
+        return connectCount.get();
+    }
+
+    /**
+     * Returns the ratio of the connection requests served by an already open
+     * connection.
+     *
+     * @return the ratio of the connection requests served by an already open
+     *   connection. The return value is between 0 and 1 (inclusive).
+     */
+    public double getReuseRate() {
+        long acquired = acquireCount.get();
+        return acquired > 0 ? (double)reuseCount.get() / (double)acquired : 0.0;
+    }
+
+    public long getAverageConnectNanos() {
+        long connected = connectCount.get();
+        return connected > 0 ? totalConnectNanos.get() / connected : 0;
+    }
+
+    private static final class DefaultHolder {
+        public static final GradleConnectionPool DEFAULT = createDefault();
+    }
+
+    interface ConnectionFactory {
+        public ProjectConnection connect();
+    }
+
+    private final class Entry {
+        private final Object key;
+        private final Lock connectLock;
+        private volatile ProjectConnection connection;
+
+        // Guarded by GradleConnectionPool.mainLock
+        private int refCount;
+        private long lastReleaseTime;
+
+        public Entry(Object key) {
+            this.key = key;
+            this.connectLock = new ReentrantLock();
+            this.connection = null;
+            this.refCount = 0;
+            this.lastReleaseTime = System.nanoTime();
+        }
+
+        public ProjectConnection getConnection(ConnectionFactory connectionFactory) {
+            ProjectConnection result = connection;
+            if (result != null) {
+                reuseCount.incrementAndGet();
+                return result;
+            }
+
+            connectLock.lock();
+            try {
+                result = connection;
+                if (result != null) {
+                    reuseCount.incrementAndGet();
+                    return result;
+                }
+
+                long startTime = System.nanoTime();
+                result = connectionFactory.connect();
+                long connectNanos = System.nanoTime() - startTime;
+
+                connectCount.incrementAndGet();
+                totalConnectNanos.addAndGet(connectNanos);
+
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE,
+                            "Opened new Gradle connection in {0} ms: {1} (reuse rate: {2})",
+                            new Object[]{TimeUnit.NANOSECONDS.toMillis(connectNanos), key, getReuseRate()});
+                }
+
+                connection = result;
+                return result;
+            } finally {
+                connectLock.unlock();
+            }
+        }
+
+        public void close() {
+            ProjectConnection currentConnection;
+            connectLock.lock();
+            try {
+                currentConnection = connection;
+                connection = null;
+            } finally {
+                connectLock.unlock();
+            }
+
+            if (currentConnection != null) {
+                LOGGER.log(Level.FINE, "Closing idle Gradle connection: {0}", key);
+                try {
+                    currentConnection.close();
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.INFO, "Failed to close Gradle connection: " + key, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Defines a reference to a pooled connection. Closing this reference
+     * releases the connection, so that it can be closed after it becomes idle.
+     */
+    public final class PooledConnection implements Closeable {
+        private final Entry entry;
+        private final ProjectConnection connection;
+        private final AtomicBoolean closed;
+
+        private PooledConnection(Entry entry, ProjectConnection connection) {
+            this.entry = entry;
+            this.connection = connection;
+            this.closed = new AtomicBoolean(false);
+        }
+
+        public ProjectConnection getConnection() {
+            return connection;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(entry);
+            }
+        }
+    }
+}
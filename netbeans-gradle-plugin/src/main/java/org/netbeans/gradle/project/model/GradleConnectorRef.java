@@ -1,9 +1,11 @@
 package org.netbeans.gradle.project.model;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import org.gradle.tooling.GradleConnector;
@@ -26,15 +28,21 @@ public final class GradleConnectorRef {
     private final GradleConnector gradleConnector;
     private final GradleLocation requestedGradleLocation;
     private final File requestedGradleUserHome;
+    private final Integer daemonTimeoutSec;
+    private final Object wrapperKey;
 
     private GradleConnectorRef(
             GradleConnector gradleConnector,
             GradleLocation requestedGradleLocation,
-            File requestedGradleUserHome) {
+            File requestedGradleUserHome,
+            Integer daemonTimeoutSec,
+            Object wrapperKey) {
 
         this.gradleConnector = Objects.requireNonNull(gradleConnector, "gradleConnector");
         this.requestedGradleLocation = Objects.requireNonNull(requestedGradleLocation, "requestedGradleLocation");
         this.requestedGradleUserHome = requestedGradleUserHome;
+        this.daemonTimeoutSec = daemonTimeoutSec;
+        this.wrapperKey = wrapperKey;
     }
 
     public static GradleConnectorRef open(CancellationToken cancelToken, Project project) {
@@ -76,7 +84,11 @@ public final class GradleConnectorRef {
             }
         });
 
-        return new GradleConnectorRef(result, gradleLocation, gradleUserHome);
+        Object wrapperKey = gradleLocation == GradleLocationDefault.DEFAULT
+                ? getWrapperKey(gradleProject)
+                : null;
+
+        return new GradleConnectorRef(result, gradleLocation, gradleUserHome, timeoutSec, wrapperKey);
     }
 
     private static GradleLocation getGradleLocation(NbGradleProject gradleProject) {
@@ -99,6 +111,64 @@ public final class GradleConnectorRef {
         return requestedGradleUserHome;
     }
 
+    public Integer getDaemonTimeoutSec() {
+        return daemonTimeoutSec;
+    }
+
+    /**
+     * Returns a key identifying the settings of the connector. Two connectors
+     * with equal keys create equivalent connections for the same project
+     * directory. When the connector relies on the Gradle wrapper, the key also
+     * identifies the state of the wrapper properties file, so that editing the
+     * requested distribution does not reuse connections to the old one.
+     *
+     * @return a key identifying the settings of the connector. This method
+     *   never returns {@code null}.
+     */
+    public Object getSettingsKey() {
+        return Arrays.asList(
+                getLocationKey(requestedGradleLocation),
+                requestedGradleUserHome,
+                daemonTimeoutSec,
+                wrapperKey);
+    }
+
+    /**
+     * Returns a string identifying the requested Gradle location.
+     *
+     * @return a string identifying the requested Gradle location. This method
+     *   never returns {@code null}.
+     */
+    public String getLocationKey() {
+        return getLocationKey(requestedGradleLocation);
+    }
+
+    private static String getLocationKey(GradleLocation location) {
+        final StringBuilder result = new StringBuilder();
+        location.applyLocation(new GradleLocation.Applier() {
+            @Override
+            public void applyVersion(String versionStr) {
+                result.append("version:").append(versionStr);
+            }
+
+            @Override
+            public void applyDirectory(File gradleHome) {
+                result.append("dir:").append(gradleHome.getAbsolutePath());
+            }
+
+            @Override
+            public void applyDistribution(URI location) {
+                result.append("dist:").append(location);
+            }
+
+            @Override
+            public void applyDefault() {
+                result.append("default");
+            }
+        });
+        return result.toString();
+    }
+
     private static boolean shouldRelyOnWrapper(NbGradleProject project, GradleLocationDef locationDef) {
         if (locationDef.getLocationRef() == GradleLocationDefault.DEFAULT_REF) {
             return true;
@@ -108,12 +178,30 @@ public final class GradleConnectorRef {
     }
 
     private static boolean hasWrapper(NbGradleProject project) {
+        return Files.isRegularFile(getWrapperPropertiesFile(project));
+    }
+
+    private static Object getWrapperKey(NbGradleProject project) {
+        Path wrapperPropertiesFile = getWrapperPropertiesFile(project);
+        if (!Files.isRegularFile(wrapperPropertiesFile)) {
+            return null;
+        }
+
+        try {
+            return Arrays.asList(
+                    wrapperPropertiesFile.toString(),
+                    Files.getLastModifiedTime(wrapperPropertiesFile).toMillis());
+        } catch (IOException ex) {
+            return wrapperPropertiesFile.toString();
+        }
+    }
+
+    private static Path getWrapperPropertiesFile(NbGradleProject project) {
         Path rootDir = DefaultGradleModelLoader.getAppliedRootProjectDir(project);
-        Path wrapperPropertiesFile = rootDir
+        return rootDir
                 .resolve("gradle")
                 .resolve("wrapper")
                 .resolve("gradle-wrapper.properties");
-        return Files.isRegularFile(wrapperPropertiesFile);
     }
 
 
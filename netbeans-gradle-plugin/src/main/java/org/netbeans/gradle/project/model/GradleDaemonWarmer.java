@@ -0,0 +1,520 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import org.gradle.tooling.BuildLauncher;
+import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.internal.consumer.DefaultCancellationTokenSource;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationSource;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.cancel.CancelableWaits;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.NbGradleProjectFactory;
+import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
+import org.openide.util.NbPreferences;
+
+/**
+ * Remembers the build roots recently loaded with the settings affecting the
+ * compatibility of Gradle daemons, and runs a no-op build for them after the
+ * IDE has started. This way the first model load of the user finds an idle
+ * compatible daemon with already compiled build scripts.
+ * <P>
+ * The warm up is disabled by default and can be enabled by the
+ * {@link CommonGlobalSettings#warmupGradleDaemon() warmupGradleDaemon} global
+ * setting. The warm up connects through the {@link GradleConnectionPool} with
+ * the current settings of the project, so the daemon started is the one the
+ * model loads will use. The warm up is skipped if a model has already been
+ * loaded in the session, so that it does not compete with the loads requested
+ * by the user.
+ * <P>
+ * The number of build roots to warm up (one by default) can be set by the
+ * {@value #ROOT_COUNT_PROPERTY} system property.
+ * <P>
+ * The methods of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+public final class GradleDaemonWarmer {
+    private static final Logger LOGGER = Logger.getLogger(GradleDaemonWarmer.class.getName());
+
+    public static final String ROOT_COUNT_PROPERTY = "org.netbeans.gradle.daemonWarmupRootCount";
+    private static final int DEFAULT_ROOT_COUNT = 1;
+    private static final int MAX_REMEMBERED_ROOT_COUNT = 5;
+
+    // Let the IDE and the projects open before starting Gradle daemons.
+    private static final long STARTUP_DELAY_MS = 15000;
+
+    private static final TaskExecutor WARMUP_EXECUTOR
+            = NbTaskExecutors.newExecutor("Gradle-Daemon-Warmup", 1);
+
+    private final Preferences preferences;
+
+    private final Lock mainLock;
+    // The following fields are guarded by mainLock
+    private final Set<File> usedRoots;
+    private final Map<File, Long> warmupNanosByRoot;
+    private CancellationSource warmupCancellation;
+    private int warmedRootCount;
+    private int reusedRootCount;
+    private long estimatedSavedNanos;
+
+    public GradleDaemonWarmer(Preferences preferences) {
+        ExceptionHelper.checkNotNullArgument(preferences, "preferences");
+
+        this.preferences = preferences;
+        this.mainLock = new ReentrantLock();
+        this.usedRoots = new HashSet<>();
+        this.warmupNanosByRoot = new HashMap<>();
+        this.warmupCancellation = null;
+        this.warmedRootCount = 0;
+        this.reusedRootCount = 0;
+        this.estimatedSavedNanos = 0;
+    }
+
+    public static GradleDaemonWarmer getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    private static int getConfiguredRootCount() {
+        String countStr = System.getProperty(ROOT_COUNT_PROPERTY);
+        if (countStr == null) {
+            return DEFAULT_ROOT_COUNT;
+        }
+
+        try {
+            return Math.max(0, Integer.parseInt(countStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid number of daemon warmup roots: {0}", countStr);
+            return DEFAULT_ROOT_COUNT;
+        }
+    }
+
+    /**
+     * Remembers that a model has been loaded for the given build root with
+     * the given settings. Build roots used in the current session are not
+     * warmed up anymore.
+     *
+     * @param rootDir the root directory of the build. This argument cannot be
+     *   {@code null}.
+     * @param connectorRef the connector used to load the models. This argument
+     *   cannot be {@code null}.
+     * @param setup the setup used to load the models. This argument cannot be
+     *   {@code null}.
+     */
+    public void recordUsage(File rootDir, GradleConnectorRef connectorRef, DefaultModelBuilderSetup setup) {
+        ExceptionHelper.checkNotNullArgument(connectorRef, "connectorRef");
+        ExceptionHelper.checkNotNullArgument(setup, "setup");
+
+        recordUsage(new WarmupRoot(
+                rootDir,
+                connectorRef.getLocationKey(),
+                connectorRef.getRequestedGradleUserHome(),
+                connectorRef.getDaemonTimeoutSec(),
+                setup.getJdkHome(),
+                setup.getJvmArgs()));
+    }
+
+    void recordUsage(WarmupRoot root) {
+        Long warmupNanos;
+
+        mainLock.lock();
+        try {
+            if (!usedRoots.add(root.getRootDir())) {
+                return;
+            }
+
+            warmupNanos = warmupNanosByRoot.get(root.getRootDir());
+            if (warmupNanos != null) {
+                reusedRootCount++;
+                estimatedSavedNanos += warmupNanos;
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (warmupNanos != null) {
+            LOGGER.log(Level.INFO, "Gradle daemon was warmed up for {0}, estimated time saved: {1} ms",
+                    new Object[]{root.getRootDir(), TimeUnit.NANOSECONDS.toMillis(warmupNanos)});
+        }
+
+        List<WarmupRoot> roots = getRecentRoots();
+        if (!roots.isEmpty() && roots.get(0).equals(root)) {
+            return;
+        }
+
+        List<WarmupRoot> newRoots = new ArrayList<>(roots.size() + 1);
+        newRoots.add(root);
+        for (WarmupRoot prevRoot: roots) {
+            if (!prevRoot.getRootDir().equals(root.getRootDir())) {
+                newRoots.add(prevRoot);
+            }
+        }
+        storeRecentRoots(newRoots.subList(0, Math.min(newRoots.size(), MAX_REMEMBERED_ROOT_COUNT)));
+    }
+
+    /**
+     * Returns the remembered build roots, the most recently used first.
+     *
+     * @return the remembered build roots, the most recently used first. This
+     *   method never returns {@code null}.
+     */
+    public List<WarmupRoot> getRecentRoots() {
+        List<WarmupRoot> result = new ArrayList<>();
+        for (int i = 0; i < MAX_REMEMBERED_ROOT_COUNT; i++) {
+            WarmupRoot root = WarmupRoot.tryLoad(preferences, i);
+            if (root == null) {
+                break;
+            }
+            result.add(root);
+        }
+        return result;
+    }
+
+    private void storeRecentRoots(List<WarmupRoot> roots) {
+        try {
+            preferences.clear();
+            for (int i = 0; i < roots.size(); i++) {
+                roots.get(i).store(preferences, i);
+            }
+            preferences.flush();
+        } catch (BackingStoreException ex) {
+            LOGGER.log(Level.INFO, "Failed to store the recently used build roots.", ex);
+        }
+    }
+
+    /**
+     * Starts warming up the daemons of the most recently used build roots in
+     * the background after a delay. The warmup does nothing if it is disabled
+     * by the global settings when the delay elapses.
+     */
+    public void scheduleWarmup() {
+        final int rootCount = getConfiguredRootCount();
+        if (rootCount <= 0) {
+            return;
+        }
+
+        CancellationSource cancellation = Cancellation.createCancellationSource();
+        mainLock.lock();
+        try {
+            if (warmupCancellation != null) {
+                return;
+            }
+            warmupCancellation = cancellation;
+        } finally {
+            mainLock.unlock();
+        }
+
+        WARMUP_EXECUTOR.execute(cancellation.getToken(), new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+                CancelableWaits.sleep(cancelToken, STARTUP_DELAY_MS, TimeUnit.MILLISECONDS);
+                if (CommonGlobalSettings.getDefault().warmupGradleDaemon().getActiveValue()) {
+                    warmupRecentRoots(cancelToken, rootCount);
+                }
+            }
+        }, null);
+    }
+
+    /**
+     * Cancels the currently running warmup, if there is any.
+     */
+    public void cancelWarmup() {
+        CancellationSource cancellation;
+        mainLock.lock();
+        try {
+            cancellation = warmupCancellation;
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (cancellation != null) {
+            cancellation.getController().cancel();
+        }
+    }
+
+    private boolean hasLoadedAnyModel() {
+        mainLock.lock();
+        try {
+            return !usedRoots.isEmpty();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void warmupRecentRoots(CancellationToken cancelToken, int rootCount) {
+        List<WarmupRoot> roots = getRecentRoots();
+        for (WarmupRoot root: roots.subList(0, Math.min(rootCount, roots.size()))) {
+            if (cancelToken.isCanceled()) {
+                return;
+            }
+            // Models are being loaded, so the daemon is already in use and
+            // warming up could only slow down the loads.
+            if (hasLoadedAnyModel()) {
+                return;
+            }
+            if (!root.getRootDir().isDirectory()) {
+                continue;
+            }
+
+            long startTime = System.nanoTime();
+            try {
+                if (!warmupRoot(cancelToken, root)) {
+                    continue;
+                }
+            } catch (Throwable ex) {
+                LOGGER.log(Level.INFO, "Failed to warm up the Gradle daemon for " + root.getRootDir(), ex);
+                continue;
+            }
+            long warmupNanos = System.nanoTime() - startTime;
+
+            mainLock.lock();
+            try {
+                warmupNanosByRoot.put(root.getRootDir(), warmupNanos);
+                warmedRootCount++;
+            } finally {
+                mainLock.unlock();
+            }
+
+            LOGGER.log(Level.INFO, "Warmed up the Gradle daemon for {0} in {1} ms",
+                    new Object[]{root.getRootDir(), TimeUnit.NANOSECONDS.toMillis(warmupNanos)});
+        }
+    }
+
+    private static boolean warmupRoot(CancellationToken cancelToken, WarmupRoot root) {
+        Project project = NbGradleProjectFactory.tryLoadSafeProject(root.getRootDir());
+        if (project == null) {
+            LOGGER.log(Level.FINE, "Skipping daemon warmup, the project cannot be loaded: {0}", root.getRootDir());
+            return false;
+        }
+
+        // Use the current settings of the project, so that the model loads
+        // can reuse the warmed up daemon.
+        GradleConnectorRef connectorRef = GradleConnectorRef.open(cancelToken, project);
+        try (GradleConnectionPool.PooledConnection pooledConnection
+                = GradleConnectionPool.getDefault().connect(connectorRef, root.getRootDir())) {
+            ProjectConnection connection = pooledConnection.getConnection();
+            BuildLauncher buildLauncher = connection.newBuild();
+            buildLauncher.forTasks("help");
+            buildLauncher.withArguments("--offline", "-q");
+            if (root.getJavaHome() != null) {
+                buildLauncher.setJavaHome(root.getJavaHome());
+            }
+            if (!root.getJvmArgs().isEmpty()) {
+                List<String> jvmArgs = root.getJvmArgs();
+                buildLauncher.setJvmArguments(jvmArgs.toArray(new String[jvmArgs.size()]));
+            }
+
+            final DefaultCancellationTokenSource cancelSource = new DefaultCancellationTokenSource();
+            buildLauncher.withCancellationToken(cancelSource.token());
+
+            ListenerRef cancelListenerRef = cancelToken.addCancellationListener(new Runnable() {
+                @Override
+                public void run() {
+                    cancelSource.cancel();
+                }
+            });
+            try {
+                buildLauncher.run();
+            } finally {
+                cancelListenerRef.unregister();
+            }
+        }
+        return true;
+    }
+
+    public int getWarmedRootCount() {
+        mainLock.lock();
+        try {
+            return warmedRootCount;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public int getReusedRootCount() {
+        mainLock.lock();
+        try {
+            return reusedRootCount;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the estimated time saved for the user by warming up daemons.
+     * The estimate is the time spent warming up the daemons of the build roots
+     * used later in the session.
+     *
+     * @return the estimated time saved for the user by warming up daemons in
+     *   nanoseconds
+     */
+    public long getEstimatedSavedNanos() {
+        mainLock.lock();
+        try {
+            return estimatedSavedNanos;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Defines a build root and the settings determining which daemon may be
+     * reused for the build.
+     */
+    public static final class WarmupRoot {
+        private static final String ROOT_DIR_KEY = "root.";
+        private static final String LOCATION_KEY = "location.";
+        private static final String USER_HOME_KEY = "user-home.";
+        private static final String DAEMON_TIMEOUT_KEY = "daemon-timeout.";
+        private static final String JAVA_HOME_KEY = "java-home.";
+        private static final String JVM_ARGS_KEY = "jvm-args.";
+        private static final String JVM_ARGS_SEPARATOR = "\n";
+
+        private final File rootDir;
+        private final String locationKey;
+        private final File gradleUserHome;
+        private final Integer daemonTimeoutSec;
+        private final File javaHome;
+        private final List<String> jvmArgs;
+
+        public WarmupRoot(
+                File rootDir,
+                String locationKey,
+                File gradleUserHome,
+                Integer daemonTimeoutSec,
+                File javaHome,
+                List<String> jvmArgs) {
+            ExceptionHelper.checkNotNullArgument(rootDir, "rootDir");
+            ExceptionHelper.checkNotNullArgument(locationKey, "locationKey");
+            ExceptionHelper.checkNotNullElements(jvmArgs, "jvmArgs");
+
+            this.rootDir = rootDir;
+            this.locationKey = locationKey;
+            this.gradleUserHome = gradleUserHome;
+            this.daemonTimeoutSec = daemonTimeoutSec;
+            this.javaHome = javaHome;
+            this.jvmArgs = Collections.unmodifiableList(new ArrayList<>(jvmArgs));
+        }
+
+        private static File tryGetFile(Preferences preferences, String key) {
+            String path = preferences.get(key, null);
+            return path != null ? new File(path) : null;
+        }
+
+        private static void putFile(Preferences preferences, String key, File file) {
+            if (file != null) {
+                preferences.put(key, file.getPath());
+            }
+        }
+
+        static WarmupRoot tryLoad(Preferences preferences, int index) {
+            File rootDir = tryGetFile(preferences, ROOT_DIR_KEY + index);
+            String locationKey = preferences.get(LOCATION_KEY + index, null);
+            if (rootDir == null || locationKey == null) {
+                return null;
+            }
+
+            int daemonTimeoutSec = preferences.getInt(DAEMON_TIMEOUT_KEY + index, -1);
+            String jvmArgsStr = preferences.get(JVM_ARGS_KEY + index, "");
+            List<String> jvmArgs = jvmArgsStr.isEmpty()
+                    ? Collections.<String>emptyList()
+                    : Arrays.asList(jvmArgsStr.split(JVM_ARGS_SEPARATOR));
+
+            return new WarmupRoot(
+                    rootDir,
+                    locationKey,
+                    tryGetFile(preferences, USER_HOME_KEY + index),
+                    daemonTimeoutSec >= 0 ? daemonTimeoutSec : null,
+                    tryGetFile(preferences, JAVA_HOME_KEY + index),
+                    jvmArgs);
+        }
+
+        void store(Preferences preferences, int index) {
+            putFile(preferences, ROOT_DIR_KEY + index, rootDir);
+            preferences.put(LOCATION_KEY + index, locationKey);
+            putFile(preferences, USER_HOME_KEY + index, gradleUserHome);
+            if (daemonTimeoutSec != null) {
+                preferences.putInt(DAEMON_TIMEOUT_KEY + index, daemonTimeoutSec);
+            }
+            putFile(preferences, JAVA_HOME_KEY + index, javaHome);
+
+            StringBuilder jvmArgsStr = new StringBuilder();
+            for (String arg: jvmArgs) {
+                if (jvmArgsStr.length() > 0) {
+                    jvmArgsStr.append(JVM_ARGS_SEPARATOR);
+                }
+                jvmArgsStr.append(arg);
+            }
+            preferences.put(JVM_ARGS_KEY + index, jvmArgsStr.toString());
+        }
+
+        public File getRootDir() {
+            return rootDir;
+        }
+
+        public String getLocationKey() {
+            return locationKey;
+        }
+
+        public File getGradleUserHome() {
+            return gradleUserHome;
+        }
+
+        public Integer getDaemonTimeoutSec() {
+            return daemonTimeoutSec;
+        }
+
+        public File getJavaHome() {
+            return javaHome;
+        }
+
+        public List<String> getJvmArgs() {
+            return jvmArgs;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rootDir, locationKey, gradleUserHome, daemonTimeoutSec, javaHome, jvmArgs);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final WarmupRoot other = (WarmupRoot)obj;
+            return Objects.equals(this.rootDir, other.rootDir)
+                    && Objects.equals(this.locationKey, other.locationKey)
+                    && Objects.equals(this.gradleUserHome, other.gradleUserHome)
+                    && Objects.equals(this.daemonTimeoutSec, other.daemonTimeoutSec)
+                    && Objects.equals(this.javaHome, other.javaHome)
+                    && Objects.equals(this.jvmArgs, other.jvmArgs);
+        }
+    }
+
+    private static final class DefaultHolder {
+        public static final GradleDaemonWarmer DEFAULT = new GradleDaemonWarmer(
+                NbPreferences.forModule(GradleDaemonWarmer.class).node("daemon-warmup"));
+    }
+}
@@ -140,6 +140,36 @@ public final class GradleModelCache {
         return newModel;
     }
 
+    /**
+     * Adds the given model to the cache unless there is already a model
+     * cached for the same project directory and settings file.
+     *
+     * @param model the model to be added. This argument cannot be
+     *   {@code null}.
+     * @return {@code true} if the model was added to the cache,
+     *   {@code false} if the cache already contained a model for the same
+     *   project
+     */
+    public boolean tryAddEntry(NbGradleModel model) {
+        CacheKey key = tryCreateKey(model);
+        if (key == null) {
+            return false;
+        }
+
+        cacheLock.lock();
+        try {
+            if (cache.containsKey(key)) {
+                return false;
+            }
+
+            cache.put(key, model);
+            cleanupCacheUnsafe();
+            return true;
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
     public void replaceEntry(NbGradleModel model) {
         CacheKey key = tryCreateKey(model);
         if (key == null) {
@@ -0,0 +1,349 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.GradleTaskID;
+
+/**
+ * Defines an immutable index over the names of the tasks of a project. The
+ * names are split into words (e.g.: "compileTestJava" is split into "compile",
+ * "Test" and "Java") once when the index is created, so the task tree and the
+ * searches do not have to classify the characters of the names again.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ *
+ * @see NbGradleProjectTree#getTaskIndex()
+ */
+public final class GradleTaskIndex {
+    private static final int[] NO_WORD_STARTS = new int[0];
+
+    private static final Comparator<Entry> NAME_ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry o1, Entry o2) {
+            return o1.name.compareTo(o2.name);
+        }
+    };
+
+    private final List<Entry> entries;
+    private final Entry[] sortedEntries;
+
+    private GradleTaskIndex(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.sortedEntries = entries.toArray(new Entry[entries.size()]);
+        Arrays.sort(this.sortedEntries, NAME_ORDER);
+    }
+
+    public static GradleTaskIndex create(Collection<GradleTaskID> tasks) {
+        ExceptionHelper.checkNotNullArgument(tasks, "tasks");
+
+        List<Entry> entries = new ArrayList<>(tasks.size());
+        for (GradleTaskID task: tasks) {
+            entries.add(new Entry(task));
+        }
+        return new GradleTaskIndex(entries);
+    }
+
+    /**
+     * Returns the tasks of this index in the order they were specified.
+     *
+     * @return the tasks of this index. This method never returns {@code null}.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns {@code true} if the given index contains the same tasks in the
+     * same order as this index.
+     *
+     * @param other the index to compare to. This argument can be {@code null},
+     *   in which case this method returns {@code false}.
+     * @return {@code true} if the given index contains the same tasks as this
+     *   index, {@code false} otherwise
+     */
+    public boolean hasSameTasks(GradleTaskIndex other) {
+        if (other == this) {
+            return true;
+        }
+        if (other == null || other.entries.size() != entries.size()) {
+            return false;
+        }
+
+        int count = entries.size();
+        for (int i = 0; i < count; i++) {
+            GradleTaskID task1 = entries.get(i).task;
+            GradleTaskID task2 = other.entries.get(i).task;
+            if (!task1.getName().equals(task2.getName())) {
+                return false;
+            }
+            if (!task1.getFullName().equals(task2.getFullName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean containsTask(String taskName) {
+        ExceptionHelper.checkNotNullArgument(taskName, "taskName");
+
+        int index = findFirstNotBefore(taskName);
+        return index < sortedEntries.length && sortedEntries[index].name.equals(taskName);
+    }
+
+    /**
+     * Returns the tasks whose names start with the given prefix. The check is
+     * case-sensitive.
+     *
+     * @param prefix the prefix of the names of the requested tasks. This
+     *   argument cannot be {@code null}.
+     * @return the tasks whose names start with the given prefix in the
+     *   alphabetical order of their names. This method never returns
+     *   {@code null}.
+     */
+    public List<GradleTaskID> findByPrefix(String prefix) {
+        ExceptionHelper.checkNotNullArgument(prefix, "prefix");
+
+        List<GradleTaskID> result = new ArrayList<>();
+        for (int i = findFirstNotBefore(prefix); i < sortedEntries.length; i++) {
+            Entry entry = sortedEntries[i];
+            if (!entry.name.startsWith(prefix)) {
+                break;
+            }
+            result.add(entry.task);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tasks matching the given abbreviation the way Gradle
+     * matches abbreviated task names on the command line. That is, the
+     * abbreviation is split into words and each word must be the prefix of the
+     * word of the task name at the same position (ignoring the case of the
+     * letters). For example, "cTJ" matches "compileTestJava".
+     *
+     * @param abbreviation the abbreviated task name. This argument cannot be
+     *   {@code null}.
+     * @return the tasks matching the given abbreviation in the alphabetical
+     *   order of their names. This method never returns {@code null}.
+     */
+    public List<GradleTaskID> findByAbbreviation(String abbreviation) {
+        ExceptionHelper.checkNotNullArgument(abbreviation, "abbreviation");
+
+        int[] abbreviationWordStarts = getAbbreviationWordStarts(abbreviation);
+
+        List<GradleTaskID> result = new ArrayList<>();
+        for (Entry entry: sortedEntries) {
+            if (entry.matchesAbbreviation(abbreviation, abbreviationWordStarts)) {
+                result.add(entry.task);
+            }
+        }
+        return result;
+    }
+
+    private int findFirstNotBefore(String name) {
+        int low = 0;
+        int high = sortedEntries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedEntries[mid].name.compareTo(name) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] getWordStarts(String str) {
+        int pos = getNextWordStartPos(0, str);
+        if (pos < 0) {
+            return NO_WORD_STARTS;
+        }
+
+        int[] result = new int[4];
+        int count = 0;
+        while (pos >= 0) {
+            if (count >= result.length) {
+                result = Arrays.copyOf(result, 2 * result.length);
+            }
+            result[count] = pos;
+            count++;
+
+            pos = getNextWordStartPos(pos, str);
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] getAbbreviationWordStarts(String abbreviation) {
+        // Unlike in task names, every upper case letter starts a new word in
+        // an abbreviation. That is, "cTJ" stands for "compileTestJava".
+        int length = abbreviation.length();
+        int[] result = new int[length];
+        int count = 0;
+
+        CharacterType prevType = length > 0 ? getCharacterType(abbreviation.charAt(0)) : null;
+        for (int i = 1; i < length; i++) {
+            CharacterType type = getCharacterType(abbreviation.charAt(i));
+            if (type == CharacterType.UPPERCASE_LETTER
+                    || (type != prevType && type != CharacterType.LOWERCASE_LETTER)) {
+                result[count] = i;
+                count++;
+            }
+            prevType = type;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static CharacterType getCharacterType(char ch) {
+        switch (Character.getType(ch)) {
+            case Character.UPPERCASE_LETTER:
+                return CharacterType.UPPERCASE_LETTER;
+            case Character.LOWERCASE_LETTER:
+                return CharacterType.LOWERCASE_LETTER;
+            case Character.DECIMAL_DIGIT_NUMBER:
+                return CharacterType.NUMBER;
+            default:
+                return CharacterType.OTHER;
+        }
+    }
+
+    private static int getNextWordStartPos(int startPos, String str) {
+        int length = str.length();
+        if (length <= startPos + 1) {
+            // We need at least two characters to have a chance for a next word.
+            return -1;
+        }
+
+        CharacterType firstCh = getCharacterType(str.charAt(startPos));
+        CharacterType secondCh = getCharacterType(str.charAt(startPos + 1));
+
+        int startOffset;
+        CharacterType typeToAvoid;
+        if (firstCh == CharacterType.UPPERCASE_LETTER) {
+            if (!secondCh.letter) {
+                return startPos + 1;
+            }
+            typeToAvoid = secondCh;
+            startOffset = startPos + 2;
+        }
+        else {
+            typeToAvoid = firstCh;
+            startOffset = startPos + 1;
+        }
+
+        if (typeToAvoid == CharacterType.OTHER) {
+            for (int i = startPos + 1; i < length; i++) {
+                typeToAvoid = getCharacterType(str.charAt(i));
+                if (typeToAvoid != CharacterType.OTHER) {
+                    startOffset = i + 1;
+                    break;
+                }
+            }
+            if (typeToAvoid == CharacterType.OTHER) {
+                return -1;
+            }
+        }
+
+        for (int i = startOffset; i < length; i++) {
+            if (typeToAvoid != getCharacterType(str.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Defines a task of the index along with the start positions of the words
+     * of its name.
+     */
+    public static final class Entry {
+        private final GradleTaskID task;
+        private final String name;
+        // The start positions of the words of the name, not including the
+        // first word (starting at zero).
+        private final int[] wordStarts;
+
+        private Entry(GradleTaskID task) {
+            this.task = task;
+            this.name = task.getName();
+            this.wordStarts = getWordStarts(name);
+        }
+
+        public GradleTaskID getTask() {
+            return task;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the start position of the first word of the task name after
+         * the given position. That is, this method returns the same value as
+         * splitting the name starting from {@code startPos}, assuming that a
+         * word starts at {@code startPos}.
+         *
+         * @param startPos the position after which the next word is to be
+         *   found
+         * @return the start position of the next word of the task name or -1
+         *   if there is no more word after the given position
+         */
+        public int getNextWordStartPos(int startPos) {
+            for (int wordStart: wordStarts) {
+                if (wordStart > startPos) {
+                    return wordStart;
+                }
+            }
+            return -1;
+        }
+
+        private int getWordEnd(int wordIndex) {
+            return wordIndex < wordStarts.length ? wordStarts[wordIndex] : name.length();
+        }
+
+        private boolean matchesAbbreviation(String abbreviation, int[] abbreviationWordStarts) {
+            int wordCount = abbreviationWordStarts.length + 1;
+            if (wordCount > wordStarts.length + 1) {
+                return false;
+            }
+
+            for (int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+                int abbrStart = wordIndex > 0 ? abbreviationWordStarts[wordIndex - 1] : 0;
+                int abbrEnd = wordIndex < abbreviationWordStarts.length
+                        ? abbreviationWordStarts[wordIndex]
+                        : abbreviation.length();
+
+                int nameStart = wordIndex > 0 ? wordStarts[wordIndex - 1] : 0;
+                int abbrLength = abbrEnd - abbrStart;
+                if (getWordEnd(wordIndex) - nameStart < abbrLength) {
+                    return false;
+                }
+
+                if (!name.regionMatches(true, nameStart, abbreviation, abbrStart, abbrLength)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private enum CharacterType {
+        LOWERCASE_LETTER(true),
+        UPPERCASE_LETTER(true),
+        NUMBER(false),
+        OTHER(false);
+
+        public final boolean letter;
+
+        private CharacterType(boolean letter) {
+            this.letter = letter;
+        }
+    }
+}
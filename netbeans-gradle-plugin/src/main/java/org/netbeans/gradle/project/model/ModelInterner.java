@@ -0,0 +1,172 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.java.SourceIncludePatterns;
+import org.netbeans.gradle.model.util.SerializationCache;
+import org.netbeans.gradle.model.util.SharedTypesSerializationCache;
+
+/**
+ * Deduplicates the immutable value objects (files, strings, etc.) of the
+ * extension models across all the loaded projects. The objects are interned
+ * while they are deserialized: Both when reading the persistent model cache
+ * and when deserializing the results of the info builders after loading the
+ * models from Gradle. So, interning does not require walking the models again.
+ * Values created by the IDE while parsing the models (instead of being
+ * deserialized) must be interned explicitly by the {@link #intern(Object) intern}
+ * method.
+ * <P>
+ * The interned types can be set by the {@value #INTERNED_TYPES_PROPERTY}
+ * system property as a comma separated list of fully qualified class names.
+ * Setting it to an empty string disables interning.
+ */
+public final class ModelInterner {
+    private static final Logger LOGGER = Logger.getLogger(ModelInterner.class.getName());
+
+    public static final String INTERNED_TYPES_PROPERTY = "org.netbeans.gradle.internedModelTypes";
+
+    private static final Class<?>[] DEFAULT_INTERNED_TYPES = {
+        File.class,
+        String.class,
+        JavaClassPaths.class,
+        SourceIncludePatterns.class
+    };
+
+    private static final ModelInterner DEFAULT = new ModelInterner(getConfiguredInternedTypes());
+
+    private final SharedTypesSerializationCache sharedTypesCache;
+    private final StatisticsCollectorCache serializationCache;
+
+    private final AtomicLong internedObjectCount;
+    private final AtomicLong estimatedBytesSaved;
+
+    public ModelInterner(Class<?>... internedTypes) {
+        ExceptionHelper.checkNotNullElements(internedTypes, "internedTypes");
+
+        this.sharedTypesCache = new SharedTypesSerializationCache(internedTypes);
+        this.internedObjectCount = new AtomicLong(0);
+        this.estimatedBytesSaved = new AtomicLong(0);
+        this.serializationCache = new StatisticsCollectorCache();
+    }
+
+    public static ModelInterner getDefault() {
+        return DEFAULT;
+    }
+
+    private static Class<?>[] getConfiguredInternedTypes() {
+        String typeNames = System.getProperty(INTERNED_TYPES_PROPERTY);
+        if (typeNames == null) {
+            return DEFAULT_INTERNED_TYPES.clone();
+        }
+
+        List<Class<?>> result = new ArrayList<>();
+        for (String typeName: typeNames.split(",")) {
+            String normTypeName = typeName.trim();
+            if (normTypeName.isEmpty()) {
+                continue;
+            }
+
+            try {
+                result.add(Class.forName(normTypeName, false, ModelInterner.class.getClassLoader()));
+            } catch (ClassNotFoundException ex) {
+                LOGGER.log(Level.WARNING, "Unknown type to be interned: {0}", normTypeName);
+            }
+        }
+        return result.toArray(new Class<?>[result.size()]);
+    }
+
+    /**
+     * Returns the {@code SerializationCache} to be used when deserializing
+     * models. All the objects of the interned types deserialized through the
+     * returned cache are shared with each other.
+     *
+     * @return the {@code SerializationCache} to be used when deserializing
+     *   models. This method never returns {@code null}.
+     */
+    public SerializationCache getSerializationCache() {
+        return serializationCache;
+    }
+
+    /**
+     * Returns an already interned instance equivalent to the given value, if
+     * the value is of an interned type. Otherwise, the given value is returned.
+     *
+     * @param <T> the type of the value to be interned
+     * @param value the value to be interned. This argument can be
+     *   {@code null}, in which case {@code null} is returned.
+     * @return the interned instance equivalent to the given value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T value) {
+        return (T)serializationCache.getCached(value);
+    }
+
+    /**
+     * Interns the elements of the given collection by the
+     * {@link #intern(Object) intern} method.
+     *
+     * @param <T> the type of the values to be interned
+     * @param values the values to be interned. This argument cannot be
+     *   {@code null}.
+     * @return the interned values in the iteration order of the given
+     *   collection. This method never returns {@code null}.
+     */
+    public <T> List<T> internAll(Collection<? extends T> values) {
+        List<T> result = new ArrayList<>(values.size());
+        for (T value: values) {
+            result.add(intern(value));
+        }
+        return result;
+    }
+
+    public long getInternedObjectCount() {
+        return internedObjectCount.get();
+    }
+
+    /**
+     * Returns the (roughly) estimated number of bytes saved by replacing
+     * objects with already existing instances.
+     *
+     * @return the (roughly) estimated number of bytes saved by replacing
+     *   objects with already existing instances
+     */
+    public long getEstimatedBytesSaved() {
+        return estimatedBytesSaved.get();
+    }
+
+    private static long estimateStringSize(String str) {
+        // Object header, fields and the char array.
+        return 40 + 2 * str.length();
+    }
+
+    private static long estimateSize(Object obj) {
+        if (obj instanceof String) {
+            return estimateStringSize((String)obj);
+        }
+        if (obj instanceof File) {
+            return 24 + estimateStringSize(((File)obj).getPath());
+        }
+        // We do not know anything about other objects but they will
+        // usually have at least a few fields.
+        return 32;
+    }
+
+    private final class StatisticsCollectorCache implements SerializationCache {
+        @Override
+        public Object getCached(Object src) {
+            Object result = sharedTypesCache.getCached(src);
+            if (result != src) {
+                internedObjectCount.incrementAndGet();
+                estimatedBytesSaved.addAndGet(estimateSize(src));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Records the timing of the phases of model loading into a fixed size ring
+ * buffer. When the buffer is full, the oldest spans are overwritten.
+ * <P>
+ * The capacity of the default timeline can be set by the
+ * {@value #CAPACITY_PROPERTY} system property.
+ * <P>
+ * This class is safe to be used by multiple threads concurrently.
+ */
+public final class ModelLoadTimeline {
+    private static final Logger LOGGER = Logger.getLogger(ModelLoadTimeline.class.getName());
+
+    public static final String CAPACITY_PROPERTY = "org.netbeans.gradle.modelLoadTimelineSize";
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    // The Tooling API connects lazily, so this phase includes the first
+    // operation on the connection (fetching the build environment).
+    public static final String PHASE_CONNECT = "connect";
+    public static final String PHASE_LOAD_MODELS = "load-models";
+    public static final String PHASE_PROJECT_INFO_BUILDERS = "project-info-builders";
+    public static final String PHASE_PROJECT_INFO_BUILDER = "project-info-builder";
+    public static final String PHASE_PARSE_MODEL = "parse-model";
+    public static final String PHASE_PARSE_MODELS = "parse-models";
+    public static final String PHASE_INTRODUCE_MODELS = "introduce-models";
+    public static final String PHASE_DESERIALIZE_CACHED_MODEL = "deserialize-cached-model";
+    public static final String PHASE_ACTIVATE_EXTENSIONS = "activate-extensions";
+    public static final String PHASE_ACTIVATE_EXTENSION = "activate-extension";
+
+    private static final ModelLoadTimeline DEFAULT = new ModelLoadTimeline(getConfiguredCapacity());
+
+    private final Lock mainLock;
+    private final SpanRecord[] spans;
+    private int nextIndex;
+    private int spanCount;
+
+    private final AtomicLong loadIdCounter;
+
+    public ModelLoadTimeline(int capacity) {
+        ExceptionHelper.checkArgumentInRange(capacity, 1, Integer.MAX_VALUE, "capacity");
+
+        this.mainLock = new ReentrantLock();
+        this.spans = new SpanRecord[capacity];
+        this.nextIndex = 0;
+        this.spanCount = 0;
+        this.loadIdCounter = new AtomicLong(0);
+    }
+
+    public static ModelLoadTimeline getDefault() {
+        return DEFAULT;
+    }
+
+    private static int getConfiguredCapacity() {
+        String capacityStr = System.getProperty(CAPACITY_PROPERTY);
+        if (capacityStr == null) {
+            return DEFAULT_CAPACITY;
+        }
+
+        try {
+            return Math.max(1, Integer.parseInt(capacityStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid model load timeline capacity: {0}", capacityStr);
+            return DEFAULT_CAPACITY;
+        }
+    }
+
+    /**
+     * Starts a new load. The spans recorded through the returned trace can
+     * be grouped by their load id.
+     *
+     * @param projectDir the directory of the project being loaded. This
+     *   argument cannot be {@code null}.
+     * @return the trace to record the spans of the load. This method never
+     *   returns {@code null}.
+     */
+    public LoadTrace newLoadTrace(File projectDir) {
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+        return new LoadTrace(loadIdCounter.incrementAndGet(), projectDir);
+    }
+
+    public void recordSpan(SpanRecord span) {
+        ExceptionHelper.checkNotNullArgument(span, "span");
+
+        mainLock.lock();
+        try {
+            spans[nextIndex] = span;
+            nextIndex = (nextIndex + 1) % spans.length;
+            if (spanCount < spans.length) {
+                spanCount++;
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the currently stored spans in the order they were recorded.
+     *
+     * @return the currently stored spans in the order they were recorded.
+     *   This method never returns {@code null}.
+     */
+    public List<SpanRecord> getSpans() {
+        mainLock.lock();
+        try {
+            List<SpanRecord> result = new ArrayList<>(spanCount);
+            int firstIndex = (nextIndex - spanCount + spans.length) % spans.length;
+            for (int i = 0; i < spanCount; i++) {
+                result.add(spans[(firstIndex + i) % spans.length]);
+            }
+            return result;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public void clear() {
+        mainLock.lock();
+        try {
+            for (int i = 0; i < spans.length; i++) {
+                spans[i] = null;
+            }
+            nextIndex = 0;
+            spanCount = 0;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public String toJson() {
+        StringWriter result = new StringWriter(4096);
+        try {
+            writeJson(result);
+        } catch (IOException ex) {
+            throw new AssertionError(ex);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes the currently stored spans as a JSON document in the following
+     * format: {@code {"spans": [{"loadId": 1, "phase": "connect", ...}, ...]}}.
+     *
+     * @param output the writer to write the JSON document to. This argument
+     *   cannot be {@code null}.
+     *
+     * @throws IOException thrown if writing to the given writer fails
+     */
+    public void writeJson(Writer output) throws IOException {
+        ExceptionHelper.checkNotNullArgument(output, "output");
+
+        output.write("{\"spans\": [");
+        boolean first = true;
+        for (SpanRecord span: getSpans()) {
+            if (!first) {
+                output.write(',');
+            }
+            first = false;
+
+            output.write("\n  ");
+            span.writeJson(output);
+        }
+        output.write("\n]}\n");
+    }
+
+    private static void writeJsonString(String value, Writer output) throws IOException {
+        if (value == null) {
+            output.write("null");
+            return;
+        }
+
+        output.write('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"':
+                    output.write("\\\"");
+                    break;
+                case '\\':
+                    output.write("\\\\");
+                    break;
+                case '\n':
+                    output.write("\\n");
+                    break;
+                case '\r':
+                    output.write("\\r");
+                    break;
+                case '\t':
+                    output.write("\\t");
+                    break;
+                default:
+                    if (ch < 0x20) {
+                        output.write(String.format("\\u%04x", (int)ch));
+                    }
+                    else {
+                        output.write(ch);
+                    }
+                    break;
+            }
+        }
+        output.write('"');
+    }
+
+    private static long toEpochMillis(long nanoTime) {
+        long elapsedNanos = System.nanoTime() - nanoTime;
+        return System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public static final class SpanRecord {
+        private final long loadId;
+        private final String phase;
+        private final File projectDir;
+        private final String detail;
+        private final long startTimeMillis;
+        private final long durationNanos;
+        private final long byteCount;
+
+        /**
+         * Creates a new span.
+         *
+         * @param loadId the id of the load this span is part of
+         * @param phase the name of the phase. This argument cannot be {@code null}.
+         * @param projectDir the project directory the span belongs to. This
+         *   argument can be {@code null} if the span is not specific to a
+         *   single project.
+         * @param detail additional information about the span (e.g.: the name
+         *   of the extension). This argument can be {@code null}.
+         * @param startTimeMillis the start of the span in milliseconds
+         *   since the epoch
+         * @param durationNanos the duration of the span in nanoseconds
+         * @param byteCount the number of bytes processed in the span or -1
+         *   if it is unknown
+         */
+        public SpanRecord(
+                long loadId,
+                String phase,
+                File projectDir,
+                String detail,
+                long startTimeMillis,
+                long durationNanos,
+                long byteCount) {
+            ExceptionHelper.checkNotNullArgument(phase, "phase");
+
+            this.loadId = loadId;
+            this.phase = phase;
+            this.projectDir = projectDir;
+            this.detail = detail;
+            this.startTimeMillis = startTimeMillis;
+            this.durationNanos = durationNanos;
+            this.byteCount = byteCount;
+        }
+
+        public long getLoadId() {
+            return loadId;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        public File getProjectDir() {
+            return projectDir;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public long getStartTimeMillis() {
+            return startTimeMillis;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public long getByteCount() {
+            return byteCount;
+        }
+
+        private void writeJson(Writer output) throws IOException {
+            output.write("{\"loadId\": ");
+            output.write(Long.toString(loadId));
+            output.write(", \"phase\": ");
+            writeJsonString(phase, output);
+            output.write(", \"projectDir\": ");
+            writeJsonString(projectDir != null ? projectDir.getPath() : null, output);
+            output.write(", \"detail\": ");
+            writeJsonString(detail, output);
+            output.write(", \"startTimeMillis\": ");
+            output.write(Long.toString(startTimeMillis));
+            output.write(", \"durationNanos\": ");
+            output.write(Long.toString(durationNanos));
+            output.write(", \"byteCount\": ");
+            output.write(Long.toString(byteCount));
+            output.write('}');
+        }
+
+        @Override
+        public String toString() {
+            return "SpanRecord{" + "loadId=" + loadId + ", phase=" + phase
+                    + ", projectDir=" + projectDir + ", detail=" + detail
+                    + ", durationNanos=" + durationNanos + ", byteCount=" + byteCount + '}';
+        }
+    }
+
+    /**
+     * Records the spans of a single load.
+     */
+    public final class LoadTrace {
+        private final long loadId;
+        private final File projectDir;
+
+        private LoadTrace(long loadId, File projectDir) {
+            this.loadId = loadId;
+            this.projectDir = projectDir;
+        }
+
+        public long getLoadId() {
+            return loadId;
+        }
+
+        public File getProjectDir() {
+            return projectDir;
+        }
+
+        public SpanTimer startSpan(String phase) {
+            return startSpan(phase, projectDir, null);
+        }
+
+        public SpanTimer startSpan(String phase, File spanProjectDir, String detail) {
+            ExceptionHelper.checkNotNullArgument(phase, "phase");
+            return new SpanTimer(this, phase, spanProjectDir, detail);
+        }
+
+        /**
+         * Records a span which was measured by other means than a
+         * {@link SpanTimer}.
+         *
+         * @param phase the name of the phase. This argument cannot be {@code null}.
+         * @param spanProjectDir the project directory the span belongs to.
+         *   This argument can be {@code null}.
+         * @param detail additional information about the span. This argument
+         *   can be {@code null}.
+         * @param startTimeNanos the value of {@code System.nanoTime()} when
+         *   the span started
+         * @param durationNanos the duration of the span in nanoseconds
+         * @param byteCount the number of bytes processed in the span or -1
+         *   if it is unknown
+         */
+        public void recordSpan(
+                String phase,
+                File spanProjectDir,
+                String detail,
+                long startTimeNanos,
+                long durationNanos,
+                long byteCount) {
+            ModelLoadTimeline.this.recordSpan(new SpanRecord(
+                    loadId,
+                    phase,
+                    spanProjectDir,
+                    detail,
+                    toEpochMillis(startTimeNanos),
+                    durationNanos,
+                    byteCount));
+        }
+    }
+
+    /**
+     * Measures the time between its creation and the call of its
+     * {@code end} method. Only the first {@code end} call records a span.
+     */
+    public static final class SpanTimer {
+        private final LoadTrace trace;
+        private final String phase;
+        private final File projectDir;
+        private final String detail;
+        private final long startTimeNanos;
+        private boolean ended;
+
+        private SpanTimer(LoadTrace trace, String phase, File projectDir, String detail) {
+            this.trace = trace;
+            this.phase = phase;
+            this.projectDir = projectDir;
+            this.detail = detail;
+            this.startTimeNanos = System.nanoTime();
+            this.ended = false;
+        }
+
+        public void end() {
+            end(-1);
+        }
+
+        public void end(long byteCount) {
+            end(detail, byteCount);
+        }
+
+        /**
+         * Ends the span replacing its detail with the given one. This is
+         * useful if the detail is only known after the measured work.
+         *
+         * @param endDetail the detail to be recorded with the span. This
+         *   argument can be {@code null}.
+         */
+        public void endWithDetail(String endDetail) {
+            end(endDetail, -1);
+        }
+
+        private void end(String endDetail, long byteCount) {
+            if (ended) {
+                return;
+            }
+            ended = true;
+
+            long durationNanos = System.nanoTime() - startTimeNanos;
+            trace.recordSpan(phase, projectDir, endDetail, startTimeNanos, durationNanos, byteCount);
+        }
+    }
+}
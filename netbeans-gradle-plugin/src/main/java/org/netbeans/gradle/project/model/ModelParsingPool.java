@@ -0,0 +1,150 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.util.NbFunction;
+
+/**
+ * Defines the bounded pool used to parse the models retrieved from Gradle
+ * concurrently. Tasks submitted from a thread of this pool are executed by the
+ * same pool, so nested parallel parsing does not need additional threads.
+ */
+public final class ModelParsingPool {
+    private static final Logger LOGGER = Logger.getLogger(ModelParsingPool.class.getName());
+
+    public static final String THREAD_COUNT_PROPERTY = "org.netbeans.gradle.modelParsingThreads";
+
+    private static final int THREAD_COUNT = getConfiguredThreadCount();
+
+    private static int getDefaultThreadCount() {
+        return Math.min(Runtime.getRuntime().availableProcessors(), 4);
+    }
+
+    private static int getConfiguredThreadCount() {
+        String threadCountStr = System.getProperty(THREAD_COUNT_PROPERTY);
+        if (threadCountStr == null) {
+            return getDefaultThreadCount();
+        }
+
+        try {
+            return Math.max(1, Integer.parseInt(threadCountStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid model parsing thread count: {0}", threadCountStr);
+            return getDefaultThreadCount();
+        }
+    }
+
+    /**
+     * Returns the maximum number of threads used to parse models concurrently.
+     *
+     * @return the maximum number of threads used to parse models concurrently.
+     *   This method always returns a value greater than or equal to 1.
+     */
+    public static int getThreadCount() {
+        return THREAD_COUNT;
+    }
+
+    /**
+     * Applies the given function to each of the given inputs concurrently and
+     * returns the results in the order of the inputs.
+     * <P>
+     * If any of the function calls fails, this method rethrows the exception.
+     *
+     * @param <E> the type of the inputs
+     * @param <R> the type of the results
+     * @param inputs the inputs to be passed to the function. This argument
+     *   cannot be {@code null} but may contain {@code null} elements.
+     * @param mapper the function to apply. This function must be safe to be
+     *   called concurrently. This argument cannot be {@code null}.
+     * @return the results of the function calls in the order of the inputs.
+     *   This method never returns {@code null}.
+     */
+    public static <E, R> List<R> mapInOrder(
+            List<? extends E> inputs,
+            final NbFunction<? super E, ? extends R> mapper) {
+        ExceptionHelper.checkNotNullArgument(inputs, "inputs");
+        ExceptionHelper.checkNotNullArgument(mapper, "mapper");
+
+        if (inputs.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (THREAD_COUNT <= 1 || inputs.size() == 1) {
+            List<R> result = new ArrayList<>(inputs.size());
+            for (E input: inputs) {
+                result.add(mapper.apply(input));
+            }
+            return result;
+        }
+
+        final List<RecursiveTask<R>> tasks = new ArrayList<>(inputs.size());
+        for (final E input: inputs) {
+            tasks.add(new RecursiveTask<R>() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected R compute() {
+                    return mapper.apply(input);
+                }
+            });
+        }
+
+        // Only tasks already running in our own pool may fork into it directly:
+        // Calls from other fork-join pools (e.g., the common pool) must not
+        // execute the parsers in those pools.
+        if (ForkJoinTask.getPool() == PoolHolder.POOL) {
+            ForkJoinTask.invokeAll(tasks);
+        }
+        else {
+            PoolHolder.POOL.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        List<R> result = new ArrayList<>(tasks.size());
+        for (RecursiveTask<R> task: tasks) {
+            result.add(task.getRawResult());
+        }
+        return result;
+    }
+
+    private static final class PoolHolder {
+        public static final ForkJoinPool POOL = new ForkJoinPool(
+                THREAD_COUNT,
+                new ParserThreadFactory(),
+                null,
+                false);
+    }
+
+    private static final class ParserThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final AtomicInteger threadIndex = new AtomicInteger(0);
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread result = new ForkJoinWorkerThread(pool) {
+            };
+            result.setName("Gradle-Model-Parser-" + threadIndex.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+        }
+    }
+
+    private ModelParsingPool() {
+        throw new AssertionError();
+    }
+}
@@ -8,7 +8,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.gradle.tooling.ModelBuilder;
@@ -33,6 +32,7 @@ import org.netbeans.gradle.project.api.modelquery.GradleModelDefQuery1;
 import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 import org.netbeans.gradle.project.java.model.idea.IdeaJavaModelUtils;
+import org.netbeans.gradle.project.java.model.idea.IdeaModuleIndex;
 import org.netbeans.gradle.project.script.ScriptFileProvider;
 import org.openide.util.lookup.Lookups;
 
@@ -159,46 +159,6 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
         return result;
     }
 
-    private static NbGradleProjectTree tryCreateProjectTreeFromIdea(IdeaModule module, ScriptFileProvider scriptProvider) {
-        File moduleDir = IdeaJavaModelUtils.tryGetModuleDir(module);
-        if (moduleDir == null) {
-            return null;
-        }
-
-        int expectedChildCount = module.getGradleProject().getChildren().size();
-        List<NbGradleProjectTree> children = new ArrayList<>(expectedChildCount);
-        for (IdeaModule child: getChildModules(module)) {
-            NbGradleProjectTree childInfo = tryCreateProjectTreeFromIdea(child, scriptProvider);
-            if (childInfo != null) {
-                children.add(childInfo);
-            }
-        }
-
-        GradleProject gradleProject = module.getGradleProject();
-        String projectName = gradleProject.getName();
-        String projectFullName = gradleProject.getPath();
-        GenericProjectProperties properties = NbGenericModelInfo
-                .createProjectProperties(projectName, projectFullName, moduleDir.toPath(), scriptProvider);
-
-        return new NbGradleProjectTree(properties, getTasksOfModule(module), children);
-    }
-
-    private static List<IdeaModule> getChildModules(IdeaModule module) {
-        Collection<? extends GradleProject> children = module.getGradleProject().getChildren();
-        Set<String> childrenPaths = CollectionUtils.newHashSet(children.size());
-        for (GradleProject child: children) {
-            childrenPaths.add(child.getPath());
-        }
-
-        List<IdeaModule> result = new ArrayList<>();
-        for (IdeaModule candidateChild: module.getProject().getModules()) {
-            if (childrenPaths.contains(candidateChild.getGradleProject().getPath())) {
-                result.add(candidateChild);
-            }
-        }
-        return result;
-    }
-
     private Path getSettingsGradle(Path projectDir, ScriptFileProvider scriptProvider) {
         return ModelLoadUtils.getSettingsGradleForProject(
                 settingsGradleDef,
@@ -209,11 +169,12 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
     private NbGradleModel loadMainModelFromIdeaModule(
             NbGradleProjectTree rootProject,
             IdeaModule ideaModule,
+            ProjectTreeBuilder treeBuilder,
             ScriptFileProvider scriptProvider) throws IOException {
         ExceptionHelper.checkNotNullArgument(rootProject, "rootProject");
         ExceptionHelper.checkNotNullArgument(ideaModule, "ideaModule");
 
-        NbGradleProjectTree projectTree = tryCreateProjectTreeFromIdea(ideaModule, scriptProvider);
+        NbGradleProjectTree projectTree = treeBuilder.tryGetProjectTree(ideaModule);
         if (projectTree == null) {
             throw new IOException("Failed to create project tree for project: " + ideaModule.getName());
         }
@@ -258,25 +219,28 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
         ExceptionHelper.checkNotNullArgument(ideaProject, "ideaProject");
         ExceptionHelper.checkNotNullArgument(otherModels, "otherModels");
 
+        IdeaModuleIndex moduleIndex = new IdeaModuleIndex(ideaProject);
+
         File projectDir = project.getProjectDirectoryAsFile();
-        IdeaModule mainModule = IdeaJavaModelUtils.tryFindMainModule(projectDir, ideaProject);
+        IdeaModule mainModule = moduleIndex.tryGetModuleByDir(projectDir);
         if (mainModule == null) {
             throw new IOException("Failed to find idea module for project: " + project.getDisplayName());
         }
 
-        IdeaModule rootModule = tryFindRootModule(ideaProject);
+        IdeaModule rootModule = tryFindRootModule(moduleIndex);
         if (rootModule == null) {
             throw new IOException("Failed to find root module for project: " + project.getDisplayName());
         }
 
         ScriptFileProvider scriptProvider = project.getScriptFileProvider();
+        ProjectTreeBuilder treeBuilder = new ProjectTreeBuilder(moduleIndex, scriptProvider);
 
-        NbGradleProjectTree rootTree = tryCreateProjectTreeFromIdea(rootModule, scriptProvider);
+        NbGradleProjectTree rootTree = treeBuilder.tryGetProjectTree(rootModule);
         if (rootTree == null) {
             throw new IOException("Failed to find root tree for project: " + rootModule.getName());
         }
 
-        DomainObjectSet<? extends IdeaModule> ideaModules = ideaProject.getModules();
+        List<IdeaModule> ideaModules = moduleIndex.getModules();
         otherModels.ensureCapacity(ideaModules.size());
 
         String rootPath = rootModule.getGradleProject().getPath();
@@ -288,7 +252,7 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
                     otherModels.add(toBuilder(new NbGradleMultiProjectDef(rootTree, rootTree), scriptProvider));
                 }
                 else {
-                    otherModels.add(toBuilder(loadMainModelFromIdeaModule(rootTree, otherModule, scriptProvider)));
+                    otherModels.add(toBuilder(loadMainModelFromIdeaModule(rootTree, otherModule, treeBuilder, scriptProvider)));
                 }
             }
         }
@@ -298,7 +262,7 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
             mainTree = rootTree;
         }
         else {
-            mainTree = tryCreateProjectTreeFromIdea(mainModule, scriptProvider);
+            mainTree = treeBuilder.tryGetProjectTree(mainModule);
         }
 
         if (mainTree == null) {
@@ -308,21 +272,14 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
         return toBuilder(new NbGradleMultiProjectDef(rootTree, mainTree), scriptProvider);
     }
 
-    private static IdeaModule tryFindRootModule(IdeaProject ideaModel) {
-        DomainObjectSet<? extends IdeaModule> modules = ideaModel.getModules();
+    private static IdeaModule tryFindRootModule(IdeaModuleIndex moduleIndex) {
+        List<IdeaModule> modules = moduleIndex.getModules();
         if (modules.isEmpty()) {
             return null;
         }
 
-        GradleProject rootProject = getRoot(modules.iterator().next().getGradleProject());
-        String rootName = rootProject.getPath();
-
-        for (IdeaModule module: ideaModel.getModules()) {
-            if (rootName.equals(module.getGradleProject().getPath())) {
-                return module;
-            }
-        }
-        return null;
+        GradleProject rootProject = getRoot(modules.get(0).getGradleProject());
+        return moduleIndex.tryGetModule(rootProject.getPath());
     }
 
     private static GradleProject getRoot(GradleProject project) {
@@ -334,4 +291,56 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
         } while (current != null);
         return prev;
     }
+
+    /**
+     * Creates the project trees of the modules of an {@code IdeaProject}. The
+     * tree of each module is only created once, regardless how many projects
+     * of the build refer to it.
+     */
+    private static final class ProjectTreeBuilder {
+        private final IdeaModuleIndex moduleIndex;
+        private final ScriptFileProvider scriptProvider;
+        private final Map<String, NbGradleProjectTree> trees;
+
+        public ProjectTreeBuilder(IdeaModuleIndex moduleIndex, ScriptFileProvider scriptProvider) {
+            this.moduleIndex = moduleIndex;
+            this.scriptProvider = scriptProvider;
+            this.trees = new HashMap<>();
+        }
+
+        public NbGradleProjectTree tryGetProjectTree(IdeaModule module) {
+            String projectPath = module.getGradleProject().getPath();
+            if (trees.containsKey(projectPath)) {
+                return trees.get(projectPath);
+            }
+
+            NbGradleProjectTree result = tryCreateProjectTree(module);
+            trees.put(projectPath, result);
+            return result;
+        }
+
+        private NbGradleProjectTree tryCreateProjectTree(IdeaModule module) {
+            File moduleDir = IdeaJavaModelUtils.tryGetModuleDir(module);
+            if (moduleDir == null) {
+                return null;
+            }
+
+            List<IdeaModule> childModules = moduleIndex.getChildModules(module);
+            List<NbGradleProjectTree> children = new ArrayList<>(childModules.size());
+            for (IdeaModule child: childModules) {
+                NbGradleProjectTree childInfo = tryGetProjectTree(child);
+                if (childInfo != null) {
+                    children.add(childInfo);
+                }
+            }
+
+            GradleProject gradleProject = module.getGradleProject();
+            String projectName = gradleProject.getName();
+            String projectFullName = gradleProject.getPath();
+            GenericProjectProperties properties = NbGenericModelInfo
+                    .createProjectProperties(projectName, projectFullName, moduleDir.toPath(), scriptProvider);
+
+            return new NbGradleProjectTree(properties, getTasksOfModule(module), children);
+        }
+    }
 }
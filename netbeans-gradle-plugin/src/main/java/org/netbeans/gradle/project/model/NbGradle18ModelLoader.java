@@ -7,13 +7,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.gradle.tooling.ProjectConnection;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.model.BuilderIssue;
 import org.netbeans.gradle.model.BuilderResult;
+import org.netbeans.gradle.model.FetchPhaseListener;
 import org.netbeans.gradle.model.FetchedModels;
 import org.netbeans.gradle.model.FetchedModelsOrError;
 import org.netbeans.gradle.model.FetchedProjectModels;
@@ -21,9 +26,11 @@ import org.netbeans.gradle.model.GenericModelFetcher;
 import org.netbeans.gradle.model.GenericProjectProperties;
 import org.netbeans.gradle.model.GradleBuildInfoQuery;
 import org.netbeans.gradle.model.OperationInitializer;
+import org.netbeans.gradle.model.ProjectFetchStatistics;
 import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.MultiMapUtils;
+import org.netbeans.gradle.project.LoadedProjectManager;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.api.entry.ModelLoadResult;
@@ -33,7 +40,12 @@ import org.netbeans.gradle.project.api.modelquery.GradleModelDefQuery2;
 import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
+import org.netbeans.gradle.project.model.issue.ModelLoadIssueReporter;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssues;
+import org.netbeans.gradle.project.script.CommonScripts;
+import org.netbeans.gradle.project.util.GradleVersions;
+import org.netbeans.gradle.project.util.NbConsumer;
+import org.netbeans.gradle.project.util.NbFunction;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.Lookups;
 
@@ -41,15 +53,22 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
     private final SettingsGradleDef settingsGradleDef;
     private final GradleTarget gradleTarget;
     private final OperationInitializer setup;
+    private final ModelLoadTimeline.LoadTrace loadTrace;
 
-    public NbGradle18ModelLoader(SettingsGradleDef settingsGradleDef, OperationInitializer setup, GradleTarget gradleTarget) {
+    public NbGradle18ModelLoader(
+            SettingsGradleDef settingsGradleDef,
+            OperationInitializer setup,
+            GradleTarget gradleTarget,
+            ModelLoadTimeline.LoadTrace loadTrace) {
         ExceptionHelper.checkNotNullArgument(settingsGradleDef, "settingsGradleDef");
         ExceptionHelper.checkNotNullArgument(setup, "setup");
         ExceptionHelper.checkNotNullArgument(gradleTarget, "gradleTarget");
+        ExceptionHelper.checkNotNullArgument(loadTrace, "loadTrace");
 
         this.settingsGradleDef = settingsGradleDef;
         this.gradleTarget = gradleTarget;
         this.setup = setup;
+        this.loadTrace = loadTrace;
     }
 
     private static <E> void addAllNullSafe(Collection<? super E> collection, Collection<? extends E> toAdd) {
@@ -65,7 +84,8 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             ProgressHandle progress) throws IOException, GradleModelLoadError {
 
         ProjectModelFetcher modelFetcher = new ProjectModelFetcher(project, gradleTarget, settingsGradleDef);
-        FetchedModelsOrError fetchedModelsOrError = modelFetcher.getModels(connection, setup);
+        TracingPhaseListener phaseListener = new TracingPhaseListener(loadTrace);
+        FetchedModelsOrError fetchedModelsOrError = modelFetcher.getModels(connection, setup, phaseListener);
         FetchedModels fetchedModels = fetchedModelsOrError.getModels();
         if (fetchedModels == null) {
             throw new GradleModelLoadError(
@@ -74,12 +94,47 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                     fetchedModelsOrError.getUnexpectedError());
         }
 
+        recordFetchStatistics(fetchedModels, phaseListener.buildActionStartTime);
+
         progress.progress(NbStrings.getParsingModel());
 
-        ProjectModelParser parser = new ProjectModelParser(gradleTarget, project, settingsGradleDef, modelFetcher);
+        ProjectModelParser parser = new ProjectModelParser(gradleTarget, project, settingsGradleDef, modelFetcher, loadTrace);
         return parser.parseModel(fetchedModels);
     }
 
+    private void recordFetchStatistics(FetchedModels fetchedModels, long buildActionStartTime) {
+        recordFetchStatistics(fetchedModels.getDefaultProjectModels(), buildActionStartTime);
+        for (FetchedProjectModels projectModels: fetchedModels.getOtherProjectModels()) {
+            recordFetchStatistics(projectModels, buildActionStartTime);
+        }
+        for (FetchedModels includedModels: fetchedModels.getIncludedBuildModels()) {
+            recordFetchStatistics(includedModels, buildActionStartTime);
+        }
+    }
+
+    private void recordFetchStatistics(FetchedProjectModels projectModels, long buildActionStartTime) {
+        // The builders run in the Gradle daemon, so we only know their durations
+        // but not when they have actually started.
+        File projectDir = getProjectDirFromModels(projectModels);
+        ProjectFetchStatistics statistics = projectModels.getStatistics();
+
+        loadTrace.recordSpan(ModelLoadTimeline.PHASE_PROJECT_INFO_BUILDERS,
+                projectDir,
+                null,
+                buildActionStartTime,
+                statistics.getTotalBuilderTimeNanos(),
+                statistics.getSerializedSize());
+
+        for (Map.Entry<String, Long> entry: statistics.getBuilderTimesNanos().entrySet()) {
+            loadTrace.recordSpan(ModelLoadTimeline.PHASE_PROJECT_INFO_BUILDER,
+                    projectDir,
+                    entry.getKey(),
+                    buildActionStartTime,
+                    entry.getValue(),
+                    -1);
+        }
+    }
+
     private static File getProjectDirFromModels(FetchedProjectModels projectModels) {
         return projectModels
                 .getProjectDef()
@@ -95,14 +150,15 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
         private final ProjectModelFetcher modelFetcher;
         private final ExtensionModelCache cache;
         private final List<ModelLoadIssue> issues;
-        private final Map<String, ModelLoadResult> modelLoadResultCache;
         private final SettingsGradleDef settingsGradleDef;
+        private final ModelLoadTimeline.LoadTrace loadTrace;
 
         public ProjectModelParser(
                 GradleTarget gradleTarget,
                 NbGradleProject mainProject,
                 SettingsGradleDef settingsGradleDef,
-                ProjectModelFetcher modelFetcher) {
+                ProjectModelFetcher modelFetcher,
+                ModelLoadTimeline.LoadTrace loadTrace) {
 
             this.gradleTarget = gradleTarget;
             this.mainProject = mainProject;
@@ -111,7 +167,14 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             this.modelFetcher = modelFetcher;
             this.cache = new ExtensionModelCache();
             this.issues = new ArrayList<>();
-            this.modelLoadResultCache = CollectionUtils.newHashMap(extensions.size());
+            this.loadTrace = loadTrace;
+        }
+
+        private void addIssue(ModelLoadIssue issue) {
+            issues.add(issue);
+            // Report the issue right away instead of waiting for the models
+            // of all the other projects to be parsed.
+            ModelLoadIssueReporter.reportIssue(issue);
         }
 
         private void addProjectInfoResults(
@@ -128,7 +191,7 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             for (BuilderResult builderResult: builderResults) {
                 BuilderIssue issue = builderResult.getIssue();
                 if (issue != null) {
-                    issues.add(ModelLoadIssues.builderError(
+                    addIssue(ModelLoadIssues.builderError(
                             mainProject,
                             projectModels,
                             extension,
@@ -181,6 +244,37 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
         }
 
         public Result parseModel(FetchedModels fetchedModels) {
+            List<NbGradleModel> otherModels = new ArrayList<>();
+            NbGradleModel mainModel = parseBuildModels(
+                    fetchedModels,
+                    modelFetcher.getSettingsFile(),
+                    !settingsGradleDef.isMaySearchUpwards(),
+                    otherModels);
+
+            // The models of included builds are stored separately for each
+            // project, so they can be used when their own root is loaded.
+            List<NbGradleModel> includedBuildModels = new ArrayList<>();
+            for (FetchedModels includedModels: fetchedModels.getIncludedBuildModels()) {
+                File includedRootDir = getProjectDirFromModels(includedModels.getDefaultProjectModels());
+                Path includedSettingsFile = mainProject.getScriptFileProvider()
+                        .findScriptFile(includedRootDir.toPath(), CommonScripts.SETTINGS_BASE_NAME);
+
+                includedBuildModels.add(parseBuildModels(includedModels, includedSettingsFile, false, includedBuildModels));
+            }
+
+            for (Map.Entry<File, Throwable> entry: fetchedModels.getIncludedBuildIssues().entrySet()) {
+                addIssue(ModelLoadIssues.includedBuildLoadError(mainProject, entry.getKey(), entry.getValue()));
+            }
+
+            return new Result(mainModel, otherModels, includedBuildModels, issues);
+        }
+
+        private NbGradleModel parseBuildModels(
+                FetchedModels fetchedModels,
+                Path settingsFile,
+                boolean rootWithoutSettingsGradle,
+                List<NbGradleModel> otherModels) {
+
             ProjectModelsOfExtensions extensionsForDefault = new ProjectModelsOfExtensions(
                     this,
                     fetchedModels.getDefaultProjectModels());
@@ -202,28 +296,145 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
 
             extensionModels.put(defaultProjectDir, extensionsForDefault);
 
+            BuildParseContext context = new BuildParseContext(
+                    settingsFile,
+                    rootWithoutSettingsGradle,
+                    extensionModels,
+                    extensions.size());
+
             NbGradleModel mainModel = parseModel(
                     fetchedModels.getDefaultProjectModels(),
-                    extensionModels);
+                    context,
+                    Collections.<String, ParsedModel<?>>emptyMap());
 
-            List<NbGradleModel> otherModels = new ArrayList<>();
+            List<FetchedProjectModels> remainingModels = new ArrayList<>(otherProjectModels.size());
             for (FetchedProjectModels models: otherProjectModels) {
                 File projectDir = getProjectDirFromModels(models);
-                if (defaultProjectDir.equals(projectDir)) {
+                if (!defaultProjectDir.equals(projectDir)) {
+                    remainingModels.add(models);
+                }
+            }
+
+            otherModels.addAll(parseProjectModels(remainingModels, defaultProjectDir, context));
+            return mainModel;
+        }
+
+        private ModelLoadResult getCachedModelLoadResult(
+                NbGradleExtensionRef extension,
+                File defaultProjectDir,
+                BuildParseContext context) {
+
+            String extensionName = extension.getName();
+            ModelLoadResult result = context.modelLoadResultCache.get(extensionName);
+            if (result == null) {
+                result = getModelLoadResult(extension, defaultProjectDir, context.extensionModels);
+                context.modelLoadResultCache.put(extensionName, result);
+            }
+            return result;
+        }
+
+        /**
+         * Parses the models of the given projects. The extensions allowing
+         * concurrent parsing are parsing the projects in parallel, then the
+         * results are applied in the order of the projects, as if the projects
+         * were parsed one after another.
+         */
+        private List<NbGradleModel> parseProjectModels(
+                List<FetchedProjectModels> projectModels,
+                File defaultProjectDir,
+                final BuildParseContext context) {
+
+            if (projectModels.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            final List<NbGradleExtensionRef> concurrentExtensions = new ArrayList<>();
+            for (NbGradleExtensionRef extension: extensions) {
+                if (extension.isConcurrentParsingAllowed()) {
+                    concurrentExtensions.add(extension);
+                    // Fill the cache now, so that it is only read concurrently.
+                    getCachedModelLoadResult(extension, defaultProjectDir, context);
+                }
+            }
+
+            List<Map<String, ParsedModel<?>>> concurrentlyParsed;
+            if (concurrentExtensions.isEmpty()) {
+                concurrentlyParsed = Collections.nCopies(
+                        projectModels.size(),
+                        Collections.<String, ParsedModel<?>>emptyMap());
+            }
+            else {
+                final AtomicLong parseTimeNanos = new AtomicLong(0);
+                ModelLoadTimeline.SpanTimer parallelTimer = loadTrace.startSpan(ModelLoadTimeline.PHASE_PARSE_MODELS);
+                try {
+                    concurrentlyParsed = ModelParsingPool.mapInOrder(projectModels,
+                            new NbFunction<FetchedProjectModels, Map<String, ParsedModel<?>>>() {
+                        @Override
+                        public Map<String, ParsedModel<?>> apply(FetchedProjectModels arg) {
+                            long startTime = System.nanoTime();
+                            try {
+                                return parseConcurrently(arg, concurrentExtensions, context);
+                            } finally {
+                                parseTimeNanos.addAndGet(System.nanoTime() - startTime);
+                            }
+                        }
+                    });
+                } finally {
+                    parallelTimer.endWithDetail("threads=" + ModelParsingPool.getThreadCount()
+                            + ", sequential-ms=" + TimeUnit.NANOSECONDS.toMillis(parseTimeNanos.get()));
+                }
+            }
+
+            List<NbGradleModel> result = new ArrayList<>(projectModels.size());
+            for (int i = 0; i < projectModels.size(); i++) {
+                result.add(parseModel(projectModels.get(i), context, concurrentlyParsed.get(i)));
+            }
+            return result;
+        }
+
+        private Map<String, ParsedModel<?>> parseConcurrently(
+                FetchedProjectModels projectModels,
+                List<NbGradleExtensionRef> concurrentExtensions,
+                BuildParseContext context) {
+
+            File projectDir = getProjectDirFromModels(projectModels);
+            ProjectExtensionModelCache projectCache = cache.tryGetProjectCache(projectDir);
+
+            Map<String, ParsedModel<?>> result = CollectionUtils.newHashMap(concurrentExtensions.size());
+            for (NbGradleExtensionRef extension: concurrentExtensions) {
+                String extensionName = extension.getName();
+                if (projectCache != null && projectCache.tryGetModel(extensionName) != null) {
                     continue;
                 }
-                otherModels.add(parseModel(models, extensionModels));
+
+                ModelLoadResult modelLoadResult = context.modelLoadResultCache.get(extensionName)
+                        .withMainProject(projectDir);
+                result.put(extensionName, parseExtensionModel(extension, modelLoadResult, projectDir));
             }
+            return result;
+        }
 
-            return new Result(mainModel, otherModels, issues);
+        private ParsedModel<?> parseExtensionModel(
+                NbGradleExtensionRef extension,
+                ModelLoadResult modelLoadResult,
+                File projectDir) {
+
+            ModelLoadTimeline.SpanTimer parseTimer
+                    = loadTrace.startSpan(ModelLoadTimeline.PHASE_PARSE_MODEL, projectDir, extension.getName());
+            try {
+                return extension.parseModel(modelLoadResult);
+            } finally {
+                parseTimer.end();
+            }
         }
 
         private NbGradleModel parseModel(
                 FetchedProjectModels projectModels,
-                Map<File, ProjectModelsOfExtensions> extensionModels) {
+                BuildParseContext context,
+                Map<String, ParsedModel<?>> preParsedModels) {
             Throwable issue = projectModels.getIssue();
             if (issue != null) {
-                issues.add(ModelLoadIssues.projectModelLoadError(
+                addIssue(ModelLoadIssues.projectModelLoadError(
                         mainProject,
                         projectModels,
                         null,
@@ -231,9 +442,9 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             }
 
             NbGradleMultiProjectDef projectDef = new NbGradleMultiProjectDef(projectModels.getProjectDef());
-            NbGenericModelInfo genericInfo = new NbGenericModelInfo(projectDef, modelFetcher.getSettingsFile());
+            NbGenericModelInfo genericInfo = new NbGenericModelInfo(projectDef, context.settingsFile);
             NbGradleModel.Builder result = new NbGradleModel.Builder(genericInfo);
-            result.setRootWithoutSettingsGradle(!settingsGradleDef.isMaySearchUpwards());
+            result.setRootWithoutSettingsGradle(context.rootWithoutSettingsGradle);
 
             File projectDir = genericInfo.getProjectDir();
 
@@ -251,16 +462,19 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                     extensionModel = cachedModel.model;
                 }
                 else {
-                    ModelLoadResult modelLoadResult = modelLoadResultCache.get(extensionName);
-                    if (modelLoadResult == null) {
-                        modelLoadResult = getModelLoadResult(extension, projectDir, extensionModels);
-                        modelLoadResultCache.put(extensionName, modelLoadResult);
-                    }
-                    else {
-                        modelLoadResult = modelLoadResult.withMainProject(projectDir);
+                    ParsedModel<?> parsedModels = preParsedModels.get(extensionName);
+                    if (parsedModels == null) {
+                        ModelLoadResult modelLoadResult = context.modelLoadResultCache.get(extensionName);
+                        if (modelLoadResult == null) {
+                            modelLoadResult = getModelLoadResult(extension, projectDir, context.extensionModels);
+                            context.modelLoadResultCache.put(extensionName, modelLoadResult);
+                        }
+                        else {
+                            modelLoadResult = modelLoadResult.withMainProject(projectDir);
+                        }
+
+                        parsedModels = parseExtensionModel(extension, modelLoadResult, projectDir);
                     }
-
-                    ParsedModel<?> parsedModels = extension.parseModel(modelLoadResult);
                     extensionModel = parsedModels.getMainModel();
 
                     for (Map.Entry<File, ?> entry: parsedModels.getOtherProjectsModel().entrySet()) {
@@ -275,6 +489,42 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
         }
     }
 
+    private static final class BuildParseContext {
+        public final Path settingsFile;
+        public final boolean rootWithoutSettingsGradle;
+        public final Map<File, ProjectModelsOfExtensions> extensionModels;
+        public final Map<String, ModelLoadResult> modelLoadResultCache;
+
+        public BuildParseContext(
+                Path settingsFile,
+                boolean rootWithoutSettingsGradle,
+                Map<File, ProjectModelsOfExtensions> extensionModels,
+                int extensionCount) {
+            this.settingsFile = settingsFile;
+            this.rootWithoutSettingsGradle = rootWithoutSettingsGradle;
+            this.extensionModels = extensionModels;
+            this.modelLoadResultCache = CollectionUtils.newHashMap(extensionCount);
+        }
+    }
+
+    private static final class TracingPhaseListener implements FetchPhaseListener {
+        private final ModelLoadTimeline.LoadTrace loadTrace;
+        public long buildActionStartTime;
+
+        public TracingPhaseListener(ModelLoadTimeline.LoadTrace loadTrace) {
+            this.loadTrace = loadTrace;
+            this.buildActionStartTime = System.nanoTime();
+        }
+
+        @Override
+        public void onPhaseCompleted(String phaseName, long startTimeNanos, long durationNanos, long byteCount) {
+            if (FetchPhaseListener.PHASE_BUILD_ACTION.equals(phaseName)) {
+                buildActionStartTime = startTimeNanos;
+            }
+            loadTrace.recordSpan(phaseName, null, null, startTimeNanos, durationNanos, byteCount);
+        }
+    }
+
     private static final class ProjectModelsOfExtensions {
         private final File projectDir;
         private final Map<String, Lookup> extensionLookups;
@@ -372,11 +622,38 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                 MultiMapUtils.addAllToMultiMap(extensionName, modelDef.getToolingModels(), toolingModelNeeds);
             }
 
-            modelFetcher = new GenericModelFetcher(buildInfoRequests, projectInfoRequests, models);
+            Set<File> includedBuildRoots = gradleTarget.getGradleVersion().compareTo(GradleVersions.VERSION_3_3) >= 0
+                    ? getIncludedBuildRootCandidates(project)
+                    : Collections.<File>emptySet();
+            modelFetcher = new GenericModelFetcher(
+                    buildInfoRequests,
+                    projectInfoRequests,
+                    models,
+                    includedBuildRoots,
+                    ModelInterner.getDefault().getSerializationCache());
+        }
+
+        private static Set<File> getIncludedBuildRootCandidates(final NbGradleProject mainProject) {
+            // Only builds whose root is open are worth evaluating, and only if
+            // their root was not loaded yet: Otherwise we would just load
+            // models nobody uses (or which are already loaded).
+            final Set<File> result = new HashSet<>();
+            LoadedProjectManager.getDefault().forProjects(new NbConsumer<NbGradleProject>() {
+                @Override
+                public void accept(NbGradleProject project) {
+                    if (project != mainProject && !project.wasModelEverSet()) {
+                        result.add(project.getProjectDirectoryAsFile());
+                    }
+                }
+            });
+            return result;
         }
 
-        public FetchedModelsOrError getModels(ProjectConnection connection, OperationInitializer init) throws IOException {
-            return modelFetcher.getModels(connection, init);
+        public FetchedModelsOrError getModels(
+                ProjectConnection connection,
+                OperationInitializer init,
+                FetchPhaseListener phaseListener) throws IOException {
+            return modelFetcher.getModels(connection, init, phaseListener);
         }
 
         public Path getSettingsFile() {
@@ -32,6 +32,7 @@ public final class NbGradleProjectTree implements Serializable {
 
     private final AtomicReference<Map<String, NbGradleProjectTree>> childrenMap;
     private final AtomicInteger numberOfSubprojectsRef;
+    private final AtomicReference<GradleTaskIndex> taskIndexRef;
 
     public NbGradleProjectTree(
             GenericProjectProperties genericProperties,
@@ -46,6 +47,7 @@ public final class NbGradleProjectTree implements Serializable {
         this.childrenMap = new AtomicReference<>(null);
         this.parentRef = new AtomicReference<>(null);
         this.numberOfSubprojectsRef = new AtomicInteger(-1);
+        this.taskIndexRef = new AtomicReference<>(null);
     }
 
     public NbGradleProjectTree(GradleProjectTree tree) {
@@ -58,6 +60,7 @@ public final class NbGradleProjectTree implements Serializable {
         this.childrenMap = new AtomicReference<>(null);
         this.parentRef = new AtomicReference<>(null);
         this.numberOfSubprojectsRef = new AtomicInteger(-1);
+        this.taskIndexRef = new AtomicReference<>(null);
     }
 
     public int getNumberOfSubprojects() {
@@ -136,6 +139,22 @@ public final class NbGradleProjectTree implements Serializable {
         return tasks;
     }
 
+    /**
+     * Returns the index of the tasks of this project. The index is created
+     * when first requested and then shared by every caller.
+     *
+     * @return the index of the tasks of this project. This method never
+     *   returns {@code null}.
+     */
+    public GradleTaskIndex getTaskIndex() {
+        GradleTaskIndex result = taskIndexRef.get();
+        if (result == null) {
+            taskIndexRef.compareAndSet(null, GradleTaskIndex.create(tasks));
+            result = taskIndexRef.get();
+        }
+        return result;
+    }
+
     public String getProjectName() {
         return genericProperties.getProjectName();
     }
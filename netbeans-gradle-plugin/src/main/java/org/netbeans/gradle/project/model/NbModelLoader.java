@@ -15,6 +15,7 @@ public interface NbModelLoader {
     public static final class Result {
         private final NbGradleModel mainModel;
         private final List<NbGradleModel> otherModels;
+        private final List<NbGradleModel> includedBuildModels;
         private final List<ModelLoadIssue> issues;
 
         public Result(NbGradleModel mainModel, Collection<NbGradleModel> otherModels) {
@@ -25,12 +26,22 @@ public interface NbModelLoader {
                 NbGradleModel mainModel,
                 Collection<NbGradleModel> otherModels,
                 Collection<? extends ModelLoadIssue> issues) {
+            this(mainModel, otherModels, Collections.<NbGradleModel>emptyList(), issues);
+        }
+
+        public Result(
+                NbGradleModel mainModel,
+                Collection<NbGradleModel> otherModels,
+                Collection<NbGradleModel> includedBuildModels,
+                Collection<? extends ModelLoadIssue> issues) {
             ExceptionHelper.checkNotNullArgument(mainModel, "mainModel");
             ExceptionHelper.checkNotNullArgument(otherModels, "otherModels");
+            ExceptionHelper.checkNotNullArgument(includedBuildModels, "includedBuildModels");
             ExceptionHelper.checkNotNullArgument(issues, "issues");
 
             this.mainModel = mainModel;
             this.otherModels = CollectionUtils.copyNullSafeList(otherModels);
+            this.includedBuildModels = CollectionUtils.copyNullSafeList(includedBuildModels);
             this.issues = CollectionUtils.copyNullSafeList(issues);
         }
 
@@ -42,6 +53,28 @@ public interface NbModelLoader {
             return otherModels;
         }
 
+        /**
+         * Returns the models of the projects of builds included by the loaded
+         * build (in a composite build). These models were loaded in the
+         * context of the loaded build, so they must not replace the models
+         * loaded for the root of the included build.
+         *
+         * @return the models of the projects of builds included by the loaded
+         *   build. This method never returns {@code null}.
+         */
+        public List<NbGradleModel> getIncludedBuildModels() {
+            return includedBuildModels;
+        }
+
+        /**
+         * Returns the issues found while loading the models. Loaders are
+         * expected to report these issues via
+         * {@link org.netbeans.gradle.project.model.issue.ModelLoadIssueReporter#reportIssue(ModelLoadIssue)}
+         * as soon as they are found, so they need not be reported again.
+         *
+         * @return the issues found while loading the models. This method
+         *   never returns {@code null}.
+         */
         public List<ModelLoadIssue> getIssues() {
             return issues;
         }
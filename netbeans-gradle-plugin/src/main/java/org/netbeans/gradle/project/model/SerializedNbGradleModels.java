@@ -1,12 +1,12 @@
 package org.netbeans.gradle.project.model;
 
+import java.io.File;
 import java.io.Serializable;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.SerializationCache;
-import org.netbeans.gradle.model.util.SerializationCaches;
 import org.netbeans.gradle.model.util.SerializationUtils;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
@@ -61,13 +61,20 @@ public final class SerializedNbGradleModels implements Serializable {
     }
 
     public NbGradleModel deserializeModel(NbGradleProject ownerProject) {
-        SerializationCache serializationCache = SerializationCaches.getDefault();
+        SerializationCache serializationCache = ModelInterner.getDefault().getSerializationCache();
         Map<String, Object> deserializedModels = CollectionUtils.newHashMap(extensionModels.size());
 
+        File projectDir = genericInfo.getProjectDir();
+        ModelLoadTimeline.LoadTrace loadTrace = ModelLoadTimeline.getDefault().newLoadTrace(projectDir);
+
         for (NbGradleExtensionRef extensionRef: ownerProject.getExtensions().getExtensionRefs()) {
             byte[] serializedModel = extensionModels.get(extensionRef.getName());
 
             if (serializedModel != null) {
+                ModelLoadTimeline.SpanTimer deserializeTimer = loadTrace.startSpan(
+                        ModelLoadTimeline.PHASE_DESERIALIZE_CACHED_MODEL,
+                        projectDir,
+                        extensionRef.getName());
                 try {
                     ClassLoader modelClassLoader = extensionRef.getExtensionDef().getModelType().getClassLoader();
                     Object model = SerializationUtils.deserializeObject(serializedModel, serializationCache, modelClassLoader);
@@ -76,6 +83,8 @@ public final class SerializedNbGradleModels implements Serializable {
                     LOGGER.log(Level.INFO,
                             "There was a problem when deserializing model for " + extensionRef.getName(),
                             ex);
+                } finally {
+                    deserializeTimer.end(serializedModel.length);
                 }
             }
         }
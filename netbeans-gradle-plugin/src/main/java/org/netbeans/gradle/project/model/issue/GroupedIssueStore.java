@@ -0,0 +1,203 @@
+package org.netbeans.gradle.project.model.issue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.util.Exceptions;
+import org.netbeans.gradle.model.util.TransferableExceptionWrapper;
+import org.netbeans.gradle.project.util.NbFunction;
+
+/**
+ * Defines a bounded store of issues grouping the issues by a key (usually
+ * identifying the root cause of the issue). The purpose of the grouping is to
+ * report issues with the same cause only once, even if they are reported for
+ * hundreds of projects.
+ * <P>
+ * A group is considered to be new again if no issue was added to it for the
+ * given quiet period, so that issues of a new model load are reported again.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ *
+ * @param <IssueType> the type of the stored issues
+ */
+final class GroupedIssueStore<IssueType> {
+    private final NbFunction<? super IssueType, String> keyProvider;
+    private final int maxIssuesPerGroup;
+    private final long quietPeriodNanos;
+
+    private final Lock mainLock;
+    // Guarded by mainLock
+    private final Map<String, IssueGroup<IssueType>> groups;
+
+    public GroupedIssueStore(
+            NbFunction<? super IssueType, String> keyProvider,
+            final int maxGroupCount,
+            int maxIssuesPerGroup,
+            long quietPeriod,
+            TimeUnit quietPeriodUnit) {
+
+        ExceptionHelper.checkNotNullArgument(keyProvider, "keyProvider");
+        ExceptionHelper.checkArgumentInRange(maxGroupCount, 1, Integer.MAX_VALUE, "maxGroupCount");
+        ExceptionHelper.checkArgumentInRange(maxIssuesPerGroup, 1, Integer.MAX_VALUE, "maxIssuesPerGroup");
+        ExceptionHelper.checkArgumentInRange(quietPeriod, 0, Long.MAX_VALUE, "quietPeriod");
+        ExceptionHelper.checkNotNullArgument(quietPeriodUnit, "quietPeriodUnit");
+
+        this.keyProvider = keyProvider;
+        this.maxIssuesPerGroup = maxIssuesPerGroup;
+        this.quietPeriodNanos = quietPeriodUnit.toNanos(quietPeriod);
+        this.mainLock = new ReentrantLock();
+        this.groups = new LinkedHashMap<String, IssueGroup<IssueType>>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IssueGroup<IssueType>> eldest) {
+                return size() > maxGroupCount;
+            }
+        };
+    }
+
+    /**
+     * Returns a string identifying the root cause of the given exception. The
+     * returned key is the same for exceptions with the same type and message
+     * regardless of where they were thrown from.
+     *
+     * @param error the exception whose root cause is to be identified. This
+     *   argument cannot be {@code null}.
+     * @return the string identifying the root cause of the given exception.
+     *   This method never returns {@code null}.
+     */
+    public static String getRootCauseKey(Throwable error) {
+        Throwable rootCause = Exceptions.getRootCause(error);
+
+        String className = rootCause instanceof TransferableExceptionWrapper
+                ? ((TransferableExceptionWrapper)rootCause).getOriginalClassName()
+                : rootCause.getClass().getName();
+
+        return className + ": " + Exceptions.getActualMessage(rootCause);
+    }
+
+    /**
+     * Adds the given issue to the group with the same key.
+     *
+     * @param issue the issue to be added. This argument cannot be
+     *   {@code null}.
+     * @return the group the issue was added to if the group was created by
+     *   this call, or {@code null} if the issue was added to an already
+     *   existing group
+     */
+    public IssueGroup<IssueType> addAndGetNewGroup(IssueType issue) {
+        ExceptionHelper.checkNotNullArgument(issue, "issue");
+
+        String key = keyProvider.apply(issue);
+        long now = System.nanoTime();
+
+        mainLock.lock();
+        try {
+            IssueGroup<IssueType> group = groups.get(key);
+            if (group != null && now - group.lastAddTime < quietPeriodNanos) {
+                group.add(issue, now);
+                return null;
+            }
+
+            // Remove first, so that the restarted group becomes the newest
+            // one and will be the last to be evicted.
+            groups.remove(key);
+
+            group = new IssueGroup<>(key, mainLock, maxIssuesPerGroup);
+            group.add(issue, now);
+            groups.put(key, group);
+            return group;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public int getGroupCount() {
+        mainLock.lock();
+        try {
+            return groups.size();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Defines the issues added to a {@link GroupedIssueStore} with the same
+     * key. Only the first few issues of a group are kept, the rest of them
+     * are only counted.
+     *
+     * @param <IssueType> the type of the issues of this group
+     */
+    public static final class IssueGroup<IssueType> {
+        private final String key;
+        private final Lock mainLock;
+        private final int maxIssueCount;
+
+        // Guarded by mainLock
+        private final List<IssueType> issues;
+        // Guarded by mainLock
+        private int totalCount;
+        // Guarded by mainLock
+        private long lastAddTime;
+
+        private IssueGroup(String key, Lock mainLock, int maxIssueCount) {
+            this.key = key;
+            this.mainLock = mainLock;
+            this.maxIssueCount = maxIssueCount;
+            this.issues = new ArrayList<>();
+            this.totalCount = 0;
+            this.lastAddTime = 0;
+        }
+
+        private void add(IssueType issue, long addTime) {
+            if (issues.size() < maxIssueCount) {
+                issues.add(issue);
+            }
+            totalCount++;
+            lastAddTime = addTime;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the issues stored in this group in the order they were
+         * added. Note that this is not necessarily every issue added to this
+         * group.
+         *
+         * @return the snapshot of the issues stored in this group. This
+         *   method never returns {@code null} and never returns an empty list.
+         */
+        public List<IssueType> getIssues() {
+            mainLock.lock();
+            try {
+                return new ArrayList<>(issues);
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        /**
+         * Returns the number of issues added to this group, including the
+         * ones not stored due to the limit of stored issues.
+         *
+         * @return the number of issues added to this group. This method
+         *   always returns a value greater than zero.
+         */
+        public int getTotalCount() {
+            mainLock.lock();
+            try {
+                return totalCount;
+            } finally {
+                mainLock.unlock();
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.JButton;
 import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.util.NbSupplier;
 import org.openide.DialogDescriptor;
 import org.openide.DialogDisplayer;
 
@@ -20,19 +21,31 @@ public class IssueDetailsPanel extends javax.swing.JPanel {
         jInfoTextArea.setCaretPosition(0);
     }
 
-    public static JButton createShowStackTraceButton(final String caption, final String detailsContent) {
+    public static JButton createShowStackTraceButton(
+            final String caption,
+            final NbSupplier<String> detailsContentProvider) {
         JButton button = new JButton(NbStrings.getShowStackTrace());
         button.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                showModalDialog(caption, detailsContent);
+                showModalDialog(caption, detailsContentProvider);
             }
         });
         return button;
     }
 
-    public static void showModalDialog(String caption, String detailsContent) {
-        IssueDetailsPanel panel = new IssueDetailsPanel(detailsContent);
+    /**
+     * Shows the given details in a modal dialog. The details are only
+     * requested from the given provider when the dialog is about to be shown,
+     * so formatting them can be avoided if the user never asks for them.
+     *
+     * @param caption the title of the dialog. This argument cannot be
+     *   {@code null}.
+     * @param detailsContentProvider the provider of the text to be displayed.
+     *   This argument cannot be {@code null}.
+     */
+    public static void showModalDialog(String caption, NbSupplier<String> detailsContentProvider) {
+        IssueDetailsPanel panel = new IssueDetailsPanel(detailsContentProvider.get());
         DialogDescriptor dlgDescriptor = new DialogDescriptor(
                 panel,
                 caption,
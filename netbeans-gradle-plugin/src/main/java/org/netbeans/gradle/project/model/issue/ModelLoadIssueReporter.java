@@ -7,10 +7,12 @@ import java.awt.event.MouseEvent;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.Icon;
@@ -26,13 +28,52 @@ import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbIcons;
 import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.util.LazyValue;
+import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.gradle.project.util.NbSupplier;
 import org.openide.awt.NotificationDisplayer;
 
+/**
+ * Reports the issues of model loading to the user. Issues are reported as
+ * soon as they are found and issues with the same root cause are only
+ * reported once (even across projects), the rest of them are only added to
+ * the details of the first notification. The details are only formatted when
+ * the user opens them.
+ */
 public final class ModelLoadIssueReporter {
     private static final Logger LOGGER = Logger.getLogger(ModelLoadIssueReporter.class.getName());
     private static final Icon ERROR_ICON = NbIcons.getPriorityHighIcon();
     private static final Color TRANSPARENT_COLOR = new Color(0, 0, 0, 0);
 
+    private static final int MAX_ISSUE_GROUP_COUNT = 64;
+    private static final int MAX_ISSUES_PER_GROUP = 32;
+    private static final long ISSUE_QUIET_PERIOD_SEC = 30;
+
+    private static final GroupedIssueStore<ModelLoadIssue> MODEL_LOAD_ISSUES = new GroupedIssueStore<>(
+            new NbFunction<ModelLoadIssue, String>() {
+                @Override
+                public String apply(ModelLoadIssue issue) {
+                    return issue.getExtensionName() + "\n"
+                            + GroupedIssueStore.getRootCauseKey(issue.getStackTrace());
+                }
+            },
+            MAX_ISSUE_GROUP_COUNT,
+            MAX_ISSUES_PER_GROUP,
+            ISSUE_QUIET_PERIOD_SEC,
+            TimeUnit.SECONDS);
+
+    private static final GroupedIssueStore<DependencyResolutionIssue> DEPENDENCY_ISSUES = new GroupedIssueStore<>(
+            new NbFunction<DependencyResolutionIssue, String>() {
+                @Override
+                public String apply(DependencyResolutionIssue issue) {
+                    return GroupedIssueStore.getRootCauseKey(getImportantCause(issue));
+                }
+            },
+            MAX_ISSUE_GROUP_COUNT,
+            MAX_ISSUES_PER_GROUP,
+            ISSUE_QUIET_PERIOD_SEC,
+            TimeUnit.SECONDS);
+
     private static void printStackTrace(Throwable error, Writer output) {
         PrintWriter writer = new PrintWriter(output);
         try {
@@ -52,6 +93,14 @@ public final class ModelLoadIssueReporter {
         return str.replace("\n", "\n    ");
     }
 
+    private static void appendNotStoredCount(int storedCount, int totalCount, StringBuilder details) {
+        if (totalCount > storedCount) {
+            details.append("\n\n... and ");
+            details.append(totalCount - storedCount);
+            details.append(" more issues with the same cause.");
+        }
+    }
+
     private static String createDetails(Collection<? extends ModelLoadIssue> issues) {
         StringBuilder details = new StringBuilder();
         int index = 1;
@@ -90,7 +139,30 @@ public final class ModelLoadIssueReporter {
         return details.toString();
     }
 
-    private static JComponent createDetailsComponent(String caption, String detailsContent) {
+    private static NbSupplier<String> lazyDetails(final Collection<? extends ModelLoadIssue> issues) {
+        return new LazyValue<>(new NbSupplier<String>() {
+            @Override
+            public String get() {
+                return createDetails(issues);
+            }
+        });
+    }
+
+    private static NbSupplier<String> groupDetails(final GroupedIssueStore.IssueGroup<ModelLoadIssue> group) {
+        // Not cached because issues with the same cause might be added to the
+        // group after the notification is shown.
+        return new NbSupplier<String>() {
+            @Override
+            public String get() {
+                List<ModelLoadIssue> issues = group.getIssues();
+                StringBuilder details = new StringBuilder(createDetails(issues));
+                appendNotStoredCount(issues.size(), group.getTotalCount(), details);
+                return details.toString();
+            }
+        };
+    }
+
+    private static JComponent createDetailsComponent(String caption, NbSupplier<String> detailsContent) {
         JPanel detailsComponent = new JPanel(new FlowLayout());
         detailsComponent.setOpaque(false);
         detailsComponent.setBackground(TRANSPARENT_COLOR);
@@ -98,7 +170,10 @@ public final class ModelLoadIssueReporter {
         return detailsComponent;
     }
 
-    private static JLabel errorBalloonLabel(String message, final String detailsCaption, final String details) {
+    private static JLabel errorBalloonLabel(
+            String message,
+            final String detailsCaption,
+            final NbSupplier<String> details) {
         String htmlMessage = "<html>" + message + "</html>";
         JLabel label = new JLabel(
                 htmlMessage,
@@ -115,17 +190,11 @@ public final class ModelLoadIssueReporter {
         return label;
     }
 
-    private static void reportAllIssuesNow(String message, Collection<? extends ModelLoadIssue> issues) {
+    private static void notifyError(String message, String detailsCaption, NbSupplier<String> details) {
         assert SwingUtilities.isEventDispatchThread();
 
-        if (issues.isEmpty()) {
-            return;
-        }
-
-        String details = createDetails(issues);
-
-        JLabel messageLabel = errorBalloonLabel(message, message, details);
-        JComponent detailsComponent = createDetailsComponent(message, details);
+        JLabel messageLabel = errorBalloonLabel(message, detailsCaption, details);
+        JComponent detailsComponent = createDetailsComponent(detailsCaption, details);
 
         NotificationDisplayer.getDefault().notify(
                 message,
@@ -135,102 +204,97 @@ public final class ModelLoadIssueReporter {
                 NotificationDisplayer.Priority.HIGH);
     }
 
-    private static void logIssues(Collection<? extends ModelLoadIssue> issues) {
-        for (ModelLoadIssue issue: issues) {
-            if (issue != null) {
-                LOGGER.log(Level.INFO,
-                        "Model load issue: " + issue,
-                        issue.getStackTrace());
-            }
-        }
-    }
-
-    public static void reportAllIssues(
+    private static void notifyErrorLater(
             final String message,
-            Collection<? extends ModelLoadIssue> issues) {
-
-        logIssues(issues);
-
-        ExceptionHelper.checkNotNullElements(issues, "issues");
+            final String detailsCaption,
+            final NbSupplier<String> details) {
 
-        final List<ModelLoadIssue> issuesCopy = CollectionUtils.copyNullSafeList(issues);
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
-                reportAllIssuesNow(message, issuesCopy);
+                notifyError(message, detailsCaption, details);
             }
         });
     }
 
-    private static String setToString(Set<String> strings) {
-        return strings.size() == 1
-                ? strings.iterator().next()
-                : strings.toString();
-    }
-
-    private static Set<String> getProjectNames(List<ModelLoadIssue> issues) {
-        Set<String> names = new LinkedHashSet<>();
-        for (ModelLoadIssue issue: issues) {
-            names.add(issue.getRequestedProject().getDisplayName());
+    private static void logIssue(ModelLoadIssue issue, boolean alreadyReported) {
+        if (alreadyReported) {
+            LOGGER.log(Level.FINE,
+                    "Model load issue with an already reported cause: " + issue,
+                    issue.getStackTrace());
+        }
+        else {
+            LOGGER.log(Level.INFO,
+                    "Model load issue: " + issue,
+                    issue.getStackTrace());
         }
-        return names;
     }
 
-    private static Set<String> getExtensionNames(List<ModelLoadIssue> issues) {
-        Set<String> names = new LinkedHashSet<>();
-        for (ModelLoadIssue issue: issues) {
-            NbGradleExtensionRef extensionRef = issue.getExtensionRef();
-
-            String name = extensionRef != null
-                    ? extensionRef.getDisplayName()
-                    : NbStrings.getCoreGradlePlugin();
+    public static void reportAllIssues(
+            final String message,
+            Collection<? extends ModelLoadIssue> issues) {
 
-            names.add(name);
-        }
-        return names;
-    }
+        ExceptionHelper.checkNotNullElements(issues, "issues");
 
-    public static void reportAllIssues(Collection<? extends ModelLoadIssue> issues) {
         if (issues.isEmpty()) {
             return;
         }
 
-        logIssues(issues);
-
-        final List<ModelLoadIssue> issuesCopy = CollectionUtils.copyNullSafeList(issues);
-
-        String projectName = setToString(getProjectNames(issuesCopy));
-        String extensionName = setToString(getExtensionNames(issuesCopy));
+        for (ModelLoadIssue issue: issues) {
+            logIssue(issue, false);
+        }
 
-        final String message = NbStrings.getInternalExtensionErrorInProject(extensionName, projectName);
-        SwingUtilities.invokeLater(new Runnable() {
-            @Override
-            public void run() {
-                reportAllIssuesNow(message, issuesCopy);
-            }
-        });
+        List<ModelLoadIssue> issuesCopy = CollectionUtils.copyNullSafeList(issues);
+        notifyErrorLater(message, message, lazyDetails(issuesCopy));
     }
 
-    private static void reportErrorNow(String message, String detailsCaption, Throwable error) {
-        assert SwingUtilities.isEventDispatchThread();
+    private static String getExtensionDisplayName(ModelLoadIssue issue) {
+        NbGradleExtensionRef extensionRef = issue.getExtensionRef();
+        return extensionRef != null
+                ? extensionRef.getDisplayName()
+                : NbStrings.getCoreGradlePlugin();
+    }
 
-        String details = getStackTrace(error);
+    /**
+     * Reports the given issue to the user unless an issue with the same root
+     * cause has been reported recently. This method may be called as soon as
+     * the issue was found and from any thread.
+     *
+     * @param issue the issue to be reported. This argument cannot be
+     *   {@code null}.
+     */
+    public static void reportIssue(ModelLoadIssue issue) {
+        ExceptionHelper.checkNotNullArgument(issue, "issue");
+
+        GroupedIssueStore.IssueGroup<ModelLoadIssue> newGroup = MODEL_LOAD_ISSUES.addAndGetNewGroup(issue);
+        logIssue(issue, newGroup == null);
+        if (newGroup == null) {
+            return;
+        }
 
-        JLabel messageLabel = errorBalloonLabel(message, detailsCaption, details);
-        JComponent detailsComponent = createDetailsComponent(detailsCaption, details);
+        String message = NbStrings.getInternalExtensionErrorInProject(
+                getExtensionDisplayName(issue),
+                issue.getRequestedProject().getDisplayName());
+        notifyErrorLater(message, message, groupDetails(newGroup));
+    }
 
-        NotificationDisplayer.getDefault().notify(
-                message,
-                ERROR_ICON,
-                messageLabel,
-                detailsComponent,
-                NotificationDisplayer.Priority.HIGH);
+    public static void reportAllIssues(Collection<? extends ModelLoadIssue> issues) {
+        for (ModelLoadIssue issue: issues) {
+            if (issue != null) {
+                reportIssue(issue);
+            }
+        }
     }
 
-    private static void reportBuildScriptErrorNow(NbGradleProject project, Throwable error) {
+    private static void reportBuildScriptErrorNow(NbGradleProject project, final Throwable error) {
         String projectName = project.getDisplayName();
         String message = NbStrings.getBuildScriptErrorInProject(projectName);
-        reportErrorNow(message, projectName, error);
+        notifyError(message, projectName, new LazyValue<>(new NbSupplier<String>() {
+            @Override
+            public String get() {
+                return getStackTrace(error);
+            }
+        }));
     }
 
     public static void reportBuildScriptError(final NbGradleProject project, final Throwable error) {
@@ -245,15 +309,24 @@ public final class ModelLoadIssueReporter {
         });
     }
 
-    private static Set<String> getFailedDependencyProjectNames(List<DependencyResolutionIssue> issues) {
+    private static String setToString(Set<String> strings) {
+        return strings.size() == 1
+                ? strings.iterator().next()
+                : strings.toString();
+    }
+
+    private static Set<String> getFailedDependencyProjectNames(
+            List<GroupedIssueStore.IssueGroup<DependencyResolutionIssue>> groups) {
         Set<String> names = new LinkedHashSet<>();
-        for (DependencyResolutionIssue issue: issues) {
-            names.add(issue.getProjectName());
+        for (GroupedIssueStore.IssueGroup<DependencyResolutionIssue> group: groups) {
+            for (DependencyResolutionIssue issue: group.getIssues()) {
+                names.add(issue.getProjectName());
+            }
         }
         return names;
     }
 
-    private static String getImportantCause(DependencyResolutionIssue issue) {
+    private static Throwable getImportantCause(DependencyResolutionIssue issue) {
         Throwable cause = issue.getStackTrace();
         Throwable rootCause = cause;
         while (cause != null) {
@@ -264,64 +337,95 @@ public final class ModelLoadIssueReporter {
 
             cause = cause.getCause();
         }
+        return rootCause;
+    }
 
-        return Exceptions.getActualMessage(rootCause)
+    private static String getImportantCauseMessage(DependencyResolutionIssue issue) {
+        return Exceptions.getActualMessage(getImportantCause(issue))
                 .replace("\r\n", " ")
                 .replace('\r', ' ')
                 .replace('\n', ' ');
     }
 
-    private static void reportDependencyResolutionFailures(List<DependencyResolutionIssue> issues) {
-        assert SwingUtilities.isEventDispatchThread();
-
-        String projectName = setToString(getFailedDependencyProjectNames(issues));
-        String message = NbStrings.getDependencyResolutionFailure(projectName);
+    private static String createDependencyResolutionDetails(
+            List<GroupedIssueStore.IssueGroup<DependencyResolutionIssue>> groups) {
 
         StringBuilder detailsContent = new StringBuilder(1024);
-        for (DependencyResolutionIssue issue: issues) {
-            String issueMessage = issue.getMessage();
-            LOGGER.log(Level.INFO, issueMessage, issue.getStackTrace());
-
-            detailsContent.append("- ");
-            detailsContent.append(issueMessage);
-            detailsContent.append(" (");
-            detailsContent.append(getImportantCause(issue));
-            detailsContent.append(")\n");
+        List<Throwable> stackTraces = new ArrayList<>(groups.size());
+        for (GroupedIssueStore.IssueGroup<DependencyResolutionIssue> group: groups) {
+            List<DependencyResolutionIssue> issues = group.getIssues();
+            for (DependencyResolutionIssue issue: issues) {
+                detailsContent.append("- ");
+                detailsContent.append(issue.getMessage());
+                detailsContent.append(" (");
+                detailsContent.append(getImportantCauseMessage(issue));
+                detailsContent.append(")\n");
+            }
+
+            int notStoredCount = group.getTotalCount() - issues.size();
+            if (notStoredCount > 0) {
+                detailsContent.append("- ... and ");
+                detailsContent.append(notStoredCount);
+                detailsContent.append(" more with the same cause\n");
+            }
+
+            // Issues of the same group have the same root cause, so showing
+            // the stack trace of the first one is enough.
+            stackTraces.add(issues.get(0).getStackTrace());
         }
 
         detailsContent.append("\nDetails: \n");
 
         int issueIndex = 1;
-        for (DependencyResolutionIssue issue: issues) {
+        for (Throwable stackTrace: stackTraces) {
             detailsContent.append("\n");
             detailsContent.append("Exception ");
             detailsContent.append(issueIndex);
             detailsContent.append("\n---------------\n\n");
-            detailsContent.append(getStackTrace(issue.getStackTrace()));
+            detailsContent.append(getStackTrace(stackTrace));
 
             issueIndex++;
         }
 
-        String details = detailsContent.toString();
-        String detailsCaption = message;
-
-        JLabel messageLabel = errorBalloonLabel(message, detailsCaption, details);
-        JComponent detailsComponent = createDetailsComponent(detailsCaption, details);
-
-        NotificationDisplayer.getDefault().notify(
-                message,
-                ERROR_ICON,
-                messageLabel,
-                detailsComponent,
-                NotificationDisplayer.Priority.HIGH);
+        return detailsContent.toString();
     }
 
+    /**
+     * Reports the given dependency resolution failures to the user. Failures
+     * whose cause has already been reported recently (possibly for another
+     * project) are only added to the details of the previous notification.
+     *
+     * @param issues the failures to be reported. This argument cannot be
+     *   {@code null} but its {@code null} elements are ignored.
+     */
     public static void reportDependencyResolutionFailures(Collection<? extends DependencyResolutionIssue> issues) {
-        final List<DependencyResolutionIssue> issuesCopy = CollectionUtils.copyNullSafeList(issues);
-        SwingUtilities.invokeLater(new Runnable() {
+        final List<GroupedIssueStore.IssueGroup<DependencyResolutionIssue>> newGroups = new ArrayList<>();
+        for (DependencyResolutionIssue issue: issues) {
+            if (issue == null) {
+                continue;
+            }
+
+            GroupedIssueStore.IssueGroup<DependencyResolutionIssue> newGroup
+                    = DEPENDENCY_ISSUES.addAndGetNewGroup(issue);
+            if (newGroup != null) {
+                LOGGER.log(Level.INFO, issue.getMessage(), issue.getStackTrace());
+                newGroups.add(newGroup);
+            }
+            else {
+                LOGGER.log(Level.FINE, issue.getMessage(), issue.getStackTrace());
+            }
+        }
+
+        if (newGroups.isEmpty()) {
+            return;
+        }
+
+        String projectName = setToString(getFailedDependencyProjectNames(newGroups));
+        String message = NbStrings.getDependencyResolutionFailure(projectName);
+        notifyErrorLater(message, message, new NbSupplier<String>() {
             @Override
-            public void run() {
-                reportDependencyResolutionFailures(issuesCopy);
+            public String get() {
+                return createDependencyResolutionDetails(newGroups);
             }
         });
     }
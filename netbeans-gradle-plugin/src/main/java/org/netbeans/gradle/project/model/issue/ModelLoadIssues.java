@@ -1,5 +1,6 @@
 package org.netbeans.gradle.project.model.issue;
 
+import java.io.File;
 import org.netbeans.gradle.model.BuilderIssue;
 import org.netbeans.gradle.model.FetchedProjectModels;
 import org.netbeans.gradle.model.GenericProjectProperties;
@@ -17,6 +18,14 @@ public final class ModelLoadIssues {
         return new ModelLoadIssue(requestedProject, projectID.getProjectFullName(), extension, null, issue);
     }
 
+    public static ModelLoadIssue includedBuildLoadError(
+            NbGradleProject requestedProject,
+            File includedBuildRootDir,
+            Throwable issue) {
+
+        return new ModelLoadIssue(requestedProject, includedBuildRootDir.getPath(), null, null, issue);
+    }
+
     public static ModelLoadIssue builderError(
             NbGradleProject requestedProject,
             FetchedProjectModels project,
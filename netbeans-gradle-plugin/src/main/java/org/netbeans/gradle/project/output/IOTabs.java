@@ -2,12 +2,25 @@ package org.netbeans.gradle.project.output;
 
 import java.awt.Dialog;
 import java.awt.event.ActionEvent;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.swing.Action;
 import javax.swing.JOptionPane;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationSource;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
 import org.netbeans.api.annotations.common.StaticResource;
+import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.api.task.GradleActionProviderContext;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
@@ -18,9 +31,12 @@ import org.netbeans.gradle.project.tasks.GradleCommandSpec;
 import org.netbeans.gradle.project.tasks.GradleCommandSpecFactory;
 import org.netbeans.gradle.project.tasks.GradleTaskDef;
 import org.netbeans.gradle.project.tasks.TaskOutputKey;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
 import org.netbeans.gradle.project.view.CustomActionPanel;
 import org.openide.DialogDescriptor;
 import org.openide.DialogDisplayer;
+import org.openide.NotifyDescriptor;
+import org.openide.util.Cancellable;
 import org.openide.util.ImageUtilities;
 import org.openide.windows.IOProvider;
 import org.openide.windows.InputOutput;
@@ -44,7 +60,8 @@ public final class IOTabs {
         return new TaskTabAction[] {
             new ReRunTask(),
             new ReRunWithDifferentArgsTask(),
-            new StopTask(caption)
+            new StopTask(caption),
+            new SearchTaskLog()
         };
     }
 
@@ -83,6 +100,132 @@ public final class IOTabs {
         }
     }
 
+    @SuppressWarnings("serial")
+    private static final class SearchTaskLog extends TaskTabAction {
+        private static final Logger LOGGER = Logger.getLogger(SearchTaskLog.class.getName());
+
+        @StaticResource
+        private static final String ICON = "org/netbeans/gradle/project/resources/task.gif";
+
+        private static final int MAX_DISPLAYED_LINE_COUNT = 1000;
+        private static final int JUMP_CONTEXT_LINE_COUNT = 100;
+
+        public SearchTaskLog() {
+            putValue(Action.SMALL_ICON, ImageUtilities.loadImageIcon(ICON, false));
+
+            putValue(Action.NAME, NbStrings.getSearchTaskLogCaption());
+            putValue(Action.SHORT_DESCRIPTION, NbStrings.getSearchTaskLogDescription());
+        }
+
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            final TaskLogStore log = getLastLog();
+            if (log == null) {
+                return;
+            }
+
+            NotifyDescriptor.InputLine input = new NotifyDescriptor.InputLine(
+                    NbStrings.getSearchTaskLogPrompt(),
+                    NbStrings.getSearchTaskLogCaption());
+            if (DialogDisplayer.getDefault().notify(input) != NotifyDescriptor.OK_OPTION) {
+                return;
+            }
+
+            final String text = input.getInputText();
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+
+            final CancellationSource cancel = Cancellation.createCancellationSource();
+            final ProgressHandle progress = ProgressHandle.createHandle(NbStrings.getSearchTaskLogCaption(), new Cancellable() {
+                @Override
+                public boolean cancel() {
+                    cancel.getController().cancel();
+                    return true;
+                }
+            });
+
+            NbTaskExecutors.DEFAULT_EXECUTOR.execute(cancel.getToken(), new CancelableTask() {
+                @Override
+                public void execute(CancellationToken cancelToken) {
+                    progress.start();
+                    try {
+                        Map<Long, String> result = search(log, text, cancelToken);
+                        if (!cancelToken.isCanceled()) {
+                            showResult(text, result);
+                        }
+                    } catch (IOException ex) {
+                        LOGGER.log(Level.INFO, "Failed to search the task log: " + log.getLogDir(), ex);
+                    } finally {
+                        progress.finish();
+                    }
+                }
+            }, null);
+        }
+
+        private static Long tryParseLineNumber(String text) {
+            if (!text.startsWith("#")) {
+                return null;
+            }
+
+            try {
+                return Long.parseLong(text.substring(1).trim());
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+
+        private static Map<Long, String> search(
+                TaskLogStore log,
+                String text,
+                CancellationToken cancelToken) throws IOException {
+
+            Map<Long, String> result = new LinkedHashMap<>();
+
+            Long lineNumber = tryParseLineNumber(text);
+            if (lineNumber != null) {
+                long firstLine = Math.max(0, lineNumber - 1);
+                long index = firstLine;
+                for (String line: log.readLines(firstLine, JUMP_CONTEXT_LINE_COUNT)) {
+                    result.put(index, line);
+                    index++;
+                }
+                return result;
+            }
+
+            for (TaskLogStore.FoundLine line: log.search(text, 0, MAX_DISPLAYED_LINE_COUNT, cancelToken)) {
+                result.put(line.getLineIndex(), line.getLine());
+            }
+            return result;
+        }
+
+        private static void showResult(final String text, Map<Long, String> lines) {
+            final StringBuilder content = new StringBuilder();
+            for (Map.Entry<Long, String> entry: lines.entrySet()) {
+                content.append(entry.getKey() + 1);
+                content.append(": ");
+                content.append(entry.getValue());
+                content.append('\n');
+            }
+
+            final int lineCount = lines.size();
+            SwingUtilities.invokeLater(new Runnable() {
+                @Override
+                public void run() {
+                    JTextArea textArea = new JTextArea(content.toString(), 25, 100);
+                    textArea.setEditable(false);
+                    textArea.setCaretPosition(0);
+
+                    NotifyDescriptor.Message message = new NotifyDescriptor.Message(
+                            new JScrollPane(textArea),
+                            NotifyDescriptor.PLAIN_MESSAGE);
+                    message.setTitle(NbStrings.getSearchTaskLogResultTitle(text, lineCount));
+                    DialogDisplayer.getDefault().notify(message);
+                }
+            });
+        }
+    }
+
     @SuppressWarnings("serial")
     private static final class ReRunTask extends TaskTabAction {
         @StaticResource
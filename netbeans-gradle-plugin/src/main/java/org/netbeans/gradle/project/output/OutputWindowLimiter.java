@@ -0,0 +1,173 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+import org.openide.windows.OutputWriter;
+
+/**
+ * Limits the number of lines displayed in the output window of a task, so that
+ * the output window does not need to keep huge outputs in memory. When the
+ * limit is reached, the output window is cleared and the last lines of the
+ * output are displayed again after a notice. That is, the output window always
+ * displays the tail of the output. The number of lines displayed can be set by
+ * the {@value #WINDOW_LINE_LIMIT_PROPERTY} system property.
+ * <P>
+ * The limiter only affects what is displayed: {@link SmartOutputHandler} still
+ * passes every line to the output processors. The stdout and stderr handlers
+ * of a task should share the same limiter because they share the same output
+ * window. The redisplayed lines are printed by the {@link LinePrinter} which
+ * printed them originally, so they keep their hyperlinks and colors.
+ * <P>
+ * The limiter does not hold its lock while printing, so a line of the other
+ * stream printed concurrently with clearing the window might be missing from
+ * the output window (but not from the complete output).
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+public final class OutputWindowLimiter {
+    /**
+     * Defines the way a line is printed to the output window.
+     */
+    public static interface LinePrinter {
+        /**
+         * Prints the given line to the output window. This method must not
+         * throw an exception (but should log failures instead).
+         *
+         * @param line the line to be printed. This argument cannot be
+         *   {@code null}.
+         */
+        public void printLine(String line);
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(OutputWindowLimiter.class.getName());
+
+    public static final String WINDOW_LINE_LIMIT_PROPERTY = "org.netbeans.gradle.taskOutputWindowLines";
+    private static final int DEFAULT_WINDOW_LINE_LIMIT = 100000;
+
+    private final int windowLineLimit;
+    private final int keptLineCount;
+    private final String truncatedMessage;
+
+    private final Lock mainLock;
+    // Guarded by mainLock
+    private final Deque<WindowLine> recentLines;
+    // Guarded by mainLock
+    private int windowLineCount;
+
+    public OutputWindowLimiter(String truncatedMessage) {
+        this(getConfiguredWindowLineLimit(), truncatedMessage);
+    }
+
+    /**
+     * Creates a new limiter displaying at most the given number of lines.
+     *
+     * @param windowLineLimit the maximum number of lines displayed in the
+     *   output window. This argument must be greater than zero.
+     * @param truncatedMessage the notice printed before the redisplayed lines
+     *   after the output window was cleared. This argument cannot be
+     *   {@code null}.
+     */
+    public OutputWindowLimiter(int windowLineLimit, String truncatedMessage) {
+        ExceptionHelper.checkArgumentInRange(windowLineLimit, 1, Integer.MAX_VALUE, "windowLineLimit");
+        ExceptionHelper.checkNotNullArgument(truncatedMessage, "truncatedMessage");
+
+        this.windowLineLimit = windowLineLimit;
+        // Keep some lines after clearing the window, so that the context of
+        // the following lines is still visible.
+        this.keptLineCount = windowLineLimit / 10;
+        this.truncatedMessage = truncatedMessage;
+        this.mainLock = new ReentrantLock();
+        this.recentLines = new ArrayDeque<>();
+        this.windowLineCount = 0;
+    }
+
+    private static int getConfiguredWindowLineLimit() {
+        String limitStr = System.getProperty(WINDOW_LINE_LIMIT_PROPERTY);
+        if (limitStr == null) {
+            return DEFAULT_WINDOW_LINE_LIMIT;
+        }
+
+        try {
+            return Math.max(1, Integer.parseInt(limitStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid output window line limit: {0}", limitStr);
+            return DEFAULT_WINDOW_LINE_LIMIT;
+        }
+    }
+
+    /**
+     * Notifies the limiter that the given line is about to be printed to the
+     * output window and clears the output window if it is full. After this
+     * method returns, the caller is expected to print the line with the
+     * given printer.
+     *
+     * @param line the line to be printed. This argument cannot be
+     *   {@code null}.
+     * @param output the writer the line is to be printed to. This writer is
+     *   used to clear the output window. This argument cannot be {@code null}.
+     * @param printer the printer printing the line. This printer is used to
+     *   redisplay the line after the output window was cleared. This argument
+     *   cannot be {@code null}.
+     */
+    public void prepareLine(String line, OutputWriter output, LinePrinter printer) {
+        ExceptionHelper.checkNotNullArgument(line, "line");
+        ExceptionHelper.checkNotNullArgument(output, "output");
+        ExceptionHelper.checkNotNullArgument(printer, "printer");
+
+        List<WindowLine> redisplayedLines = null;
+
+        mainLock.lock();
+        try {
+            if (windowLineCount >= windowLineLimit) {
+                redisplayedLines = new ArrayList<>(recentLines);
+                windowLineCount = recentLines.size() + 1;
+            }
+
+            if (keptLineCount > 0) {
+                if (recentLines.size() >= keptLineCount) {
+                    recentLines.removeFirst();
+                }
+                recentLines.addLast(new WindowLine(line, printer));
+            }
+            windowLineCount++;
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (redisplayedLines != null) {
+            truncateWindow(output, redisplayedLines);
+        }
+    }
+
+    private void truncateWindow(OutputWriter output, List<WindowLine> redisplayedLines) {
+        try {
+            output.reset();
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to clear the output window.", ex);
+        }
+
+        output.println(truncatedMessage);
+        for (WindowLine windowLine: redisplayedLines) {
+            windowLine.printer.printLine(windowLine.line);
+        }
+    }
+
+    private static final class WindowLine {
+        public final String line;
+        public final LinePrinter printer;
+
+        public WindowLine(String line, LinePrinter printer) {
+            this.line = line;
+            this.printer = printer;
+        }
+    }
+}
@@ -20,12 +20,32 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
     private final OutputWriter output;
     private final TaskOutputProcessor[] visitors;
     private final Consumer[] processors;
+    private final OutputWindowLimiter windowLimiter;
+    private final OutputWindowLimiter.LinePrinter linePrinter;
 
     public SmartOutputHandler(
             InputOutput ioParent,
             OutputWriter output,
             List<TaskOutputProcessor> visitors,
             List<Consumer> processors) {
+        this(ioParent, output, visitors, processors, null);
+    }
+
+    /**
+     * Creates a new handler passing every line to the given visitors and
+     * consumers.
+     *
+     * @param windowLimiter the limiter of the lines displayed in the output
+     *   window or {@code null} if the displayed lines should not be limited.
+     *   Note that the limiter does not affect which lines are passed to the
+     *   visitors and consumers.
+     */
+    public SmartOutputHandler(
+            InputOutput ioParent,
+            OutputWriter output,
+            List<TaskOutputProcessor> visitors,
+            List<Consumer> processors,
+            OutputWindowLimiter windowLimiter) {
         ExceptionHelper.checkNotNullArgument(ioParent, "ioParent");
         ExceptionHelper.checkNotNullArgument(output, "output");
         ExceptionHelper.checkNotNullArgument(visitors, "visitors");
@@ -35,6 +55,13 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
         this.output = output;
         this.visitors = visitors.toArray(new TaskOutputProcessor[0]);
         this.processors = processors.toArray(new Consumer[0]);
+        this.windowLimiter = windowLimiter;
+        this.linePrinter = new OutputWindowLimiter.LinePrinter() {
+            @Override
+            public void printLine(String line) {
+                SmartOutputHandler.this.printLine(line, null);
+            }
+        };
 
         ExceptionHelper.checkNotNullElements(this.visitors, "visitors");
         ExceptionHelper.checkNotNullElements(this.processors, "processors");
@@ -53,10 +80,21 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
             }
         }
 
+        if (windowLimiter != null) {
+            windowLimiter.prepareLine(line, output, linePrinter);
+        }
+        error = printLine(line, error);
+
+        ExceptionHelper.rethrowCheckedIfNotNull(error, IOException.class);
+    }
+
+    private Throwable printLine(String line, Throwable prevError) {
+        Throwable error = prevError;
+
         for (Consumer processor: processors) {
             try {
                 if (processor.tryConsumeLine(line, ioParent, output)) {
-                    return;
+                    return error;
                 }
             } catch (Throwable ex) {
                 LOGGER.log(Level.SEVERE, "Unexpected failure while analysing a line of the output.", error);
@@ -71,7 +109,7 @@ public final class SmartOutputHandler implements LineOutputWriter.Handler {
             error = ex;
         }
 
-        ExceptionHelper.rethrowCheckedIfNotNull(error, IOException.class);
+        return error;
     }
 
     @Override
@@ -2,6 +2,8 @@ package org.netbeans.gradle.project.output;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.jtrim.cancel.CancellationSource;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.tasks.AsyncGradleTask;
@@ -9,12 +11,16 @@ import org.netbeans.gradle.project.tasks.GradleTaskDef;
 import org.openide.windows.InputOutput;
 
 public final class TaskIOTab implements IOTabDef {
+    private static final Logger LOGGER = Logger.getLogger(TaskIOTab.class.getName());
+
     private final InputOutputWrapper io;
     private final TaskTabAction[] actions;
+    private volatile TaskLogStore currentLog;
 
     public TaskIOTab(InputOutput io, TaskTabAction... actions) {
         this.io = new InputOutputWrapper(io);
         this.actions = actions.clone();
+        this.currentLog = null;
 
         CollectionUtils.checkNoNullElements(Arrays.asList(this.actions), "actions");
     }
@@ -26,17 +32,45 @@ public final class TaskIOTab implements IOTabDef {
     }
 
     public void taskStarted(CancellationSource cancellation) {
+        currentLog = tryCreateLog();
+
         for (TaskTabAction action: actions) {
+            action.setLastLog(currentLog);
             action.taskStarted(cancellation);
         }
     }
 
+    private static TaskLogStore tryCreateLog() {
+        try {
+            return TaskLogStore.createRetained();
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to create task log, the output is not stored.", ex);
+            return null;
+        }
+    }
+
     public void taskCompleted() {
+        TaskLogStore log = currentLog;
+        if (log != null) {
+            log.finishWriting();
+        }
+
         for (TaskTabAction action: actions) {
             action.taskCompleted();
         }
     }
 
+    /**
+     * Returns the log storing the complete output of the currently running
+     * or the last executed task.
+     *
+     * @return the log storing the complete output of the currently running
+     *   or the last executed task or {@code null} if there is no such log
+     */
+    public TaskLogStore getCurrentLog() {
+        return currentLog;
+    }
+
     public InputOutputWrapper getIo() {
         return io;
     }
@@ -0,0 +1,799 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.util.NbFileUtils;
+
+/**
+ * Stores the complete output of a task in a sequence of files (segments) on
+ * disk, so that the output does not need to be retained in memory. Lines
+ * can be read back and searched by reading the segments through a small
+ * buffer. The segments are not memory mapped because mapped files cannot be
+ * deleted on some platforms until the mapping is garbage collected.
+ * <P>
+ * The store only keeps the byte offset of every {@value #INDEX_INTERVAL}th
+ * line in memory, so the memory needed by the store is practically constant
+ * regardless the size of the output.
+ * <P>
+ * Appended lines are collected in a small buffer and written to the disk in
+ * batches: When the buffer is full, when a new segment is started, when
+ * writing finishes and before the log is read. Reads and searches work on a
+ * snapshot of the segments taken when they start, so they do not block the
+ * thread appending the output.
+ * <P>
+ * Only the last few logs created by {@link #createRetained()} are kept, older
+ * logs are deleted. The number of retained logs (eight by default) can be set
+ * by the {@value #RETAINED_COUNT_PROPERTY} system property. The retained logs
+ * are stored in a directory of the current session, which is deleted by
+ * {@link #closeRetainedLogs()}. Directories left behind by sessions which were
+ * not shut down properly are deleted when the first retained log is created.
+ * <P>
+ * The methods of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+public final class TaskLogStore implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(TaskLogStore.class.getName());
+
+    public static final String RETAINED_COUNT_PROPERTY = "org.netbeans.gradle.taskLogRetainedCount";
+    private static final int DEFAULT_RETAINED_COUNT = 8;
+
+    private static final Charset LOG_CHARSET = Charset.forName("UTF-8");
+    private static final long DEFAULT_SEGMENT_SIZE = 16L * 1024 * 1024;
+    private static final int INDEX_INTERVAL = 1024;
+    private static final int SEGMENT_OFFSET_BITS = 40;
+    private static final byte LINE_END = '\n';
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String LOGS_ROOT_NAME = "nb-gradle-task-logs";
+    private static final String SESSION_LOCK_NAME = "session.lock";
+
+    private static final Lock RETAINED_LOCK = new ReentrantLock();
+    // Guarded by RETAINED_LOCK
+    private static final Deque<TaskLogStore> RETAINED_LOGS = new LinkedList<>();
+    // Guarded by RETAINED_LOCK
+    private static Path sessionDir = null;
+    // Guarded by RETAINED_LOCK
+    private static FileLock sessionLock = null;
+
+    private final Path logDir;
+    private final long segmentSize;
+
+    private final Lock mainLock;
+    // The following fields are guarded by mainLock
+    private final List<Path> segmentFiles;
+    private final List<Long> segmentLengths;
+    private FileChannel currentSegment;
+    private ByteBuffer writeBuffer;
+    private long lineCount;
+    private long byteCount;
+    private long[] checkpoints;
+    private int checkpointCount;
+    private boolean closed;
+
+    public TaskLogStore(Path logDir) {
+        this(logDir, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public TaskLogStore(Path logDir, long segmentSize) {
+        ExceptionHelper.checkNotNullArgument(logDir, "logDir");
+        ExceptionHelper.checkArgumentInRange(segmentSize, 1, 1L << SEGMENT_OFFSET_BITS, "segmentSize");
+
+        this.logDir = logDir;
+        this.segmentSize = segmentSize;
+        this.mainLock = new ReentrantLock();
+        this.segmentFiles = new ArrayList<>();
+        this.segmentLengths = new ArrayList<>();
+        this.currentSegment = null;
+        this.writeBuffer = null;
+        this.lineCount = 0;
+        this.byteCount = 0;
+        this.checkpoints = new long[16];
+        this.checkpointCount = 0;
+        this.closed = false;
+    }
+
+    /**
+     * Creates a new log in the temporary directory and deletes the oldest
+     * log created by this method if there are too many of them.
+     *
+     * @return the new log. This method never returns {@code null}.
+     *
+     * @throws IOException thrown if the directory of the log could not be
+     *   created
+     */
+    public static TaskLogStore createRetained() throws IOException {
+        List<TaskLogStore> toClose = new ArrayList<>();
+        int retainedCount = getConfiguredRetainedCount();
+
+        TaskLogStore result;
+        RETAINED_LOCK.lock();
+        try {
+            result = new TaskLogStore(Files.createTempDirectory(getSessionDir(), "log"));
+
+            RETAINED_LOGS.addLast(result);
+            while (RETAINED_LOGS.size() > retainedCount) {
+                toClose.add(RETAINED_LOGS.removeFirst());
+            }
+        } finally {
+            RETAINED_LOCK.unlock();
+        }
+
+        for (TaskLogStore log: toClose) {
+            log.close();
+        }
+        return result;
+    }
+
+    /**
+     * Closes (and deletes) the logs created by {@link #createRetained()} and
+     * deletes the directory of the current session. This method is expected to
+     * be called when the IDE exits.
+     */
+    public static void closeRetainedLogs() {
+        List<TaskLogStore> toClose;
+        Path dirToDelete;
+
+        RETAINED_LOCK.lock();
+        try {
+            toClose = new ArrayList<>(RETAINED_LOGS);
+            RETAINED_LOGS.clear();
+
+            dirToDelete = sessionDir;
+            sessionDir = null;
+
+            if (sessionLock != null) {
+                releaseLock(sessionLock);
+                sessionLock = null;
+            }
+        } finally {
+            RETAINED_LOCK.unlock();
+        }
+
+        for (TaskLogStore log: toClose) {
+            log.close();
+        }
+
+        if (dirToDelete != null) {
+            deleteSessionDir(dirToDelete);
+        }
+    }
+
+    private static Path getSessionDir() throws IOException {
+        assert ((ReentrantLock)RETAINED_LOCK).isHeldByCurrentThread();
+
+        if (sessionDir == null) {
+            Path logsRoot = Paths.get(System.getProperty("java.io.tmpdir"), LOGS_ROOT_NAME);
+            Files.createDirectories(logsRoot);
+
+            deleteStaleSessionDirs(logsRoot);
+
+            Path newSessionDir = Files.createTempDirectory(logsRoot, "session");
+            sessionLock = tryLockSessionDir(newSessionDir);
+            sessionDir = newSessionDir;
+        }
+        return sessionDir;
+    }
+
+    private static FileLock tryLockSessionDir(Path dir) throws IOException {
+        FileChannel channel = FileChannel.open(dir.resolve(SESSION_LOCK_NAME),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock result = channel.tryLock();
+            if (result == null) {
+                channel.close();
+            }
+            return result;
+        } catch (IOException | RuntimeException ex) {
+            // OverlappingFileLockException means that this JVM holds the lock.
+            channel.close();
+            return null;
+        }
+    }
+
+    private static void releaseLock(FileLock lock) {
+        try {
+            lock.channel().close();
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to release the lock of the task logs.", ex);
+        }
+    }
+
+    private static void deleteStaleSessionDirs(Path logsRoot) {
+        // Sessions still running hold the lock of their directory.
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(logsRoot)) {
+            for (Path dir: dirs) {
+                if (!Files.isDirectory(dir)) {
+                    continue;
+                }
+
+                FileLock lock = tryLockSessionDir(dir);
+                if (lock != null) {
+                    releaseLock(lock);
+                    deleteSessionDir(dir);
+                }
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to delete stale task logs in " + logsRoot, ex);
+        }
+    }
+
+    private static void deleteSessionDir(Path dir) {
+        try {
+            NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, dir);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to delete task logs: " + dir, ex);
+        }
+    }
+
+    private static int getConfiguredRetainedCount() {
+        String countStr = System.getProperty(RETAINED_COUNT_PROPERTY);
+        if (countStr == null) {
+            return DEFAULT_RETAINED_COUNT;
+        }
+
+        try {
+            return Math.max(1, Integer.parseInt(countStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid number of retained task logs: {0}", countStr);
+            return DEFAULT_RETAINED_COUNT;
+        }
+    }
+
+    private static long toPosition(int segmentIndex, long offset) {
+        return ((long)segmentIndex << SEGMENT_OFFSET_BITS) | offset;
+    }
+
+    private static int getSegmentIndex(long position) {
+        return (int)(position >>> SEGMENT_OFFSET_BITS);
+    }
+
+    private static long getSegmentOffset(long position) {
+        return position & ((1L << SEGMENT_OFFSET_BITS) - 1);
+    }
+
+    public Path getLogDir() {
+        return logDir;
+    }
+
+    public long getLineCount() {
+        mainLock.lock();
+        try {
+            return lineCount;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public long getByteCount() {
+        mainLock.lock();
+        try {
+            return byteCount;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a new line to the end of the log. The line separator is added
+     * automatically. If the log has already been closed, this method does
+     * nothing.
+     *
+     * @param line the line to be appended without the line separator. This
+     *   argument cannot be {@code null}.
+     *
+     * @throws IOException thrown if writing the log file fails
+     */
+    public void appendLine(String line) throws IOException {
+        ExceptionHelper.checkNotNullArgument(line, "line");
+
+        byte[] lineBytes = (line + "\n").getBytes(LOG_CHARSET);
+
+        mainLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+
+            FileChannel segment = getSegmentForWrite(lineBytes.length);
+            int segmentIndex = segmentFiles.size() - 1;
+            long offset = segmentLengths.get(segmentIndex);
+
+            if (lineBytes.length > writeBuffer.remaining()) {
+                flushWriteBuffer();
+            }
+            if (lineBytes.length > writeBuffer.capacity()) {
+                writeFully(segment, ByteBuffer.wrap(lineBytes));
+            }
+            else {
+                writeBuffer.put(lineBytes);
+            }
+
+            if (lineCount % INDEX_INTERVAL == 0) {
+                addCheckpoint(toPosition(segmentIndex, offset));
+            }
+
+            segmentLengths.set(segmentIndex, offset + lineBytes.length);
+            byteCount += lineBytes.length;
+            lineCount++;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void addCheckpoint(long position) {
+        if (checkpointCount >= checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, 2 * checkpoints.length);
+        }
+        checkpoints[checkpointCount] = position;
+        checkpointCount++;
+    }
+
+    private FileChannel getSegmentForWrite(int lineLength) throws IOException {
+        assert ((ReentrantLock)mainLock).isHeldByCurrentThread();
+
+        if (currentSegment != null) {
+            long currentLength = segmentLengths.get(segmentLengths.size() - 1);
+            // A line never spans multiple segments, so lines longer than the
+            // segment size get a segment on their own.
+            if (currentLength == 0 || currentLength + lineLength <= segmentSize) {
+                return currentSegment;
+            }
+
+            closeCurrentSegment();
+        }
+
+        Path segmentFile = logDir.resolve("segment" + segmentFiles.size() + ".log");
+        currentSegment = FileChannel.open(segmentFile,
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        segmentFiles.add(segmentFile);
+        segmentLengths.add(0L);
+        if (writeBuffer == null) {
+            writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        }
+        return currentSegment;
+    }
+
+    private static void writeFully(FileChannel segment, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        assert ((ReentrantLock)mainLock).isHeldByCurrentThread();
+
+        if (currentSegment == null || writeBuffer.position() == 0) {
+            return;
+        }
+
+        writeBuffer.flip();
+        try {
+            writeFully(currentSegment, writeBuffer);
+        } finally {
+            writeBuffer.clear();
+        }
+    }
+
+    private void closeCurrentSegment() throws IOException {
+        try {
+            flushWriteBuffer();
+        } finally {
+            try {
+                currentSegment.close();
+            } finally {
+                currentSegment = null;
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered lines to the disk and returns the state of the log
+     * needed to read the lines written so far, or {@code null} if the log has
+     * been closed.
+     */
+    private LogSnapshot tryTakeSnapshot() throws IOException {
+        mainLock.lock();
+        try {
+            if (closed) {
+                return null;
+            }
+
+            flushWriteBuffer();
+            return new LogSnapshot(
+                    new ArrayList<>(segmentFiles),
+                    new ArrayList<>(segmentLengths),
+                    Arrays.copyOf(checkpoints, checkpointCount),
+                    lineCount);
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the lines of the log starting with the given line.
+     *
+     * @param firstLine the zero based index of the first line to return.
+     *   This argument must be non-negative.
+     * @param maxLineCount the maximum number of lines to return. This argument
+     *   must be non-negative.
+     * @return the lines of the log starting with the given line without the
+     *   line separators. This method never returns {@code null} but may return
+     *   less lines than requested (even zero), if the log does not contain
+     *   that many lines.
+     *
+     * @throws IOException thrown if reading the log files fails (including
+     *   when the log is closed concurrently)
+     */
+    public List<String> readLines(long firstLine, int maxLineCount) throws IOException {
+        ExceptionHelper.checkArgumentInRange(firstLine, 0, Long.MAX_VALUE, "firstLine");
+        ExceptionHelper.checkArgumentInRange(maxLineCount, 0, Integer.MAX_VALUE, "maxLineCount");
+
+        List<String> result = new ArrayList<>();
+
+        LogSnapshot snapshot = tryTakeSnapshot();
+        if (snapshot == null || firstLine >= snapshot.lineCount) {
+            return result;
+        }
+
+        try (LineCursor cursor = seekLine(snapshot, firstLine)) {
+            long lastLine = Math.min(snapshot.lineCount, firstLine + maxLineCount);
+            for (long line = firstLine; line < lastLine; line++) {
+                result.add(cursor.readLine());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the lines containing the given text. The search only considers
+     * the lines appended before this method was called.
+     *
+     * @param text the text to search for. This argument cannot be
+     *   {@code null} or an empty string.
+     * @param firstLine the zero based index of the line to start the search
+     *   from. This argument must be non-negative.
+     * @param maxResultCount the maximum number of lines to return. This
+     *   argument must be non-negative.
+     * @param cancelToken the cancellation token signaling that the search
+     *   should be stopped. If the search is canceled, the lines found so far
+     *   are returned. This argument cannot be {@code null}.
+     * @return the lines containing the given text in ascending order of their
+     *   index. This method never returns {@code null}.
+     *
+     * @throws IOException thrown if reading the log files fails (including
+     *   when the log is closed concurrently)
+     */
+    public List<FoundLine> search(
+            String text,
+            long firstLine,
+            int maxResultCount,
+            CancellationToken cancelToken) throws IOException {
+
+        ExceptionHelper.checkNotNullArgument(text, "text");
+        ExceptionHelper.checkArgumentInRange(text.length(), 1, Integer.MAX_VALUE, "text.length");
+        ExceptionHelper.checkArgumentInRange(firstLine, 0, Long.MAX_VALUE, "firstLine");
+        ExceptionHelper.checkArgumentInRange(maxResultCount, 0, Integer.MAX_VALUE, "maxResultCount");
+        ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+
+        // UTF-8 is self synchronizing, so we can search for the encoded text
+        // without decoding the lines.
+        byte[] pattern = text.getBytes(LOG_CHARSET);
+        List<FoundLine> result = new ArrayList<>();
+
+        LogSnapshot snapshot = tryTakeSnapshot();
+        if (snapshot == null || firstLine >= snapshot.lineCount) {
+            return result;
+        }
+
+        try (LineCursor cursor = seekLine(snapshot, firstLine)) {
+            for (long line = firstLine; line < snapshot.lineCount && result.size() < maxResultCount; line++) {
+                if (line % INDEX_INTERVAL == 0 && cancelToken.isCanceled()) {
+                    break;
+                }
+
+                if (cursor.skipLineAndCheckContains(pattern)) {
+                    result.add(new FoundLine(line, cursor.getCurrentLine()));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static LineCursor seekLine(LogSnapshot snapshot, long line) throws IOException {
+        int checkpointIndex = (int)(line / INDEX_INTERVAL);
+        long position = snapshot.checkpoints[checkpointIndex];
+
+        LineCursor cursor = new LineCursor(snapshot, getSegmentIndex(position), getSegmentOffset(position));
+        try {
+            for (long skipped = (long)checkpointIndex * INDEX_INTERVAL; skipped < line; skipped++) {
+                cursor.skipLineAndCheckContains(null);
+            }
+            return cursor;
+        } catch (Throwable ex) {
+            cursor.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Stops writing the log but keeps it readable.
+     */
+    public void finishWriting() {
+        mainLock.lock();
+        try {
+            if (currentSegment != null) {
+                closeCurrentSegment();
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to close the last segment of the task log: " + logDir, ex);
+        } finally {
+            writeBuffer = null;
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Closes and deletes this log. Subsequent reads return no lines and
+     * writes are ignored.
+     */
+    @Override
+    public void close() {
+        List<Path> toDelete;
+
+        mainLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (currentSegment != null) {
+                try {
+                    currentSegment.close();
+                } catch (IOException ex) {
+                    LOGGER.log(Level.INFO, "Failed to close task log: " + logDir, ex);
+                }
+                currentSegment = null;
+            }
+            writeBuffer = null;
+
+            toDelete = new ArrayList<>(segmentFiles);
+            checkpoints = new long[0];
+            checkpointCount = 0;
+        } finally {
+            mainLock.unlock();
+        }
+
+        toDelete.add(logDir);
+        for (Path file: toDelete) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                LOGGER.log(Level.INFO, "Failed to delete task log file: " + file, ex);
+            }
+        }
+    }
+
+    /**
+     * Defines a line found by {@link #search(String, long, int, CancellationToken) search}.
+     */
+    public static final class FoundLine {
+        private final long lineIndex;
+        private final String line;
+
+        public FoundLine(long lineIndex, String line) {
+            ExceptionHelper.checkNotNullArgument(line, "line");
+
+            this.lineIndex = lineIndex;
+            this.line = line;
+        }
+
+        /**
+         * Returns the zero based index of the line in the log.
+         *
+         * @return the zero based index of the line in the log
+         */
+        public long getLineIndex() {
+            return lineIndex;
+        }
+
+        /**
+         * Returns the content of the line without the line separator.
+         *
+         * @return the content of the line without the line separator. This
+         *   method never returns {@code null}.
+         */
+        public String getLine() {
+            return line;
+        }
+    }
+
+    private static final class LogSnapshot {
+        public final List<Path> segmentFiles;
+        public final List<Long> segmentLengths;
+        public final long[] checkpoints;
+        public final long lineCount;
+
+        public LogSnapshot(
+                List<Path> segmentFiles,
+                List<Long> segmentLengths,
+                long[] checkpoints,
+                long lineCount) {
+
+            this.segmentFiles = segmentFiles;
+            this.segmentLengths = segmentLengths;
+            this.checkpoints = checkpoints;
+            this.lineCount = lineCount;
+        }
+    }
+
+    private static final class LineCursor implements Closeable {
+        private final LogSnapshot snapshot;
+        private final ByteBuffer readBuffer;
+        private byte[] line;
+        private int lineLength;
+
+        private int segmentIndex;
+        private FileChannel segment;
+        private long segmentLength;
+        private long readOffset;
+
+        public LineCursor(LogSnapshot snapshot, int segmentIndex, long offset) throws IOException {
+            this.snapshot = snapshot;
+            this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            this.line = new byte[256];
+            this.lineLength = 0;
+            this.segment = null;
+
+            openSegment(segmentIndex, offset);
+        }
+
+        private void openSegment(int newSegmentIndex, long offset) throws IOException {
+            if (newSegmentIndex >= snapshot.segmentFiles.size()) {
+                throw corruptedLogError();
+            }
+
+            close();
+
+            segmentIndex = newSegmentIndex;
+            segment = FileChannel.open(snapshot.segmentFiles.get(segmentIndex), StandardOpenOption.READ);
+            segmentLength = snapshot.segmentLengths.get(segmentIndex);
+            readOffset = offset;
+            readBuffer.clear();
+            readBuffer.limit(0);
+        }
+
+        private boolean fillReadBuffer() throws IOException {
+            long remaining = segmentLength - readOffset;
+            if (remaining <= 0) {
+                return false;
+            }
+
+            readBuffer.clear();
+            if (remaining < readBuffer.capacity()) {
+                readBuffer.limit((int)remaining);
+            }
+
+            while (readBuffer.hasRemaining()) {
+                if (segment.read(readBuffer, readOffset + readBuffer.position()) < 0) {
+                    throw corruptedLogError();
+                }
+            }
+
+            readBuffer.flip();
+            readOffset += readBuffer.limit();
+            return true;
+        }
+
+        private void appendToLine(byte[] bytes, int offset, int length) {
+            int newLength = lineLength + length;
+            if (newLength > line.length) {
+                line = Arrays.copyOf(line, Math.max(newLength, 2 * line.length));
+            }
+            System.arraycopy(bytes, offset, line, lineLength, length);
+            lineLength = newLength;
+        }
+
+        private void readNextLine() throws IOException {
+            lineLength = 0;
+
+            while (true) {
+                if (!readBuffer.hasRemaining() && !fillReadBuffer()) {
+                    // A line never spans multiple segments.
+                    if (lineLength > 0) {
+                        throw corruptedLogError();
+                    }
+                    openSegment(segmentIndex + 1, 0);
+                    continue;
+                }
+
+                byte[] buffer = readBuffer.array();
+                int start = readBuffer.position();
+                int limit = readBuffer.limit();
+                for (int i = start; i < limit; i++) {
+                    if (buffer[i] == LINE_END) {
+                        appendToLine(buffer, start, i - start);
+                        readBuffer.position(i + 1);
+                        return;
+                    }
+                }
+
+                appendToLine(buffer, start, limit - start);
+                readBuffer.position(limit);
+            }
+        }
+
+        private IOException corruptedLogError() {
+            return new IOException("Corrupted task log: " + snapshot.segmentFiles.get(0).getParent());
+        }
+
+        public String readLine() throws IOException {
+            readNextLine();
+            return getCurrentLine();
+        }
+
+        public String getCurrentLine() {
+            int contentLength = lineLength;
+            if (contentLength > 0 && line[contentLength - 1] == '\r') {
+                contentLength--;
+            }
+            return new String(line, 0, contentLength, LOG_CHARSET);
+        }
+
+        public boolean skipLineAndCheckContains(byte[] pattern) throws IOException {
+            readNextLine();
+            return pattern != null && contains(pattern);
+        }
+
+        private boolean contains(byte[] pattern) {
+            int lastStart = lineLength - pattern.length;
+            for (int i = 0; i <= lastStart; i++) {
+                boolean match = true;
+                for (int j = 0; j < pattern.length; j++) {
+                    if (line[i + j] != pattern[j]) {
+                        match = false;
+                        break;
+                    }
+                }
+                if (match) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (segment != null) {
+                segment.close();
+                segment = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Writes the complete output to a {@link TaskLogStore} and forwards the
+ * complete output to another writer (which is expected to process the output
+ * and to display it in the output window). Limiting the lines displayed in the
+ * output window is the responsibility of {@link OutputWindowLimiter}, because
+ * the output processors must see every line of the output.
+ * <P>
+ * The stdout and stderr of a task should be written to separate
+ * {@code TaskLogWriter} instances sharing the same {@code TaskLogStore}.
+ */
+public final class TaskLogWriter extends Writer {
+    private static final Logger LOGGER = Logger.getLogger(TaskLogWriter.class.getName());
+
+    // A line without line separator is stored after reaching this length
+    // to avoid buffering arbitrary amount of characters.
+    private static final int MAX_PENDING_LINE_LENGTH = 64 * 1024;
+
+    private final TaskLogStore log;
+    private final Writer forwardedWriter;
+
+    private final StringBuilder pendingLine;
+    private boolean logFailed;
+
+    public TaskLogWriter(TaskLogStore log, Writer forwardedWriter) {
+        ExceptionHelper.checkNotNullArgument(log, "log");
+        ExceptionHelper.checkNotNullArgument(forwardedWriter, "forwardedWriter");
+
+        this.log = log;
+        this.forwardedWriter = forwardedWriter;
+        this.pendingLine = new StringBuilder();
+        this.logFailed = false;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        try {
+            forwardedWriter.write(cbuf, off, len);
+        } finally {
+            appendToLog(cbuf, off, len);
+        }
+    }
+
+    private void appendToLog(char[] cbuf, int off, int len) {
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            char ch = cbuf[i];
+            if (ch == '\n') {
+                storePendingLine();
+            }
+            else {
+                pendingLine.append(ch);
+                if (pendingLine.length() >= MAX_PENDING_LINE_LENGTH) {
+                    storePendingLine();
+                }
+            }
+        }
+    }
+
+    private void storePendingLine() {
+        String line = pendingLine.toString();
+        pendingLine.setLength(0);
+
+        if (logFailed) {
+            return;
+        }
+
+        try {
+            log.appendLine(line);
+        } catch (IOException ex) {
+            // Failing to store the log must not fail the task.
+            logFailed = true;
+            LOGGER.log(Level.INFO, "Failed to write task log: " + log.getLogDir(), ex);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        forwardedWriter.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (pendingLine.length() > 0) {
+            storePendingLine();
+        }
+        forwardedWriter.close();
+    }
+}
@@ -12,6 +12,7 @@ public abstract class TaskTabAction extends AbstractAction {
     private volatile GradleTaskDef lastSourceTask;
     private volatile AsyncGradleTask lastTask;
     private volatile CancellationSource lastCancellation;
+    private volatile TaskLogStore lastLog;
 
     public TaskTabAction() {
         this(false);
@@ -22,6 +23,7 @@ public abstract class TaskTabAction extends AbstractAction {
         this.lastSourceTask = null;
         this.lastTask = null;
         this.lastCancellation = null;
+        this.lastLog = null;
 
         if (enableWhileRunning) {
             setEnabled(false);
@@ -50,6 +52,14 @@ public abstract class TaskTabAction extends AbstractAction {
         this.lastTask = lastTask;
     }
 
+    final void setLastLog(TaskLogStore lastLog) {
+        this.lastLog = lastLog;
+    }
+
+    protected final TaskLogStore getLastLog() {
+        return lastLog;
+    }
+
     protected final GradleTaskDef getLastSourceTask() {
         return lastSourceTask;
     }
@@ -0,0 +1,186 @@
+package org.netbeans.gradle.project.properties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.api.config.ConfigPath;
+
+/**
+ * Stores listeners indexed by the configuration paths they are interested in.
+ * A listener is considered to be affected by a change if the changed path is
+ * the parent of, equal to or the descendant of one of the paths of the
+ * listener.
+ * <P>
+ * This class is safe to be used by multiple threads concurrently.
+ *
+ * @param <ListenerType> the type of the stored listeners
+ */
+final class ConfigPathListenerIndex<ListenerType> {
+    private final ReentrantLock mainLock;
+    private final ListenerNode<ListenerType> root;
+
+    public ConfigPathListenerIndex() {
+        this.mainLock = new ReentrantLock();
+        this.root = new ListenerNode<>(null, null);
+    }
+
+    public ListenerRef registerListener(Collection<ConfigPath> paths, ListenerType listener) {
+        ExceptionHelper.checkNotNullElements(paths, "paths");
+        ExceptionHelper.checkNotNullArgument(listener, "listener");
+
+        final List<ListenerNode<ListenerType>> nodes = new ArrayList<>(paths.size());
+        final ListenerEntry<ListenerType> entry = new ListenerEntry<>(listener);
+
+        mainLock.lock();
+        try {
+            for (ConfigPath path: paths) {
+                ListenerNode<ListenerType> node = getOrCreateNode(path);
+                node.listeners.add(entry);
+                nodes.add(node);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        return new ListenerRef() {
+            private volatile boolean registered = true;
+
+            @Override
+            public boolean isRegistered() {
+                return registered;
+            }
+
+            @Override
+            public void unregister() {
+                mainLock.lock();
+                try {
+                    if (!registered) {
+                        return;
+                    }
+
+                    for (ListenerNode<ListenerType> node: nodes) {
+                        node.listeners.remove(entry);
+                        node.removeIfUnused();
+                    }
+                    registered = false;
+                } finally {
+                    mainLock.unlock();
+                }
+            }
+        };
+    }
+
+    private ListenerNode<ListenerType> getOrCreateNode(ConfigPath path) {
+        assert mainLock.isHeldByCurrentThread();
+
+        ListenerNode<ListenerType> node = root;
+        int keyCount = path.getKeyCount();
+        for (int i = 0; i < keyCount; i++) {
+            node = node.getOrCreateChild(path.getKeyAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Returns the listeners affected by a change of any of the given paths.
+     * Each listener is returned only once, even if it was registered with
+     * multiple affected paths.
+     */
+    public List<ListenerType> getAffectedListeners(Collection<ConfigPath> changedPaths) {
+        ExceptionHelper.checkNotNullElements(changedPaths, "changedPaths");
+
+        Set<ListenerEntry<ListenerType>> entries
+                = Collections.newSetFromMap(new IdentityHashMap<ListenerEntry<ListenerType>, Boolean>());
+
+        mainLock.lock();
+        try {
+            for (ConfigPath changedPath: changedPaths) {
+                collectAffected(changedPath, entries);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        List<ListenerType> result = new ArrayList<>(entries.size());
+        for (ListenerEntry<ListenerType> entry: entries) {
+            result.add(entry.listener);
+        }
+        return result;
+    }
+
+    private void collectAffected(ConfigPath changedPath, Set<ListenerEntry<ListenerType>> result) {
+        assert mainLock.isHeldByCurrentThread();
+
+        ListenerNode<ListenerType> node = root;
+        result.addAll(node.listeners);
+
+        int keyCount = changedPath.getKeyCount();
+        for (int i = 0; i < keyCount; i++) {
+            node = node.tryGetChild(changedPath.getKeyAt(i));
+            if (node == null) {
+                return;
+            }
+            result.addAll(node.listeners);
+        }
+
+        node.collectDescendantListeners(result);
+    }
+
+    private static final class ListenerEntry<ListenerType> {
+        public final ListenerType listener;
+
+        public ListenerEntry(ListenerType listener) {
+            this.listener = listener;
+        }
+    }
+
+    private static final class ListenerNode<ListenerType> {
+        private final ListenerNode<ListenerType> parent;
+        private final String key;
+        public final List<ListenerEntry<ListenerType>> listeners;
+        private final Map<String, ListenerNode<ListenerType>> children;
+
+        public ListenerNode(ListenerNode<ListenerType> parent, String key) {
+            this.parent = parent;
+            this.key = key;
+            this.listeners = new ArrayList<>(1);
+            this.children = new HashMap<>();
+        }
+
+        public ListenerNode<ListenerType> tryGetChild(String childKey) {
+            return children.get(childKey);
+        }
+
+        public ListenerNode<ListenerType> getOrCreateChild(String childKey) {
+            ListenerNode<ListenerType> result = children.get(childKey);
+            if (result == null) {
+                result = new ListenerNode<>(this, childKey);
+                children.put(childKey, result);
+            }
+            return result;
+        }
+
+        public void collectDescendantListeners(Set<ListenerEntry<ListenerType>> result) {
+            for (ListenerNode<ListenerType> child: children.values()) {
+                result.addAll(child.listeners);
+                child.collectDescendantListeners(result);
+            }
+        }
+
+        public void removeIfUnused() {
+            ListenerNode<ListenerType> node = this;
+            while (node.parent != null && node.listeners.isEmpty() && node.children.isEmpty()) {
+                node.parent.children.remove(node.key);
+                node = node.parent;
+            }
+        }
+    }
+}
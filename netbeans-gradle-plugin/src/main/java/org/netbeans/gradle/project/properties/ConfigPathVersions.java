@@ -0,0 +1,121 @@
+package org.netbeans.gradle.project.properties;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.api.config.ConfigPath;
+
+/**
+ * Tracks the version of each subtree of a configuration tree. The version of a
+ * path changes if and only if the configuration was changed at the path itself,
+ * at one of its parents or at one of its descendants.
+ * <P>
+ * Instances of this class are not safe to be used by multiple threads concurrently.
+ */
+final class ConfigPathVersions {
+    private long lastVersion;
+    private final VersionNode root;
+
+    public ConfigPathVersions() {
+        this.lastVersion = 0;
+        this.root = new VersionNode();
+    }
+
+    /**
+     * Returns the version assigned to the last change. This value is a lower
+     * bound for the version of every path.
+     */
+    public long getLastVersion() {
+        return lastVersion;
+    }
+
+    public long recordChange(ConfigPath changedPath) {
+        ExceptionHelper.checkNotNullArgument(changedPath, "changedPath");
+
+        long version = ++lastVersion;
+        recordChange(changedPath, version);
+        return version;
+    }
+
+    public long recordChange(Collection<ConfigPath> changedPaths) {
+        ExceptionHelper.checkNotNullElements(changedPaths, "changedPaths");
+
+        long version = ++lastVersion;
+        for (ConfigPath changedPath: changedPaths) {
+            recordChange(changedPath, version);
+        }
+        return version;
+    }
+
+    private void recordChange(ConfigPath changedPath, long version) {
+        VersionNode node = root;
+        node.subtreeVersion = version;
+
+        int keyCount = changedPath.getKeyCount();
+        for (int i = 0; i < keyCount; i++) {
+            node = node.getOrCreateChild(changedPath.getKeyAt(i));
+            node.subtreeVersion = version;
+        }
+
+        // The whole subtree was replaced, so the versions of the children
+        // are implied by the version of this node.
+        node.replacedVersion = version;
+        node.children = null;
+    }
+
+    public long getVersion(ConfigPath path) {
+        ExceptionHelper.checkNotNullArgument(path, "path");
+
+        VersionNode node = root;
+        long result = node.replacedVersion;
+
+        int keyCount = path.getKeyCount();
+        for (int i = 0; i < keyCount; i++) {
+            node = node.tryGetChild(path.getKeyAt(i));
+            if (node == null) {
+                return result;
+            }
+            result = Math.max(result, node.replacedVersion);
+        }
+
+        return Math.max(result, node.subtreeVersion);
+    }
+
+    public long getVersion(ConfigPath[] paths) {
+        long result = 0;
+        for (ConfigPath path: paths) {
+            result = Math.max(result, getVersion(path));
+        }
+        return result;
+    }
+
+    private static final class VersionNode {
+        public long subtreeVersion;
+        public long replacedVersion;
+        public Map<String, VersionNode> children;
+
+        public VersionNode() {
+            this.subtreeVersion = 0;
+            this.replacedVersion = 0;
+            this.children = null;
+        }
+
+        public VersionNode tryGetChild(String key) {
+            return children != null ? children.get(key) : null;
+        }
+
+        public VersionNode getOrCreateChild(String key) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+
+            VersionNode result = children.get(key);
+            if (result == null) {
+                result = new VersionNode();
+                children.put(key, result);
+            }
+            return result;
+        }
+    }
+}
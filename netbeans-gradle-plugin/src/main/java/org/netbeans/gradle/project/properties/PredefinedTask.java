@@ -6,7 +6,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import org.jtrim.utils.ExceptionHelper;
-import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
@@ -124,12 +123,7 @@ public final class PredefinedTask {
     }
 
     private static boolean isProjectHasTask(NbGradleProjectTree project, String taskName) {
-        for (GradleTaskID task: project.getTasks()) {
-            if (taskName.equals(task.getName())) {
-                return true;
-            }
-        }
-        return false;
+        return project.getTaskIndex().containsTask(taskName);
     }
 
     private static boolean isProjectOrChildrenHasTask(NbGradleMultiProjectDef project, String taskName) {
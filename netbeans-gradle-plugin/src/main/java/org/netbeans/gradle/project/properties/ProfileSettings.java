@@ -25,9 +25,6 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import org.jtrim.collections.EqualityComparator;
 import org.jtrim.concurrent.UpdateTaskExecutor;
-import org.jtrim.event.CopyOnTriggerListenerManager;
-import org.jtrim.event.EventDispatcher;
-import org.jtrim.event.ListenerManager;
 import org.jtrim.event.ListenerRef;
 import org.jtrim.event.ListenerRegistries;
 import org.jtrim.property.MutableProperty;
@@ -52,11 +49,11 @@ public final class ProfileSettings {
     private static final Set<ConfigPath> ROOT_PATH = Collections.singleton(ConfigPath.ROOT);
     private static final Document EXPORT_DOCUMENT = tryCreateDocument();
 
-    private final ListenerManager<ConfigUpdateListener> configUpdateListeners;
-    private final EventDispatcher<ConfigUpdateListener, Collection<ConfigPath>> configUpdateDispatcher;
+    private final ConfigPathListenerIndex<ConfigUpdateListener> configUpdateListeners;
 
     private final ReentrantLock configLock;
-    private volatile Object configStateKey;
+    private final ConfigPathVersions configVersions;
+    private volatile long lastConfigVersion;
     private ConfigTree.Builder currentConfig;
     private final Map<DomElementKey, Element> auxConfigs;
 
@@ -72,16 +69,10 @@ public final class ProfileSettings {
     public ProfileSettings() {
         this.configLock = new ReentrantLock();
         this.currentConfig = new ConfigTree.Builder();
-        this.configUpdateListeners = new CopyOnTriggerListenerManager<>();
-        this.configStateKey = new Object();
+        this.configUpdateListeners = new ConfigPathListenerIndex<>();
+        this.configVersions = new ConfigPathVersions();
+        this.lastConfigVersion = configVersions.getLastVersion();
         this.auxConfigs = new HashMap<>();
-
-        this.configUpdateDispatcher = new EventDispatcher<ConfigUpdateListener, Collection<ConfigPath>>() {
-            @Override
-            public void onEvent(ConfigUpdateListener eventListener, Collection<ConfigPath> arg) {
-                eventListener.configUpdated(arg);
-            }
-        };
     }
 
     public static boolean isEventThread() {
@@ -91,7 +82,7 @@ public final class ProfileSettings {
     ListenerRef addDocumentChangeListener(final Runnable listener) {
         ExceptionHelper.checkNotNullArgument(listener, "listener");
 
-        return configUpdateListeners.registerListener(new ConfigUpdateListener() {
+        return configUpdateListeners.registerListener(ROOT_PATH, new ConfigUpdateListener() {
             @Override
             public void configUpdated(Collection<ConfigPath> changedPaths) {
                 listener.run();
@@ -196,16 +187,26 @@ public final class ProfileSettings {
         ConfigXmlUtils.saveXmlTo(document, xmlFile, saveOptions);
     }
 
-    private void fireDocumentUpdate(final Collection<ConfigPath> path) {
-        configUpdateListeners.onEvent(configUpdateDispatcher, path);
+    private void fireDocumentUpdate(Collection<ConfigPath> paths) {
+        Throwable toThrow = null;
+        for (ConfigUpdateListener listener: configUpdateListeners.getAffectedListeners(paths)) {
+            try {
+                listener.configUpdated(paths);
+            } catch (Throwable ex) {
+                if (toThrow == null) toThrow = ex;
+                else toThrow.addSuppressed(ex);
+            }
+        }
+
+        ExceptionHelper.rethrowIfNotNull(toThrow);
     }
 
-    private Object newConfigState() {
+    private long newConfigState(Collection<ConfigPath> changedPaths) {
         assert configLock.isHeldByCurrentThread();
 
-        Object newState = new Object();
-        configStateKey = newState;
-        return newState;
+        long newVersion = configVersions.recordChange(changedPaths);
+        lastConfigVersion = newVersion;
+        return newVersion;
     }
 
     private static Node getChildByName(Element parent, String childName) {
@@ -248,7 +249,7 @@ public final class ProfileSettings {
         try {
             auxConfigs.clear();
             currentConfig = new ConfigTree.Builder();
-            newConfigState();
+            newConfigState(ROOT_PATH);
         } finally {
             configLock.unlock();
         }
@@ -270,7 +271,7 @@ public final class ProfileSettings {
             }
 
             currentConfig = parsedDocument;
-            newConfigState();
+            newConfigState(ROOT_PATH);
         } finally {
             configLock.unlock();
         }
@@ -284,33 +285,35 @@ public final class ProfileSettings {
         return childBuilder.create();
     }
 
-    private <Value> ValueWithStateKey<Value> withStateKey(Value value) {
-        assert configLock.isHeldByCurrentThread();
-        return new ValueWithStateKey<>(configStateKey, value);
-    }
-
-    private ValueWithStateKey<ConfigTree> getChildConfig(ConfigPath path) {
+    private ValueWithStateKey<ConfigTree> getChildConfig(ConfigPath path, ConfigPath[] paths) {
         configLock.lock();
         try {
-            return withStateKey(createChildTree(currentConfig, path));
+            ConfigTree childTree = createChildTree(currentConfig, path);
+            return new ValueWithStateKey<>(lastConfigVersion, configVersions.getVersion(paths), childTree);
         } finally {
             configLock.unlock();
         }
     }
 
-    private ValueWithStateKey<ConfigTree> getChildConfig(ConfigPath basePath, ConfigPath[] relPaths) {
+    private ValueWithStateKey<ConfigTree> getChildConfig(
+            ConfigPath basePath,
+            ConfigPath[] relPaths,
+            ConfigPath[] paths) {
+
         if (relPaths.length == 1) {
             assert relPaths[0].getKeyCount() == 0;
 
             // Common case
-            return getChildConfig(basePath);
+            return getChildConfig(basePath, paths);
         }
 
-        Object resultStateKey;
+        long checkedVersion;
+        long pathVersion;
         ConfigTree.Builder result = new ConfigTree.Builder();
         configLock.lock();
         try {
-            resultStateKey = configStateKey;
+            checkedVersion = lastConfigVersion;
+            pathVersion = configVersions.getVersion(paths);
 
             ConfigTree.Builder baseBuilder = currentConfig.getDeepChildBuilder(basePath);
             for (ConfigPath relPath: relPaths) {
@@ -321,7 +324,7 @@ public final class ProfileSettings {
             configLock.unlock();
         }
 
-        return new ValueWithStateKey<>(resultStateKey, result.create());
+        return new ValueWithStateKey<>(checkedVersion, pathVersion, result.create());
     }
 
     public Collection<DomElementKey> getAuxConfigKeys() {
@@ -444,9 +447,10 @@ public final class ProfileSettings {
     private <ValueKey> ValueWithStateKey<ValueKey> getValueKeyFromCurrentConfig(
             ConfigPath parent,
             ConfigPath[] relativePaths,
+            ConfigPath[] paths,
             PropertyKeyEncodingDef<ValueKey> keyEncodingDef) {
 
-        ValueWithStateKey<ConfigTree> parentBasedConfig = getChildConfig(parent, relativePaths);
+        ValueWithStateKey<ConfigTree> parentBasedConfig = getChildConfig(parent, relativePaths, paths);
         ConfigTree value = parentBasedConfig.value;
         assert value != null;
 
@@ -490,6 +494,7 @@ public final class ProfileSettings {
             ValueWithStateKey<ValueKey> initialValueKey = getValueKeyFromCurrentConfig(
                     this.configParent,
                     this.relativeConfigPaths,
+                    this.configPaths,
                     this.keyEncodingDef);
             this.lastValueKeyRef = new AtomicReference<>(initialValueKey);
             this.source = PropertyFactory.proxySource(valueDef.property(initialValueKey.value));
@@ -512,7 +517,7 @@ public final class ProfileSettings {
 
             ValueKey valueKey = valueKeyWithState.value;
             ConfigTree encodedValueKey = valueKey != null ? keyEncodingDef.encode(valueKey) : ConfigTree.EMPTY;
-            Object newState;
+            long newState;
 
             configLock.lock();
             try {
@@ -525,13 +530,13 @@ public final class ProfileSettings {
                     updateConfigAtPath(path, configTree);
                 }
 
-                newState = newConfigState();
+                newState = newConfigState(configPathsAsList);
             } finally {
                 configLock.unlock();
             }
 
             fireDocumentUpdate(configPathsAsList);
-            return new ValueWithStateKey<>(newState, valueKeyWithState.value);
+            return new ValueWithStateKey<>(newState, newState, valueKeyWithState.value);
         }
 
         private void updateConfigAtPath(ConfigPath path, ConfigTree content) {
@@ -545,21 +550,40 @@ public final class ProfileSettings {
             }
         }
 
+        private long getCurrentPathVersion() {
+            configLock.lock();
+            try {
+                return configVersions.getVersion(configPaths);
+            } finally {
+                configLock.unlock();
+            }
+        }
+
         private ValueWithStateKey<ValueKey> getUpToDateValueKey() {
             ValueWithStateKey<ValueKey> lastValueKey;
-            Object currentConfigStateKey;
 
             while (true) {
                 lastValueKey = lastValueKeyRef.get();
-                currentConfigStateKey = configStateKey;
+                long currentConfigVersion = lastConfigVersion;
 
-                if (currentConfigStateKey == lastValueKey.stateKey) {
+                if (currentConfigVersion == lastValueKey.checkedVersion) {
                     // It is possible that there was a concurrent configuration
                     // reload but in this case we can't decide if it came before
                     // us or not, so we conveniently declare ourselves as the winner.
 
                     return lastValueKey;
                 }
+
+                // Something has changed but possibly not one of our paths,
+                // in which case we do not have to decode the config again.
+                long pathVersion = getCurrentPathVersion();
+                if (pathVersion == lastValueKey.pathVersion) {
+                    ValueWithStateKey<ValueKey> checkedValueKey
+                            = lastValueKey.withCheckedVersion(currentConfigVersion);
+                    if (lastValueKeyRef.compareAndSet(lastValueKey, checkedValueKey)) {
+                        return checkedValueKey;
+                    }
+                }
                 else {
                     updateFromConfig();
                 }
@@ -578,33 +602,25 @@ public final class ProfileSettings {
 
         @Override
         public ValueType getValue() {
-            if (lastValueKeyRef.get().stateKey != configStateKey) {
-                updateFromConfig();
+            if (lastValueKeyRef.get().checkedVersion != lastConfigVersion) {
+                getUpToDateValueKey();
             }
 
             return source.getValue();
         }
 
         private boolean affectsThis(Collection<ConfigPath> changedPaths) {
-            if (changedPaths == configPathsAsList) {
-                // This event is comming from us, so we won't update.
-                // This is necessary for correctness to avoid infinite loop
-                // in updateConfigFromKey()
-                return false;
-            }
-
-            for (ConfigPath changedPath: changedPaths) {
-                for (ConfigPath ourPath: configPaths) {
-                    if (changedPath.isParentOfOrEqual(ourPath)) {
-                        return true;
-                    }
-                }
-            }
-            return false;
+            // This event is comming from us, so we won't update.
+            // This is necessary for correctness to avoid infinite loop
+            // in updateConfigFromKey()
+            //
+            // Other events are only dispatched to us if they affect one of our
+            // paths (see ConfigPathListenerIndex).
+            return changedPaths != configPathsAsList;
         }
 
         private ValueWithStateKey<ValueKey> getValueKey() {
-            return getValueKeyFromCurrentConfig(configParent, relativeConfigPaths, keyEncodingDef);
+            return getValueKeyFromCurrentConfig(configParent, relativeConfigPaths, configPaths, keyEncodingDef);
         }
 
         private boolean updateSource(ValueWithStateKey<ValueKey> valueKey) {
@@ -626,11 +642,11 @@ public final class ProfileSettings {
         public ListenerRef addChangeListener(final Runnable listener) {
             ExceptionHelper.checkNotNullArgument(listener, "listener");
 
-            ListenerRef ref1 = configUpdateListeners.registerListener(new ConfigUpdateListener() {
+            ListenerRef ref1 = configUpdateListeners.registerListener(configPathsAsList, new ConfigUpdateListener() {
                 @Override
                 public void configUpdated(Collection<ConfigPath> changedPaths) {
                     if (affectsThis(changedPaths)) {
-                        updateFromConfig();
+                        getUpToDateValueKey();
                     }
                 }
             });
@@ -652,18 +668,31 @@ public final class ProfileSettings {
     }
 
     private static final class ValueWithStateKey<Value> {
-        public final Object stateKey;
+        /**
+         * The version of the whole configuration at which {@link #pathVersion}
+         * was last verified to be up-to-date.
+         */
+        public final long checkedVersion;
+        /**
+         * The version of the configuration paths {@link #value} was decoded from.
+         */
+        public final long pathVersion;
 
         @Nullable
         public final Value value;
 
-        public ValueWithStateKey(Object stateKey, Value valueKey) {
-            this.stateKey = stateKey;
+        public ValueWithStateKey(long checkedVersion, long pathVersion, Value valueKey) {
+            this.checkedVersion = checkedVersion;
+            this.pathVersion = pathVersion;
             this.value = valueKey;
         }
 
+        public ValueWithStateKey<Value> withCheckedVersion(long newCheckedVersion) {
+            return new ValueWithStateKey<>(newCheckedVersion, pathVersion, value);
+        }
+
         public <NewValue> ValueWithStateKey<NewValue> withNewValue(NewValue newValue) {
-            return new ValueWithStateKey<>(stateKey, newValue);
+            return new ValueWithStateKey<>(checkedVersion, pathVersion, newValue);
         }
     }
 }
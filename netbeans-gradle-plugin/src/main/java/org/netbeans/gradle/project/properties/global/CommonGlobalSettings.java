@@ -58,6 +58,7 @@ public final class CommonGlobalSettings {
 
     private final PropertyReference<Integer> projectCacheSize;
     private final PropertyReference<Integer> gradleDaemonTimeoutSec;
+    private final PropertyReference<Boolean> warmupGradleDaemon;
 
     public CommonGlobalSettings(ActiveSettingsQuery activeSettingsQuery) {
         ExceptionHelper.checkNotNullArgument(activeSettingsQuery, "activeSettingsQuery");
@@ -82,6 +83,7 @@ public final class CommonGlobalSettings {
         this.modelLoadingStrategy = modelLoadingStrategy(activeSettingsQuery);
         this.projectCacheSize = projectCacheSize(activeSettingsQuery);
         this.gradleDaemonTimeoutSec = gradleDaemonTimeoutSec(activeSettingsQuery);
+        this.warmupGradleDaemon = warmupGradleDaemon(activeSettingsQuery);
         this.showGradleVersion = showGradleVersion(activeSettingsQuery);
     }
 
@@ -269,6 +271,14 @@ public final class CommonGlobalSettings {
         return gradleDaemonTimeoutSec;
     }
 
+    public static PropertyReference<Boolean> warmupGradleDaemon(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(defineBooleanProperty("daemon", "warm-up-on-startup"), activeSettingsQuery, false);
+    }
+
+    public PropertyReference<Boolean> warmupGradleDaemon() {
+        return warmupGradleDaemon;
+    }
+
     public File tryGetGradleInstallationAsFile() {
         GradleLocationDef locationDef = gradleLocation.getActiveValue();
         GradleLocation location = locationDef.getLocation(StringResolvers.getDefaultGlobalResolver());
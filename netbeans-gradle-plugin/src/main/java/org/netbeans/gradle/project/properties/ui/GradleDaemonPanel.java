@@ -59,6 +59,13 @@ public class GradleDaemonPanel extends javax.swing.JPanel implements ProfileEdit
         jDaemonTimeoutSpinner.setValue(longToInt(DISPLAY_UNIT.convert(displayTimeoutSec, TimeUnit.SECONDS)));
     }
 
+    private void displayWarmupDaemon(PropertyRefs properties, Boolean value) {
+        Boolean displayed = value != null ? value : properties.warmupGradleDaemonRef.getActiveValue();
+        if (displayed != null) {
+            jWarmupDaemonCheck.setSelected(displayed);
+        }
+    }
+
     @Override
     public ProfileEditor startEditingProfile(ProfileInfo profileInfo, ActiveSettingsQuery profileQuery) {
         return new PropertyRefs(profileQuery);
@@ -89,9 +96,11 @@ public class GradleDaemonPanel extends javax.swing.JPanel implements ProfileEdit
 
     private final class PropertyRefs implements ProfileEditor {
         private final PropertyReference<Integer> gradleDaemonTimeoutSecRef;
+        private final PropertyReference<Boolean> warmupGradleDaemonRef;
 
         public PropertyRefs(ActiveSettingsQuery settingsQuery) {
             gradleDaemonTimeoutSecRef = CommonGlobalSettings.gradleDaemonTimeoutSec(settingsQuery);
+            warmupGradleDaemonRef = CommonGlobalSettings.warmupGradleDaemon(settingsQuery);
         }
 
         @Override
@@ -109,25 +118,30 @@ public class GradleDaemonPanel extends javax.swing.JPanel implements ProfileEdit
         private final PropertyRefs properties;
 
         private final Integer gradleDaemonTimeoutSec;
+        private final Boolean warmupGradleDaemon;
 
         public StoredSettingsImpl(PropertyRefs properties) {
             this.properties = properties;
             this.gradleDaemonTimeoutSec = properties.gradleDaemonTimeoutSecRef.tryGetValueWithoutFallback();
+            this.warmupGradleDaemon = properties.warmupGradleDaemonRef.tryGetValueWithoutFallback();
         }
 
         public StoredSettingsImpl(PropertyRefs properties, GradleDaemonPanel panel) {
             this.properties = properties;
             this.gradleDaemonTimeoutSec = panel.getDaemonTimeoutInSec(properties);
+            this.warmupGradleDaemon = panel.jWarmupDaemonCheck.isSelected();
         }
 
         @Override
         public void displaySettings() {
             displayDaemonTimeout(properties, gradleDaemonTimeoutSec);
+            displayWarmupDaemon(properties, warmupGradleDaemon);
         }
 
         @Override
         public void saveSettings() {
             properties.gradleDaemonTimeoutSecRef.setValue(gradleDaemonTimeoutSec);
+            properties.warmupGradleDaemonRef.setValue(warmupGradleDaemon);
         }
     }
 
@@ -144,22 +158,28 @@ public class GradleDaemonPanel extends javax.swing.JPanel implements ProfileEdit
         jDaemonTimeoutCaption = new javax.swing.JLabel();
         jDaemonTimeoutSpinner = new javax.swing.JSpinner();
         jUseDefaultDaemonTimeoutCheck = new javax.swing.JCheckBox();
+        jWarmupDaemonCheck = new javax.swing.JCheckBox();
 
         org.openide.awt.Mnemonics.setLocalizedText(jDaemonTimeoutCaption, org.openide.util.NbBundle.getMessage(GradleDaemonPanel.class, "GradleDaemonPanel.jDaemonTimeoutCaption.text")); // NOI18N
 
         org.openide.awt.Mnemonics.setLocalizedText(jUseDefaultDaemonTimeoutCheck, org.openide.util.NbBundle.getMessage(GradleDaemonPanel.class, "GradleDaemonPanel.jUseDefaultDaemonTimeoutCheck.text")); // NOI18N
 
+        org.openide.awt.Mnemonics.setLocalizedText(jWarmupDaemonCheck, org.openide.util.NbBundle.getMessage(GradleDaemonPanel.class, "GradleDaemonPanel.jWarmupDaemonCheck.text")); // NOI18N
+
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(this);
         this.setLayout(layout);
         layout.setHorizontalGroup(
             layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(layout.createSequentialGroup()
                 .addContainerGap()
-                .addComponent(jDaemonTimeoutCaption)
-                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
-                .addComponent(jDaemonTimeoutSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, 102, javax.swing.GroupLayout.PREFERRED_SIZE)
-                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
-                .addComponent(jUseDefaultDaemonTimeoutCheck)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addGroup(layout.createSequentialGroup()
+                        .addComponent(jDaemonTimeoutCaption)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(jDaemonTimeoutSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, 102, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                        .addComponent(jUseDefaultDaemonTimeoutCheck))
+                    .addComponent(jWarmupDaemonCheck))
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
         layout.setVerticalGroup(
@@ -170,6 +190,8 @@ public class GradleDaemonPanel extends javax.swing.JPanel implements ProfileEdit
                     .addComponent(jDaemonTimeoutCaption)
                     .addComponent(jDaemonTimeoutSpinner, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(jUseDefaultDaemonTimeoutCheck))
+                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.UNRELATED)
+                .addComponent(jWarmupDaemonCheck)
                 .addContainerGap(javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE))
         );
     }// </editor-fold>//GEN-END:initComponents
@@ -179,5 +201,6 @@ public class GradleDaemonPanel extends javax.swing.JPanel implements ProfileEdit
     private javax.swing.JLabel jDaemonTimeoutCaption;
     private javax.swing.JSpinner jDaemonTimeoutSpinner;
     private javax.swing.JCheckBox jUseDefaultDaemonTimeoutCheck;
+    private javax.swing.JCheckBox jWarmupDaemonCheck;
     // End of variables declaration//GEN-END:variables
 }
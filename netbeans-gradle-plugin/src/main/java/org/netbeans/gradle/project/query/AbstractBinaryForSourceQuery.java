@@ -2,21 +2,19 @@ package org.netbeans.gradle.project.query;
 
 import java.io.File;
 import java.net.URL;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import org.netbeans.api.java.queries.BinaryForSourceQuery;
 import org.netbeans.spi.java.queries.BinaryForSourceQueryImplementation;
 import org.openide.filesystems.FileUtil;
 
 public abstract class AbstractBinaryForSourceQuery implements BinaryForSourceQueryImplementation {
-    // This cache cannot shrink because SourceForBinaryQueryImplementation
-    // requires that we return the exact same object when the same URL is
-    // querried. This is a very limiting constraint but I don't want to risk to
-    // violate the constraint.
-    private final ConcurrentMap<File, BinaryForSourceQuery.Result> cache;
+    // SourceForBinaryQueryImplementation requires that we return the exact same
+    // object when the same URL is querried. QueryResultCache only holds the
+    // results weakly (besides the most recently used ones), so this contract
+    // still holds for anyone keeping a reference to a previous result.
+    private final QueryResultCache<BinaryForSourceQuery.Result> cache;
 
     public AbstractBinaryForSourceQuery() {
-        this.cache = new ConcurrentHashMap<>();
+        this.cache = new QueryResultCache<>();
     }
 
     // TODO: Instead of protected methods, they should be provided as an argument.
@@ -39,7 +37,7 @@ public abstract class AbstractBinaryForSourceQuery implements BinaryForSourceQue
             return null;
         }
 
-        BinaryForSourceQuery.Result result = cache.get(normSourceRoot);
+        BinaryForSourceQuery.Result result = cache.tryGet(normSourceRoot);
         if (result != null) {
             return result;
         }
@@ -49,7 +47,19 @@ public abstract class AbstractBinaryForSourceQuery implements BinaryForSourceQue
             return null;
         }
 
-        BinaryForSourceQuery.Result oldResult = cache.putIfAbsent(normSourceRoot, result);
-        return oldResult != null ? oldResult : result;
+        return cache.putIfAbsent(normSourceRoot, result);
+    }
+
+    /**
+     * Releases the cached results which are not referenced by anyone else. This
+     * method should be called when the previously found results are unlikely
+     * to be requested again (e.g., the Gradle user home was changed).
+     */
+    protected final void releaseCachedResults() {
+        cache.releaseResults();
+    }
+
+    public final QueryResultCache<?> getResultCache() {
+        return cache;
     }
 }
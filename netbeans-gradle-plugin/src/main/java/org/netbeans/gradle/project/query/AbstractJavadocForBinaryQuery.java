@@ -2,21 +2,19 @@ package org.netbeans.gradle.project.query;
 
 import java.io.File;
 import java.net.URL;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import org.netbeans.api.java.queries.JavadocForBinaryQuery;
 import org.netbeans.spi.java.queries.JavadocForBinaryQueryImplementation;
 import org.openide.filesystems.FileUtil;
 
 public abstract class AbstractJavadocForBinaryQuery implements JavadocForBinaryQueryImplementation {
-    // This cache cannot shrink because JavadocForBinaryQueryImplementation
-    // requires that we return the exact same object when the same URL is
-    // querried. This is a very limiting constraint but I don't want to risk to
-    // violate the constraint.
-    private final ConcurrentMap<File, JavadocForBinaryQuery.Result> cache;
+    // JavadocForBinaryQueryImplementation requires that we return the exact same
+    // object when the same URL is querried. QueryResultCache only holds the
+    // results weakly (besides the most recently used ones), so this contract
+    // still holds for anyone keeping a reference to a previous result.
+    private final QueryResultCache<JavadocForBinaryQuery.Result> cache;
 
     public AbstractJavadocForBinaryQuery() {
-        this.cache = new ConcurrentHashMap<>();
+        this.cache = new QueryResultCache<>();
     }
 
     protected abstract JavadocForBinaryQuery.Result tryFindJavadoc(File binaryRoot);
@@ -28,7 +26,7 @@ public abstract class AbstractJavadocForBinaryQuery implements JavadocForBinaryQ
             return null;
         }
 
-        JavadocForBinaryQuery.Result result = cache.get(binaryRootFile);
+        JavadocForBinaryQuery.Result result = cache.tryGet(binaryRootFile);
         if (result != null) {
             return result;
         }
@@ -38,7 +36,19 @@ public abstract class AbstractJavadocForBinaryQuery implements JavadocForBinaryQ
             return null;
         }
 
-        JavadocForBinaryQuery.Result oldResult = cache.putIfAbsent(binaryRootFile, result);
-        return oldResult != null ? oldResult : result;
+        return cache.putIfAbsent(binaryRootFile, result);
+    }
+
+    /**
+     * Releases the cached results which are not referenced by anyone else. This
+     * method should be called when the previously found results are unlikely
+     * to be requested again (e.g., the Gradle user home was changed).
+     */
+    protected final void releaseCachedResults() {
+        cache.releaseResults();
+    }
+
+    public final QueryResultCache<?> getResultCache() {
+        return cache;
     }
 }
@@ -2,21 +2,19 @@ package org.netbeans.gradle.project.query;
 
 import java.io.File;
 import java.net.URL;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import org.netbeans.api.java.queries.SourceForBinaryQuery;
 import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation2;
 import org.openide.filesystems.FileUtil;
 
 public abstract class AbstractSourceForBinaryQuery implements SourceForBinaryQueryImplementation2 {
-    // This cache cannot shrink because SourceForBinaryQueryImplementation
-    // requires that we return the exact same object when the same URL is
-    // querried. This is a very limiting constraint but I don't want to risk to
-    // violate the constraint.
-    private final ConcurrentMap<File, Result> cache;
+    // SourceForBinaryQueryImplementation requires that we return the exact same
+    // object when the same URL is querried. QueryResultCache only holds the
+    // results weakly (besides the most recently used ones), so this contract
+    // still holds for anyone keeping a reference to a previous result.
+    private final QueryResultCache<Result> cache;
 
     public AbstractSourceForBinaryQuery() {
-        this.cache = new ConcurrentHashMap<>();
+        this.cache = new QueryResultCache<>();
     }
 
     // TODO: Instead of protected methods, they should be provided as an argument.
@@ -39,7 +37,7 @@ public abstract class AbstractSourceForBinaryQuery implements SourceForBinaryQue
             return null;
         }
 
-        Result result = cache.get(normBinaryRoot);
+        Result result = cache.tryGet(normBinaryRoot);
         if (result != null) {
             return result;
         }
@@ -49,12 +47,24 @@ public abstract class AbstractSourceForBinaryQuery implements SourceForBinaryQue
             return null;
         }
 
-        Result oldResult = cache.putIfAbsent(normBinaryRoot, result);
-        return oldResult != null ? oldResult : result;
+        return cache.putIfAbsent(normBinaryRoot, result);
     }
 
     @Override
     public final SourceForBinaryQuery.Result findSourceRoots(URL binaryRoot) {
         return findSourceRoots2(binaryRoot);
     }
+
+    /**
+     * Releases the cached results which are not referenced by anyone else. This
+     * method should be called when the previously found results are unlikely
+     * to be requested again (e.g., the Gradle user home was changed).
+     */
+    protected final void releaseCachedResults() {
+        cache.releaseResults();
+    }
+
+    public final QueryResultCache<?> getResultCache() {
+        return cache;
+    }
 }
@@ -30,6 +30,12 @@ public final class GradleCacheBinaryForSourceQuery extends AbstractBinaryForSour
     }
 
     public GradleCacheBinaryForSourceQuery() {
+        GradleFileUtils.GRADLE_USER_HOME.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                releaseCachedResults();
+            }
+        });
     }
 
     public static void notifyCacheChange() {
@@ -37,6 +37,46 @@ public final class GradleCacheByBinaryLookup {
         CHANGES.fireChange();
     }
 
+    /**
+     * Returns the coordinates of the module in the {@code group:name:version}
+     * format if the given binary is in the artifact cache of Gradle.
+     *
+     * @param gradleUserHome the Gradle user home directory containing the
+     *   artifact cache. This argument cannot be {@code null}.
+     * @param binary the binary whose module is to be returned. This argument
+     *   cannot be {@code null}.
+     * @return the coordinates of the module of the given binary or
+     *   {@code null} if the binary is not in the artifact cache of Gradle
+     */
+    public static String tryGetModuleCoordinates(File gradleUserHome, File binary) {
+        ExceptionHelper.checkNotNullArgument(gradleUserHome, "gradleUserHome");
+        ExceptionHelper.checkNotNullArgument(binary, "binary");
+
+        if (!binary.toPath().startsWith(gradleUserHome.toPath())) {
+            return null;
+        }
+
+        // The cache directory of Gradle looks like this:
+        //
+        // ...... \GROUP\NAME\VERSION\HASH_OF_BINARY\binary.XXX
+        // or in the old format:
+        // ...... \GROUP\NAME\VERSION\packaging type\HASH_OF_BINARY\binary.XXX
+
+        File hashDir = binary.getParentFile();
+        File versionDir = hashDir != null ? hashDir.getParentFile() : null;
+        if (versionDir != null && GradleFileUtils.isKnownBinaryDirName(versionDir.getName())) {
+            versionDir = versionDir.getParentFile();
+        }
+
+        File nameDir = versionDir != null ? versionDir.getParentFile() : null;
+        File groupDir = nameDir != null ? nameDir.getParentFile() : null;
+        if (groupDir == null) {
+            return null;
+        }
+
+        return groupDir.getName() + ':' + nameDir.getName() + ':' + versionDir.getName();
+    }
+
     public SourceForBinaryQueryImplementation2.Result tryFindEntryByBinary(File binaryRoot) {
         File gradleUserHome = gradleUserHomeProvider.get();
         if (gradleUserHome == null) {
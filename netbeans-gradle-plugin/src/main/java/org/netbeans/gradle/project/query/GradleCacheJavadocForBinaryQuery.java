@@ -20,6 +20,12 @@ public final class GradleCacheJavadocForBinaryQuery extends AbstractJavadocForBi
 
     public GradleCacheJavadocForBinaryQuery() {
         this(GradleFileUtils.GRADLE_USER_HOME_PROVIDER);
+        GradleFileUtils.GRADLE_USER_HOME.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                releaseCachedResults();
+            }
+        });
     }
 
     public GradleCacheJavadocForBinaryQuery(NbSupplier<File> gradleUserHomeProvider) {
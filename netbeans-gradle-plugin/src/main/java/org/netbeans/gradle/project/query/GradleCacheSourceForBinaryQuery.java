@@ -18,6 +18,12 @@ public final class GradleCacheSourceForBinaryQuery extends AbstractSourceForBina
 
     public GradleCacheSourceForBinaryQuery() {
         this(GradleFileUtils.GRADLE_USER_HOME_PROVIDER);
+        GradleFileUtils.GRADLE_USER_HOME.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                releaseCachedResults();
+            }
+        });
     }
 
     public GradleCacheSourceForBinaryQuery(NbSupplier<File> gradleUserHomeProvider) {
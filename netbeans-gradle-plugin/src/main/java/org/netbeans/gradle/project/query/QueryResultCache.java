@@ -0,0 +1,224 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Defines a cache for the results of queries like {@code SourceForBinaryQuery}.
+ * These queries require that the same result object is returned for the same
+ * root, as long as anyone might hold a reference to the previously returned
+ * result.
+ * <P>
+ * Therefore, results are only weakly referenced by the cache, so that a
+ * result is kept as long as someone else references it. The most recently
+ * used results are also referenced strongly to avoid recomputing frequently
+ * requested results whenever the garbage collector runs.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads concurrently.
+ *
+ * @param <V> the type of the cached results
+ */
+public final class QueryResultCache<V> {
+    private static final Logger LOGGER = Logger.getLogger(QueryResultCache.class.getName());
+
+    public static final String STRONG_CACHE_SIZE_PROPERTY = "org.netbeans.gradle.queryResultCacheSize";
+    private static final int DEFAULT_STRONG_CACHE_SIZE = 256;
+
+    private final ConcurrentMap<File, ResultRef<V>> weakCache;
+    private final ReferenceQueue<V> collectedResults;
+
+    private final Lock strongCacheLock;
+    // Guarded by strongCacheLock
+    private final Map<File, V> strongCache;
+
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+
+    public QueryResultCache() {
+        this(getConfiguredStrongCacheSize());
+    }
+
+    QueryResultCache(final int strongCacheSize) {
+        ExceptionHelper.checkArgumentInRange(strongCacheSize, 0, Integer.MAX_VALUE, "strongCacheSize");
+
+        this.weakCache = new ConcurrentHashMap<>();
+        this.collectedResults = new ReferenceQueue<>();
+        this.strongCacheLock = new ReentrantLock();
+        this.strongCache = new LinkedHashMap<File, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<File, V> eldest) {
+                return size() > strongCacheSize;
+            }
+        };
+        this.hitCount = new AtomicLong(0);
+        this.missCount = new AtomicLong(0);
+    }
+
+    private static int getConfiguredStrongCacheSize() {
+        String sizeStr = System.getProperty(STRONG_CACHE_SIZE_PROPERTY);
+        if (sizeStr == null) {
+            return DEFAULT_STRONG_CACHE_SIZE;
+        }
+
+        try {
+            return Math.max(0, Integer.parseInt(sizeStr.trim()));
+        } catch (NumberFormatException ex) {
+            LOGGER.log(Level.WARNING, "Invalid query result cache size: {0}", sizeStr);
+            return DEFAULT_STRONG_CACHE_SIZE;
+        }
+    }
+
+    /**
+     * Returns the result cached for the given root or {@code null} if there is
+     * no such result (or it has been garbage collected).
+     *
+     * @param root the root for which the result was calculated. This argument
+     *   cannot be {@code null}.
+     * @return the result cached for the given root or {@code null} if there is
+     *   no such result
+     */
+    public V tryGet(File root) {
+        ExceptionHelper.checkNotNullArgument(root, "root");
+
+        ResultRef<V> resultRef = weakCache.get(root);
+        V result = resultRef != null ? resultRef.get() : null;
+        if (result != null) {
+            hitCount.incrementAndGet();
+            touch(root, result);
+        }
+        else {
+            missCount.incrementAndGet();
+        }
+        return result;
+    }
+
+    /**
+     * Caches the given result for the given root unless there is already a
+     * result cached for it. In this case the already cached result is returned.
+     *
+     * @param root the root for which the result was calculated. This argument
+     *   cannot be {@code null}.
+     * @param result the result to be cached. This argument cannot be
+     *   {@code null}.
+     * @return the result which must be returned for the given root. This
+     *   method never returns {@code null}.
+     */
+    public V putIfAbsent(File root, V result) {
+        ExceptionHelper.checkNotNullArgument(root, "root");
+        ExceptionHelper.checkNotNullArgument(result, "result");
+
+        removeCollectedResults();
+
+        ResultRef<V> newRef = new ResultRef<>(root, result, collectedResults);
+        while (true) {
+            ResultRef<V> prevRef = weakCache.putIfAbsent(root, newRef);
+            if (prevRef == null) {
+                touch(root, result);
+                return result;
+            }
+
+            V prevResult = prevRef.get();
+            if (prevResult != null) {
+                touch(root, prevResult);
+                return prevResult;
+            }
+
+            if (weakCache.replace(root, prevRef, newRef)) {
+                touch(root, result);
+                return result;
+            }
+        }
+    }
+
+    private void touch(File root, V result) {
+        strongCacheLock.lock();
+        try {
+            strongCache.put(root, result);
+        } finally {
+            strongCacheLock.unlock();
+        }
+    }
+
+    private void removeCollectedResults() {
+        ResultRef<?> ref = (ResultRef<?>)collectedResults.poll();
+        while (ref != null) {
+            weakCache.remove(ref.root, ref);
+            ref = (ResultRef<?>)collectedResults.poll();
+        }
+    }
+
+    /**
+     * Stops strongly referencing the cached results, so that the results not
+     * referenced by anyone else can be removed from the cache. Results still
+     * referenced by others are kept to honor the same result contract of the
+     * queries.
+     */
+    public void releaseResults() {
+        strongCacheLock.lock();
+        try {
+            strongCache.clear();
+        } finally {
+            strongCacheLock.unlock();
+        }
+
+        removeCollectedResults();
+    }
+
+    /**
+     * Returns the number of results in this cache, including the results which
+     * were garbage collected but not yet removed from the cache.
+     *
+     * @return the number of results in this cache
+     */
+    public int getSize() {
+        removeCollectedResults();
+        return weakCache.size();
+    }
+
+    int getStronglyReferencedCount() {
+        strongCacheLock.lock();
+        try {
+            return strongCache.size();
+        } finally {
+            strongCacheLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the weak reference to the result cached for the given root, so
+     * that tests can clear and enqueue it as the garbage collector would.
+     */
+    WeakReference<V> tryGetResultRef(File root) {
+        return weakCache.get(root);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private static final class ResultRef<V> extends WeakReference<V> {
+        public final File root;
+
+        public ResultRef(File root, V referent, ReferenceQueue<? super V> queue) {
+            super(referent, queue);
+            this.root = root;
+        }
+    }
+}
@@ -25,7 +25,6 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.SwingUtilities;
 import org.gradle.tooling.BuildLauncher;
-import org.gradle.tooling.GradleConnector;
 import org.gradle.tooling.ModelBuilder;
 import org.gradle.tooling.ProjectConnection;
 import org.gradle.tooling.internal.consumer.DefaultCancellationTokenSource;
@@ -60,6 +59,7 @@ import org.netbeans.gradle.project.api.task.TaskVariable;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
 import org.netbeans.gradle.project.model.DefaultModelBuilderSetup;
+import org.netbeans.gradle.project.model.GradleConnectionPool;
 import org.netbeans.gradle.project.model.GradleConnectorRef;
 import org.netbeans.gradle.project.model.NbGradleProjectTree;
 import org.netbeans.gradle.project.output.BuildErrorConsumer;
@@ -71,6 +71,7 @@ import org.netbeans.gradle.project.output.LineOutputWriter;
 import org.netbeans.gradle.project.output.OutputLinkFinder;
 import org.netbeans.gradle.project.output.OutputLinkPrinter;
 import org.netbeans.gradle.project.output.OutputUrlConsumer;
+import org.netbeans.gradle.project.output.OutputWindowLimiter;
 import org.netbeans.gradle.project.output.ReaderInputStream;
 import org.netbeans.gradle.project.output.RegexpFileLineConsumer;
 import org.netbeans.gradle.project.output.ReplaceLineFeedReader;
@@ -78,6 +79,8 @@ import org.netbeans.gradle.project.output.SmartOutputHandler;
 import org.netbeans.gradle.project.output.StackTraceConsumer;
 import org.netbeans.gradle.project.output.SubPathConsumer;
 import org.netbeans.gradle.project.output.TaskIOTab;
+import org.netbeans.gradle.project.output.TaskLogStore;
+import org.netbeans.gradle.project.output.TaskLogWriter;
 import org.netbeans.gradle.project.output.WriterOutputStream;
 import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.gradle.project.properties.global.SelfMaintainedTasks;
@@ -369,17 +372,29 @@ public final class AsyncGradleTask implements Runnable {
                 new FileLineConsumer(),
                 new RegexpFileLineConsumer()));
 
+        TaskLogStore log = tab.getCurrentLog();
+        OutputWindowLimiter windowLimiter = log != null
+                ? new OutputWindowLimiter(NbStrings.getOutputTruncatedMessage(log.getLogDir().toString()))
+                : null;
+
         InputOutputWrapper io = tab.getIo();
         Writer forwardedStdOut = new LineOutputWriter(new SmartOutputHandler(
                 io.getIo(),
                 io.getOutRef(),
                 Arrays.asList(taskDef.getStdOutListener(project)),
-                outputConsumers));
+                outputConsumers,
+                windowLimiter));
         Writer forwardedStdErr = new LineOutputWriter(new SmartOutputHandler(
                 io.getIo(),
                 io.getErrRef(),
                 Arrays.asList(taskDef.getStdErrListener(project)),
-                errorConsumers));
+                errorConsumers,
+                windowLimiter));
+
+        if (log != null) {
+            forwardedStdOut = new TaskLogWriter(log, forwardedStdOut);
+            forwardedStdErr = new TaskLogWriter(log, forwardedStdErr);
+        }
 
         buildLauncher.setStandardOutput(new WriterOutputStream(forwardedStdOut));
         buildLauncher.setStandardError(new WriterOutputStream(forwardedStdErr));
@@ -523,12 +538,11 @@ public final class AsyncGradleTask implements Runnable {
         Throwable commandError = null;
 
         GradleConnectorRef gradleConnectorRef = DefaultGradleModelLoader.createGradleConnectorRef(cancelToken, project);
-        GradleConnector gradleConnector = gradleConnectorRef.getGradleConnector();
 
-        gradleConnector.forProjectDirectory(projectDir);
-        ProjectConnection projectConnection = null;
+        GradleConnectionPool.PooledConnection pooledConnection = null;
         try {
-            projectConnection = gradleConnector.connect();
+            pooledConnection = GradleConnectionPool.getDefault().connect(gradleConnectorRef, projectDir);
+            ProjectConnection projectConnection = pooledConnection.getConnection();
 
             BuildLauncher buildLauncher = projectConnection.newBuild();
             List<TemporaryFileRef> initScripts = getAllInitScriptFiles(project);
@@ -617,8 +631,8 @@ public final class AsyncGradleTask implements Runnable {
             }
         } finally {
             try {
-                if (projectConnection != null) {
-                    projectConnection.close();
+                if (pooledConnection != null) {
+                    pooledConnection.close();
                 }
             } finally {
                 ExecutedCommandContext commandContext = buildItem.getCommandContext();
@@ -0,0 +1,234 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Defines the state of the class files in a set of build output directories.
+ * Comparing two snapshots of the same directories tells which classes were
+ * changed by a compilation.
+ * <P>
+ * Class files are identified by their size, last modification time and a
+ * checksum of their content. The checksum of a class file is only computed
+ * again, if its size or modification time differs from the one in the last
+ * snapshot of its directory.
+ * <P>
+ * Instances of this class are immutable.
+ */
+public final class ClassOutputSnapshot {
+    private static final String CLASS_EXT = ".class";
+    private static final int MAX_CACHED_DIR_COUNT = 32;
+
+    private static final Lock CACHE_LOCK = new ReentrantLock();
+    // Guarded by CACHE_LOCK
+    private static final Map<File, Map<String, ClassEntry>> LAST_SNAPSHOTS
+            = new LinkedHashMap<File, Map<String, ClassEntry>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, Map<String, ClassEntry>> eldest) {
+            return size() > MAX_CACHED_DIR_COUNT;
+        }
+    };
+
+    private final Map<File, Map<String, ClassEntry>> entriesByDir;
+
+    private ClassOutputSnapshot(Map<File, Map<String, ClassEntry>> entriesByDir) {
+        this.entriesByDir = entriesByDir;
+    }
+
+    /**
+     * Takes a snapshot of the class files in the given directories. The
+     * directories do not need to exist.
+     *
+     * @param outputDirs the root directories of the class files. This argument
+     *   cannot be {@code null} and cannot contain {@code null} elements.
+     * @return the snapshot of the class files in the given directories. This
+     *   method never returns {@code null}.
+     *
+     * @throws IOException thrown if the directories could not be read
+     */
+    public static ClassOutputSnapshot take(Collection<File> outputDirs) throws IOException {
+        ExceptionHelper.checkNotNullElements(outputDirs, "outputDirs");
+
+        Map<File, Map<String, ClassEntry>> entriesByDir = new HashMap<>();
+        for (File outputDir: outputDirs) {
+            Map<String, ClassEntry> prevEntries = getLastSnapshot(outputDir);
+            Map<String, ClassEntry> entries = takeDir(outputDir.toPath(), prevEntries);
+            setLastSnapshot(outputDir, entries);
+
+            entriesByDir.put(outputDir, entries);
+        }
+        return new ClassOutputSnapshot(entriesByDir);
+    }
+
+    private static Map<String, ClassEntry> getLastSnapshot(File outputDir) {
+        CACHE_LOCK.lock();
+        try {
+            Map<String, ClassEntry> result = LAST_SNAPSHOTS.get(outputDir);
+            return result != null ? result : Collections.<String, ClassEntry>emptyMap();
+        } finally {
+            CACHE_LOCK.unlock();
+        }
+    }
+
+    private static void setLastSnapshot(File outputDir, Map<String, ClassEntry> entries) {
+        CACHE_LOCK.lock();
+        try {
+            LAST_SNAPSHOTS.put(outputDir, entries);
+        } finally {
+            CACHE_LOCK.unlock();
+        }
+    }
+
+    private static Map<String, ClassEntry> takeDir(
+            final Path outputDir,
+            final Map<String, ClassEntry> prevEntries) throws IOException {
+
+        if (!Files.isDirectory(outputDir)) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, ClassEntry> result = new HashMap<>();
+        Files.walkFileTree(outputDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                String fileName = file.getFileName().toString();
+                if (!attrs.isRegularFile() || !fileName.endsWith(CLASS_EXT)) {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                String className = toClassName(outputDir.relativize(file));
+                long size = attrs.size();
+                long lastModified = attrs.lastModifiedTime().toMillis();
+
+                ClassEntry prevEntry = prevEntries.get(className);
+                if (prevEntry != null && prevEntry.size == size && prevEntry.lastModified == lastModified) {
+                    result.put(className, prevEntry);
+                }
+                else {
+                    result.put(className, new ClassEntry(file.toFile(), size, lastModified, checksum(file)));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static String toClassName(Path relativePath) {
+        StringBuilder result = new StringBuilder();
+        for (Path name: relativePath) {
+            if (result.length() > 0) {
+                result.append('.');
+            }
+            result.append(name.toString());
+        }
+        result.setLength(result.length() - CLASS_EXT.length());
+        return result.toString();
+    }
+
+    private static long checksum(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8 * 1024];
+        try (InputStream input = Files.newInputStream(file)) {
+            int readCount = input.read(buffer);
+            while (readCount >= 0) {
+                crc.update(buffer, 0, readCount);
+                readCount = input.read(buffer);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Returns the classes which were added or changed since the given
+     * snapshot. Classes added to a directory which was empty (or did not
+     * exist) in the given snapshot are ignored because such classes could not
+     * have been loaded by anyone anyway.
+     *
+     * @param before the earlier snapshot of the same directories. This
+     *   argument cannot be {@code null}.
+     * @return the classes changed since the given snapshot. This method never
+     *   returns {@code null}.
+     */
+    public List<ChangedClass> getChangedClasses(ClassOutputSnapshot before) {
+        ExceptionHelper.checkNotNullArgument(before, "before");
+
+        List<ChangedClass> result = new ArrayList<>();
+        for (Map.Entry<File, Map<String, ClassEntry>> dirEntry: entriesByDir.entrySet()) {
+            Map<String, ClassEntry> prevEntries = before.entriesByDir.get(dirEntry.getKey());
+            if (prevEntries == null || prevEntries.isEmpty()) {
+                continue;
+            }
+
+            for (Map.Entry<String, ClassEntry> entry: dirEntry.getValue().entrySet()) {
+                ClassEntry prevEntry = prevEntries.get(entry.getKey());
+                ClassEntry currentEntry = entry.getValue();
+                if (prevEntry == null || prevEntry.checksum != currentEntry.checksum) {
+                    result.add(new ChangedClass(dirEntry.getKey(), entry.getKey(), currentEntry.file));
+                }
+            }
+        }
+        return result;
+    }
+
+    public static final class ChangedClass {
+        private final File outputDir;
+        private final String className;
+        private final File classFile;
+
+        private ChangedClass(File outputDir, String className, File classFile) {
+            this.outputDir = outputDir;
+            this.className = className;
+            this.classFile = classFile;
+        }
+
+        public File getOutputDir() {
+            return outputDir;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public File getClassFile() {
+            return classFile;
+        }
+
+        @Override
+        public String toString() {
+            return className;
+        }
+    }
+
+    private static final class ClassEntry {
+        public final File file;
+        public final long size;
+        public final long lastModified;
+        public final long checksum;
+
+        public ClassEntry(File file, long size, long lastModified, long checksum) {
+            this.file = file;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+    }
+}
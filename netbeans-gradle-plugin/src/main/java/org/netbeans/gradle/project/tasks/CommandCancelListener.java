@@ -0,0 +1,19 @@
+package org.netbeans.gradle.project.tasks;
+
+/**
+ * Defines a listener to be notified if a Gradle command was canceled before it
+ * could complete. This interface is meant to be implemented by a
+ * {@link org.netbeans.gradle.project.api.task.CommandCompleteListener} which
+ * needs to know when a command will not complete (since that listener is
+ * not notified for canceled commands).
+ * <P>
+ * Listeners added to the context of an action are notified if they implement
+ * this interface.
+ */
+public interface CommandCancelListener {
+    /**
+     * The method to be called if the Gradle command was canceled, instead of
+     * notifying the {@code CommandCompleteListener}.
+     */
+    public void onCancel();
+}
@@ -1,11 +1,17 @@
 package org.netbeans.gradle.project.tasks;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.netbeans.api.debugger.DebuggerEngine;
 import org.netbeans.api.debugger.DebuggerManager;
 import org.netbeans.api.debugger.jpda.JPDADebugger;
@@ -25,12 +31,15 @@ import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
 import org.openide.loaders.DataObject;
 import org.openide.util.Lookup;
+import org.openide.util.Utilities;
 import org.openide.windows.OutputWriter;
 
 // This class is mostly a copy-paste from the Maven plugin:
 //   - org.netbeans.modules.maven.debug.DebuggerChecker
 //   - org.netbeans.modules.maven.execute.DefaultReplaceTokenProvider
 public final class DebugUtils {
+    private static final Logger LOGGER = Logger.getLogger(DebugUtils.class.getName());
+
     public static String getActiveClassName(Project project, Lookup lookup) {
         FileObject[] filesOnLookup = extractFileObjectsfromLookup(lookup);
         SourceGroup group = findGroup(ProjectUtils.getSources(project).getSourceGroups(JavaProjectConstants.SOURCES_TYPE_JAVA), filesOnLookup);
@@ -100,25 +109,107 @@ public final class DebugUtils {
         return selected;
     }
 
-    public static void applyChanges(Project project, OutputWriter logger, String classname) {
+    private static JPDADebugger tryGetDebugger(OutputWriter logger) {
         // check debugger state
         DebuggerEngine debuggerEngine = DebuggerManager.getDebuggerManager().
                 getCurrentEngine();
         if (debuggerEngine == null) {
             logger.println("NetBeans: No debugging sessions was found.");
-            return;
+            return null;
         }
         JPDADebugger debugger = debuggerEngine.lookupFirst(null, JPDADebugger.class);
         if (debugger == null) {
             logger.println("NetBeans: Current debugger is not JPDA one.");
-            return;
+            return null;
         }
         if (!debugger.canFixClasses()) {
             logger.println("NetBeans: The debugger does not support Fix action.");
-            return;
+            return null;
         }
         if (debugger.getState() == JPDADebugger.STATE_DISCONNECTED) {
             logger.println("NetBeans: The debugger is not running");
+            return null;
+        }
+        return debugger;
+    }
+
+    private static void displayError(Project project, IOException ex) {
+        NbGradleProject gradleProject = NbGradleProjectFactory.tryGetGradleProject(project);
+        if (gradleProject != null) {
+            gradleProject.displayError("Unexpected error.", ex);
+        }
+        else {
+            throw new IllegalStateException("Unexpected error in an unexpected project type.", ex);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the class files in the given directories to be
+     * passed to {@link #applyChanges(Project, OutputWriter, ClassOutputSnapshot, Collection) applyChanges}
+     * after compiling the changes.
+     *
+     * @param outputDirs the directories containing the class files. This
+     *   argument cannot be {@code null}.
+     * @return the snapshot of the class files in the given directories or
+     *   {@code null} if the directories could not be read
+     */
+    public static ClassOutputSnapshot trySnapshotClassOutputs(Collection<File> outputDirs) {
+        try {
+            return ClassOutputSnapshot.take(outputDirs);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to take a snapshot of the class files in " + outputDirs, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Reloads all the classes changed since the given snapshot in the current
+     * debugging session in a single batch.
+     *
+     * @param project the project whose classes are to be reloaded. This
+     *   argument cannot be {@code null}.
+     * @param logger the output to write the progress to. This argument cannot
+     *   be {@code null}.
+     * @param before the snapshot taken before the compilation. This argument
+     *   cannot be {@code null}.
+     * @param outputDirs the directories containing the class files. This
+     *   argument cannot be {@code null}.
+     */
+    public static void applyChanges(
+            Project project,
+            OutputWriter logger,
+            ClassOutputSnapshot before,
+            Collection<File> outputDirs) {
+
+        JPDADebugger debugger = tryGetDebugger(logger);
+        if (debugger == null) {
+            return;
+        }
+
+        Map<String, byte[]> map = new HashMap<>();
+        EditorContext editorContext = DebuggerManager.
+                getDebuggerManager().lookupFirst(null, EditorContext.class);
+
+        try {
+            ClassOutputSnapshot after = ClassOutputSnapshot.take(outputDirs);
+            SourceUrlCache sourceUrls = new SourceUrlCache(logger);
+            for (ClassOutputSnapshot.ChangedClass changedClass: after.getChangedClasses(before)) {
+                String url = sourceUrls.tryGetSourceUrl(changedClass);
+                if (url != null) {
+                    editorContext.updateTimeStamp(debugger, url);
+                }
+                map.put(changedClass.getClassName(), Files.readAllBytes(changedClass.getClassFile().toPath()));
+            }
+        } catch (IOException ex) {
+            displayError(project, ex);
+        }
+
+        fixClasses(debugger, map, logger);
+    }
+
+    public static void applyChanges(Project project, OutputWriter logger, String classname) {
+        JPDADebugger debugger = tryGetDebugger(logger);
+        if (debugger == null) {
             return;
         }
 
@@ -145,16 +236,14 @@ public final class DebugUtils {
                     map.put(classname + basename2.substring(basename.length()), classfile.asBytes());
                 }
             } catch (IOException ex) {
-                NbGradleProject gradleProject = NbGradleProjectFactory.tryGetGradleProject(project);
-                if (gradleProject != null) {
-                    gradleProject.displayError("Unexpected error.", ex);
-                }
-                else {
-                    throw new IllegalStateException("Unexpected error in an unexpected project type.", ex);
-                }
+                displayError(project, ex);
             }
         }
 
+        fixClasses(debugger, map, logger);
+    }
+
+    private static void fixClasses(JPDADebugger debugger, Map<String, byte[]> map, OutputWriter logger) {
         logger.println("NetBeans: classes to reload: " + map.keySet());
         if (map.isEmpty()) {
             logger.println("NetBeans: No class to reload");
@@ -205,6 +294,59 @@ public final class DebugUtils {
         return rfo.toURL().toExternalForm();
     }
 
+    /**
+     * Finds the source files of classes, looking up the source roots only
+     * once for each build output directory.
+     */
+    private static final class SourceUrlCache {
+        private final OutputWriter logger;
+        private final Map<File, ClassPath> sourcePaths;
+        private final Map<String, String> sourceUrls;
+
+        public SourceUrlCache(OutputWriter logger) {
+            this.logger = logger;
+            this.sourcePaths = new HashMap<>();
+            this.sourceUrls = new HashMap<>();
+        }
+
+        private ClassPath getSourcePath(File outputDir) throws MalformedURLException {
+            ClassPath result = sourcePaths.get(outputDir);
+            if (result == null) {
+                URL rootUrl = Utilities.toURI(outputDir).toURL();
+                FileObject[] sRoots = SourceForBinaryQuery.findSourceRoots(rootUrl).getRoots();
+                result = ClassPathSupport.createClassPath(sRoots);
+                sourcePaths.put(outputDir, result);
+            }
+            return result;
+        }
+
+        public String tryGetSourceUrl(ClassOutputSnapshot.ChangedClass changedClass) {
+            String resourceName = changedClass.getClassName().replace('.', '/');
+            int i = resourceName.indexOf('$');
+            if (i > 0) {
+                resourceName = resourceName.substring(0, i);
+            }
+
+            String cacheKey = changedClass.getOutputDir().getPath() + "!" + resourceName;
+            if (sourceUrls.containsKey(cacheKey)) {
+                return sourceUrls.get(cacheKey);
+            }
+
+            String result = null;
+            try {
+                FileObject rfo = getSourcePath(changedClass.getOutputDir()).findResource(resourceName + ".java");
+                if (rfo != null) {
+                    result = rfo.toURL().toExternalForm();
+                }
+            } catch (MalformedURLException ex) {
+                logger.println("Can not find classpath resource for " + changedClass.getClassFile() + ", skipping...");
+            }
+
+            sourceUrls.put(cacheKey, result);
+            return result;
+        }
+    }
+
     private DebugUtils() {
         throw new AssertionError();
     }
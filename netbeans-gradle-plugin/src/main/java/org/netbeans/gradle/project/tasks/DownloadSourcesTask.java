@@ -1,7 +1,17 @@
 package org.netbeans.gradle.project.tasks;
 
 import java.io.File;
-import org.gradle.tooling.GradleConnector;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.gradle.tooling.ModelBuilder;
 import org.gradle.tooling.ProjectConnection;
 import org.gradle.tooling.model.idea.IdeaProject;
@@ -9,51 +19,239 @@ import org.jtrim.cancel.CancellationToken;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.api.project.Project;
+import org.netbeans.gradle.model.BuildOperationArgs;
+import org.netbeans.gradle.model.BuilderResult;
+import org.netbeans.gradle.model.FetchedModels;
+import org.netbeans.gradle.model.FetchedModelsOrError;
+import org.netbeans.gradle.model.GenericModelFetcher;
+import org.netbeans.gradle.model.GradleBuildInfoQuery;
 import org.netbeans.gradle.model.OperationInitializer;
+import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
+import org.netbeans.gradle.model.java.JavaModelBuilders;
+import org.netbeans.gradle.model.java.SourceArtifactsModel;
+import org.netbeans.gradle.model.java.SourceArtifactsRequest;
+import org.netbeans.gradle.project.NbGradleProjectFactory;
 import org.netbeans.gradle.project.NbStrings;
+import org.netbeans.gradle.project.api.modelquery.GradleModelDef;
 import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
+import org.netbeans.gradle.project.model.GradleConnectionPool;
+import org.netbeans.gradle.project.model.GradleConnectorRef;
+import org.netbeans.gradle.project.model.GradleModelLoadError;
+import org.netbeans.gradle.project.output.LineOutputWriter;
+import org.netbeans.gradle.project.output.WriterOutputStream;
+import org.netbeans.gradle.project.query.GradleCacheBinaryForSourceQuery;
+import org.netbeans.gradle.project.query.GradleCacheByBinaryLookup;
+import org.netbeans.gradle.project.query.GradleCacheSourceForBinaryQuery;
+import org.netbeans.gradle.project.util.GradleFileUtils;
+import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation2;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
 
+/**
+ * Downloads the sources of the given binaries from the repositories of the
+ * project. Only the sources of the binaries in the artifact cache of Gradle
+ * without already downloaded sources are requested.
+ * <P>
+ * All the modules are resolved by a single artifact resolution query, which
+ * Gradle may download in parallel. If the Gradle version of the project does
+ * not support artifact resolution queries, the {@code IdeaProject} model is
+ * fetched instead, which downloads the sources of all the dependencies.
+ */
 public final class DownloadSourcesTask implements DaemonTask {
+    private static final Logger LOGGER = Logger.getLogger(DownloadSourcesTask.class.getName());
+
+    private static final String SOURCE_ARTIFACTS_KEY = "source-artifacts";
+
     private final Project project;
+    private final Collection<File> binaries;
 
-    public DownloadSourcesTask(Project project) {
+    public DownloadSourcesTask(Project project, Collection<File> binaries) {
         ExceptionHelper.checkNotNullArgument(project, "project");
+        ExceptionHelper.checkNotNullElements(binaries, "binaries");
+
         this.project = project;
+        this.binaries = new ArrayList<>(binaries);
     }
 
-    public static DaemonTaskDef createTaskDef(Project project) {
+    public static DaemonTaskDef createTaskDef(Project project, Collection<File> binaries) {
         return new DaemonTaskDef(
                 NbStrings.getDownloadSourcesProgressCaption(),
                 true,
-                new DownloadSourcesTask(project));
+                new DownloadSourcesTask(project, binaries));
     }
 
     @Override
     public void run(CancellationToken cancelToken, ProgressHandle progress) {
-        GradleConnector connector = DefaultGradleModelLoader.createGradleConnector(cancelToken, project);
         FileObject projectDirObj = project.getProjectDirectory();
         File projectDir = FileUtil.toFile(projectDirObj);
         if (projectDir == null) {
             throw new RuntimeException("Missing project directory: " + projectDirObj);
         }
 
-        connector.forProjectDirectory(projectDir);
+        List<String> components = getComponentsWithoutSources();
+        if (components.isEmpty()) {
+            LOGGER.log(Level.FINE, "All sources are available for {0}", projectDir);
+            return;
+        }
 
-        OperationInitializer setup = DefaultGradleModelLoader.modelBuilderSetup(project, progress);
+        GradleConnectorRef connectorRef = DefaultGradleModelLoader.createGradleConnectorRef(cancelToken, project);
+        OperationInitializer setup = progressReportingSetup(
+                DefaultGradleModelLoader.modelBuilderSetup(project, progress),
+                components.size(),
+                progress);
 
-        // FIXME: Currently we just fetch IdeaProject and rely on that to fetch
-        //   the sources. Then the source locator query will find the sources
-        //   in the Gradle cache.
-        ProjectConnection connection = connector.connect();
         try {
+            SourceArtifactsModel model = downloadSources(connectorRef, setup, projectDir, components);
+            if (model != null) {
+                LOGGER.log(Level.INFO, "Downloaded sources for {0} of {1} modules.",
+                        new Object[]{model.getSources().size(), components.size()});
+            }
+            else {
+                LOGGER.log(Level.INFO, "Artifact resolution is not available, downloading sources through IdeaProject for {0}", projectDir);
+                progress.switchToIndeterminate();
+                downloadSourcesWithIdeaProject(connectorRef, projectDir, progress);
+            }
+        } catch (IOException | GradleModelLoadError ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            // The query results are updated once for all the downloaded
+            // artifacts, because the listeners might be expensive.
+            GradleCacheByBinaryLookup.notifyCacheChange();
+            GradleCacheBinaryForSourceQuery.notifyCacheChange();
+        }
+    }
+
+    private void downloadSourcesWithIdeaProject(
+            GradleConnectorRef connectorRef,
+            File projectDir,
+            ProgressHandle progress) {
+
+        OperationInitializer setup = DefaultGradleModelLoader.modelBuilderSetup(project, progress);
+
+        // Fetching IdeaProject resolves the sources of all the dependencies,
+        // then the source locator query finds them in the Gradle cache.
+        try (GradleConnectionPool.PooledConnection pooledConnection
+                = GradleConnectionPool.getDefault().connect(connectorRef, projectDir)) {
+            ProjectConnection connection = pooledConnection.getConnection();
             ModelBuilder<IdeaProject> builder = connection.model(IdeaProject.class);
             DefaultGradleModelLoader.setupLongRunningOP(setup, builder);
 
             builder.get();
-        } finally {
-            connection.close();
         }
     }
+
+    private List<String> getComponentsWithoutSources() {
+        File gradleUserHome = GradleFileUtils.GRADLE_USER_HOME_PROVIDER.get();
+        if (gradleUserHome == null) {
+            return Collections.emptyList();
+        }
+
+        GradleCacheByBinaryLookup sourceLookup = new GradleCacheByBinaryLookup(
+                GradleFileUtils.SOURCE_DIR_NAME,
+                GradleFileUtils.GRADLE_USER_HOME_PROVIDER,
+                GradleCacheSourceForBinaryQuery.binaryToSourceName());
+
+        Set<String> result = new LinkedHashSet<>();
+        for (File binary: binaries) {
+            String coordinates = GradleCacheByBinaryLookup.tryGetModuleCoordinates(gradleUserHome, binary);
+            if (coordinates == null) {
+                continue;
+            }
+
+            SourceForBinaryQueryImplementation2.Result sources = sourceLookup.tryFindEntryByBinary(binary);
+            if (sources == null || sources.getRoots().length == 0) {
+                result.add(coordinates);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static OperationInitializer progressReportingSetup(
+            final OperationInitializer setup,
+            int componentCount,
+            final ProgressHandle progress) {
+
+        progress.switchToDeterminate(componentCount);
+        final AtomicInteger completedCount = new AtomicInteger(0);
+
+        return new OperationInitializer() {
+            @Override
+            public void initOperation(BuildOperationArgs args) {
+                setup.initOperation(args);
+
+                // The builder prints a line after each resolved component.
+                LineOutputWriter output = new LineOutputWriter(new LineOutputWriter.Handler() {
+                    @Override
+                    public void writeLine(String line) {
+                        String prefix = SourceArtifactsRequest.RESOLVED_COMPONENT_PREFIX;
+                        if (line.startsWith(prefix)) {
+                            String component = line.substring(prefix.length());
+                            progress.progress(component, completedCount.incrementAndGet());
+                        }
+                    }
+
+                    @Override
+                    public void flush() {
+                    }
+                });
+                args.setStandardOutput(new WriterOutputStream(output));
+            }
+        };
+    }
+
+    private SourceArtifactsModel downloadSources(
+            GradleConnectorRef connectorRef,
+            OperationInitializer setup,
+            File projectDir,
+            List<String> components) throws IOException, GradleModelLoadError {
+
+        SourceArtifactsRequest request = new SourceArtifactsRequest(projectDir, components, true, false);
+        GradleModelDef modelDef = GradleModelDef.fromProjectInfoBuilders2(
+                JavaModelBuilders.sourceArtifactsBuilder(request));
+
+        Map<Object, List<GradleProjectInfoQuery2<?>>> projectInfoRequests
+                = Collections.<Object, List<GradleProjectInfoQuery2<?>>>singletonMap(
+                        SOURCE_ARTIFACTS_KEY,
+                        new ArrayList<>(modelDef.getProjectInfoQueries2()));
+
+        GenericModelFetcher modelFetcher = new GenericModelFetcher(
+                Collections.<Object, List<GradleBuildInfoQuery<?>>>emptyMap(),
+                projectInfoRequests,
+                Collections.<Class<?>>emptySet());
+
+        FetchedModelsOrError fetchedModelsOrError;
+        try (GradleConnectionPool.PooledConnection pooledConnection
+                = GradleConnectionPool.getDefault().connect(connectorRef, projectDir)) {
+            ProjectConnection connection = pooledConnection.getConnection();
+            fetchedModelsOrError = modelFetcher.getModels(connection, setup);
+        }
+
+        FetchedModels fetchedModels = fetchedModelsOrError.getModels();
+        if (fetchedModels == null) {
+            throw new GradleModelLoadError(
+                    NbGradleProjectFactory.getGradleProject(project),
+                    fetchedModelsOrError.getBuildScriptEvaluationError(),
+                    fetchedModelsOrError.getUnexpectedError());
+        }
+
+        List<BuilderResult> results = fetchedModels
+                .getDefaultProjectModels()
+                .getProjectInfoResults()
+                .get(SOURCE_ARTIFACTS_KEY);
+        if (results == null) {
+            return null;
+        }
+
+        for (BuilderResult result: results) {
+            if (result.getIssue() != null) {
+                LOGGER.log(Level.INFO, "Failed to download sources.", result.getIssue().getException());
+            }
+
+            Object resultObject = result.getResultObject();
+            if (resultObject instanceof SourceArtifactsModel) {
+                return (SourceArtifactsModel)resultObject;
+            }
+        }
+        return null;
+    }
 }
@@ -135,6 +135,9 @@ public final class GradleDaemonManager {
                     if (!canceled) {
                         listener.onComplete(error);
                     }
+                    else if (listener instanceof CommandCancelListener) {
+                        ((CommandCancelListener)listener).onCancel();
+                    }
                 } finally {
                     progress.finish();
                 }
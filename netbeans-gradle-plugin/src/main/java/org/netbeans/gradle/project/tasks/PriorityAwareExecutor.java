@@ -13,6 +13,9 @@ import org.jtrim.concurrent.TaskExecutor;
 import org.jtrim.event.InitLaterListenerRef;
 import org.jtrim.event.ListenerRef;
 import org.jtrim.event.UnregisteredListenerRef;
+import org.jtrim.property.PropertyFactory;
+import org.jtrim.property.PropertySource;
+import org.jtrim.property.ValueConverter;
 import org.jtrim.utils.ExceptionHelper;
 
 public final class PriorityAwareExecutor {
@@ -28,19 +31,32 @@ public final class PriorityAwareExecutor {
 
     private void executeForPriority(
             CancellationToken cancelToken,
-            Priority priority,
+            PropertySource<Priority> priority,
             CancelableTask task,
             CleanupTask cleanupTask) {
 
-        TaskDef taskDef = new TaskDef(cancelToken, task, cleanupTask);
-        RefCollection.ElementRef<?> queueRef = taskQueue.addTask(priority, taskDef);
-        taskDef.init(queueRef);
+        final TaskDef taskDef = new TaskDef(cancelToken, task, cleanupTask);
+        // The listener must be registered before the priority is read, so
+        // that changes of the priority cannot be missed in between.
+        taskDef.initPriorityListener(priority, taskQueue);
+        taskQueue.addTask(priority, taskDef);
+        taskDef.init(new Runnable() {
+            @Override
+            public void run() {
+                taskQueue.removeTask(taskDef);
+            }
+        });
 
         final AtomicReference<TaskDef> taskDefRef = new AtomicReference<>(null);
         CancelableTask forwarderTask = new CancelableTask() {
             @Override
             public void execute(CancellationToken cancelToken) throws Exception {
                 TaskDef task = taskQueue.pollTask();
+                if (task == null) {
+                    // The task was canceled and removed from the queue.
+                    return;
+                }
+
                 taskDefRef.set(task);
                 task.doTask(cancelToken);
             }
@@ -67,7 +83,7 @@ public final class PriorityAwareExecutor {
         wrapped.execute(Cancellation.UNCANCELABLE_TOKEN, forwarderTask, forwarderCleanupTask);
     }
 
-    private TaskExecutor getExecutor(final Priority priority) {
+    private TaskExecutor getExecutor(final PropertySource<Priority> priority) {
         return new TaskExecutor() {
             @Override
             public void execute(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
@@ -77,11 +93,33 @@ public final class PriorityAwareExecutor {
     }
 
     public TaskExecutor getHighPriorityExecutor() {
-        return getExecutor(Priority.HIGH);
+        return getExecutor(PropertyFactory.constSource(Priority.HIGH));
     }
 
     public TaskExecutor getLowPriorityExecutor() {
-        return getExecutor(Priority.LOW);
+        return getExecutor(PropertyFactory.constSource(Priority.LOW));
+    }
+
+    /**
+     * Returns an executor whose tasks have high priority while the given
+     * property is {@code true} and low priority otherwise. Changing the value
+     * of the property also affects the tasks already submitted but not yet
+     * started.
+     *
+     * @param highPriority the property defining if the submitted tasks have
+     *   high priority. This argument cannot be {@code null}.
+     * @return an executor whose tasks have high priority while the given
+     *   property is {@code true}. This method never returns {@code null}.
+     */
+    public TaskExecutor getExecutor(PropertySource<Boolean> highPriority) {
+        ExceptionHelper.checkNotNullArgument(highPriority, "highPriority");
+
+        return getExecutor(PropertyFactory.convert(highPriority, new ValueConverter<Boolean, Priority>() {
+            @Override
+            public Priority convert(Boolean input) {
+                return Boolean.TRUE.equals(input) ? Priority.HIGH : Priority.LOW;
+            }
+        }));
     }
 
     private static final class TaskQueue {
@@ -100,62 +138,66 @@ public final class PriorityAwareExecutor {
             return priority == Priority.HIGH ? queueHighPriority : queueLowPriority;
         }
 
-        private static <E> RefCollection.ElementRef<E> wrapLocked(final RefCollection.ElementRef<E> ref, final Lock lock) {
-            return new RefCollection.ElementRef<E>() {
-                @Override
-                public E setElement(E newElement) {
-                    throw new UnsupportedOperationException("Cannot update element");
-                }
-
-                @Override
-                public E getElement() {
-                    return ref.getElement();
-                }
-
-                @Override
-                public boolean isRemoved() {
-                    lock.lock();
-                    try {
-                        return ref.isRemoved();
-                    } finally {
-                        lock.unlock();
-                    }
-                }
+        public void addTask(PropertySource<Priority> priority, TaskDef task) {
+            queueLock.lock();
+            try {
+                // The priority is read while holding the lock, so a concurrent
+                // priority change either sees the task queued or is seen here.
+                RefLinkedList<TaskDef> queue = getQueue(priority.getValue());
+                task.queueRef = queue.addLastGetReference(task);
+            } finally {
+                queueLock.unlock();
+            }
+        }
 
-                @Override
-                public void remove() {
-                    lock.lock();
-                    try {
-                        ref.remove();
-                    } finally {
-                        lock.unlock();
-                    }
+        public void removeTask(TaskDef task) {
+            queueLock.lock();
+            try {
+                if (task.queueRef != null) {
+                    task.queueRef.remove();
+                    task.queueRef = null;
                 }
-            };
+            } finally {
+                queueLock.unlock();
+            }
         }
 
-        public RefCollection.ElementRef<?> addTask(Priority priority, TaskDef task) {
-            RefLinkedList<TaskDef> queue = getQueue(priority);
-
+        public void changePriority(TaskDef task, PropertySource<Priority> priority) {
             queueLock.lock();
             try {
-                return wrapLocked(queue.addLastGetReference(task), queueLock);
+                if (task.queueRef == null) {
+                    // Not yet added, already started or removed.
+                    return;
+                }
+
+                RefLinkedList<TaskDef> queue = getQueue(priority.getValue());
+                task.queueRef.remove();
+                task.queueRef = queue.addLastGetReference(task);
             } finally {
                 queueLock.unlock();
             }
         }
 
         public TaskDef pollTask() {
+            TaskDef result;
+
             queueLock.lock();
             try {
-                TaskDef result = queueHighPriority.poll();
+                result = queueHighPriority.poll();
                 if (result == null) {
                     result = queueLowPriority.poll();
                 }
-                return result;
+                if (result != null) {
+                    result.queueRef = null;
+                }
             } finally {
                 queueLock.unlock();
             }
+
+            if (result != null) {
+                result.unregisterPriorityListener();
+            }
+            return result;
         }
     }
 
@@ -171,16 +213,42 @@ public final class PriorityAwareExecutor {
         private final CleanupTask cleanupTask;
 
         private final AtomicReference<ListenerRef> cancelRef;
+        private final AtomicReference<ListenerRef> priorityListenerRef;
+
+        // Guarded by the lock of the TaskQueue
+        public RefCollection.ElementRef<TaskDef> queueRef;
 
         public TaskDef(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
             this.cancelToken = cancelToken;
             this.task = task;
             this.cleanupTask = cleanupTask;
             this.cancelRef = new AtomicReference<>(null);
+            this.priorityListenerRef = new AtomicReference<>(null);
             this.skippedExecute = false;
+            this.queueRef = null;
+        }
+
+        public void initPriorityListener(final PropertySource<Priority> priority, final TaskQueue taskQueue) {
+            ListenerRef listenerRef = priority.addChangeListener(new Runnable() {
+                @Override
+                public void run() {
+                    taskQueue.changePriority(TaskDef.this, priority);
+                }
+            });
+
+            if (!priorityListenerRef.compareAndSet(null, listenerRef)) {
+                listenerRef.unregister();
+            }
+        }
+
+        public void unregisterPriorityListener() {
+            ListenerRef listenerRef = priorityListenerRef.getAndSet(UnregisteredListenerRef.INSTANCE);
+            if (listenerRef != null) {
+                listenerRef.unregister();
+            }
         }
 
-        public void init(final RefCollection.ElementRef<?> queueRef) {
+        public void init(final Runnable queueRemover) {
             final InitLaterListenerRef cancelRefRef = new InitLaterListenerRef();
 
             cancelRefRef.init(cancelToken.addCancellationListener(new Runnable() {
@@ -189,7 +257,8 @@ public final class PriorityAwareExecutor {
                     removeTask();
 
                     if (cleanupTask == null) {
-                        queueRef.remove();
+                        queueRemover.run();
+                        unregisterPriorityListener();
                     }
 
                     cancelRefRef.unregister();
@@ -227,6 +296,7 @@ public final class PriorityAwareExecutor {
                 if (currentCancelRef != null) {
                     currentCancelRef.unregister();
                 }
+                unregisterPriorityListener();
             } finally {
                 if (cleanupTask != null) {
                     cleanupTask.cleanup(canceled || skippedExecute, error);
@@ -0,0 +1,232 @@
+package org.netbeans.gradle.project.tasks.vars;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.api.project.ProjectUtils;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.api.task.TaskVariable;
+import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableValue;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.openide.filesystems.FileObject;
+
+/**
+ * Remembers the values of the task variables deduced from the selected source
+ * files of a project. A value is keyed by the variable and the selected files,
+ * and it is only reused while the model version of the project and the stamps
+ * (path and modification time) of the selected files are unchanged. The model
+ * version changes when the model or the source groups of the project change.
+ */
+final class SourceFileVariableCache {
+    private static final int MAX_CACHED_VALUE_COUNT = 128;
+
+    private static final Lock CACHES_LOCK = new ReentrantLock();
+    // Guarded by CACHES_LOCK
+    private static final Map<NbGradleProject, SourceFileVariableCache> CACHES = new WeakHashMap<>();
+
+    private final Lock mainLock;
+    // Guarded by mainLock
+    private final Map<CacheKey, CachedValue> values;
+    // Guarded by mainLock
+    private long modelVersion;
+
+    SourceFileVariableCache() {
+        this.mainLock = new ReentrantLock();
+        this.modelVersion = 0;
+        this.values = new LinkedHashMap<CacheKey, CachedValue>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedValue> eldest) {
+                return size() > MAX_CACHED_VALUE_COUNT;
+            }
+        };
+    }
+
+    private static SourceFileVariableCache getCache(NbGradleProject project) {
+        CACHES_LOCK.lock();
+        try {
+            SourceFileVariableCache result = CACHES.get(project);
+            if (result == null) {
+                // Attaching while holding the lock ensures that concurrent
+                // callers cannot attach listeners for the same project twice.
+                result = new SourceFileVariableCache();
+                result.attachTo(project);
+                CACHES.put(project, result);
+            }
+            return result;
+        } finally {
+            CACHES_LOCK.unlock();
+        }
+    }
+
+    private void attachTo(NbGradleProject project) {
+        // The listeners are kept as long as the project is alive and they
+        // only reference the cache, not the project.
+        project.currentModel().addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                invalidate();
+            }
+        });
+        ProjectUtils.getSources(project).addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * Returns the value of the given variable for the given selected files of
+     * the given project, calculating it only if there is no valid cached
+     * value.
+     *
+     * @param project the project owning the files. This argument cannot be
+     *   {@code null}.
+     * @param variable the variable whose value is requested. This argument
+     *   cannot be {@code null}.
+     * @param files the selected files the value is deduced from. This argument
+     *   cannot be {@code null}.
+     * @param valueGetter calculates the value if there is no valid cached
+     *   value. The value must only depend on the model of the project and on
+     *   the given files. This argument cannot be {@code null}.
+     * @return the value of the given variable. This method never returns
+     *   {@code null}.
+     */
+    public static VariableValue getValue(
+            NbGradleProject project,
+            TaskVariable variable,
+            List<FileObject> files,
+            NbSupplier<VariableValue> valueGetter) {
+        ExceptionHelper.checkNotNullArgument(project, "project");
+
+        return getCache(project).getValue(variable, files, valueGetter);
+    }
+
+    VariableValue getValue(
+            TaskVariable variable,
+            List<FileObject> files,
+            NbSupplier<VariableValue> valueGetter) {
+        ExceptionHelper.checkNotNullArgument(variable, "variable");
+        ExceptionHelper.checkNotNullArgument(files, "files");
+        ExceptionHelper.checkNotNullArgument(valueGetter, "valueGetter");
+
+        CacheKey key = new CacheKey(variable, files);
+        List<FileStamp> stamps = getStamps(files);
+
+        long startModelVersion;
+        mainLock.lock();
+        try {
+            CachedValue cached = values.get(key);
+            if (cached != null && cached.stamps.equals(stamps)) {
+                return cached.value;
+            }
+            startModelVersion = modelVersion;
+        } finally {
+            mainLock.unlock();
+        }
+
+        VariableValue value = valueGetter.get();
+
+        mainLock.lock();
+        try {
+            // Do not cache a value calculated from an already outdated model.
+            if (startModelVersion == modelVersion) {
+                values.put(key, new CachedValue(stamps, value));
+            }
+        } finally {
+            mainLock.unlock();
+        }
+        return value;
+    }
+
+    void invalidate() {
+        mainLock.lock();
+        try {
+            modelVersion++;
+            values.clear();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private static List<FileStamp> getStamps(List<FileObject> files) {
+        List<FileStamp> result = new ArrayList<>(files.size());
+        for (FileObject file: files) {
+            result.add(new FileStamp(file));
+        }
+        return result;
+    }
+
+    private static final class CacheKey {
+        private final TaskVariable variable;
+        private final List<FileObject> files;
+
+        public CacheKey(TaskVariable variable, List<FileObject> files) {
+            this.variable = variable;
+            this.files = new ArrayList<>(files);
+        }
+
+        @Override
+        public int hashCode() {
+            return 41 * variable.hashCode() + files.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) return false;
+            if (obj == this) return true;
+            if (getClass() != obj.getClass()) return false;
+
+            final CacheKey other = (CacheKey)obj;
+            return this.variable.equals(other.variable)
+                    && this.files.equals(other.files);
+        }
+    }
+
+    private static final class FileStamp {
+        private final String path;
+        private final Date lastModified;
+
+        public FileStamp(FileObject file) {
+            this.path = file.getPath();
+            this.lastModified = file.lastModified();
+        }
+
+        @Override
+        public int hashCode() {
+            return 41 * path.hashCode() + Objects.hashCode(lastModified);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) return false;
+            if (obj == this) return true;
+            if (getClass() != obj.getClass()) return false;
+
+            final FileStamp other = (FileStamp)obj;
+            return this.path.equals(other.path)
+                    && Objects.equals(this.lastModified, other.lastModified);
+        }
+    }
+
+    private static final class CachedValue {
+        public final List<FileStamp> stamps;
+        public final VariableValue value;
+
+        public CachedValue(List<FileStamp> stamps, VariableValue value) {
+            this.stamps = stamps;
+            this.value = value;
+        }
+    }
+}
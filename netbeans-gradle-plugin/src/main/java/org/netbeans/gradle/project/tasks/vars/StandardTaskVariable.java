@@ -22,6 +22,8 @@ import org.netbeans.gradle.project.java.test.TestTaskName;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.ValueGetter;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableDef;
 import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableValue;
+import org.netbeans.gradle.project.util.NbFunction;
+import org.netbeans.gradle.project.util.NbSupplier;
 import org.netbeans.gradle.project.util.StringUtils;
 import org.netbeans.spi.project.SingleMethod;
 import org.openide.filesystems.FileObject;
@@ -50,7 +52,12 @@ public enum StandardTaskVariable {
     SELECTED_CLASS("selected-class", new ValueGetter<NbGradleProject>() {
         @Override
         public VariableValue getValue(TaskVariableMap variables, NbGradleProject project, Lookup actionContext) {
-            return getOneValue(getSelectedClasses(project, actionContext));
+            return getSelectedClassesValue(SELECTED_CLASS, project, actionContext, new NbFunction<List<String>, VariableValue>() {
+                @Override
+                public VariableValue apply(List<String> classes) {
+                    return getOneValue(classes);
+                }
+            });
         }
     }),
     SELECTED_FILE("selected-file", new ValueGetter<NbGradleProject>() {
@@ -128,18 +135,27 @@ public enum StandardTaskVariable {
     TEST_CLASSES_ARGS("test-classes-args", new ValueGetter<NbGradleProject>() {
         @Override
         public VariableValue getValue(TaskVariableMap variables, NbGradleProject project, Lookup actionContext) {
-            return toTestArgument(getSelectedClasses(project, actionContext));
+            return getSelectedClassesValue(TEST_CLASSES_ARGS, project, actionContext, new NbFunction<List<String>, VariableValue>() {
+                @Override
+                public VariableValue apply(List<String> classes) {
+                    return toTestArgument(classes);
+                }
+            });
         }
     }),
     TEST_CLASSES_STARED_ARGS("test-classes-stared-args", new ValueGetter<NbGradleProject>() {
         @Override
         public VariableValue getValue(TaskVariableMap variables, NbGradleProject project, Lookup actionContext) {
-            List<String> classes = getSelectedClasses(project, actionContext);
-            List<String> staredClasses = new ArrayList<>(classes.size());
-            for (String cl: classes) {
-                staredClasses.add(cl + "*");
-            }
-            return toTestArgument(staredClasses);
+            return getSelectedClassesValue(TEST_CLASSES_STARED_ARGS, project, actionContext, new NbFunction<List<String>, VariableValue>() {
+                @Override
+                public VariableValue apply(List<String> classes) {
+                    List<String> staredClasses = new ArrayList<>(classes.size());
+                    for (String cl: classes) {
+                        staredClasses.add(cl + "*");
+                    }
+                    return toTestArgument(staredClasses);
+                }
+            });
         }
     }),
     TEST_METHODS_ARGS("test-methods-args", new ValueGetter<NbGradleProject>() {
@@ -155,7 +171,23 @@ public enum StandardTaskVariable {
     private static final CachingVariableMap.VariableDefMap<NbGradleProject> TASK_VARIABLE_MAP
             = createStandardMap();
 
-    private static String tryGetClassNameForFile(NbGradleProject project, FileObject file) {
+    private static String tryGetClassNameForFile(final NbGradleProject project, final FileObject file) {
+        // The value of the selected-class variable for a single file is the
+        // class name of the file, so they can share the cached value.
+        VariableValue value = SourceFileVariableCache.getValue(
+                project,
+                SELECTED_CLASS.getVariable(),
+                Collections.singletonList(file),
+                new NbSupplier<VariableValue>() {
+                    @Override
+                    public VariableValue get() {
+                        return new VariableValue(findClassNameForFile(project, file));
+                    }
+                });
+        return value.getValue();
+    }
+
+    private static String findClassNameForFile(NbGradleProject project, FileObject file) {
         SourceGroup[] sourceGroups = ProjectUtils.getSources(project)
                 .getSourceGroups(JavaProjectConstants.SOURCES_TYPE_JAVA);
 
@@ -272,29 +304,39 @@ public enum StandardTaskVariable {
         return variable.getScriptReplaceConstant();
     }
 
-    private static List<String> getSelectedClasses(NbGradleProject project, Lookup actionContext) {
+    private static VariableValue getSelectedClassesValue(
+            StandardTaskVariable variable,
+            final NbGradleProject project,
+            Lookup actionContext,
+            final NbFunction<List<String>, VariableValue> valueFactory) {
+
         Collection<? extends SpecificTestClass> testClasses = actionContext.lookupAll(SpecificTestClass.class);
         if (!testClasses.isEmpty()) {
             List<String> result = new ArrayList<>();
             for (SpecificTestClass testClass: testClasses) {
                 result.add(testClass.getTestClassName());
             }
-            return result;
+            return valueFactory.apply(result);
         }
 
-        List<FileObject> files = getFilesOfContext(actionContext);
+        final List<FileObject> files = getFilesOfContext(actionContext);
         if (files.isEmpty()) {
-            return Collections.emptyList();
+            return valueFactory.apply(Collections.<String>emptyList());
         }
 
-        List<String> result = new ArrayList<>(files.size());
-        for (FileObject file: files) {
-            String className = tryGetClassNameForFile(project, file);
-            if (className != null) {
-                result.add(className);
+        return SourceFileVariableCache.getValue(project, variable.getVariable(), files, new NbSupplier<VariableValue>() {
+            @Override
+            public VariableValue get() {
+                List<String> result = new ArrayList<>(files.size());
+                for (FileObject file: files) {
+                    String className = tryGetClassNameForFile(project, file);
+                    if (className != null) {
+                        result.add(className);
+                    }
+                }
+                return valueFactory.apply(result);
             }
-        }
-        return result;
+        });
     }
 
     private static VariableValue toTestArgument(List<String> values) {
@@ -18,6 +18,7 @@ public final class GradleVersions {
     public static final GradleVersion VERSION_1_8_RC_1 = GradleVersion.version("1.8-rc-1");
     public static final GradleVersion VERSION_1_8 = GradleVersion.version("1.8");
     public static final GradleVersion VERSION_2_3 = GradleVersion.version("2.3");
+    public static final GradleVersion VERSION_3_3 = GradleVersion.version("3.3");
 
     private static SpecificationVersion getDefaultSpecVersion() {
         Specification spec = JavaPlatform.getDefault().getSpecification();
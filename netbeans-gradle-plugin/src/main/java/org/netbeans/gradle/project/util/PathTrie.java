@@ -0,0 +1,200 @@
+package org.netbeans.gradle.project.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Maps paths to values and finds the value of the longest path being the
+ * prefix of a given path. The paths are compared by their name elements, so
+ * the paths should be normalized before passed to this class.
+ * <P>
+ * This class is not safe to be used by multiple threads concurrently.
+ *
+ * @param <V> the type of the values stored in this trie
+ */
+public final class PathTrie<V> {
+    private final Node<V> root;
+    private int size;
+
+    public PathTrie() {
+        this.root = new Node<>();
+        this.size = 0;
+    }
+
+    private static List<String> getKeys(Path path) {
+        int nameCount = path.getNameCount();
+        List<String> result = new ArrayList<>(nameCount + 1);
+
+        Path pathRoot = path.getRoot();
+        result.add(pathRoot != null ? pathRoot.toString() : "");
+
+        for (int i = 0; i < nameCount; i++) {
+            result.add(path.getName(i).toString());
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the value associated with the given path.
+     *
+     * @param path the path to associate the value with. This argument cannot
+     *   be {@code null}.
+     * @param value the value to be associated with the given path. This
+     *   argument cannot be {@code null}.
+     * @return the value previously associated with the given path or
+     *   {@code null} if there was none
+     */
+    public V put(Path path, V value) {
+        ExceptionHelper.checkNotNullArgument(path, "path");
+        ExceptionHelper.checkNotNullArgument(value, "value");
+
+        Node<V> node = root;
+        for (String key: getKeys(path)) {
+            node = node.getOrCreateChild(key);
+        }
+
+        V prevValue = node.value;
+        node.value = value;
+        if (prevValue == null) {
+            size++;
+        }
+        return prevValue;
+    }
+
+    /**
+     * Returns the value associated with exactly the given path.
+     *
+     * @param path the path whose value is to be returned. This argument
+     *   cannot be {@code null}.
+     * @return the value associated with the given path or {@code null} if
+     *   there is no value associated with the given path
+     */
+    public V get(Path path) {
+        ExceptionHelper.checkNotNullArgument(path, "path");
+
+        Node<V> node = root;
+        for (String key: getKeys(path)) {
+            node = node.tryGetChild(key);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Removes the value associated with the given path (but not the values of
+     * its sub paths).
+     *
+     * @param path the path whose value is to be removed. This argument cannot
+     *   be {@code null}.
+     * @return the removed value or {@code null} if there was no value
+     *   associated with the given path
+     */
+    public V remove(Path path) {
+        ExceptionHelper.checkNotNullArgument(path, "path");
+
+        List<String> keys = getKeys(path);
+        List<Node<V>> nodePath = new ArrayList<>(keys.size() + 1);
+
+        Node<V> node = root;
+        nodePath.add(node);
+        for (String key: keys) {
+            node = node.tryGetChild(key);
+            if (node == null) {
+                return null;
+            }
+            nodePath.add(node);
+        }
+
+        V prevValue = node.value;
+        if (prevValue == null) {
+            return null;
+        }
+
+        node.value = null;
+        size--;
+
+        // Remove the nodes no longer leading to any value.
+        for (int i = keys.size(); i > 0; i--) {
+            Node<V> current = nodePath.get(i);
+            if (current.value != null || !current.isLeaf()) {
+                break;
+            }
+            nodePath.get(i - 1).removeChild(keys.get(i - 1));
+        }
+
+        return prevValue;
+    }
+
+    /**
+     * Returns the value associated with the longest path which is the given
+     * path or one of its ancestors.
+     *
+     * @param path the path whose owner value is to be returned. This argument
+     *   cannot be {@code null}.
+     * @return the value associated with the longest path which is the given
+     *   path or one of its ancestors, or {@code null} if there is no such value
+     */
+    public V findLongestPrefixValue(Path path) {
+        ExceptionHelper.checkNotNullArgument(path, "path");
+
+        V result = null;
+        Node<V> node = root;
+        for (String key: getKeys(path)) {
+            node = node.tryGetChild(key);
+            if (node == null) {
+                break;
+            }
+            if (node.value != null) {
+                result = node.value;
+            }
+        }
+        return result;
+    }
+
+    private static final class Node<V> {
+        private Map<String, Node<V>> children;
+        private V value;
+
+        public Node() {
+            this.children = null;
+            this.value = null;
+        }
+
+        public boolean isLeaf() {
+            return children == null || children.isEmpty();
+        }
+
+        public Node<V> tryGetChild(String key) {
+            return children != null ? children.get(key) : null;
+        }
+
+        public Node<V> getOrCreateChild(String key) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+
+            Node<V> result = children.get(key);
+            if (result == null) {
+                result = new Node<>();
+                children.put(key, result);
+            }
+            return result;
+        }
+
+        public void removeChild(String key) {
+            if (children != null) {
+                children.remove(key);
+            }
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.netbeans.gradle.project.properties.NbGradleCommonProperties;
 import org.netbeans.gradle.project.properties.NbGradleConfiguration;
 import org.netbeans.gradle.project.properties.PredefinedTask;
 import org.netbeans.gradle.project.properties.standard.BuiltInTasks;
+import org.netbeans.gradle.project.tasks.CommandCancelListener;
 import org.netbeans.gradle.project.tasks.GradleTaskDef;
 import org.netbeans.gradle.project.tasks.GradleTaskDefFactory;
 import org.netbeans.gradle.project.tasks.GradleTasks;
@@ -251,22 +252,57 @@ public final class GradleActionProvider implements ActionProvider {
         Set<GradleActionProviderContext> actionContexts = EnumSet.noneOf(GradleActionProviderContext.class);
         actionContexts.addAll(appliedContext.lookupAll(GradleActionProviderContext.class));
 
-        return GradleTasks.createAsyncGradleTask(project, taskDefFactory, actionContexts, new CommandCompleteListener() {
-            @Override
-            public void onComplete(Throwable error) {
+        return GradleTasks.createAsyncGradleTask(project, taskDefFactory, actionContexts,
+                new ActionCompleteListener(project, appliedContext, customActionsRef));
+    }
+
+    private static final class ActionCompleteListener implements CommandCompleteListener, CommandCancelListener {
+        private final NbGradleProject project;
+        private final Lookup appliedContext;
+        private final AtomicReference<CustomCommandActions> customActionsRef;
+
+        public ActionCompleteListener(
+                NbGradleProject project,
+                Lookup appliedContext,
+                AtomicReference<CustomCommandActions> customActionsRef) {
+            this.project = project;
+            this.appliedContext = appliedContext;
+            this.customActionsRef = customActionsRef;
+        }
+
+        @Override
+        public void onComplete(Throwable error) {
+            try {
+                CustomCommandActions customActions = customActionsRef.get();
+                if (customActions != null) {
+                    CommandCompleteListener completeListener
+                            = customActions.getCommandCompleteListener();
+                    if (completeListener != null) {
+                        completeListener.onComplete(error);
+                    }
+                }
+            } finally {
                 try {
-                    CustomCommandActions customActions = customActionsRef.get();
-                    if (customActions != null) {
-                        CommandCompleteListener completeListener
-                                = customActions.getCommandCompleteListener();
-                        if (completeListener != null) {
-                            completeListener.onComplete(error);
-                        }
+                    // Callers may request to be notified by adding a
+                    // listener to the context of the action.
+                    for (CommandCompleteListener contextListener:
+                            appliedContext.lookupAll(CommandCompleteListener.class)) {
+                        contextListener.onComplete(error);
                     }
                 } finally {
                     GradleTasks.projectTaskCompleteListener(project).onComplete(error);
                 }
             }
-        });
+        }
+
+        @Override
+        public void onCancel() {
+            for (CommandCompleteListener contextListener:
+                    appliedContext.lookupAll(CommandCompleteListener.class)) {
+                if (contextListener instanceof CommandCancelListener) {
+                    ((CommandCancelListener)contextListener).onCancel();
+                }
+            }
+        }
     }
 }
@@ -185,6 +185,7 @@ implements
         }));
 
         listenerRefs.add(registerModelRefreshListener());
+        listenerRefs.add(project.getVisibilityTracker().nodeExpanded());
 
         lastHasSubprojects.set(hasSubProjects());
 
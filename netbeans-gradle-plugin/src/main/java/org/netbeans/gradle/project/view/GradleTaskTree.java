@@ -13,6 +13,7 @@ import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.MultiMapUtils;
+import org.netbeans.gradle.project.model.GradleTaskIndex;
 
 public final class GradleTaskTree {
     private static final Logger LOGGER = Logger.getLogger(GradleTaskTree.class.getName());
@@ -66,43 +67,54 @@ public final class GradleTaskTree {
     public static List<GradleTaskTree> createTaskTree(
             int taskLimit,
             Collection<GradleTaskID> taskIDs) {
-        return createTaskTree(taskLimit, 0, taskIDs);
+        return createTaskTree(taskLimit, GradleTaskIndex.create(taskIDs));
+    }
+
+    public static List<GradleTaskTree> createTaskTree(GradleTaskIndex taskIndex) {
+        return createTaskTree(DEFAULT_TASK_LIMIT, taskIndex);
+    }
+
+    public static List<GradleTaskTree> createTaskTree(
+            int taskLimit,
+            GradleTaskIndex taskIndex) {
+        ExceptionHelper.checkNotNullArgument(taskIndex, "taskIndex");
+        return createTaskTree(taskLimit, 0, taskIndex.getEntries());
     }
 
     private static List<GradleTaskTree> createTaskTree(
             int taskLimit,
             int skipCharCount,
-            Collection<GradleTaskID> taskIDs) {
-        int taskCount = taskIDs.size();
+            List<GradleTaskIndex.Entry> tasks) {
+        int taskCount = tasks.size();
         if (taskCount <= taskLimit || taskCount <= 1) {
-            return toLeafs(taskIDs);
+            return toLeafs(tasks);
         }
 
-        Map<String, List<GradleTaskID>> splitTasks = new LinkedHashMap<>();
-        for (GradleTaskID taskID: taskIDs) {
-            String name = taskID.getName();
-            int nextPos = getNextWordStartPos(skipCharCount, name);
+        Map<String, List<GradleTaskIndex.Entry>> splitTasks = new LinkedHashMap<>();
+        for (GradleTaskIndex.Entry task: tasks) {
+            String name = task.getName();
+            int nextPos = task.getNextWordStartPos(skipCharCount);
             if (nextPos < 0) {
-                MultiMapUtils.addToMultiMap(name, taskID, splitTasks);
+                MultiMapUtils.addToMultiMap(name, task, splitTasks);
             }
             else {
                 String prefix = name.substring(0, nextPos);
-                MultiMapUtils.addToMultiMap(prefix, taskID, splitTasks);
+                MultiMapUtils.addToMultiMap(prefix, task, splitTasks);
             }
         }
 
         int splitTasksSize = splitTasks.size();
 
         if (splitTasksSize == 1) {
-            Map.Entry<String, List<GradleTaskID>> task
+            Map.Entry<String, List<GradleTaskIndex.Entry>> task
                     = splitTasks.entrySet().iterator().next();
 
             int nextSkipCharCount = task.getKey().length();
-            return createTaskTree(taskLimit, nextSkipCharCount, taskIDs);
+            return createTaskTree(taskLimit, nextSkipCharCount, tasks);
         }
         else {
             List<GradleTaskTree> result = new ArrayList<>(splitTasksSize);
-            for (Map.Entry<String, List<GradleTaskID>> entry: splitTasks.entrySet()) {
+            for (Map.Entry<String, List<GradleTaskIndex.Entry>> entry: splitTasks.entrySet()) {
                 GradleTaskTree subTree = createTaskTree(taskLimit, entry);
                 if (subTree != null) {
                     result.add(subTree);
@@ -122,9 +134,9 @@ public final class GradleTaskTree {
 
     private static GradleTaskTree createTaskTree(
             int taskLimit,
-            Map.Entry<String, List<GradleTaskID>> entry) {
+            Map.Entry<String, List<GradleTaskIndex.Entry>> entry) {
 
-        List<GradleTaskID> childTasks = entry.getValue();
+        List<GradleTaskIndex.Entry> childTasks = entry.getValue();
         int childrenCount = childTasks.size();
         if (childrenCount > 1) {
             String key = entry.getKey();
@@ -134,89 +146,18 @@ public final class GradleTaskTree {
             return new GradleTaskTree(key, subTrees);
         }
         else if (childrenCount == 1) {
-            return new GradleTaskTree(childTasks.get(0));
+            return new GradleTaskTree(childTasks.get(0).getTask());
         }
         else {
             return null;
         }
     }
 
-    private static List<GradleTaskTree> toLeafs(Collection<GradleTaskID> taskIDs) {
-        List<GradleTaskTree> result = new ArrayList<>(taskIDs.size());
-        for (GradleTaskID taskID: taskIDs) {
-            result.add(new GradleTaskTree(taskID));
+    private static List<GradleTaskTree> toLeafs(List<GradleTaskIndex.Entry> tasks) {
+        List<GradleTaskTree> result = new ArrayList<>(tasks.size());
+        for (GradleTaskIndex.Entry task: tasks) {
+            result.add(new GradleTaskTree(task.getTask()));
         }
         return result;
     }
-
-    private static CharacterType getCharacterType(char ch) {
-        switch (Character.getType(ch)) {
-            case Character.UPPERCASE_LETTER:
-                return CharacterType.UPPERCASE_LETTER;
-            case Character.LOWERCASE_LETTER:
-                return CharacterType.LOWERCASE_LETTER;
-            case Character.DECIMAL_DIGIT_NUMBER:
-                return CharacterType.NUMBER;
-            default:
-                return CharacterType.OTHER;
-        }
-    }
-
-    private static int getNextWordStartPos(int startPos, String str) {
-        int length = str.length();
-        if (length <= startPos + 1) {
-            // We need at least two characters to have a chance for a next word.
-            return -1;
-        }
-
-        CharacterType firstCh = getCharacterType(str.charAt(startPos));
-        CharacterType secondCh = getCharacterType(str.charAt(startPos + 1));
-
-        int startOffset;
-        CharacterType typeToAvoid;
-        if (firstCh == CharacterType.UPPERCASE_LETTER) {
-            if (!secondCh.letter) {
-                return startPos + 1;
-            }
-            typeToAvoid = secondCh;
-            startOffset = startPos + 2;
-        }
-        else {
-            typeToAvoid = firstCh;
-            startOffset = startPos + 1;
-        }
-
-        if (typeToAvoid == CharacterType.OTHER) {
-            for (int i = startPos + 1; i < length; i++) {
-                typeToAvoid = getCharacterType(str.charAt(i));
-                if (typeToAvoid != CharacterType.OTHER) {
-                    startOffset = i + 1;
-                    break;
-                }
-            }
-            if (typeToAvoid == CharacterType.OTHER) {
-                return -1;
-            }
-        }
-
-        for (int i = startOffset; i < length; i++) {
-            if (typeToAvoid != getCharacterType(str.charAt(i))) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
-    private enum CharacterType {
-        LOWERCASE_LETTER(true),
-        UPPERCASE_LETTER(true),
-        NUMBER(false),
-        OTHER(false);
-
-        public final boolean letter;
-
-        private CharacterType(boolean letter) {
-            this.letter = letter;
-        }
-    }
 }
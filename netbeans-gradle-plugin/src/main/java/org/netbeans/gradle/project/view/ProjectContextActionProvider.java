@@ -30,6 +30,7 @@ import org.netbeans.gradle.project.api.nodes.GradleProjectContextActions;
 import org.netbeans.gradle.project.api.task.CustomCommandActions;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.model.GradleTaskIndex;
 import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.properties.NbGradleCommonProperties;
 import org.netbeans.gradle.project.properties.PredefinedTask;
@@ -460,6 +461,7 @@ public final class ProjectContextActionProvider implements ContextActionProvider
         private final NbGradleProject project;
         private final JMenu menu;
         private NbGradleModel lastUsedModel;
+        private GradleTaskIndex lastTaskIndex;
 
         public TasksMenuBuilder(NbGradleProject project, JMenu menu) {
             ExceptionHelper.checkNotNullArgument(project, "project");
@@ -468,6 +470,7 @@ public final class ProjectContextActionProvider implements ContextActionProvider
             this.project = project;
             this.menu = menu;
             this.lastUsedModel = null;
+            this.lastTaskIndex = null;
         }
 
         private void addToMenu(JMenu rootMenu, List<GradleTaskTree> rootNodes) {
@@ -509,10 +512,17 @@ public final class ProjectContextActionProvider implements ContextActionProvider
 
             lastUsedModel = projectModel;
 
-            Collection<GradleTaskID> tasks = projectModel.getMainProject().getTasks();
+            GradleTaskIndex taskIndex = projectModel.getMainProject().getTaskIndex();
+            if (taskIndex.hasSameTasks(lastTaskIndex)) {
+                // Reloading the model rarely changes the tasks, so there is
+                // no need to rebuild the menu.
+                return;
+            }
+
+            lastTaskIndex = taskIndex;
 
             menu.removeAll();
-            addToMenu(menu, GradleTaskTree.createTaskTree(tasks));
+            addToMenu(menu, GradleTaskTree.createTaskTree(taskIndex));
         }
     }
 
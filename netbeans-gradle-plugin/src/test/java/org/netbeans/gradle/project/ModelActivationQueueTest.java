@@ -0,0 +1,136 @@
+package org.netbeans.gradle.project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.GenericUpdateTaskExecutor;
+import org.jtrim.concurrent.ManualTaskExecutor;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ModelActivationQueueTest {
+    private static boolean isActivated(ModelActivationQueue<?> queue) {
+        return queue.tryWaitForActivation(Cancellation.UNCANCELABLE_TOKEN, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testNothingSubmitted() {
+        ManualTaskExecutor executor = new ManualTaskExecutor(false);
+        RecordingActivator activator = new RecordingActivator();
+        ModelActivationQueue<String> queue = new ModelActivationQueue<>(new GenericUpdateTaskExecutor(executor), activator);
+
+        assertTrue(isActivated(queue));
+        queue.waitForActivation(Cancellation.UNCANCELABLE_TOKEN);
+    }
+
+    @Test
+    public void testActivatesSubmittedModel() {
+        ManualTaskExecutor executor = new ManualTaskExecutor(false);
+        RecordingActivator activator = new RecordingActivator();
+        ModelActivationQueue<String> queue = new ModelActivationQueue<>(new GenericUpdateTaskExecutor(executor), activator);
+
+        queue.submit("model1");
+        assertEquals("Activation must not be done by submit", Collections.emptyList(), activator.getModels());
+        assertFalse(isActivated(queue));
+
+        executor.executeCurrentlySubmitted();
+
+        assertEquals(Arrays.asList("model1"), activator.getModels());
+        assertTrue(isActivated(queue));
+    }
+
+    @Test
+    public void testQueuedOutdatedModelIsSkipped() {
+        ManualTaskExecutor executor = new ManualTaskExecutor(false);
+        RecordingActivator activator = new RecordingActivator();
+        ModelActivationQueue<String> queue = new ModelActivationQueue<>(new GenericUpdateTaskExecutor(executor), activator);
+
+        queue.submit("model1");
+        queue.submit("model2");
+        queue.submit("model3");
+
+        executor.executeCurrentlySubmitted();
+
+        assertEquals(Arrays.asList("model3"), activator.getModels());
+        assertTrue(isActivated(queue));
+    }
+
+    @Test
+    public void testActivationInProgressIsCanceled() {
+        ManualTaskExecutor executor = new ManualTaskExecutor(false);
+
+        final List<String> models = new ArrayList<>();
+        final List<Boolean> canceledStates = new ArrayList<>();
+        final ModelActivationQueue<String>[] queueRef = createQueueArray();
+
+        ModelActivationQueue<String> queue = new ModelActivationQueue<>(
+                new GenericUpdateTaskExecutor(executor),
+                new ModelActivationQueue.Activator<String>() {
+                    @Override
+                    public void activate(CancellationToken cancelToken, String model) {
+                        models.add(model);
+                        if ("model1".equals(model)) {
+                            // A newer model arrives during the activation.
+                            assertFalse(cancelToken.isCanceled());
+                            queueRef[0].submit("model2");
+                        }
+                        canceledStates.add(cancelToken.isCanceled());
+                    }
+                });
+        queueRef[0] = queue;
+
+        queue.submit("model1");
+        executor.executeCurrentlySubmitted();
+
+        assertEquals(Arrays.asList("model1"), models);
+        assertEquals(Arrays.asList(true), canceledStates);
+        assertFalse("The superseding model was not activated yet.", isActivated(queue));
+
+        executor.executeCurrentlySubmitted();
+
+        assertEquals(Arrays.asList("model1", "model2"), models);
+        assertEquals(Arrays.asList(true, false), canceledStates);
+        assertTrue(isActivated(queue));
+    }
+
+    @Test
+    public void testWaitingFollowsTheLatestModel() {
+        ManualTaskExecutor executor = new ManualTaskExecutor(false);
+        RecordingActivator activator = new RecordingActivator();
+        ModelActivationQueue<String> queue = new ModelActivationQueue<>(new GenericUpdateTaskExecutor(executor), activator);
+
+        queue.submit("model1");
+        executor.executeCurrentlySubmitted();
+        assertTrue(isActivated(queue));
+
+        queue.submit("model2");
+        assertFalse(isActivated(queue));
+
+        executor.executeCurrentlySubmitted();
+        assertTrue(isActivated(queue));
+        assertEquals(Arrays.asList("model1", "model2"), activator.getModels());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ModelActivationQueue<String>[] createQueueArray() {
+        return (ModelActivationQueue<String>[])new ModelActivationQueue<?>[1];
+    }
+
+    private static final class RecordingActivator implements ModelActivationQueue.Activator<String> {
+        private final List<String> models = new ArrayList<>();
+
+        @Override
+        public void activate(CancellationToken cancelToken, String model) {
+            models.add(model);
+        }
+
+        public List<String> getModels() {
+            return models;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.netbeans.gradle.project.java;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.netbeans.spi.java.classpath.support.ClassPathSupport;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GlobalPathRegistrarTest {
+    private static final long DELAY_MS = 200;
+
+    private AtomicLong currentTimeNanos;
+    private Queue<ScheduledTask> scheduledTasks;
+    private GlobalPathRegistrar.PathRegistry registry;
+    private GlobalPathRegistrar registrar;
+
+    @Before
+    public void setUp() {
+        currentTimeNanos = new AtomicLong(0);
+        scheduledTasks = new LinkedList<>();
+        registry = mock(GlobalPathRegistrar.PathRegistry.class);
+
+        ScheduledExecutorService timer = mock(ScheduledExecutorService.class);
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                Object[] args = invocation.getArguments();
+                TimeUnit unit = (TimeUnit)args[2];
+                scheduledTasks.add(new ScheduledTask((Runnable)args[0], unit.toMillis((Long)args[1])));
+                return null;
+            }
+        }).when(timer).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        registrar = new GlobalPathRegistrar(DELAY_MS, registry, timer, new NbSupplier<Long>() {
+            @Override
+            public Long get() {
+                return currentTimeNanos.get();
+            }
+        });
+    }
+
+    private static ClassPath classPath() {
+        return ClassPathSupport.createClassPath(new URL[0]);
+    }
+
+    private void setTimeMs(long timeMs) {
+        currentTimeNanos.set(TimeUnit.MILLISECONDS.toNanos(timeMs));
+    }
+
+    private long runScheduledTask() {
+        ScheduledTask task = scheduledTasks.poll();
+        assertNotNull("Expected a scheduled flush.", task);
+        task.task.run();
+        return task.delayMs;
+    }
+
+    @Test
+    public void testRequestsAreFlushedTogether() {
+        ClassPath classPath1 = classPath();
+        ClassPath classPath2 = classPath();
+        ClassPath classPath3 = classPath();
+
+        registrar.register(ClassPath.SOURCE, classPath1);
+        registrar.register(ClassPath.SOURCE, classPath2);
+        registrar.register(ClassPath.COMPILE, classPath3);
+        assertEquals(1, scheduledTasks.size());
+        verifyZeroInteractions(registry);
+
+        setTimeMs(DELAY_MS);
+        assertEquals(DELAY_MS, runScheduledTask());
+
+        verify(registry).register(ClassPath.SOURCE, new ClassPath[]{classPath1, classPath2});
+        verify(registry).register(ClassPath.COMPILE, new ClassPath[]{classPath3});
+        verifyNoMoreInteractions(registry);
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    public void testFlushIsDelayedByNewRequests() {
+        ClassPath classPath1 = classPath();
+        ClassPath classPath2 = classPath();
+
+        registrar.register(ClassPath.SOURCE, classPath1);
+        setTimeMs(150);
+        registrar.register(ClassPath.SOURCE, classPath2);
+        assertEquals(1, scheduledTasks.size());
+
+        setTimeMs(DELAY_MS);
+        runScheduledTask();
+        verifyZeroInteractions(registry);
+
+        setTimeMs(350);
+        assertEquals(150, runScheduledTask());
+        verify(registry).register(ClassPath.SOURCE, new ClassPath[]{classPath1, classPath2});
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    public void testFlushIsNotDelayedBeyondMaxDelay() {
+        registrar.register(ClassPath.SOURCE, classPath());
+
+        for (long timeMs = DELAY_MS; timeMs < 10 * DELAY_MS; timeMs += DELAY_MS) {
+            setTimeMs(timeMs - 50);
+            registrar.register(ClassPath.SOURCE, classPath());
+            setTimeMs(timeMs);
+            runScheduledTask();
+            verifyZeroInteractions(registry);
+        }
+
+        // The last request would delay the flush until 2100 ms, but the
+        // first request has been waiting for ten times the delay by 2000 ms.
+        setTimeMs(1900);
+        registrar.register(ClassPath.SOURCE, classPath());
+        setTimeMs(2000);
+        runScheduledTask();
+
+        verify(registry).register(eq(ClassPath.SOURCE), any(ClassPath[].class));
+        assertTrue(scheduledTasks.isEmpty());
+    }
+
+    @Test
+    public void testRegisterAndUnregisterCancelEachOther() {
+        ClassPath classPath1 = classPath();
+        ClassPath classPath2 = classPath();
+
+        registrar.register(ClassPath.SOURCE, classPath1);
+        registrar.unregister(ClassPath.SOURCE, classPath1);
+        registrar.unregister(ClassPath.COMPILE, classPath2);
+        registrar.register(ClassPath.COMPILE, classPath2);
+
+        setTimeMs(DELAY_MS);
+        runScheduledTask();
+        verifyZeroInteractions(registry);
+    }
+
+    @Test
+    public void testCancellationRequiresSameType() {
+        ClassPath classPath = classPath();
+
+        registrar.register(ClassPath.SOURCE, classPath);
+        registrar.unregister(ClassPath.COMPILE, classPath);
+
+        setTimeMs(DELAY_MS);
+        runScheduledTask();
+
+        verify(registry).register(ClassPath.SOURCE, new ClassPath[]{classPath});
+        verify(registry).unregister(ClassPath.COMPILE, new ClassPath[]{classPath});
+    }
+
+    @Test
+    public void testUnregistersOneByOneIfBatchFails() {
+        ClassPath registered = classPath();
+        ClassPath notRegistered = classPath();
+
+        doThrow(new IllegalArgumentException("Test"))
+                .when(registry)
+                .unregister(ClassPath.SOURCE, new ClassPath[]{registered, notRegistered});
+        when(registry.getPaths(ClassPath.SOURCE)).thenReturn(Collections.singleton(registered));
+
+        registrar.unregister(ClassPath.SOURCE, registered);
+        registrar.unregister(ClassPath.SOURCE, notRegistered);
+
+        setTimeMs(DELAY_MS);
+        runScheduledTask();
+
+        verify(registry).unregister(ClassPath.SOURCE, new ClassPath[]{registered});
+        verify(registry, never()).unregister(ClassPath.SOURCE, new ClassPath[]{notRegistered});
+    }
+
+    private static final class ScheduledTask {
+        public final Runnable task;
+        public final long delayMs;
+
+        public ScheduledTask(Runnable task, long delayMs) {
+            this.task = task;
+            this.delayMs = delayMs;
+        }
+    }
+}
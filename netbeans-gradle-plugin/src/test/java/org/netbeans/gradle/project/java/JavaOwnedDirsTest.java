@@ -0,0 +1,150 @@
+package org.netbeans.gradle.project.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.util.SafeTmpFolder;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class JavaOwnedDirsTest {
+    @Rule
+    public final SafeTmpFolder tmpDir = new SafeTmpFolder();
+
+    private static Project mockProject(File projectDir) {
+        Project project = mock(Project.class);
+        when(project.getProjectDirectory()).thenReturn(FileUtil.toFileObject(projectDir));
+        return project;
+    }
+
+    private static JavaOwnedDirs ownedDirs(File projectDir) {
+        return new JavaOwnedDirs(mockProject(projectDir), projectDir);
+    }
+
+    private static Collection<File> noDirs() {
+        return Collections.emptySet();
+    }
+
+    @Test
+    public void testFilesOfProjectDir() throws IOException {
+        File projectDir = tmpDir.newFolder("project");
+        JavaOwnedDirs dirs = ownedDirs(projectDir);
+        try {
+            assertTrue(dirs.isOwned(new File(projectDir, "src/main/java/Test.java")));
+            assertTrue(dirs.isOwned(projectDir));
+            assertFalse(dirs.isOwned(tmpDir.newFolder("other")));
+        } finally {
+            dirs.close();
+        }
+    }
+
+    @Test
+    public void testNestedGradleProjects() throws IOException {
+        File projectDir = tmpDir.newFolder("root");
+        File subprojectDir = new File(projectDir, "sub");
+        File otherProjectDir = tmpDir.newFolder("other-root");
+
+        JavaOwnedDirs dirs = ownedDirs(projectDir);
+        try {
+            dirs.updateOwnedDirs(noDirs(), Arrays.asList(projectDir, subprojectDir, otherProjectDir));
+
+            assertTrue(dirs.isOwned(new File(projectDir, "src/main/java/Test.java")));
+            assertFalse(dirs.isOwned(new File(subprojectDir, "src/main/java/Test.java")));
+            assertFalse(dirs.isOwned(subprojectDir));
+
+            dirs.updateOwnedDirs(noDirs(), Collections.singleton(projectDir));
+            assertTrue(dirs.isOwned(new File(subprojectDir, "src/main/java/Test.java")));
+        } finally {
+            dirs.close();
+        }
+    }
+
+    @Test
+    public void testNestedJavaProject() throws IOException {
+        File projectDir = tmpDir.newFolder("outer");
+        File nestedDir = tmpDir.newFolder("outer", "nested");
+
+        JavaOwnedDirs outer = ownedDirs(projectDir);
+        JavaOwnedDirs nested = ownedDirs(nestedDir);
+        try {
+            File nestedFile = new File(nestedDir, "Test.java");
+            assertFalse(outer.isOwned(nestedFile));
+            assertTrue(nested.isOwned(nestedFile));
+        } finally {
+            nested.close();
+            outer.close();
+        }
+    }
+
+    @Test
+    public void testExternalDirs() throws IOException {
+        File projectDir = tmpDir.newFolder("project-ext");
+        File externalDir = tmpDir.newFolder("generated");
+        File otherDir = tmpDir.newFolder("not-owned");
+
+        JavaOwnedDirs dirs = ownedDirs(projectDir);
+        try {
+            dirs.updateOwnedDirs(Collections.singleton(externalDir), noDirs());
+            assertTrue(dirs.isOwned(new File(externalDir, "Test.java")));
+            assertFalse(dirs.isOwned(new File(otherDir, "Test.java")));
+
+            dirs.updateOwnedDirs(Collections.singleton(otherDir), noDirs());
+            assertFalse(dirs.isOwned(new File(externalDir, "Test.java")));
+            assertTrue(dirs.isOwned(new File(otherDir, "Test.java")));
+        } finally {
+            dirs.close();
+        }
+    }
+
+    @Test
+    public void testCloseRemovesDirs() throws IOException {
+        File projectDir = tmpDir.newFolder("closed");
+        File externalDir = tmpDir.newFolder("closed-generated");
+
+        JavaOwnedDirs dirs = ownedDirs(projectDir);
+        dirs.updateOwnedDirs(Collections.singleton(externalDir), noDirs());
+        dirs.close();
+
+        assertFalse(dirs.isOwned(new File(projectDir, "Test.java")));
+        assertFalse(dirs.isOwned(new File(externalDir, "Test.java")));
+
+        dirs.updateOwnedDirs(Collections.singleton(externalDir), noDirs());
+        try {
+            assertTrue(dirs.isOwned(new File(projectDir, "Test.java")));
+            assertTrue(dirs.isOwned(new File(externalDir, "Test.java")));
+        } finally {
+            dirs.close();
+        }
+    }
+
+    @Test
+    public void testCloseKeepsDirsOfOtherProject() throws IOException {
+        File projectDir1 = tmpDir.newFolder("project1");
+        File projectDir2 = tmpDir.newFolder("project2");
+        File sharedDir = tmpDir.newFolder("shared");
+
+        JavaOwnedDirs dirs1 = ownedDirs(projectDir1);
+        JavaOwnedDirs dirs2 = ownedDirs(projectDir2);
+        try {
+            dirs1.updateOwnedDirs(Collections.singleton(sharedDir), noDirs());
+            // The directory is taken over by the second project.
+            dirs2.updateOwnedDirs(Collections.singleton(sharedDir), noDirs());
+
+            dirs1.close();
+
+            assertFalse(dirs1.isOwned(new File(sharedDir, "Test.java")));
+            assertTrue(dirs2.isOwned(new File(sharedDir, "Test.java")));
+            assertTrue(dirs2.isOwned(new File(projectDir2, "Test.java")));
+        } finally {
+            dirs2.close();
+            dirs1.close();
+        }
+    }
+}
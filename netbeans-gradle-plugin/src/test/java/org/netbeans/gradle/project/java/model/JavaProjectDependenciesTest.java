@@ -0,0 +1,298 @@
+package org.netbeans.gradle.project.java.model;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jtrim.concurrent.ManualTaskExecutor;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.property.MutableProperty;
+import org.jtrim.property.PropertyFactory;
+import org.jtrim.property.PropertySource;
+import org.junit.Before;
+import org.junit.Test;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.java.JavaCompatibilityModel;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.java.JavaTestModel;
+import org.netbeans.gradle.model.java.JavaTestTask;
+import org.netbeans.gradle.project.util.NbSupplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class JavaProjectDependenciesTest {
+    private static final File PROJECT_DIR = new File("project-dependencies-test").getAbsoluteFile();
+
+    private ManualTaskExecutor executor;
+    private AtomicReference<NbJavaModule> mainModuleRef;
+    private TestCandidateFactory candidateFactory;
+    private JavaProjectDependencies dependencies;
+
+    @Before
+    public void setUp() {
+        executor = new ManualTaskExecutor(true);
+        mainModuleRef = new AtomicReference<>(null);
+        candidateFactory = new TestCandidateFactory();
+        dependencies = new JavaProjectDependencies(new NbSupplier<NbJavaModule>() {
+            @Override
+            public NbJavaModule get() {
+                return mainModuleRef.get();
+            }
+        }, candidateFactory, executor);
+    }
+
+    private void executeAll() {
+        while (executor.executeCurrentlySubmitted() > 0) {
+            // One more time to execute tasks submitted by the executed tasks.
+        }
+    }
+
+    private void update() {
+        dependencies.updateDependencies();
+        executeAll();
+    }
+
+    private Map<File, JavaProjectDependencyDef> resolved() {
+        return dependencies.translatedDependencies().getValue();
+    }
+
+    private static File dependency(String name) {
+        return new File(new File(PROJECT_DIR, "deps"), name + ".jar");
+    }
+
+    private static JavaSourceSet sourceSet(String name) {
+        File buildDir = new File(PROJECT_DIR, "build");
+        JavaOutputDirs outputDirs = new JavaOutputDirs(
+                Collections.singleton(new File(buildDir, name)),
+                new File(buildDir, name + "-resources"),
+                Collections.<File>emptyList());
+        return new JavaSourceSet.Builder(name, outputDirs).create();
+    }
+
+    private static JavaProjectDependencyDef dependencyDef(JavaSourceSet... sourceSets) {
+        return new JavaProjectDependencyDef(Arrays.asList(sourceSets));
+    }
+
+    private static NbJavaModule module(File... dependencies) {
+        List<File> classpath = Arrays.asList(dependencies);
+
+        JavaSourceSet.Builder mainSourceSet = new JavaSourceSet.Builder("main", new JavaOutputDirs(
+                Collections.singleton(new File(PROJECT_DIR, "classes")),
+                new File(PROJECT_DIR, "resources"),
+                Collections.<File>emptyList()));
+        mainSourceSet.setClasspaths(new JavaClassPaths(classpath, classpath));
+
+        GenericProjectProperties properties = new GenericProjectProperties(
+                "testProject",
+                ":testProject",
+                PROJECT_DIR,
+                new File(PROJECT_DIR, "build.gradle"));
+        return new NbJavaModule(
+                properties,
+                new JavaCompatibilityModel("1.8", "1.8"),
+                Collections.singletonList(mainSourceSet.create()),
+                Collections.<NbListedDir>emptyList(),
+                Collections.<NbJarOutput>emptyList(),
+                new JavaTestModel(Collections.<JavaTestTask>emptyList()),
+                NbCodeCoverage.NO_CODE_COVERAGE);
+    }
+
+    @Test
+    public void testResolvesOwnedDependencies() {
+        File ownedDependency = dependency("owned");
+        File externalDependency = dependency("external");
+        JavaProjectDependencyDef def = dependencyDef(sourceSet("main"));
+        candidateFactory.addOwnedDependency(ownedDependency, def);
+
+        mainModuleRef.set(module(ownedDependency, externalDependency));
+        update();
+
+        assertEquals(Collections.singletonMap(ownedDependency, def), resolved());
+        assertSame(def, dependencies.tryGetDependency(ownedDependency));
+        assertNull(dependencies.tryGetDependency(externalDependency));
+    }
+
+    @Test
+    public void testDirtyDependencyIsUpdated() {
+        File dependency1 = dependency("dep1");
+        File dependency2 = dependency("dep2");
+        JavaProjectDependencyDef def1 = dependencyDef(sourceSet("main"));
+        JavaProjectDependencyDef def2 = dependencyDef(sourceSet("main"));
+        TestProperty property1 = candidateFactory.addOwnedDependency(dependency1, def1);
+        candidateFactory.addOwnedDependency(dependency2, def2);
+
+        mainModuleRef.set(module(dependency1, dependency2));
+        update();
+
+        JavaProjectDependencyDef newDef1 = dependencyDef(sourceSet("main"), sourceSet("test"));
+        property1.setValue(newDef1);
+        executeAll();
+
+        assertSame(newDef1, dependencies.tryGetDependency(dependency1));
+        assertSame(def2, dependencies.tryGetDependency(dependency2));
+        assertEquals(2, candidateFactory.getCreatedCandidateCount());
+    }
+
+    @Test
+    public void testEquivalentDependencyKeepsPreviousValue() {
+        File dependency = dependency("dep");
+        JavaSourceSet sourceSet = sourceSet("main");
+        JavaProjectDependencyDef def = dependencyDef(sourceSet);
+        TestProperty property = candidateFactory.addOwnedDependency(dependency, def);
+
+        mainModuleRef.set(module(dependency));
+        update();
+        Map<File, JavaProjectDependencyDef> prevResolved = resolved();
+
+        property.setValue(dependencyDef(sourceSet));
+        executeAll();
+
+        assertSame(prevResolved, resolved());
+        assertSame(def, dependencies.tryGetDependency(dependency));
+    }
+
+    @Test
+    public void testDependencyNoLongerProducedIsRemoved() {
+        File dependency = dependency("dep");
+        TestProperty property = candidateFactory.addOwnedDependency(dependency, dependencyDef(sourceSet("main")));
+
+        mainModuleRef.set(module(dependency));
+        update();
+
+        property.setValue(null);
+        executeAll();
+
+        assertTrue(resolved().isEmpty());
+    }
+
+    @Test
+    public void testNewModelReusesCandidates() {
+        File dependency1 = dependency("dep1");
+        File dependency2 = dependency("dep2");
+        TestProperty property1 = candidateFactory.addOwnedDependency(dependency1, dependencyDef(sourceSet("main")));
+        TestProperty property2 = candidateFactory.addOwnedDependency(dependency2, dependencyDef(sourceSet("main")));
+
+        mainModuleRef.set(module(dependency1, dependency2));
+        update();
+
+        mainModuleRef.set(module(dependency1));
+        update();
+
+        assertEquals(Collections.singleton(dependency1), resolved().keySet());
+        assertEquals(2, candidateFactory.getCreatedCandidateCount());
+        assertEquals(1, property1.getListenerCount());
+        assertEquals(0, property2.getListenerCount());
+    }
+
+    @Test
+    public void testReleaseUnregistersListeners() {
+        File dependency = dependency("dep");
+        JavaProjectDependencyDef def = dependencyDef(sourceSet("main"));
+        TestProperty property = candidateFactory.addOwnedDependency(dependency, def);
+
+        mainModuleRef.set(module(dependency));
+        update();
+        assertEquals(1, property.getListenerCount());
+
+        dependencies.releaseDependencies();
+        executeAll();
+        assertEquals(0, property.getListenerCount());
+
+        JavaProjectDependencyDef newDef = dependencyDef(sourceSet("main"));
+        property.setValue(newDef);
+        executeAll();
+        assertSame(def, dependencies.tryGetDependency(dependency));
+
+        update();
+        assertEquals(1, property.getListenerCount());
+        assertSame(newDef, dependencies.tryGetDependency(dependency));
+    }
+
+    private static final class TestCandidateFactory implements JavaProjectDependencies.CandidateFactory {
+        private final Map<File, Project> owners;
+        private final Map<File, TestProperty> properties;
+        private final AtomicInteger createdCandidateCount;
+
+        public TestCandidateFactory() {
+            this.owners = new HashMap<>();
+            this.properties = new HashMap<>();
+            this.createdCandidateCount = new AtomicInteger(0);
+        }
+
+        public TestProperty addOwnedDependency(File dependency, JavaProjectDependencyDef def) {
+            TestProperty property = new TestProperty(def);
+            owners.put(dependency, mock(Project.class));
+            properties.put(dependency, property);
+            return property;
+        }
+
+        public int getCreatedCandidateCount() {
+            return createdCandidateCount.get();
+        }
+
+        @Override
+        public Project tryGetOwner(File dependency) {
+            return owners.get(dependency);
+        }
+
+        @Override
+        public ProjectDependencyCandidate createCandidate(Project owner, File dependency) {
+            createdCandidateCount.incrementAndGet();
+            return new ProjectDependencyCandidate(owner, dependency, properties.get(dependency));
+        }
+    }
+
+    private static final class TestProperty implements PropertySource<JavaProjectDependencyDef> {
+        private final MutableProperty<JavaProjectDependencyDef> wrapped;
+        private final AtomicInteger listenerCount;
+
+        public TestProperty(JavaProjectDependencyDef initialValue) {
+            this.wrapped = PropertyFactory.memProperty(initialValue, true);
+            this.listenerCount = new AtomicInteger(0);
+        }
+
+        public void setValue(JavaProjectDependencyDef value) {
+            wrapped.setValue(value);
+        }
+
+        public int getListenerCount() {
+            return listenerCount.get();
+        }
+
+        @Override
+        public JavaProjectDependencyDef getValue() {
+            return wrapped.getValue();
+        }
+
+        @Override
+        public ListenerRef addChangeListener(Runnable listener) {
+            final ListenerRef wrappedRef = wrapped.addChangeListener(listener);
+            final AtomicBoolean registered = new AtomicBoolean(true);
+            listenerCount.incrementAndGet();
+
+            return new ListenerRef() {
+                @Override
+                public boolean isRegistered() {
+                    return registered.get();
+                }
+
+                @Override
+                public void unregister() {
+                    if (registered.compareAndSet(true, false)) {
+                        listenerCount.decrementAndGet();
+                    }
+                    wrappedRef.unregister();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.netbeans.gradle.project.java.model.idea;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.gradle.tooling.model.idea.IdeaModule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.netbeans.gradle.project.java.model.idea.IdeaTestModels.*;
+
+public class IdeaJavaModelUtilsTest {
+    private static final File ROOT_DIR = new File("idea-model-root");
+
+    private static ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> newCache() {
+        return new ConcurrentHashMap<>();
+    }
+
+    private static void fetchAll(
+            ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> cache,
+            IdeaModule... modules) {
+        for (IdeaModule module: modules) {
+            IdeaJavaModelUtils.fetchAllDependencies(module, cache);
+        }
+    }
+
+    @Test
+    public void testCycleFreeDependenciesAreCached() {
+        IdeaModule app = module(":app", new File(ROOT_DIR, "app"));
+        IdeaModule lib = module(":lib", new File(ROOT_DIR, "lib"));
+        setDependencies(app, moduleDependency("COMPILE", lib));
+        setDependencies(lib, fileDependency("COMPILE", new File("lib.jar")));
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> cache = newCache();
+        IdeaJavaModelUtils.ProjectClassPaths classPaths = IdeaJavaModelUtils.fetchAllDependencies(app, cache);
+
+        assertEquals(new HashSet<>(Arrays.asList(":app", ":lib")), cache.keySet());
+        assertTrue(classPaths.main.getCompileClasspaths().contains(new File("lib.jar")));
+    }
+
+    @Test
+    public void testDependenciesOfCycleDoNotDependOnParseOrder() {
+        IdeaModule lib1 = module(":lib1", new File(ROOT_DIR, "lib1"));
+        IdeaModule lib2 = module(":lib2", new File(ROOT_DIR, "lib2"));
+        IdeaModule util = module(":util", new File(ROOT_DIR, "util"));
+        setDependencies(lib1,
+                moduleDependency("COMPILE", lib2),
+                moduleDependency("COMPILE", util),
+                fileDependency("COMPILE", new File("lib1.jar")));
+        setDependencies(lib2,
+                moduleDependency("COMPILE", lib1),
+                fileDependency("COMPILE", new File("lib2.jar")));
+        setDependencies(util, fileDependency("COMPILE", new File("util.jar")));
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> cache1 = newCache();
+        fetchAll(cache1, lib1);
+        IdeaJavaModelUtils.ProjectClassPaths lib2Paths1 = IdeaJavaModelUtils.fetchAllDependencies(lib2, cache1);
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> cache2 = newCache();
+        IdeaJavaModelUtils.ProjectClassPaths lib2Paths2 = IdeaJavaModelUtils.fetchAllDependencies(lib2, cache2);
+
+        assertEquals(lib2Paths2.main, lib2Paths1.main);
+        assertEquals(lib2Paths2.test, lib2Paths1.test);
+        assertTrue(lib2Paths1.main.getCompileClasspaths().contains(new File("lib1.jar")));
+        assertTrue(lib2Paths1.main.getCompileClasspaths().contains(new File("util.jar")));
+
+        assertFalse(cache1.containsKey(":lib1"));
+        assertFalse(cache1.containsKey(":lib2"));
+        assertTrue(cache1.containsKey(":util"));
+    }
+
+    @Test
+    public void testSharedDependenciesOfUnchangedProject() {
+        File rootDir = new File(ROOT_DIR, "unchanged");
+        IdeaModule app = module(":app", new File(rootDir, "app"));
+        IdeaModule lib = module(":lib", new File(rootDir, "lib"));
+        setDependencies(app, moduleDependency("COMPILE", lib));
+        setDependencies(lib, fileDependency("COMPILE", new File("lib.jar")));
+
+        IdeaModuleIndex index = new IdeaModuleIndex(project(app, lib));
+        Map<String, List<String>> signatures = IdeaJavaModelUtils.getDependencySignatures(index.getModules());
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> cache
+                = IdeaJavaModelUtils.getSharedDependencies(rootDir, index, signatures);
+        assertTrue(cache.isEmpty());
+
+        fetchAll(cache, app, lib);
+        IdeaJavaModelUtils.storeSharedDependencies(rootDir, signatures, cache);
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> reused
+                = IdeaJavaModelUtils.getSharedDependencies(rootDir, index, signatures);
+        assertEquals(cache, reused);
+    }
+
+    @Test
+    public void testSharedDependenciesInvalidateDependents() {
+        File rootDir = new File(ROOT_DIR, "changed");
+        IdeaModule app = module(":app", new File(rootDir, "app"));
+        IdeaModule lib = module(":lib", new File(rootDir, "lib"));
+        IdeaModule util = module(":util", new File(rootDir, "util"));
+        IdeaModule other = module(":other", new File(rootDir, "other"));
+        setDependencies(app, moduleDependency("COMPILE", lib));
+        setDependencies(lib, moduleDependency("COMPILE", util));
+        setDependencies(util, fileDependency("COMPILE", new File("util-1.0.jar")));
+        setDependencies(other, fileDependency("COMPILE", new File("other.jar")));
+
+        IdeaModuleIndex index = new IdeaModuleIndex(project(app, lib, util, other));
+        Map<String, List<String>> signatures = IdeaJavaModelUtils.getDependencySignatures(index.getModules());
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> cache
+                = IdeaJavaModelUtils.getSharedDependencies(rootDir, index, signatures);
+        fetchAll(cache, app, lib, util, other);
+        IdeaJavaModelUtils.storeSharedDependencies(rootDir, signatures, cache);
+
+        setDependencies(util, fileDependency("COMPILE", new File("util-2.0.jar")));
+
+        IdeaModuleIndex newIndex = new IdeaModuleIndex(project(app, lib, util, other));
+        Map<String, List<String>> newSignatures = IdeaJavaModelUtils.getDependencySignatures(newIndex.getModules());
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> reused
+                = IdeaJavaModelUtils.getSharedDependencies(rootDir, newIndex, newSignatures);
+        assertEquals(new HashSet<>(Arrays.asList(":other")), reused.keySet());
+
+        IdeaJavaModelUtils.ProjectClassPaths appPaths = IdeaJavaModelUtils.fetchAllDependencies(app, reused);
+        assertTrue(appPaths.main.getCompileClasspaths().contains(new File("util-2.0.jar")));
+        assertFalse(appPaths.main.getCompileClasspaths().contains(new File("util-1.0.jar")));
+    }
+
+    @Test
+    public void testSharedDependenciesDropRemovedModules() {
+        File rootDir = new File(ROOT_DIR, "removed");
+        IdeaModule app = module(":app", new File(rootDir, "app"));
+        IdeaModule removed = module(":removed", new File(rootDir, "removed"));
+
+        IdeaModuleIndex index = new IdeaModuleIndex(project(app, removed));
+        Map<String, List<String>> signatures = IdeaJavaModelUtils.getDependencySignatures(index.getModules());
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> cache
+                = IdeaJavaModelUtils.getSharedDependencies(rootDir, index, signatures);
+        fetchAll(cache, app, removed);
+        IdeaJavaModelUtils.storeSharedDependencies(rootDir, signatures, cache);
+
+        IdeaModuleIndex newIndex = new IdeaModuleIndex(project(app));
+        Map<String, List<String>> newSignatures = IdeaJavaModelUtils.getDependencySignatures(newIndex.getModules());
+
+        ConcurrentMap<String, IdeaJavaModelUtils.IdeaDependencyBuilder> reused
+                = IdeaJavaModelUtils.getSharedDependencies(rootDir, newIndex, newSignatures);
+        assertEquals(new HashSet<>(Arrays.asList(":app")), reused.keySet());
+    }
+}
@@ -0,0 +1,83 @@
+package org.netbeans.gradle.project.java.model.idea;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.gradle.tooling.model.idea.IdeaModule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.netbeans.gradle.project.java.model.idea.IdeaTestModels.*;
+
+public class IdeaModuleIndexTest {
+    private static final File ROOT_DIR = new File("idea-index-root");
+
+    @Test
+    public void testLookupModules() {
+        IdeaModule root = module(":", ROOT_DIR);
+        IdeaModule app = module(":app", new File(ROOT_DIR, "app"), root);
+        IdeaModule lib = module(":lib", new File(ROOT_DIR, "lib"), root);
+
+        IdeaModuleIndex index = new IdeaModuleIndex(project(root, app, lib));
+
+        assertEquals(Arrays.asList(root, app, lib), index.getModules());
+        assertSame(app, index.tryGetModule(":app"));
+        assertSame(lib, index.tryGetModuleByDir(new File(ROOT_DIR, "lib")));
+        assertNull(index.tryGetModule(":missing"));
+        assertNull(index.tryGetModuleByDir(new File(ROOT_DIR, "missing")));
+    }
+
+    @Test
+    public void testChildModules() {
+        IdeaModule root = module(":", ROOT_DIR);
+        IdeaModule app = module(":app", new File(ROOT_DIR, "app"), root);
+        IdeaModule lib = module(":lib", new File(ROOT_DIR, "lib"), root);
+        IdeaModule libApi = module(":lib:api", new File(ROOT_DIR, "lib/api"), lib);
+
+        IdeaModuleIndex index = new IdeaModuleIndex(project(root, app, lib, libApi));
+
+        assertEquals(Arrays.asList(app, lib), index.getChildModules(root));
+        assertEquals(Collections.singletonList(libApi), index.getChildModules(lib));
+        assertTrue(index.getChildModules(app).isEmpty());
+    }
+
+    @Test
+    public void testDependents() {
+        IdeaModule app = module(":app", new File(ROOT_DIR, "app"));
+        IdeaModule lib = module(":lib", new File(ROOT_DIR, "lib"));
+        IdeaModule util = module(":util", new File(ROOT_DIR, "util"));
+        IdeaModule other = module(":other", new File(ROOT_DIR, "other"));
+
+        setDependencies(app, moduleDependency("COMPILE", lib));
+        setDependencies(lib, moduleDependency("COMPILE", util));
+        setDependencies(other, moduleDependency("TEST", util));
+
+        IdeaModuleIndex index = new IdeaModuleIndex(project(app, lib, util, other));
+
+        assertEquals(new HashSet<>(Arrays.asList(":lib", ":other")), new HashSet<>(index.getDependents(":util")));
+        assertEquals(Collections.singletonList(":app"), index.getDependents(":lib"));
+        assertTrue(index.getDependents(":app").isEmpty());
+
+        assertEquals(new HashSet<>(Arrays.asList(":app", ":lib")),
+                new HashSet<>(index.getTransitiveDependents(Collections.singleton(":lib"))));
+        assertEquals(new HashSet<>(Arrays.asList(":app", ":lib", ":util", ":other")),
+                new HashSet<>(index.getTransitiveDependents(Collections.singleton(":util"))));
+    }
+
+    @Test
+    public void testTransitiveDependentsOfCycle() {
+        IdeaModule app = module(":app", new File(ROOT_DIR, "app"));
+        IdeaModule lib1 = module(":lib1", new File(ROOT_DIR, "lib1"));
+        IdeaModule lib2 = module(":lib2", new File(ROOT_DIR, "lib2"));
+
+        setDependencies(app, moduleDependency("COMPILE", lib1));
+        setDependencies(lib1, moduleDependency("COMPILE", lib2));
+        setDependencies(lib2, moduleDependency("COMPILE", lib1));
+
+        IdeaModuleIndex index = new IdeaModuleIndex(project(app, lib1, lib2));
+
+        assertEquals(new HashSet<>(Arrays.asList(":app", ":lib1", ":lib2")),
+                new HashSet<>(index.getTransitiveDependents(Collections.singleton(":lib2"))));
+    }
+}
@@ -0,0 +1,79 @@
+package org.netbeans.gradle.project.java.model.idea;
+
+import java.io.File;
+import java.util.Arrays;
+import org.gradle.tooling.model.DomainObjectSet;
+import org.gradle.tooling.model.GradleProject;
+import org.gradle.tooling.model.idea.IdeaContentRoot;
+import org.gradle.tooling.model.idea.IdeaDependency;
+import org.gradle.tooling.model.idea.IdeaDependencyScope;
+import org.gradle.tooling.model.idea.IdeaModule;
+import org.gradle.tooling.model.idea.IdeaModuleDependency;
+import org.gradle.tooling.model.idea.IdeaProject;
+import org.gradle.tooling.model.idea.IdeaSingleEntryLibraryDependency;
+import org.gradle.tooling.model.internal.ImmutableDomainObjectSet;
+
+import static org.mockito.Mockito.*;
+
+final class IdeaTestModels {
+    @SafeVarargs
+    public static <T> DomainObjectSet<T> domainSet(T... elements) {
+        return new ImmutableDomainObjectSet<>(Arrays.asList(elements));
+    }
+
+    public static IdeaModule module(String path, File moduleDir) {
+        return module(path, moduleDir, null);
+    }
+
+    public static IdeaModule module(String path, File moduleDir, IdeaModule parent) {
+        GradleProject gradleProject = mock(GradleProject.class);
+        when(gradleProject.getPath()).thenReturn(path);
+        if (parent != null) {
+            GradleProject parentProject = parent.getGradleProject();
+            doReturn(parentProject).when(gradleProject).getParent();
+        }
+
+        IdeaContentRoot contentRoot = mock(IdeaContentRoot.class);
+        when(contentRoot.getRootDirectory()).thenReturn(moduleDir);
+
+        IdeaModule module = mock(IdeaModule.class);
+        doReturn(gradleProject).when(module).getGradleProject();
+        doReturn(domainSet(contentRoot)).when(module).getContentRoots();
+        doReturn(domainSet()).when(module).getDependencies();
+        return module;
+    }
+
+    public static void setDependencies(IdeaModule module, IdeaDependency... dependencies) {
+        doReturn(domainSet(dependencies)).when(module).getDependencies();
+    }
+
+    private static IdeaDependencyScope scope(String scopeName) {
+        IdeaDependencyScope scope = mock(IdeaDependencyScope.class);
+        when(scope.getScope()).thenReturn(scopeName);
+        return scope;
+    }
+
+    public static IdeaDependency moduleDependency(String scopeName, IdeaModule dependencyModule) {
+        IdeaModuleDependency dependency = mock(IdeaModuleDependency.class);
+        doReturn(scope(scopeName)).when(dependency).getScope();
+        doReturn(dependencyModule).when(dependency).getDependencyModule();
+        return dependency;
+    }
+
+    public static IdeaDependency fileDependency(String scopeName, File file) {
+        IdeaSingleEntryLibraryDependency dependency = mock(IdeaSingleEntryLibraryDependency.class);
+        doReturn(scope(scopeName)).when(dependency).getScope();
+        when(dependency.getFile()).thenReturn(file);
+        return dependency;
+    }
+
+    public static IdeaProject project(IdeaModule... modules) {
+        IdeaProject project = mock(IdeaProject.class);
+        doReturn(domainSet(modules)).when(project).getModules();
+        return project;
+    }
+
+    private IdeaTestModels() {
+        throw new AssertionError();
+    }
+}
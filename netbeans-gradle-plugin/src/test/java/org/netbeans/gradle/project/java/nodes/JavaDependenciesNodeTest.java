@@ -0,0 +1,65 @@
+package org.netbeans.gradle.project.java.nodes;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JavaDependenciesNodeTest {
+    private static Set<File> files(String... names) {
+        Set<File> result = new HashSet<>();
+        for (String name: names) {
+            result.add(new File(name));
+        }
+        return result;
+    }
+
+    @Test
+    public void testSelectDependenciesOfGroup() {
+        Map<File, String> allDependencies = new HashMap<>();
+        allDependencies.put(new File("a.jar"), "project-a");
+        allDependencies.put(new File("b.jar"), "project-b");
+        allDependencies.put(new File("c.jar"), "project-c");
+
+        Map<File, String> selected = JavaDependenciesNode.selectDependencies(
+                files("a.jar", "c.jar", "other.jar"),
+                allDependencies);
+
+        Map<File, String> expected = new HashMap<>();
+        expected.put(new File("a.jar"), "project-a");
+        expected.put(new File("c.jar"), "project-c");
+        assertEquals(expected, selected);
+    }
+
+    @Test
+    public void testSelectDependenciesNoneTranslated() {
+        Map<File, String> selected = JavaDependenciesNode.selectDependencies(
+                files("a.jar"),
+                Collections.<File, String>emptyMap());
+        assertTrue(selected.isEmpty());
+    }
+
+    @Test
+    public void testSelectDependenciesDetectsNewTranslation() {
+        Set<File> groupFiles = files("a.jar", "b.jar");
+
+        Map<File, String> allDependencies = new HashMap<>();
+        allDependencies.put(new File("a.jar"), "project-a");
+        Map<File, String> before = JavaDependenciesNode.selectDependencies(groupFiles, allDependencies);
+
+        allDependencies.put(new File("unrelated.jar"), "project-u");
+        Map<File, String> unrelatedChange = JavaDependenciesNode.selectDependencies(groupFiles, allDependencies);
+        assertEquals("Changes of other groups must not refresh the group", before, unrelatedChange);
+
+        allDependencies.put(new File("b.jar"), "project-b");
+        Map<File, String> after = JavaDependenciesNode.selectDependencies(groupFiles, allDependencies);
+        assertNotEquals(before, after);
+        assertEquals(new HashSet<>(Arrays.asList(new File("a.jar"), new File("b.jar"))), after.keySet());
+    }
+}
@@ -0,0 +1,111 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.netbeans.api.java.project.JavaProjectConstants;
+import org.netbeans.api.project.SourceGroup;
+import org.netbeans.api.project.Sources;
+import org.netbeans.gradle.project.java.query.GradleProjectSources.GradleSourceGroup;
+import org.netbeans.gradle.project.util.ExcludeIncludeRules;
+import org.openide.filesystems.FileObject;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GradleProjectSourcesTest {
+    private static GradleSourceGroup group(FileObject root, String displayName) {
+        return new GradleSourceGroup(root, displayName, ExcludeIncludeRules.ALLOW_ALL);
+    }
+
+    private static Map<String, SourceGroup[]> groups(SourceGroup... javaGroups) {
+        Map<String, SourceGroup[]> result = new HashMap<>();
+        result.put(JavaProjectConstants.SOURCES_TYPE_JAVA, javaGroups);
+        return result;
+    }
+
+    private static SourceGroup[] javaGroups(Map<String, SourceGroup[]> groups) {
+        return groups.get(JavaProjectConstants.SOURCES_TYPE_JAVA);
+    }
+
+    @Test
+    public void testUnchangedGroupsAreReused() {
+        FileObject root1 = mock(FileObject.class);
+        FileObject root2 = mock(FileObject.class);
+
+        GradleSourceGroup prev1 = group(root1, "main");
+        GradleSourceGroup prev2 = group(root2, "test");
+        Map<String, SourceGroup[]> prevGroups = groups(prev1, prev2);
+
+        Map<String, SourceGroup[]> result = GradleProjectSources.reuseUnchangedGroups(
+                prevGroups,
+                groups(group(root1, "main"), group(root2, "test")));
+
+        assertArrayEquals(new SourceGroup[]{prev1, prev2}, javaGroups(result));
+        assertTrue(GradleProjectSources.isSameGroups(prevGroups, result));
+    }
+
+    @Test
+    public void testChangedGroupsAreReplaced() {
+        FileObject root1 = mock(FileObject.class);
+        FileObject root2 = mock(FileObject.class);
+        FileObject root3 = mock(FileObject.class);
+
+        GradleSourceGroup prev1 = group(root1, "main");
+        GradleSourceGroup prev2 = group(root2, "test");
+        Map<String, SourceGroup[]> prevGroups = groups(prev1, prev2);
+
+        GradleSourceGroup renamed = group(root2, "integTest");
+        GradleSourceGroup added = group(root3, "other");
+        Map<String, SourceGroup[]> result = GradleProjectSources.reuseUnchangedGroups(
+                prevGroups,
+                groups(group(root1, "main"), renamed, added));
+
+        assertArrayEquals(new SourceGroup[]{prev1, renamed, added}, javaGroups(result));
+        assertFalse(GradleProjectSources.isSameGroups(prevGroups, result));
+    }
+
+    @Test
+    public void testReuseDoesNotModifyNewGroups() {
+        FileObject root = mock(FileObject.class);
+
+        GradleSourceGroup prev = group(root, "main");
+        GradleSourceGroup found = group(root, "main");
+        SourceGroup[] newJavaGroups = new SourceGroup[]{found};
+
+        Map<String, SourceGroup[]> result = GradleProjectSources.reuseUnchangedGroups(
+                groups(prev),
+                groups(newJavaGroups));
+
+        assertSame(prev, javaGroups(result)[0]);
+        assertSame(found, newJavaGroups[0]);
+    }
+
+    @Test
+    public void testForeignGroupsAreNotReused() {
+        FileObject root = mock(FileObject.class);
+        SourceGroup foreign = mock(SourceGroup.class);
+        when(foreign.getRootFolder()).thenReturn(root);
+
+        GradleSourceGroup found = group(root, "main");
+        Map<String, SourceGroup[]> result = GradleProjectSources.reuseUnchangedGroups(
+                groups(foreign),
+                groups(found));
+
+        assertSame(found, javaGroups(result)[0]);
+    }
+
+    @Test
+    public void testIsSameGroupsComparesTypes() {
+        GradleSourceGroup group = group(mock(FileObject.class), "main");
+
+        Map<String, SourceGroup[]> groups1 = groups(group);
+        Map<String, SourceGroup[]> groups2 = new HashMap<>();
+        groups2.put(Sources.TYPE_GENERIC, new SourceGroup[]{group});
+
+        assertFalse(GradleProjectSources.isSameGroups(groups1, groups2));
+        assertFalse(GradleProjectSources.isSameGroups(groups1, Collections.<String, SourceGroup[]>emptyMap()));
+        assertTrue(GradleProjectSources.isSameGroups(groups1, groups(group)));
+    }
+}
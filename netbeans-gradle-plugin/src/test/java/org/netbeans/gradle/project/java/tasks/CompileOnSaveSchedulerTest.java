@@ -0,0 +1,238 @@
+package org.netbeans.gradle.project.java.tasks;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.netbeans.api.java.project.JavaProjectConstants;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.project.api.task.CommandCompleteListener;
+import org.netbeans.gradle.project.tasks.CommandCancelListener;
+import org.netbeans.spi.project.ActionProvider;
+import org.openide.filesystems.FileObject;
+import org.openide.util.Lookup;
+import org.openide.util.lookup.Lookups;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CompileOnSaveSchedulerTest {
+    private static final long DELAY_MS = 50;
+    private static final long WAIT_MS = 5000;
+    private static final long NO_RUN_WAIT_MS = 300;
+
+    private static final Path ROOT = Paths.get("root-dir");
+
+    private static FileObject file(String name) {
+        FileObject result = mock(FileObject.class);
+        when(result.getNameExt()).thenReturn(name);
+        return result;
+    }
+
+    private static Project project(ActionProvider actionProvider) {
+        Project result = mock(Project.class);
+        when(result.getLookup()).thenReturn(Lookups.fixed(actionProvider));
+        return result;
+    }
+
+    private static Invocation takeInvocation(TestActionProvider actionProvider) throws InterruptedException {
+        Invocation result = actionProvider.invocations.poll(WAIT_MS, TimeUnit.MILLISECONDS);
+        assertNotNull("Expected a compilation.", result);
+        return result;
+    }
+
+    private static void verifyNoInvocation(TestActionProvider actionProvider) throws InterruptedException {
+        Invocation result = actionProvider.invocations.poll(NO_RUN_WAIT_MS, TimeUnit.MILLISECONDS);
+        assertNull("Unexpected compilation.", result);
+    }
+
+    @Test(timeout = 30000)
+    public void testSavesAreDebounced() throws Exception {
+        CompileOnSaveScheduler scheduler = new CompileOnSaveScheduler(DELAY_MS);
+        TestActionProvider actionProvider = new TestActionProvider();
+        Project project = project(actionProvider);
+
+        FileObject file1 = file("A.java");
+        FileObject file2 = file("B.java");
+        scheduler.fileSaved(ROOT, project, file1);
+        scheduler.fileSaved(ROOT, project, file2);
+        scheduler.fileSaved(ROOT, project, file1);
+
+        Invocation invocation = takeInvocation(actionProvider);
+        assertEquals(Arrays.asList(file1, file2), invocation.getFiles());
+        assertEquals(JavaProjectConstants.COMMAND_DEBUG_FIX, invocation.command);
+
+        invocation.complete();
+        verifyNoInvocation(actionProvider);
+    }
+
+    @Test(timeout = 30000)
+    public void testRunsOfRootAreSerialized() throws Exception {
+        CompileOnSaveScheduler scheduler = new CompileOnSaveScheduler(DELAY_MS);
+        TestActionProvider actionProvider = new TestActionProvider();
+        Project project1 = project(actionProvider);
+        Project project2 = project(actionProvider);
+
+        scheduler.fileSaved(ROOT, project1, file("A.java"));
+        scheduler.fileSaved(ROOT, project2, file("B.java"));
+
+        Invocation invocation1 = takeInvocation(actionProvider);
+        verifyNoInvocation(actionProvider);
+
+        invocation1.complete();
+
+        Invocation invocation2 = takeInvocation(actionProvider);
+        assertFalse(invocation1.getFiles().equals(invocation2.getFiles()));
+        invocation2.complete();
+    }
+
+    @Test(timeout = 30000)
+    public void testSavesDuringRunAreMergedIntoNextRun() throws Exception {
+        CompileOnSaveScheduler scheduler = new CompileOnSaveScheduler(DELAY_MS);
+        TestActionProvider actionProvider = new TestActionProvider();
+        Project project = project(actionProvider);
+
+        FileObject file1 = file("A.java");
+        FileObject file2 = file("B.java");
+        FileObject file3 = file("C.java");
+
+        scheduler.fileSaved(ROOT, project, file1);
+        Invocation invocation1 = takeInvocation(actionProvider);
+
+        scheduler.fileSaved(ROOT, project, file2);
+        scheduler.fileSaved(ROOT, project, file3);
+        verifyNoInvocation(actionProvider);
+
+        invocation1.cancel();
+
+        Invocation invocation2 = takeInvocation(actionProvider);
+        assertEquals(Arrays.asList(file2, file3), invocation2.getFiles());
+        invocation2.complete();
+    }
+
+    @Test(timeout = 30000)
+    public void testRepeatedCompletionDoesNotReleaseNextRun() throws Exception {
+        CompileOnSaveScheduler scheduler = new CompileOnSaveScheduler(DELAY_MS);
+        TestActionProvider actionProvider = new TestActionProvider();
+        Project project1 = project(actionProvider);
+        Project project2 = project(actionProvider);
+        Project project3 = project(actionProvider);
+
+        scheduler.fileSaved(ROOT, project1, file("A.java"));
+        scheduler.fileSaved(ROOT, project2, file("B.java"));
+        scheduler.fileSaved(ROOT, project3, file("C.java"));
+
+        Invocation invocation1 = takeInvocation(actionProvider);
+        invocation1.complete();
+
+        takeInvocation(actionProvider);
+        invocation1.complete();
+        verifyNoInvocation(actionProvider);
+    }
+
+    @Test(timeout = 30000)
+    public void testDisabledActionReleasesRoot() throws Exception {
+        CompileOnSaveScheduler scheduler = new CompileOnSaveScheduler(DELAY_MS);
+        TestActionProvider disabledProvider = new TestActionProvider();
+        disabledProvider.enabled = false;
+        TestActionProvider actionProvider = new TestActionProvider();
+
+        scheduler.fileSaved(ROOT, project(disabledProvider), file("A.java"));
+        scheduler.fileSaved(ROOT, project(actionProvider), file("B.java"));
+
+        takeInvocation(actionProvider).complete();
+        assertTrue(disabledProvider.invocations.isEmpty());
+    }
+
+    @Test(timeout = 30000)
+    public void testFailingActionReleasesRoot() throws Exception {
+        CompileOnSaveScheduler scheduler = new CompileOnSaveScheduler(DELAY_MS);
+        TestActionProvider failingProvider = new TestActionProvider();
+        failingProvider.failure = new IllegalStateException("Test failure");
+        TestActionProvider actionProvider = new TestActionProvider();
+
+        scheduler.fileSaved(ROOT, project(failingProvider), file("A.java"));
+        scheduler.fileSaved(ROOT, project(actionProvider), file("B.java"));
+
+        takeInvocation(failingProvider);
+        takeInvocation(actionProvider).complete();
+    }
+
+    @Test(timeout = 30000)
+    public void testAbandonedRunTimesOut() throws Exception {
+        CompileOnSaveScheduler scheduler = new CompileOnSaveScheduler(DELAY_MS, 200);
+        TestActionProvider actionProvider = new TestActionProvider();
+
+        scheduler.fileSaved(ROOT, project(actionProvider), file("A.java"));
+        scheduler.fileSaved(ROOT, project(actionProvider), file("B.java"));
+
+        // The first run never reports completion.
+        takeInvocation(actionProvider);
+        takeInvocation(actionProvider).complete();
+    }
+
+    @Test(timeout = 30000)
+    public void testDifferentRootsAreIndependent() throws Exception {
+        CompileOnSaveScheduler scheduler = new CompileOnSaveScheduler(DELAY_MS);
+        TestActionProvider actionProvider = new TestActionProvider();
+
+        scheduler.fileSaved(ROOT, project(actionProvider), file("A.java"));
+        scheduler.fileSaved(Paths.get("other-root-dir"), project(actionProvider), file("B.java"));
+
+        Invocation invocation1 = takeInvocation(actionProvider);
+        Invocation invocation2 = takeInvocation(actionProvider);
+        invocation1.complete();
+        invocation2.complete();
+    }
+
+    private static final class Invocation {
+        private final String command;
+        private final Lookup context;
+
+        public Invocation(String command, Lookup context) {
+            this.command = command;
+            this.context = context;
+        }
+
+        public List<FileObject> getFiles() {
+            return new ArrayList<>(context.lookupAll(FileObject.class));
+        }
+
+        public void complete() {
+            context.lookup(CommandCompleteListener.class).onComplete(null);
+        }
+
+        public void cancel() {
+            ((CommandCancelListener)context.lookup(CommandCompleteListener.class)).onCancel();
+        }
+    }
+
+    private static final class TestActionProvider implements ActionProvider {
+        public final BlockingQueue<Invocation> invocations = new LinkedBlockingQueue<>();
+        public volatile boolean enabled = true;
+        public volatile RuntimeException failure = null;
+
+        @Override
+        public String[] getSupportedActions() {
+            return new String[]{JavaProjectConstants.COMMAND_DEBUG_FIX};
+        }
+
+        @Override
+        public void invokeAction(String command, Lookup context) {
+            invocations.add(new Invocation(command, context));
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public boolean isActionEnabled(String command, Lookup context) {
+            return enabled;
+        }
+    }
+}
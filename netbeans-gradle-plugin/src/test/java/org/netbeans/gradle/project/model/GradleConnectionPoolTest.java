@@ -0,0 +1,95 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.concurrent.TimeUnit;
+import org.gradle.tooling.ProjectConnection;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GradleConnectionPoolTest {
+    private static GradleConnectionPool.ConnectionFactory mockFactory() {
+        GradleConnectionPool.ConnectionFactory factory = mock(GradleConnectionPool.ConnectionFactory.class);
+        when(factory.connect()).thenAnswer(new Answer<ProjectConnection>() {
+            @Override
+            public ProjectConnection answer(InvocationOnMock invocation) {
+                return mock(ProjectConnection.class);
+            }
+        });
+        return factory;
+    }
+
+    @Test
+    public void testConnectionIsReusedForSameKey() {
+        GradleConnectionPool pool = new GradleConnectionPool(1, TimeUnit.HOURS);
+        GradleConnectionPool.ConnectionFactory factory = mockFactory();
+
+        GradleConnectionPool.PooledConnection connection1 = pool.connect("key", factory);
+        connection1.close();
+        GradleConnectionPool.PooledConnection connection2 = pool.connect("key", factory);
+        connection2.close();
+
+        assertSame(connection1.getConnection(), connection2.getConnection());
+        verify(factory, times(1)).connect();
+        verify(connection1.getConnection(), never()).close();
+
+        assertEquals(2, pool.getAcquireCount());
+        assertEquals(1, pool.getReuseCount());
+        assertEquals(0.5, pool.getReuseRate(), 0.0);
+    }
+
+    @Test
+    public void testDifferentKeysUseDifferentConnections() {
+        GradleConnectionPool pool = new GradleConnectionPool(1, TimeUnit.HOURS);
+        GradleConnectionPool.ConnectionFactory factory = mockFactory();
+
+        try (GradleConnectionPool.PooledConnection connection1 = pool.connect("key1", factory);
+                GradleConnectionPool.PooledConnection connection2 = pool.connect("key2", factory)) {
+            assertNotSame(connection1.getConnection(), connection2.getConnection());
+        }
+
+        verify(factory, times(2)).connect();
+        assertEquals(2, pool.getOpenConnectionCount());
+    }
+
+    @Test
+    public void testCloseIdleConnectionsSkipsUsedConnections() {
+        GradleConnectionPool pool = new GradleConnectionPool(1, TimeUnit.HOURS);
+        GradleConnectionPool.ConnectionFactory factory = mockFactory();
+
+        GradleConnectionPool.PooledConnection usedConnection = pool.connect("key1", factory);
+        GradleConnectionPool.PooledConnection idleConnection = pool.connect("key2", factory);
+        idleConnection.close();
+        idleConnection.close();
+
+        pool.closeIdleConnections();
+
+        verify(idleConnection.getConnection()).close();
+        verify(usedConnection.getConnection(), never()).close();
+        assertEquals(1, pool.getOpenConnectionCount());
+
+        usedConnection.close();
+        pool.closeIdleConnections();
+
+        verify(usedConnection.getConnection()).close();
+        assertEquals(0, pool.getOpenConnectionCount());
+    }
+
+    @Test
+    public void testFailedConnectIsNotPooled() {
+        GradleConnectionPool pool = new GradleConnectionPool(1, TimeUnit.HOURS);
+        GradleConnectionPool.ConnectionFactory factory = mock(GradleConnectionPool.ConnectionFactory.class);
+        when(factory.connect()).thenThrow(new IllegalStateException("test"));
+
+        try {
+            pool.connect("key", factory);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException ex) {
+            assertEquals("test", ex.getMessage());
+        }
+
+        assertEquals(0, pool.getOpenConnectionCount());
+    }
+}
@@ -0,0 +1,76 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GradleDaemonWarmerTest {
+    private Preferences preferences;
+
+    @Before
+    public void setUp() {
+        preferences = Preferences.userRoot().node("nb-gradle-test-" + UUID.randomUUID());
+    }
+
+    @After
+    public void tearDown() throws BackingStoreException {
+        preferences.removeNode();
+    }
+
+    private static GradleDaemonWarmer.WarmupRoot root(String dir) {
+        return new GradleDaemonWarmer.WarmupRoot(
+                new File(dir),
+                "default",
+                null,
+                null,
+                null,
+                Collections.<String>emptyList());
+    }
+
+    @Test
+    public void testSettingsAreStored() {
+        GradleDaemonWarmer.WarmupRoot root = new GradleDaemonWarmer.WarmupRoot(
+                new File("root"),
+                "version:4.0",
+                new File("user-home"),
+                60,
+                new File("jdk"),
+                Arrays.asList("-Xmx1g", "-Dtest=value"));
+
+        new GradleDaemonWarmer(preferences).recordUsage(root);
+
+        List<GradleDaemonWarmer.WarmupRoot> loaded = new GradleDaemonWarmer(preferences).getRecentRoots();
+        assertEquals(Arrays.asList(root), loaded);
+    }
+
+    @Test
+    public void testMostRecentRootIsFirst() {
+        new GradleDaemonWarmer(preferences).recordUsage(root("root1"));
+        new GradleDaemonWarmer(preferences).recordUsage(root("root2"));
+        new GradleDaemonWarmer(preferences).recordUsage(root("root1"));
+
+        List<GradleDaemonWarmer.WarmupRoot> loaded = new GradleDaemonWarmer(preferences).getRecentRoots();
+        assertEquals(Arrays.asList(root("root1"), root("root2")), loaded);
+    }
+
+    @Test
+    public void testNumberOfRootsIsLimited() {
+        for (int i = 0; i < 10; i++) {
+            new GradleDaemonWarmer(preferences).recordUsage(root("root" + i));
+        }
+
+        List<GradleDaemonWarmer.WarmupRoot> loaded = new GradleDaemonWarmer(preferences).getRecentRoots();
+        assertEquals(5, loaded.size());
+        assertEquals(root("root9"), loaded.get(0));
+        assertEquals(root("root5"), loaded.get(4));
+    }
+}
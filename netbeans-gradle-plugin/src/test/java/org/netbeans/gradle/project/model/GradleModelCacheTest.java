@@ -0,0 +1,50 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.Test;
+import org.netbeans.gradle.project.script.ScriptFileProvider;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class GradleModelCacheTest {
+    private static NbGradleModel model(Path projectDir) {
+        ScriptFileProvider scriptProvider = mock(ScriptFileProvider.class);
+        NbGradleMultiProjectDef projectDef = NbGradleMultiProjectDef.createEmpty(projectDir, scriptProvider);
+        return new NbGradleModel(projectDef, null);
+    }
+
+    @Test
+    public void testTryAddEntryOfIncludedBuild() {
+        Path projectDir = Paths.get("included-build-model").toAbsolutePath();
+        GradleModelCache cache = new GradleModelCache(10);
+        ProjectModelUpdatedListener listener = mock(ProjectModelUpdatedListener.class);
+        cache.addModelUpdateListener(listener);
+
+        NbGradleModel includedModel = model(projectDir);
+        assertTrue(cache.tryAddEntry(includedModel));
+        assertSame(includedModel, cache.tryGet(projectDir.toFile(), null));
+
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void testTryAddEntryKeepsModelOfOwnRoot() {
+        Path projectDir = Paths.get("included-build-loaded").toAbsolutePath();
+        File projectDirFile = projectDir.toFile();
+        GradleModelCache cache = new GradleModelCache(10);
+
+        NbGradleModel ownModel = model(projectDir);
+        cache.replaceEntry(ownModel);
+
+        ProjectModelUpdatedListener listener = mock(ProjectModelUpdatedListener.class);
+        cache.addModelUpdateListener(listener);
+
+        assertFalse(cache.tryAddEntry(model(projectDir)));
+        assertSame(ownModel, cache.tryGet(projectDirFile, null));
+
+        verifyZeroInteractions(listener);
+    }
+}
@@ -0,0 +1,72 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.netbeans.gradle.model.GradleTaskID;
+
+import static org.junit.Assert.*;
+
+public class GradleTaskIndexTest {
+    private static GradleTaskIndex createIndex(String... taskNames) {
+        List<GradleTaskID> result = new ArrayList<>(taskNames.length);
+        for (String taskName: taskNames) {
+            result.add(new GradleTaskID(taskName, ":Project:" + taskName));
+        }
+        return GradleTaskIndex.create(result);
+    }
+
+    private static List<String> toNames(List<GradleTaskID> tasks) {
+        List<String> result = new ArrayList<>(tasks.size());
+        for (GradleTaskID task: tasks) {
+            result.add(task.getName());
+        }
+        return result;
+    }
+
+    @Test
+    public void testContainsTask() {
+        GradleTaskIndex index = createIndex("jar", "build", "compileJava", "clean");
+
+        assertTrue(index.containsTask("build"));
+        assertTrue(index.containsTask("clean"));
+        assertFalse(index.containsTask("buil"));
+        assertFalse(index.containsTask("test"));
+    }
+
+    @Test
+    public void testFindByPrefix() {
+        GradleTaskIndex index = createIndex(
+                "compileTestJava", "build", "compileJava", "clean", "compileGroovy", "compile");
+
+        assertEquals(
+                Arrays.asList("compile", "compileGroovy", "compileJava", "compileTestJava"),
+                toNames(index.findByPrefix("compile")));
+        assertEquals(Arrays.asList("compileTestJava"), toNames(index.findByPrefix("compileT")));
+        assertEquals(Arrays.<String>asList(), toNames(index.findByPrefix("x")));
+    }
+
+    @Test
+    public void testFindByAbbreviation() {
+        GradleTaskIndex index = createIndex(
+                "compileTestJava", "build", "compileJava", "clean", "copyJars", "TASK_A");
+
+        assertEquals(Arrays.asList("compileJava", "copyJars"), toNames(index.findByAbbreviation("cJ")));
+        assertEquals(Arrays.asList("compileTestJava"), toNames(index.findByAbbreviation("cTJ")));
+        assertEquals(Arrays.asList("compileJava"), toNames(index.findByAbbreviation("comJa")));
+        assertEquals(Arrays.asList("TASK_A"), toNames(index.findByAbbreviation("t_a")));
+        assertEquals(Arrays.<String>asList(), toNames(index.findByAbbreviation("bJ")));
+    }
+
+    @Test
+    public void testHasSameTasks() {
+        GradleTaskIndex index1 = createIndex("build", "clean");
+        GradleTaskIndex index2 = createIndex("build", "clean");
+        GradleTaskIndex index3 = createIndex("clean", "build");
+
+        assertTrue(index1.hasSameTasks(index2));
+        assertFalse(index1.hasSameTasks(index3));
+        assertFalse(index1.hasSameTasks(null));
+    }
+}
@@ -0,0 +1,76 @@
+package org.netbeans.gradle.project.model;
+
+import java.io.File;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ModelLoadTimelineTest {
+    private static void recordSpan(ModelLoadTimeline.LoadTrace trace, String detail) {
+        trace.recordSpan("test-phase", null, detail, System.nanoTime(), 1000, 10);
+    }
+
+    @Test
+    public void testSpansInRecordOrder() {
+        ModelLoadTimeline timeline = new ModelLoadTimeline(10);
+        ModelLoadTimeline.LoadTrace trace = timeline.newLoadTrace(new File("project"));
+
+        recordSpan(trace, "span1");
+        recordSpan(trace, "span2");
+
+        List<ModelLoadTimeline.SpanRecord> spans = timeline.getSpans();
+        assertEquals(2, spans.size());
+        assertEquals("span1", spans.get(0).getDetail());
+        assertEquals("span2", spans.get(1).getDetail());
+        assertEquals(trace.getLoadId(), spans.get(0).getLoadId());
+    }
+
+    @Test
+    public void testOldestSpansAreOverwritten() {
+        ModelLoadTimeline timeline = new ModelLoadTimeline(3);
+        ModelLoadTimeline.LoadTrace trace = timeline.newLoadTrace(new File("project"));
+
+        for (int i = 0; i < 5; i++) {
+            recordSpan(trace, "span" + i);
+        }
+
+        List<ModelLoadTimeline.SpanRecord> spans = timeline.getSpans();
+        assertEquals(3, spans.size());
+        assertEquals("span2", spans.get(0).getDetail());
+        assertEquals("span3", spans.get(1).getDetail());
+        assertEquals("span4", spans.get(2).getDetail());
+
+        timeline.clear();
+        assertTrue(timeline.getSpans().isEmpty());
+    }
+
+    @Test
+    public void testSpanTimerRecordsOnce() {
+        ModelLoadTimeline timeline = new ModelLoadTimeline(10);
+        ModelLoadTimeline.LoadTrace trace = timeline.newLoadTrace(new File("project"));
+
+        ModelLoadTimeline.SpanTimer timer = trace.startSpan(ModelLoadTimeline.PHASE_CONNECT);
+        timer.end(42);
+        timer.end();
+
+        List<ModelLoadTimeline.SpanRecord> spans = timeline.getSpans();
+        assertEquals(1, spans.size());
+        assertEquals(ModelLoadTimeline.PHASE_CONNECT, spans.get(0).getPhase());
+        assertEquals(new File("project"), spans.get(0).getProjectDir());
+        assertEquals(42, spans.get(0).getByteCount());
+    }
+
+    @Test
+    public void testJsonEscapesStrings() {
+        ModelLoadTimeline timeline = new ModelLoadTimeline(10);
+        ModelLoadTimeline.LoadTrace trace = timeline.newLoadTrace(new File("project"));
+        recordSpan(trace, "a\"b\\c\n");
+
+        String json = timeline.toJson();
+        assertTrue(json, json.contains("\"detail\": \"a\\\"b\\\\c\\n\""));
+        assertTrue(json, json.contains("\"projectDir\": null"));
+        assertTrue(json, json.contains("\"durationNanos\": 1000"));
+        assertTrue(json, json.contains("\"byteCount\": 10"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import org.netbeans.gradle.project.util.NbFunction;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+public class ModelParsingPoolTest {
+    private static List<Integer> range(int count) {
+        List<Integer> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    @Test
+    public void testResultsAreInOrder() {
+        List<Integer> results = ModelParsingPool.mapInOrder(range(100), new NbFunction<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer arg) {
+                return arg * 2;
+            }
+        });
+
+        assertEquals(100, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i * 2, results.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testNestedCalls() {
+        List<List<Integer>> results = ModelParsingPool.mapInOrder(range(10), new NbFunction<Integer, List<Integer>>() {
+            @Override
+            public List<Integer> apply(final Integer arg) {
+                return ModelParsingPool.mapInOrder(range(2), new NbFunction<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer nestedArg) {
+                        return arg * 10 + nestedArg;
+                    }
+                });
+            }
+        });
+
+        assertEquals(Arrays.asList(0, 1), results.get(0));
+        assertEquals(Arrays.asList(90, 91), results.get(9));
+    }
+
+    @Test
+    public void testCallsFromOtherForkJoinPoolUseParserThreads() throws Exception {
+        assumeTrue(ModelParsingPool.getThreadCount() > 1);
+
+        ForkJoinPool otherPool = new ForkJoinPool(2);
+        try {
+            List<String> threadNames = otherPool.submit(new Callable<List<String>>() {
+                @Override
+                public List<String> call() {
+                    return ModelParsingPool.mapInOrder(range(10), new NbFunction<Integer, String>() {
+                        @Override
+                        public String apply(Integer arg) {
+                            return Thread.currentThread().getName();
+                        }
+                    });
+                }
+            }).get();
+
+            for (String threadName: threadNames) {
+                assertTrue(threadName, threadName.startsWith("Gradle-Model-Parser-"));
+            }
+        } finally {
+            otherPool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailureIsRethrown() {
+        ModelParsingPool.mapInOrder(range(10), new NbFunction<Integer, Integer>() {
+            @Override
+            public Integer apply(Integer arg) {
+                if (arg == 5) {
+                    throw new IllegalStateException("Test failure");
+                }
+                return arg;
+            }
+        });
+    }
+}
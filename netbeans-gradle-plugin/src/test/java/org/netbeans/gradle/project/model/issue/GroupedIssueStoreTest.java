@@ -0,0 +1,99 @@
+package org.netbeans.gradle.project.model.issue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.netbeans.gradle.project.util.NbFunction;
+
+import static org.junit.Assert.*;
+
+public class GroupedIssueStoreTest {
+    private static final NbFunction<Throwable, String> ROOT_CAUSE_KEY = new NbFunction<Throwable, String>() {
+        @Override
+        public String apply(Throwable arg) {
+            return GroupedIssueStore.getRootCauseKey(arg);
+        }
+    };
+
+    private static GroupedIssueStore<Throwable> createStore(int maxGroupCount, int maxIssuesPerGroup, long quietPeriodMs) {
+        return new GroupedIssueStore<>(
+                ROOT_CAUSE_KEY,
+                maxGroupCount,
+                maxIssuesPerGroup,
+                quietPeriodMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private static Throwable wrapped(String message, Throwable cause) {
+        return new RuntimeException(message, cause);
+    }
+
+    @Test
+    public void testRootCauseKeyIgnoresWrappers() {
+        String key1 = GroupedIssueStore.getRootCauseKey(wrapped("project1", new IOException("missing")));
+        String key2 = GroupedIssueStore.getRootCauseKey(wrapped("project2", wrapped("x", new IOException("missing"))));
+        String key3 = GroupedIssueStore.getRootCauseKey(wrapped("project1", new IOException("other")));
+        String key4 = GroupedIssueStore.getRootCauseKey(wrapped("project1", new IllegalStateException("missing")));
+
+        assertEquals(key1, key2);
+        assertFalse(key1.equals(key3));
+        assertFalse(key1.equals(key4));
+    }
+
+    @Test
+    public void testSameCauseIsGrouped() {
+        GroupedIssueStore<Throwable> store = createStore(10, 10, TimeUnit.HOURS.toMillis(1));
+
+        Throwable issue1 = wrapped("project1", new IOException("missing"));
+        Throwable issue2 = wrapped("project2", new IOException("missing"));
+        Throwable issue3 = wrapped("project3", new IOException("other"));
+
+        GroupedIssueStore.IssueGroup<Throwable> group1 = store.addAndGetNewGroup(issue1);
+        assertNotNull(group1);
+        assertNull(store.addAndGetNewGroup(issue2));
+        GroupedIssueStore.IssueGroup<Throwable> group2 = store.addAndGetNewGroup(issue3);
+        assertNotNull(group2);
+
+        assertEquals(Arrays.asList(issue1, issue2), group1.getIssues());
+        assertEquals(2, group1.getTotalCount());
+        assertEquals(Arrays.asList(issue3), group2.getIssues());
+        assertEquals(2, store.getGroupCount());
+    }
+
+    @Test
+    public void testIssuesPerGroupAreBounded() {
+        GroupedIssueStore<Throwable> store = createStore(10, 3, TimeUnit.HOURS.toMillis(1));
+
+        GroupedIssueStore.IssueGroup<Throwable> group = store.addAndGetNewGroup(new IOException("missing"));
+        for (int i = 0; i < 9; i++) {
+            assertNull(store.addAndGetNewGroup(wrapped("project" + i, new IOException("missing"))));
+        }
+
+        assertEquals(3, group.getIssues().size());
+        assertEquals(10, group.getTotalCount());
+    }
+
+    @Test
+    public void testGroupCountIsBounded() {
+        GroupedIssueStore<Throwable> store = createStore(5, 10, TimeUnit.HOURS.toMillis(1));
+
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(store.addAndGetNewGroup(new IOException("missing" + i)));
+        }
+        assertEquals(5, store.getGroupCount());
+
+        // The oldest groups were evicted, so they are reported again.
+        assertNotNull(store.addAndGetNewGroup(new IOException("missing0")));
+        assertNull(store.addAndGetNewGroup(new IOException("missing19")));
+    }
+
+    @Test
+    public void testGroupRestartsAfterQuietPeriod() {
+        GroupedIssueStore<Throwable> store = createStore(10, 10, 0);
+
+        assertNotNull(store.addAndGetNewGroup(new IOException("missing")));
+        assertNotNull(store.addAndGetNewGroup(new IOException("missing")));
+        assertEquals(1, store.getGroupCount());
+    }
+}
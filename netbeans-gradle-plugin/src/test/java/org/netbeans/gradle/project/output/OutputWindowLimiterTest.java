@@ -0,0 +1,169 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.netbeans.gradle.project.api.task.TaskOutputProcessor;
+import org.openide.windows.InputOutput;
+import org.openide.windows.OutputListener;
+import org.openide.windows.OutputWriter;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class OutputWindowLimiterTest {
+    private static final String NOTICE = "truncated";
+
+    private static SmartOutputHandler createHandler(
+            OutputWriter output,
+            TaskOutputProcessor visitor,
+            OutputWindowLimiter windowLimiter) {
+
+        return new SmartOutputHandler(
+                mock(InputOutput.class),
+                output,
+                Arrays.asList(visitor),
+                Collections.<SmartOutputHandler.Consumer>emptyList(),
+                windowLimiter);
+    }
+
+    private static void writeLines(Appendable dest, String prefix, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            dest.append(prefix).append(Integer.toString(i)).append('\n');
+        }
+    }
+
+    @Test
+    public void testWindowKeepsTheTail() throws IOException {
+        WindowOutput window = new WindowOutput();
+        LineCollector visitor = new LineCollector();
+
+        LineOutputWriter writer = new LineOutputWriter(
+                createHandler(window, visitor, new OutputWindowLimiter(20, NOTICE)));
+        writeLines(writer, "line", 25);
+        writer.flush();
+
+        assertEquals(25, visitor.lines.size());
+        assertEquals("line24", visitor.lines.get(24));
+
+        // 20 lines were displayed before clearing the window, then the
+        // notice, the kept 2 lines and the remaining 5 lines.
+        assertEquals(
+                Arrays.asList(NOTICE, "line18", "line19", "line20", "line21", "line22", "line23", "line24"),
+                window.getLines());
+    }
+
+    @Test
+    public void testSharedLimiterKeepsTheTailOfBothStreams() throws IOException {
+        WindowOutput window = new WindowOutput();
+        OutputWriter errWindow = window.createSibling();
+        OutputWindowLimiter windowLimiter = new OutputWindowLimiter(10, NOTICE);
+
+        LineCollector outVisitor = new LineCollector();
+        LineCollector errVisitor = new LineCollector();
+        SmartOutputHandler outHandler = createHandler(window, outVisitor, windowLimiter);
+        SmartOutputHandler errHandler = createHandler(errWindow, errVisitor, windowLimiter);
+
+        for (int i = 0; i < 6; i++) {
+            outHandler.writeLine("out" + i);
+            errHandler.writeLine("err" + i);
+        }
+
+        assertEquals(6, outVisitor.lines.size());
+        assertEquals(6, errVisitor.lines.size());
+        assertEquals(Arrays.asList(NOTICE, "err4", "out5", "err5"), window.getLines());
+    }
+
+    @Test
+    public void testRedisplayedLinesAreProcessedByTheConsumers() throws IOException {
+        WindowOutput window = new WindowOutput();
+        SmartOutputHandler.Consumer linkConsumer = new SmartOutputHandler.Consumer() {
+            @Override
+            public boolean tryConsumeLine(String line, InputOutput ioParent, OutputWriter output) {
+                if (!line.startsWith("link")) {
+                    return false;
+                }
+                output.println("[" + line + "]");
+                return true;
+            }
+        };
+
+        SmartOutputHandler handler = new SmartOutputHandler(
+                mock(InputOutput.class),
+                window,
+                Collections.<TaskOutputProcessor>emptyList(),
+                Arrays.asList(linkConsumer),
+                new OutputWindowLimiter(20, NOTICE));
+
+        for (int i = 0; i < 21; i++) {
+            handler.writeLine((i % 2 == 0 ? "link" : "line") + i);
+        }
+
+        assertEquals(Arrays.asList(NOTICE, "[link18]", "line19", "[link20]"), window.getLines());
+    }
+
+    @Test
+    public void testNoLimiterDisplaysEverything() throws IOException {
+        WindowOutput window = new WindowOutput();
+        LineOutputWriter writer = new LineOutputWriter(createHandler(window, new LineCollector(), null));
+        writeLines(writer, "line", 100);
+        writer.flush();
+
+        assertEquals(100, window.getLines().size());
+    }
+
+    private static final class LineCollector implements TaskOutputProcessor {
+        public final List<String> lines = new ArrayList<>();
+
+        @Override
+        public void processLine(String line) {
+            lines.add(line);
+        }
+    }
+
+    private static final class WindowOutput extends OutputWriter {
+        private final StringWriter content;
+
+        public WindowOutput() {
+            this(new StringWriter());
+        }
+
+        private WindowOutput(StringWriter content) {
+            super(content);
+            this.content = content;
+        }
+
+        public OutputWriter createSibling() {
+            return new WindowOutput(content);
+        }
+
+        public List<String> getLines() {
+            flush();
+            String text = content.toString();
+            if (text.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return Arrays.asList(text.split("\r?\n"));
+        }
+
+        @Override
+        public void println(String s, OutputListener l) throws IOException {
+            println(s);
+        }
+
+        @Override
+        public void println(String s, OutputListener l, boolean important) throws IOException {
+            println(s);
+        }
+
+        @Override
+        public void reset() throws IOException {
+            flush();
+            content.getBuffer().setLength(0);
+        }
+    }
+}
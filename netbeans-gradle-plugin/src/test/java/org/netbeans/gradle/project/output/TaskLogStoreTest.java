@@ -0,0 +1,186 @@
+package org.netbeans.gradle.project.output;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationSource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class TaskLogStoreTest {
+    @Rule
+    public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private TaskLogStore createLog(long segmentSize) throws IOException {
+        return new TaskLogStore(tmpFolder.newFolder().toPath(), segmentSize);
+    }
+
+    private static void appendNumberedLines(TaskLogStore log, int lineCount) throws IOException {
+        for (int i = 0; i < lineCount; i++) {
+            log.appendLine("line " + i);
+        }
+    }
+
+    private static List<Long> searchIndexes(TaskLogStore log, String text, long firstLine, int maxResultCount)
+            throws IOException {
+
+        List<Long> result = new ArrayList<>();
+        for (TaskLogStore.FoundLine line: log.search(text, firstLine, maxResultCount, Cancellation.UNCANCELABLE_TOKEN)) {
+            result.add(line.getLineIndex());
+        }
+        return result;
+    }
+
+    @Test
+    public void testReadLinesAcrossSegmentsAndCheckpoints() throws IOException {
+        try (TaskLogStore log = createLog(1000)) {
+            appendNumberedLines(log, 5000);
+
+            assertEquals(5000, log.getLineCount());
+            assertEquals(Arrays.asList("line 0", "line 1"), log.readLines(0, 2));
+            assertEquals(Arrays.asList("line 2047", "line 2048", "line 2049"), log.readLines(2047, 3));
+            assertEquals(Arrays.asList("line 4999"), log.readLines(4999, 10));
+            assertEquals(Collections.emptyList(), log.readLines(5000, 10));
+        }
+    }
+
+    @Test
+    public void testReadWhileWriting() throws IOException {
+        try (TaskLogStore log = createLog(1000)) {
+            log.appendLine("first");
+            assertEquals(Arrays.asList("first"), log.readLines(0, 10));
+
+            log.appendLine("second");
+            assertEquals(Arrays.asList("first", "second"), log.readLines(0, 10));
+        }
+    }
+
+    @Test
+    public void testNonAsciiAndLongLines() throws IOException {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            longLine.append("\u00e1rv\u00edzt\u0171r\u0151");
+        }
+
+        try (TaskLogStore log = createLog(100)) {
+            log.appendLine("short");
+            log.appendLine(longLine.toString());
+            log.appendLine("\u00e9");
+
+            assertEquals(Arrays.asList("short", longLine.toString(), "\u00e9"), log.readLines(0, 3));
+        }
+    }
+
+    @Test
+    public void testSearch() throws IOException {
+        try (TaskLogStore log = createLog(1000)) {
+            appendNumberedLines(log, 3000);
+
+            assertEquals(Arrays.asList(7L, 70L, 71L, 72L), searchIndexes(log, "line 7", 0, 4));
+            assertEquals(Arrays.asList(2999L), searchIndexes(log, "2999", 0, 10));
+            assertEquals(Arrays.asList(2999L), searchIndexes(log, "line", 2999, 10));
+            assertEquals(Collections.emptyList(), searchIndexes(log, "missing", 0, 10));
+        }
+    }
+
+    @Test
+    public void testSearchReturnsTheFoundLines() throws IOException {
+        try (TaskLogStore log = createLog(1000)) {
+            appendNumberedLines(log, 3000);
+
+            List<TaskLogStore.FoundLine> found = log.search("line 2", 2500, 2, Cancellation.UNCANCELABLE_TOKEN);
+            assertEquals(2, found.size());
+            assertEquals(2500L, found.get(0).getLineIndex());
+            assertEquals("line 2500", found.get(0).getLine());
+            assertEquals("line 2501", found.get(1).getLine());
+        }
+    }
+
+    @Test
+    public void testCanceledSearch() throws IOException {
+        try (TaskLogStore log = createLog(1000)) {
+            appendNumberedLines(log, 3000);
+
+            CancellationSource cancelSource = Cancellation.createCancellationSource();
+            cancelSource.getController().cancel();
+            assertEquals(Collections.emptyList(), log.search("line", 0, 10, cancelSource.getToken()));
+        }
+    }
+
+    @Test
+    public void testBufferedLinesAreFlushedForReaders() throws IOException {
+        try (TaskLogStore log = createLog(1000000)) {
+            appendNumberedLines(log, 10);
+
+            Path segmentFile = log.getLogDir().resolve("segment0.log");
+            assertEquals(0L, Files.size(segmentFile));
+
+            assertEquals(Arrays.asList("line 9"), log.readLines(9, 1));
+            assertEquals(log.getByteCount(), Files.size(segmentFile));
+        }
+    }
+
+    @Test
+    public void testCloseDeletesLog() throws IOException {
+        Path logDir;
+        try (TaskLogStore log = createLog(10)) {
+            logDir = log.getLogDir();
+            appendNumberedLines(log, 10);
+            log.finishWriting();
+            assertEquals(Arrays.asList("line 9"), log.readLines(9, 1));
+        }
+
+        assertFalse(Files.exists(logDir));
+    }
+
+    @Test
+    public void testRetainedLogsAreDeletedWithTheirSession() throws IOException {
+        String prevTmpDir = System.getProperty("java.io.tmpdir");
+        Path tmpDir = tmpFolder.newFolder().toPath();
+
+        System.setProperty("java.io.tmpdir", tmpDir.toString());
+        try {
+            TaskLogStore.closeRetainedLogs();
+
+            Path staleLog = tmpDir.resolve("nb-gradle-task-logs").resolve("session1").resolve("log1");
+            Files.createDirectories(staleLog);
+            Files.write(staleLog.resolve("segment0.log"), "stale\n".getBytes("UTF-8"));
+
+            TaskLogStore log = TaskLogStore.createRetained();
+            appendNumberedLines(log, 10);
+            assertFalse(Files.exists(staleLog.getParent()));
+
+            Path sessionDir = log.getLogDir().getParent();
+            assertTrue(Files.isDirectory(sessionDir));
+
+            TaskLogStore.closeRetainedLogs();
+            assertFalse(Files.exists(sessionDir));
+            assertEquals(Collections.emptyList(), log.readLines(0, 10));
+        } finally {
+            System.setProperty("java.io.tmpdir", prevTmpDir);
+        }
+    }
+
+    @Test
+    public void testLogWriterForwardsCompleteOutput() throws IOException {
+        try (TaskLogStore log = createLog(1000)) {
+            StringWriter forwarded = new StringWriter();
+            try (TaskLogWriter writer = new TaskLogWriter(log, forwarded)) {
+                writer.write("a\nb\n");
+                writer.write("c\nd");
+            }
+
+            assertEquals(Arrays.asList("a", "b", "c", "d"), log.readLines(0, 10));
+            assertEquals("a\nb\nc\nd", forwarded.toString());
+        }
+    }
+}
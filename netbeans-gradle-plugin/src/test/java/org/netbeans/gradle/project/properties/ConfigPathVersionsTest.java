@@ -0,0 +1,71 @@
+package org.netbeans.gradle.project.properties;
+
+import org.junit.Test;
+import org.netbeans.gradle.project.api.config.ConfigPath;
+
+import static org.junit.Assert.*;
+
+public class ConfigPathVersionsTest {
+    private static ConfigPath path(String... keys) {
+        return ConfigPath.fromKeys(keys);
+    }
+
+    @Test
+    public void testUnrelatedChangeKeepsVersion() {
+        ConfigPathVersions versions = new ConfigPathVersions();
+        long initial = versions.getVersion(path("a", "b"));
+
+        versions.recordChange(path("c"));
+        versions.recordChange(path("a", "c"));
+
+        assertEquals(initial, versions.getVersion(path("a", "b")));
+        assertEquals(initial, versions.getVersion(path("x")));
+    }
+
+    @Test
+    public void testChangeOfParent() {
+        ConfigPathVersions versions = new ConfigPathVersions();
+        long initial = versions.getVersion(path("a", "b", "c"));
+
+        long changeVersion = versions.recordChange(path("a"));
+
+        long newVersion = versions.getVersion(path("a", "b", "c"));
+        assertNotEquals(initial, newVersion);
+        assertEquals(changeVersion, newVersion);
+    }
+
+    @Test
+    public void testChangeOfDescendant() {
+        ConfigPathVersions versions = new ConfigPathVersions();
+        long initial = versions.getVersion(path("a"));
+
+        long changeVersion = versions.recordChange(path("a", "b", "c"));
+
+        assertEquals(changeVersion, versions.getVersion(path("a")));
+        assertEquals(changeVersion, versions.getVersion(ConfigPath.ROOT));
+        assertEquals(initial, versions.getVersion(path("a", "x")));
+    }
+
+    @Test
+    public void testRootChangeAffectsEverything() {
+        ConfigPathVersions versions = new ConfigPathVersions();
+        versions.recordChange(path("a", "b"));
+        long changeVersion = versions.recordChange(ConfigPath.ROOT);
+
+        assertEquals(changeVersion, versions.getVersion(path("a", "b")));
+        assertEquals(changeVersion, versions.getVersion(path("x", "y")));
+    }
+
+    @Test
+    public void testMultiplePaths() {
+        ConfigPathVersions versions = new ConfigPathVersions();
+        ConfigPath[] paths = {path("a"), path("b", "c")};
+        long initial = versions.getVersion(paths);
+
+        versions.recordChange(path("b", "d"));
+        assertEquals(initial, versions.getVersion(paths));
+
+        long changeVersion = versions.recordChange(path("b"));
+        assertEquals(changeVersion, versions.getVersion(paths));
+    }
+}
@@ -11,6 +11,7 @@ import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.OperationCanceledException;
 import org.jtrim.collections.Equality;
 import org.jtrim.concurrent.WaitableSignal;
+import org.jtrim.event.ListenerRef;
 import org.jtrim.property.MutableProperty;
 import org.jtrim.property.PropertyFactory;
 import org.jtrim.property.PropertySource;
@@ -280,6 +281,44 @@ public class ProfileSettingsTest {
         documentListener.waitForCall("Document change for multi node.");
     }
 
+    @Test
+    public void testListenerIndexAffectedListeners() {
+        ConfigPathListenerIndex<String> index = new ConfigPathListenerIndex<>();
+        index.registerListener(Collections.singleton(getConfigPath("a", "b")), "ab");
+        index.registerListener(Collections.singleton(getConfigPath("c")), "c");
+        index.registerListener(Arrays.asList(getConfigPath("a"), getConfigPath("a", "b", "c")), "multi");
+        index.registerListener(Collections.singleton(ConfigPath.ROOT), "root");
+
+        List<String> affected = index.getAffectedListeners(Collections.singleton(getConfigPath("a", "b")));
+        assertEquals(3, affected.size());
+        assertTrue(affected.containsAll(Arrays.asList("ab", "multi", "root")));
+
+        affected = index.getAffectedListeners(Collections.singleton(getConfigPath("c", "d")));
+        assertEquals(2, affected.size());
+        assertTrue(affected.containsAll(Arrays.asList("c", "root")));
+
+        affected = index.getAffectedListeners(Collections.singleton(ConfigPath.ROOT));
+        assertEquals(4, affected.size());
+    }
+
+    @Test
+    public void testListenerIndexUnregister() {
+        ConfigPathListenerIndex<String> index = new ConfigPathListenerIndex<>();
+        ListenerRef ref = index.registerListener(Collections.singleton(getConfigPath("a", "b")), "ab");
+
+        assertEquals(Collections.singletonList("ab"),
+                index.getAffectedListeners(Collections.singleton(getConfigPath("a"))));
+
+        ref.unregister();
+        assertFalse(ref.isRegistered());
+        assertTrue(index.getAffectedListeners(Collections.singleton(getConfigPath("a"))).isEmpty());
+
+        ref.unregister();
+        index.registerListener(Collections.singleton(getConfigPath("a", "b")), "ab2");
+        assertEquals(Collections.singletonList("ab2"),
+                index.getAffectedListeners(Collections.singleton(getConfigPath("a", "b"))));
+    }
+
     private static final class WaitableListener implements Runnable {
         private final WaitableSignal calledSignal;
 
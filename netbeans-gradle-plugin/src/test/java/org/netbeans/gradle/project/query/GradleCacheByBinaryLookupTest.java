@@ -0,0 +1,35 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import org.junit.Test;
+import org.netbeans.gradle.model.util.BasicFileUtils;
+
+import static org.junit.Assert.*;
+
+public class GradleCacheByBinaryLookupTest {
+    private static final File GRADLE_HOME = new File("gradle-home");
+
+    @Test
+    public void testModuleCoordinatesNewCacheFormat() {
+        File jar = BasicFileUtils.getSubPath(GRADLE_HOME,
+                "caches", "modules-2", "files-2.1", "org.mygroup", "myproj", "1.2", "43253", "myproj-1.2.jar");
+
+        assertEquals("org.mygroup:myproj:1.2", GradleCacheByBinaryLookup.tryGetModuleCoordinates(GRADLE_HOME, jar));
+    }
+
+    @Test
+    public void testModuleCoordinatesOldCacheFormat() {
+        File jar = BasicFileUtils.getSubPath(GRADLE_HOME,
+                "caches", "artifacts-24", "filestore", "org.mygroup", "myproj", "1.2", "jar", "43253", "myproj-1.2.jar");
+
+        assertEquals("org.mygroup:myproj:1.2", GradleCacheByBinaryLookup.tryGetModuleCoordinates(GRADLE_HOME, jar));
+    }
+
+    @Test
+    public void testModuleCoordinatesOutsideOfCache() {
+        File jar = BasicFileUtils.getSubPath(new File("other-dir"),
+                "org.mygroup", "myproj", "1.2", "43253", "myproj-1.2.jar");
+
+        assertNull(GradleCacheByBinaryLookup.tryGetModuleCoordinates(GRADLE_HOME, jar));
+    }
+}
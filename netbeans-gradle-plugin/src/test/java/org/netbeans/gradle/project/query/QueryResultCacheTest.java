@@ -0,0 +1,100 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QueryResultCacheTest {
+    private static void simulateCollected(QueryResultCache<?> cache, File root) {
+        WeakReference<?> resultRef = cache.tryGetResultRef(root);
+        assertNotNull("Expected a cached result for " + root, resultRef);
+
+        // This is what the garbage collector does with unreachable results.
+        resultRef.clear();
+        resultRef.enqueue();
+    }
+
+    @Test
+    public void testSameResultIsReturned() {
+        QueryResultCache<Object> cache = new QueryResultCache<>(2);
+        File root = new File("root");
+
+        Object result1 = new Object();
+        Object result2 = new Object();
+
+        assertNull(cache.tryGet(root));
+        assertSame(result1, cache.putIfAbsent(root, result1));
+        assertSame(result1, cache.putIfAbsent(root, result2));
+        assertSame(result1, cache.tryGet(root));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testRecentResultsAreStronglyReferenced() {
+        QueryResultCache<Object> cache = new QueryResultCache<>(2);
+
+        cache.putIfAbsent(new File("root1"), new Object());
+        cache.putIfAbsent(new File("root2"), new Object());
+        cache.putIfAbsent(new File("root3"), new Object());
+
+        assertEquals(2, cache.getStronglyReferencedCount());
+        assertEquals(3, cache.getSize());
+    }
+
+    @Test
+    public void testReferencedResultsAreKeptAfterRelease() {
+        QueryResultCache<Object> cache = new QueryResultCache<>(10);
+
+        Object[] results = new Object[10];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new Object();
+            cache.putIfAbsent(new File("root" + i), results[i]);
+        }
+
+        cache.releaseResults();
+        assertEquals(0, cache.getStronglyReferencedCount());
+
+        for (int i = 0; i < results.length; i++) {
+            assertSame(results[i], cache.tryGet(new File("root" + i)));
+        }
+        assertEquals(results.length, cache.getSize());
+    }
+
+    @Test
+    public void testCollectedResultsAreRemovedOnRelease() {
+        QueryResultCache<Object> cache = new QueryResultCache<>(10);
+        File collectedRoot = new File("collected");
+        File keptRoot = new File("kept");
+
+        Object keptResult = new Object();
+        cache.putIfAbsent(collectedRoot, new Object());
+        cache.putIfAbsent(keptRoot, keptResult);
+
+        simulateCollected(cache, collectedRoot);
+        cache.releaseResults();
+
+        assertNull(cache.tryGetResultRef(collectedRoot));
+        assertNull(cache.tryGet(collectedRoot));
+        assertSame(keptResult, cache.tryGet(keptRoot));
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void testCollectedResultIsReplaced() {
+        QueryResultCache<Object> cache = new QueryResultCache<>(0);
+        File root = new File("root");
+
+        cache.putIfAbsent(root, new Object());
+        simulateCollected(cache, root);
+        assertNull(cache.tryGet(root));
+
+        Object newResult = new Object();
+        assertSame(newResult, cache.putIfAbsent(root, newResult));
+        assertSame(newResult, cache.tryGet(root));
+        assertEquals(1, cache.getSize());
+    }
+}
@@ -0,0 +1,81 @@
+package org.netbeans.gradle.project.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+public class ClassOutputSnapshotTest {
+    @Rule
+    public final TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private static void writeClass(File outputDir, String className, String content) throws IOException {
+        Path classFile = outputDir.toPath().resolve(className.replace('.', '/') + ".class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, content.getBytes("UTF-8"));
+    }
+
+    private static List<String> changedNames(ClassOutputSnapshot after, ClassOutputSnapshot before) {
+        List<String> result = new ArrayList<>();
+        for (ClassOutputSnapshot.ChangedClass changedClass: after.getChangedClasses(before)) {
+            result.add(changedClass.getClassName());
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    @Test
+    public void testDetectsChangedAndAddedClasses() throws IOException {
+        File outputDir = tmpFolder.newFolder("classes");
+        Collection<File> outputDirs = Arrays.asList(outputDir);
+
+        writeClass(outputDir, "mypackage.Unchanged", "unchanged");
+        writeClass(outputDir, "mypackage.Changed", "original");
+
+        ClassOutputSnapshot before = ClassOutputSnapshot.take(outputDirs);
+
+        writeClass(outputDir, "mypackage.Changed", "modified content");
+        writeClass(outputDir, "mypackage.Changed$1", "new inner class");
+        writeClass(outputDir, "mypackage.Unchanged", "unchanged");
+
+        ClassOutputSnapshot after = ClassOutputSnapshot.take(outputDirs);
+
+        assertEquals(Arrays.asList("mypackage.Changed", "mypackage.Changed$1"), changedNames(after, before));
+    }
+
+    @Test
+    public void testNewOutputDirIsIgnored() throws IOException {
+        File outputDir = new File(tmpFolder.getRoot(), "not-yet-created");
+        Collection<File> outputDirs = Arrays.asList(outputDir);
+
+        ClassOutputSnapshot before = ClassOutputSnapshot.take(outputDirs);
+        writeClass(outputDir, "mypackage.NewClass", "new");
+        ClassOutputSnapshot after = ClassOutputSnapshot.take(outputDirs);
+
+        assertEquals(Collections.<String>emptyList(), changedNames(after, before));
+    }
+
+    @Test
+    public void testNonClassFilesAreIgnored() throws IOException {
+        File outputDir = tmpFolder.newFolder("classes");
+        Collection<File> outputDirs = Arrays.asList(outputDir);
+
+        writeClass(outputDir, "mypackage.MyClass", "class");
+        ClassOutputSnapshot before = ClassOutputSnapshot.take(outputDirs);
+
+        Files.write(outputDir.toPath().resolve("resource.txt"), new byte[]{1, 2, 3});
+        ClassOutputSnapshot after = ClassOutputSnapshot.take(outputDirs);
+
+        assertEquals(Collections.<String>emptyList(), changedNames(after, before));
+    }
+}
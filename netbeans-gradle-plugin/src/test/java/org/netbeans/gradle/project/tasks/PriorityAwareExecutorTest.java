@@ -6,6 +6,10 @@ import org.jtrim.cancel.CancellationToken;
 import org.jtrim.concurrent.CancelableTask;
 import org.jtrim.concurrent.CleanupTask;
 import org.jtrim.concurrent.ManualTaskExecutor;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.property.MutableProperty;
+import org.jtrim.property.PropertyFactory;
+import org.jtrim.property.PropertySource;
 import org.junit.Test;
 import org.mockito.InOrder;
 
@@ -105,4 +109,88 @@ public class PriorityAwareExecutorTest {
         inOrder.verify(task2).execute(any(CancellationToken.class));
         inOrder.verify(cleanup2).cleanup(eq(false), isNull(Throwable.class));
     }
+
+    @Test
+    public void testDynamicPriorityChange() throws Exception {
+        ManualTaskExecutor wrapped = new ManualTaskExecutor(false);
+        PriorityAwareExecutor executor = new PriorityAwareExecutor(wrapped);
+
+        CancelableTask task1 = mock(CancelableTask.class);
+        CancelableTask task2 = mock(CancelableTask.class);
+        CancelableTask task3 = mock(CancelableTask.class);
+
+        MutableProperty<Boolean> priority2 = PropertyFactory.memProperty(false);
+
+        executor.getLowPriorityExecutor().execute(Cancellation.UNCANCELABLE_TOKEN, task1, null);
+        executor.getExecutor(priority2).execute(Cancellation.UNCANCELABLE_TOKEN, task2, null);
+        executor.getLowPriorityExecutor().execute(Cancellation.UNCANCELABLE_TOKEN, task3, null);
+
+        priority2.setValue(true);
+
+        wrapped.executeCurrentlySubmitted();
+
+        InOrder inOrder = inOrder(task1, task2, task3);
+
+        inOrder.verify(task2).execute(any(CancellationToken.class));
+        inOrder.verify(task1).execute(any(CancellationToken.class));
+        inOrder.verify(task3).execute(any(CancellationToken.class));
+    }
+
+    @Test
+    public void testDynamicPriorityLowered() throws Exception {
+        ManualTaskExecutor wrapped = new ManualTaskExecutor(false);
+        PriorityAwareExecutor executor = new PriorityAwareExecutor(wrapped);
+
+        CancelableTask task1 = mock(CancelableTask.class);
+        CancelableTask task2 = mock(CancelableTask.class);
+
+        MutableProperty<Boolean> priority1 = PropertyFactory.memProperty(true);
+
+        executor.getExecutor(priority1).execute(Cancellation.UNCANCELABLE_TOKEN, task1, null);
+        executor.getLowPriorityExecutor().execute(Cancellation.UNCANCELABLE_TOKEN, task2, null);
+
+        priority1.setValue(false);
+
+        wrapped.executeCurrentlySubmitted();
+
+        InOrder inOrder = inOrder(task1, task2);
+
+        inOrder.verify(task2).execute(any(CancellationToken.class));
+        inOrder.verify(task1).execute(any(CancellationToken.class));
+    }
+
+    @Test
+    public void testPriorityChangedWhileSubmitting() throws Exception {
+        ManualTaskExecutor wrapped = new ManualTaskExecutor(false);
+        PriorityAwareExecutor executor = new PriorityAwareExecutor(wrapped);
+
+        CancelableTask task1 = mock(CancelableTask.class);
+        CancelableTask task2 = mock(CancelableTask.class);
+
+        final MutableProperty<Boolean> value = PropertyFactory.memProperty(false);
+        PropertySource<Boolean> priority2 = new PropertySource<Boolean>() {
+            @Override
+            public Boolean getValue() {
+                return value.getValue();
+            }
+
+            @Override
+            public ListenerRef addChangeListener(Runnable listener) {
+                // The priority is raised before the listener is registered,
+                // so the listener is not notified about the change.
+                value.setValue(true);
+                return value.addChangeListener(listener);
+            }
+        };
+
+        executor.getLowPriorityExecutor().execute(Cancellation.UNCANCELABLE_TOKEN, task1, null);
+        executor.getExecutor(priority2).execute(Cancellation.UNCANCELABLE_TOKEN, task2, null);
+
+        wrapped.executeCurrentlySubmitted();
+
+        InOrder inOrder = inOrder(task1, task2);
+
+        inOrder.verify(task2).execute(any(CancellationToken.class));
+        inOrder.verify(task1).execute(any(CancellationToken.class));
+    }
 }
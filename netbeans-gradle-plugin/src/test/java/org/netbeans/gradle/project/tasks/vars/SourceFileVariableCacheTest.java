@@ -0,0 +1,126 @@
+package org.netbeans.gradle.project.tasks.vars;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.netbeans.gradle.project.api.task.TaskVariable;
+import org.netbeans.gradle.project.tasks.vars.CachingVariableMap.VariableValue;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.openide.filesystems.FileObject;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SourceFileVariableCacheTest {
+    private static final TaskVariable VAR1 = new TaskVariable("var1");
+    private static final TaskVariable VAR2 = new TaskVariable("var2");
+
+    private static FileObject mockFile(String path, long lastModified) {
+        FileObject file = mock(FileObject.class);
+        when(file.getPath()).thenReturn(path);
+        when(file.lastModified()).thenReturn(new Date(lastModified));
+        return file;
+    }
+
+    private static final class CountingGetter implements NbSupplier<VariableValue> {
+        private final AtomicInteger callCount = new AtomicInteger(0);
+
+        @Override
+        public VariableValue get() {
+            return new VariableValue("value" + callCount.incrementAndGet());
+        }
+
+        public int getCallCount() {
+            return callCount.get();
+        }
+    }
+
+    @Test
+    public void testValueIsReused() {
+        SourceFileVariableCache cache = new SourceFileVariableCache();
+        List<FileObject> files = Collections.singletonList(mockFile("src/Test.java", 1000));
+        CountingGetter getter = new CountingGetter();
+
+        assertEquals("value1", cache.getValue(VAR1, files, getter).getValue());
+        assertEquals("value1", cache.getValue(VAR1, files, getter).getValue());
+        assertEquals(1, getter.getCallCount());
+    }
+
+    @Test
+    public void testValuesAreKeyedByVariableAndFiles() {
+        SourceFileVariableCache cache = new SourceFileVariableCache();
+        FileObject file1 = mockFile("src/Test1.java", 1000);
+        FileObject file2 = mockFile("src/Test2.java", 1000);
+        CountingGetter getter = new CountingGetter();
+
+        assertEquals("value1", cache.getValue(VAR1, Collections.singletonList(file1), getter).getValue());
+        assertEquals("value2", cache.getValue(VAR2, Collections.singletonList(file1), getter).getValue());
+        assertEquals("value3", cache.getValue(VAR1, Arrays.asList(file1, file2), getter).getValue());
+
+        assertEquals("value1", cache.getValue(VAR1, Collections.singletonList(file1), getter).getValue());
+        assertEquals("value2", cache.getValue(VAR2, Collections.singletonList(file1), getter).getValue());
+        assertEquals("value3", cache.getValue(VAR1, Arrays.asList(file1, file2), getter).getValue());
+        assertEquals(3, getter.getCallCount());
+    }
+
+    @Test
+    public void testRenamedFileIsRecalculated() {
+        SourceFileVariableCache cache = new SourceFileVariableCache();
+        FileObject file = mockFile("src/Test.java", 1000);
+        List<FileObject> files = Collections.singletonList(file);
+        CountingGetter getter = new CountingGetter();
+
+        cache.getValue(VAR1, files, getter);
+        when(file.getPath()).thenReturn("src/Renamed.java");
+
+        assertEquals("value2", cache.getValue(VAR1, files, getter).getValue());
+        assertEquals("value2", cache.getValue(VAR1, files, getter).getValue());
+    }
+
+    @Test
+    public void testModifiedFileIsRecalculated() {
+        SourceFileVariableCache cache = new SourceFileVariableCache();
+        FileObject file = mockFile("src/Test.java", 1000);
+        List<FileObject> files = Collections.singletonList(file);
+        CountingGetter getter = new CountingGetter();
+
+        cache.getValue(VAR1, files, getter);
+        when(file.lastModified()).thenReturn(new Date(2000));
+
+        assertEquals("value2", cache.getValue(VAR1, files, getter).getValue());
+    }
+
+    @Test
+    public void testInvalidateDropsValues() {
+        SourceFileVariableCache cache = new SourceFileVariableCache();
+        List<FileObject> files = Collections.singletonList(mockFile("src/Test.java", 1000));
+        CountingGetter getter = new CountingGetter();
+
+        cache.getValue(VAR1, files, getter);
+        cache.invalidate();
+
+        assertEquals("value2", cache.getValue(VAR1, files, getter).getValue());
+    }
+
+    @Test
+    public void testValueOfOutdatedModelIsNotCached() {
+        final SourceFileVariableCache cache = new SourceFileVariableCache();
+        List<FileObject> files = Collections.singletonList(mockFile("src/Test.java", 1000));
+
+        VariableValue outdated = cache.getValue(VAR1, files, new NbSupplier<VariableValue>() {
+            @Override
+            public VariableValue get() {
+                // The model changes while the value is being calculated.
+                cache.invalidate();
+                return new VariableValue("outdated");
+            }
+        });
+        assertEquals("outdated", outdated.getValue());
+
+        CountingGetter getter = new CountingGetter();
+        assertEquals("value1", cache.getValue(VAR1, files, getter).getValue());
+    }
+}
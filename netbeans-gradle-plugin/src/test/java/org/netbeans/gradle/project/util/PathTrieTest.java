@@ -0,0 +1,63 @@
+package org.netbeans.gradle.project.util;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PathTrieTest {
+    private static Path path(String first, String... more) {
+        return Paths.get(first, more).toAbsolutePath();
+    }
+
+    @Test
+    public void testLongestPrefix() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.put(path("root"), "root");
+        trie.put(path("root", "sub"), "sub");
+
+        assertEquals("root", trie.findLongestPrefixValue(path("root")));
+        assertEquals("root", trie.findLongestPrefixValue(path("root", "other", "file.txt")));
+        assertEquals("sub", trie.findLongestPrefixValue(path("root", "sub")));
+        assertEquals("sub", trie.findLongestPrefixValue(path("root", "sub", "dir", "file.txt")));
+        assertNull(trie.findLongestPrefixValue(path("unrelated")));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    public void testPrefixMustMatchWholeNames() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.put(path("root", "sub"), "sub");
+
+        assertNull(trie.findLongestPrefixValue(path("root", "sub2")));
+    }
+
+    @Test
+    public void testRemoveKeepsSubPaths() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.put(path("root"), "root");
+        trie.put(path("root", "sub"), "sub");
+
+        assertEquals("root", trie.remove(path("root")));
+        assertNull(trie.remove(path("root")));
+
+        assertNull(trie.get(path("root")));
+        assertNull(trie.findLongestPrefixValue(path("root", "file.txt")));
+        assertEquals("sub", trie.findLongestPrefixValue(path("root", "sub", "file.txt")));
+        assertEquals(1, trie.size());
+
+        assertEquals("sub", trie.remove(path("root", "sub")));
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    public void testPutReplaces() {
+        PathTrie<String> trie = new PathTrie<>();
+        assertNull(trie.put(path("root"), "value1"));
+        assertEquals("value1", trie.put(path("root"), "value2"));
+
+        assertEquals("value2", trie.get(path("root")));
+        assertEquals(1, trie.size());
+    }
+}